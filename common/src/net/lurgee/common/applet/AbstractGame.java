@@ -15,10 +15,13 @@ import net.lurgee.sgf.AbortException;
 import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.AbstractSearcher;
 import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.Player;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.ProofNumberSearcher;
+import net.lurgee.sgf.SearchSession;
 
 /**
  * Container for all game entities related to sgf and common elements of the game being implemented.
@@ -31,6 +34,7 @@ public abstract class AbstractGame {
 	private String statusMessage = "";
 	private AbstractSearcher searcher = null;
 	private MoveRanker moveRanker = null;
+	private SearchSession searchSession = null;
 	private AbstractBoard board = null;
 	private ArrayList<AbstractBoard> boardHistory = new ArrayList<AbstractBoard>();
 	private boolean busy = false;
@@ -64,6 +68,7 @@ public abstract class AbstractGame {
 
 	public void setSearcher(AbstractSearcher searcher) {
 		this.searcher = searcher;
+		searchSession = null;
 	}
 	
 	public MoveRanker getMoveRanker() {
@@ -72,6 +77,18 @@ public abstract class AbstractGame {
 
 	public void setMoveRanker(MoveRanker moveRanker) {
 		this.moveRanker = moveRanker;
+		searchSession = null;
+	}
+
+	/**
+	 * Get the session that carries search results over from one move to the next during a game, creating it the first
+	 * time it is needed.
+	 */
+	public SearchSession getSearchSession() {
+		if (searchSession == null) {
+			searchSession = new SearchSession(searcher, moveRanker);
+		}
+		return searchSession;
 	}
 	
 	public void abortSearches() {
@@ -120,13 +137,27 @@ public abstract class AbstractGame {
 			boardHistory.remove(board);
 		}
 		setStatusMessage("");
+		if (searchSession != null) {
+			searchSession.clear();
+		}
 		initialise();
 	}
 	
 	public Move determineMove() {
 		Move move;
+		AbstractSearcher searcher = getSearcher();
+		if (searcher instanceof ProofNumberSearcher) {
+			// proofs are given up after as many nodes as the searches for the level evaluate
+			if (settings.getSearchThresholds() != AbstractSearcher.NO_EVALUATION_THRESHOLD) {
+				((ProofNumberSearcher) searcher).setNodeLimit(settings.getSearchThresholds());
+			}
+			searcher = ((ProofNumberSearcher) searcher).getFallbackSearcher();
+		}
+		if (searcher instanceof IterativeSearcher) {
+			((IterativeSearcher) searcher).setTimeBudget(settings.getSearchTimeBudget());
+		}
 		try {
-			move = (Move) getSearcher().findMove(getBoard(), moveRanker, settings.getSearchLevel(), settings.getSearchThresholds()); 
+			move = getSearchSession().findMove(getBoard(), settings.getSearchLevel(), settings.getSearchThresholds());
 		} catch (AbortException ae) {
 			move = null;
 		} finally {
@@ -194,6 +225,9 @@ public abstract class AbstractGame {
 				if (wasGameOver) {
 					setStatusMessage("");
 				}
+				if (searchSession != null) {
+					searchSession.clear();
+				}
 				return;
 			}
 			i++;
@@ -8,6 +8,7 @@
 
 package net.lurgee.common.applet;
 
+import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.Player;
 
 /**
@@ -18,14 +19,30 @@ public class Settings {
 
 	private final int[] searchLevels;
 	private final int[] searchThresholds;
+	private final long[] searchTimeBudgets;
 	private int levelIndex;
 	private final Player[] players;
 	private int playerIndex;
 	private boolean soundOn = true;
 	
 	public Settings(int[] searchLevels, int[] searchThresholds, Player[] players, int playerIndex, int levelIndex) {
+		this(searchLevels, searchThresholds, null, players, playerIndex, levelIndex);
+	}
+	
+	/**
+	 * Constructor for settings where searches for each level are bounded by time budgets as well as, or instead of,
+	 * evaluation thresholds.
+	 * @param searchLevels The search depth for each level.
+	 * @param searchThresholds The evaluation threshold for each level.
+	 * @param searchTimeBudgets The time budget in milliseconds for each level, may be null for none.
+	 * @param players The players.
+	 * @param playerIndex The index of the human player, from 1, or 0 for the default.
+	 * @param levelIndex The index of the level, from 1, or 0 for the default.
+	 */
+	public Settings(int[] searchLevels, int[] searchThresholds, long[] searchTimeBudgets, Player[] players, int playerIndex, int levelIndex) {
 		this.searchLevels = searchLevels;
 		this.searchThresholds = searchThresholds;
+		this.searchTimeBudgets = searchTimeBudgets;
 		this.players = players;
 		if (playerIndex == 0) {
 			setPlayerIndex(1);
@@ -62,6 +79,14 @@ public class Settings {
 		}
 	}
 
+	public long getSearchTimeBudget() {
+		if (searchTimeBudgets == null || levelIndex > searchTimeBudgets.length) {
+			return IterativeSearcher.NO_TIME_BUDGET;
+		} else {
+			return searchTimeBudgets[levelIndex - 1];
+		}
+	}
+
 	public void setPlayerIndex(int playerIndex) {
 		if (playerIndex < 1 || playerIndex > players.length) {
 			throw new IllegalArgumentException("Invalid player");
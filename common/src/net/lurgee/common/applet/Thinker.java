@@ -8,10 +8,13 @@
 
 package net.lurgee.common.applet;
 
+import java.util.List;
+
 import net.lurgee.common.awt.MainWindow;
 import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
 import net.lurgee.sgf.SearchProgressListener;
 
 /**
@@ -96,7 +99,13 @@ public class Thinker implements Runnable, SearchProgressListener, Animatable {
 		bestMoveScore = game.getSearcher().getBestMoveScore();
 		if (move != null) {
 			System.out.print("Best move " + move + " (score " + bestMoveScore + "), ");
-			System.out.println("search depth " + depthReached + ", did " + usefulEvaluations + " useful evaluations (of " + evaluations + ")");
+			if (game.getSearcher() instanceof ProofNumberSearcher && ((ProofNumberSearcher) game.getSearcher()).getProvenMove() != null) {
+				ProofNumberSearcher proofNumberSearcher = (ProofNumberSearcher) game.getSearcher();
+				String result = (proofNumberSearcher.getResult() == ProofNumberSearcher.WON) ? "win" : "draw";
+				System.out.println("proven " + result + " after " + proofNumberSearcher.getNodeCount() + " nodes");
+			} else {
+				System.out.println("search depth " + depthReached + ", did " + usefulEvaluations + " useful evaluations (of " + evaluations + ")");
+			}
 		}
 		synchronized (this) {
 			if (game.lastSearchWasAborted()) {
@@ -116,7 +125,7 @@ public class Thinker implements Runnable, SearchProgressListener, Animatable {
 	public void onIterationStart(int iteration) {
 	}
 	
-	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached) {
+	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
 		if (! thresholdReached) {
 			usefulEvaluations = evaluations;
 			depthReached = depth;
@@ -133,6 +142,15 @@ public class Thinker implements Runnable, SearchProgressListener, Animatable {
 		evaluations++;
 	}
 
+	public void onAggregateNodeCount(int iteration, long nodeCount) {
+	}
+
+	public void onFailLow(int iteration, int alpha, int beta) {
+	}
+
+	public void onFailHigh(int iteration, int alpha, int beta) {
+	}
+
 	public void abortAnimating() {
 	}
 
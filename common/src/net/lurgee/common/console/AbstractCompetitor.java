@@ -43,6 +43,12 @@ public abstract class AbstractCompetitor {
 		return movesPlayed;
 	}
 
+	/**
+	 * Called before each game is started, so that anything kept from a previous game can be cleared.
+	 */
+	public void newGame() {
+	}
+
 	/**
 	 * Abstract method to determine a move for this competitor. Concrete subclasses must define this method.
 	 * @param board The current board.
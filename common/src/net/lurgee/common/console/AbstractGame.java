@@ -98,6 +98,7 @@ public abstract class AbstractGame {
 		board.setCurrentPlayer(startCompetitor.getPlayer());
 		for (AbstractCompetitor competitor : competitors) {
 			competitor.setMovesPlayed(0);
+			competitor.newGame();
 		}
 		while (!board.isGameOver()) {
 			if (!board.canMove()) {
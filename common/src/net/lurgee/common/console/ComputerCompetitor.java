@@ -21,10 +21,13 @@ import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.NegamaxSearcher;
 import net.lurgee.sgf.NegascoutSearcher;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
 import net.lurgee.sgf.SearchProgressListener;
+import net.lurgee.sgf.SearchSession;
 
 /**
- * Represents a computer competitor in the game. Moves are determined with a {@link Thinker}. 
+ * Represents a computer competitor in the game. Moves are determined with a {@link Thinker}, using a
+ * {@link SearchSession} that carries search results over from one move to the next during a game.
  * @author mpatric
  */
 public class ComputerCompetitor extends AbstractCompetitor {
@@ -33,6 +36,8 @@ public class ComputerCompetitor extends AbstractCompetitor {
 	private Evaluator evaluator = null;
 	private AbstractSearcher searcher = null;
 	private Library library;
+	private MoveRanker moveRanker = null;
+	private SearchSession searchSession = null;
 	private int lastMoveScore = 0;
 	
 	public ComputerCompetitor(GameContext gameContext, MoveRanker moveRanker, Evaluator evaluator, Library library, Player player, SearchProgressListener searchProgressListener, boolean useNegamax, boolean useKillerHeuristic, boolean useIterativeDeepening, boolean byeAllowed) {
@@ -57,7 +62,9 @@ public class ComputerCompetitor extends AbstractCompetitor {
 		} else {
 			searcher = singlePassSearcher;
 		}
-		thinker = new Thinker(searcher, moveRankerToUse);
+		this.moveRanker = moveRankerToUse;
+		searchSession = new SearchSession(searcher, moveRankerToUse);
+		thinker = new Thinker(searchSession);
 	}
 	
 	public Thinker getThinker() {
@@ -76,6 +83,10 @@ public class ComputerCompetitor extends AbstractCompetitor {
 		return library;		
 	}
 
+	public SearchSession getSearchSession() {
+		return searchSession;
+	}
+
 	public void setTreeDepth(int treeDepth) {
 		thinker.setDepth(treeDepth);
 	}
@@ -84,10 +95,52 @@ public class ComputerCompetitor extends AbstractCompetitor {
 		thinker.setEvaluationThreshold(evaluationThreshold);
 	}
 	
+	/**
+	 * Set a time budget for determining moves. Only used with iterative deepening.
+	 * @param timeBudget The time budget in milliseconds, or {@link IterativeSearcher#NO_TIME_BUDGET} for none.
+	 */
+	public void setTimeBudget(long timeBudget) {
+		AbstractSearcher searcherToUse = searcher;
+		if (searcherToUse instanceof ProofNumberSearcher) {
+			searcherToUse = ((ProofNumberSearcher) searcherToUse).getFallbackSearcher();
+		}
+		if (searcherToUse instanceof IterativeSearcher) {
+			((IterativeSearcher) searcherToUse).setTimeBudget(timeBudget);
+		}
+	}
+
+	/**
+	 * Prove the result of each position with a {@link ProofNumberSearcher} before searching it, so that a move proven
+	 * to win or draw is played without a search.
+	 * @param nodeLimit The number of nodes after which a proof is given up.
+	 * @param minMovesMade The number of moves that must have been made before positions are proven.
+	 */
+	public void useProofNumberSearch(long nodeLimit, int minMovesMade) {
+		ProofNumberSearcher proofNumberSearcher;
+		if (searcher instanceof ProofNumberSearcher) {
+			proofNumberSearcher = (ProofNumberSearcher) searcher;
+		} else {
+			proofNumberSearcher = new ProofNumberSearcher(gameContext, library, searcher);
+			searchSession = new SearchSession(proofNumberSearcher, moveRanker);
+			Thinker proofNumberThinker = new Thinker(searchSession);
+			proofNumberThinker.setDepth(thinker.getDepth());
+			proofNumberThinker.setEvaluationThreshold(thinker.getEvaluationThreshold());
+			searcher = proofNumberSearcher;
+			thinker = proofNumberThinker;
+		}
+		proofNumberSearcher.setNodeLimit(nodeLimit);
+		proofNumberSearcher.setMinMovesMade(minMovesMade);
+	}
+	
 	public int getLastMoveScore() {
 		return lastMoveScore;
 	}
 
+	@Override
+	public void newGame() {
+		searchSession.clear();
+	}
+
 	public Move determineMove(AbstractBoard board) {
 		while (true) {
 			Thread thinkerThread = new Thread(thinker);
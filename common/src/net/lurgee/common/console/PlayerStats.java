@@ -9,6 +9,7 @@
 package net.lurgee.common.console;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.Debug;
@@ -33,8 +34,6 @@ public class PlayerStats implements SearchProgressListener {
 	private int movesConsideredInCurrentIteration;
 	private int evaluationsDoneInCurrentIteration;
 	private ArrayList<Integer> completeSearchDepths = new ArrayList<Integer>();
-	private Node gameTree;
-	private Node currentNode;
 
 	public PlayerStats(int maxDepth) {
 		this.maxDepth = maxDepth;
@@ -136,11 +135,9 @@ public class PlayerStats implements SearchProgressListener {
 		Debug.output(0, "ITERATION " + iteration + " START");
 		movesConsideredInCurrentIteration = 0;
 		evaluationsDoneInCurrentIteration = 0;
-		gameTree = new Node(null, null, Integer.MIN_VALUE);
-		currentNode = gameTree;
 	}
 
-	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached) {
+	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
 		if (thresholdReached) {
 			Debug.output(0, "ITERATION " + iteration + " THRESHOLD REACHED");
 			movesConsidered -= movesConsideredInCurrentIteration;
@@ -151,32 +148,11 @@ public class PlayerStats implements SearchProgressListener {
 		} else {
 			if (iteration == maxDepth) {
 				completeSearchDepths.add(depth);
-				currentNode.move = move;
-				currentNode.score = score;
 			}
 			Debug.output(0, "ITERATION " + iteration + " END move = " + move + " score = " + score);
-			Node node = gameTree;
-			int nodeScore = -score;
-			// walk the tree
 			StringBuilder sb = new StringBuilder();
-			// find start branch
-			for (Node childNode : node.getChildNodes()) {
-				if (childNode.move == move) {
-					node = childNode;
-					break;
-				}
-			}
-			while (node != null) {
-				sb.append(node.getMove()).append("  ");
-				Node nextNode = null;
-				for (Node childNode : node.getChildNodes()) {
-					if (childNode.getScore() == -nodeScore) {
-						nextNode = childNode;
-						nodeScore = -nodeScore;
-						break;
-					}
-				}
-				node = nextNode;
+			for (Move pvMove : principalVariation) {
+				sb.append(pvMove).append("  ");
 			}
 			System.out.println("Best move score from: " + sb.toString());
 		}
@@ -187,9 +163,6 @@ public class PlayerStats implements SearchProgressListener {
 			int depth) {
 		Debug.output(depth + 1, "BRANCH move = " + move + " player = " + player
 				+ " depth = " + depth);
-		Node newNode = new Node(currentNode, move, Integer.MIN_VALUE);
-		currentNode.addChildNode(newNode);
-		currentNode = newNode;
 		if (move != null) {
 			movesConsidered++;
 			movesConsideredInCurrentIteration++;
@@ -199,12 +172,6 @@ public class PlayerStats implements SearchProgressListener {
 	public void onNodeEvaluation(Move move, int score, Player player, int depth) {
 		Debug.output(depth + 1, "NODE move = " + move + " score = " + score
 				+ " player = " + player + " depth = " + depth);
-		if (currentNode.move != move) {
-			throw new IllegalStateException(
-					"Move for node should match current node!");
-		}
-		currentNode.setScore(score);
-		currentNode = currentNode.getParent();
 	}
 
 	public void onLeafEvaluation(int score, Player player, int depth) {
@@ -214,44 +181,16 @@ public class PlayerStats implements SearchProgressListener {
 		evaluationsDoneInCurrentIteration++;
 	}
 
-	class Node {
-		Move move;
-		int score;
-		ArrayList<Node> childNodes = new ArrayList<Node>();
-		final Node parent;
-
-		public Node(Node parent, Move move, int score) {
-			this.parent = parent;
-			this.move = move;
-			this.score = score;
-		}
-
-		public Move getMove() {
-			return move;
-		}
-
-		public void setMove(Move move) {
-			this.move = move;
-		}
-
-		public int getScore() {
-			return score;
-		}
-
-		public void setScore(int score) {
-			this.score = score;
-		}
-
-		public Node getParent() {
-			return parent;
-		}
+	public void onAggregateNodeCount(int iteration, long nodeCount) {
+		// only the evaluations reported by the main thread are counted, so the other threads' are not added here
+		Debug.output(0, "ITERATION " + iteration + " NODES " + nodeCount);
+	}
 
-		public ArrayList<Node> getChildNodes() {
-			return childNodes;
-		}
+	public void onFailLow(int iteration, int alpha, int beta) {
+		Debug.output(0, "ITERATION " + iteration + " FAIL LOW alpha = " + alpha + " beta = " + beta);
+	}
 
-		public void addChildNode(Node node) {
-			childNodes.add(node);
-		}
+	public void onFailHigh(int iteration, int alpha, int beta) {
+		Debug.output(0, "ITERATION " + iteration + " FAIL HIGH alpha = " + alpha + " beta = " + beta);
 	}
 }
@@ -15,6 +15,8 @@ import net.lurgee.sgf.AbstractSinglePassSearcher;
 import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.MoveRanker;
+import net.lurgee.sgf.ProofNumberSearcher;
+import net.lurgee.sgf.SearchSession;
 
 /**
  * Wraps a {@link AbstractSinglePassSearcher searcher} to provided threaded game searches.
@@ -24,6 +26,7 @@ public class Thinker implements Runnable {
 
 	private final AbstractSearcher searcher;
 	private final MoveRanker moveRanker;
+	private final SearchSession searchSession;
 	protected Move bestMove = null;
 	protected int bestMoveScore = 0;
 	protected AbstractBoard board = null;
@@ -33,6 +36,18 @@ public class Thinker implements Runnable {
 	public Thinker(AbstractSearcher searcher, MoveRanker moveRanker) {
 		this.searcher = searcher;
 		this.moveRanker = moveRanker;
+		this.searchSession = null;
+	}
+
+	/**
+	 * Constructor for a thinker that finds moves with a {@link SearchSession}, so that search results are carried over
+	 * from one move to the next.
+	 * @param searchSession The search session.
+	 */
+	public Thinker(SearchSession searchSession) {
+		this.searcher = searchSession.getSearcher();
+		this.moveRanker = null;
+		this.searchSession = searchSession;
 	}
 
 	public void setBoard(AbstractBoard board) {
@@ -55,25 +70,37 @@ public class Thinker implements Runnable {
 		return bestMoveScore;
 	}
 	
+	public long getEvaluationThreshold() {
+		return evaluationThreshold;
+	}
+	
 	public void setEvaluationThreshold(long evaluationThreshold) {
 		this.evaluationThreshold = evaluationThreshold;
 	}
 	public void run() {
 		
 		try {
-			if (searcher instanceof IterativeSearcher) {
-				bestMove = searcher.findMove(board, moveRanker, depth, evaluationThreshold);
-				bestMoveScore = searcher.getBestMoveScore();
+			long threshold = isIterative(searcher) ? evaluationThreshold : AbstractSearcher.NO_EVALUATION_THRESHOLD;
+			if (searchSession != null) {
+				bestMove = searchSession.findMove(board, depth, threshold);
 			} else {
-				bestMove = searcher.findMove(board, moveRanker, depth);
-				bestMoveScore = searcher.getBestMoveScore();
+				bestMove = searcher.findMove(board, moveRanker, depth, threshold);
 			}
+			bestMoveScore = searcher.getBestMoveScore();
 		} catch (AbortException ae) {
 			bestMove = null;
 			bestMoveScore = 0;
 		}
 	}
 
+	private boolean isIterative(AbstractSearcher searcher) {
+		if (searcher instanceof ProofNumberSearcher) {
+			// the evaluation threshold is passed on to the fallback searcher
+			return isIterative(((ProofNumberSearcher) searcher).getFallbackSearcher());
+		}
+		return searcher instanceof IterativeSearcher;
+	}
+
 	public synchronized void abort() {
 		searcher.abortSearch();
 	}
@@ -14,11 +14,15 @@ import java.util.Collections;
 import java.util.List;
 
 import net.lurgee.sgf.AbstractBoard;
+import net.lurgee.sgf.AbstractUndoableBoard;
+import net.lurgee.sgf.GameResultBoard;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.MoveList;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.Player;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.StagedMoveGenerationBoard;
+import net.lurgee.sgf.UndoRecord;
 
 /**
  * Connect-four board. It is is a 6x7 board; each square on the board may be empty, or may contain a red piece or a
@@ -27,7 +31,7 @@ import net.lurgee.sgf.Position;
  * Squares on the board are identified by x and y co-ordinates, which are one-based (so x in 1..7 and y in 1..6).
  * @author mpatric
  */
-public class Connect4Board extends AbstractBoard {
+public class Connect4Board extends AbstractUndoableBoard implements StagedMoveGenerationBoard, GameResultBoard {
 
 	private static final int TOTAL_POSSIBLE_WINNING_GROUPS = 69;
 	private static final int[][][] SQUARE_TO_WINNING_GROUP = {
@@ -191,6 +195,14 @@ public class Connect4Board extends AbstractBoard {
 		}
 	}
 
+	public boolean isStagedMoveGenerationSupported() {
+		return true;
+	}
+	
+	public boolean isValidMove(Move move) {
+		return isValidMove(((Connect4Move) move).getX());
+	}
+
 	public boolean isValidMove(int x) {
 		if (gameOver || getTop(x) >= Y_DIMENSION) {
 			return false;
@@ -296,6 +308,58 @@ public class Connect4Board extends AbstractBoard {
 		return 0;
 	}
 
+	@Override
+	public UndoRecord createUndoRecord() {
+		return new Connect4UndoRecord();
+	}
+
+	/**
+	 * Save the state of the board before a move. Only the winning groups that include the square the piece will drop
+	 * into can change, so only their statuses are saved.
+	 * @param move The move about to be made.
+	 * @param undoRecord The undo record to save the state to.
+	 */
+	@Override
+	protected void saveState(Move move, UndoRecord undoRecord) {
+		Connect4UndoRecord connect4UndoRecord = (Connect4UndoRecord) undoRecord;
+		int x = ((Connect4Move) move).getX();
+		int y = tops[x - 1] + 1;
+		if (y > Y_DIMENSION) {
+			// column is full, the move will not change the board
+			connect4UndoRecord.x = 0;
+			return;
+		}
+		connect4UndoRecord.x = x;
+		connect4UndoRecord.y = y;
+		connect4UndoRecord.winner = winner;
+		connect4UndoRecord.winningGroup = winningGroup;
+		int[] groups = SQUARE_TO_WINNING_GROUP[y - 1][x - 1];
+		for (int i = 0; i < groups.length; i++) {
+			connect4UndoRecord.groupStatuses[0][i] = unbrokenGroupsOfFourStatus[0][groups[i] - 1];
+			connect4UndoRecord.groupStatuses[1][i] = unbrokenGroupsOfFourStatus[1][groups[i] - 1];
+		}
+	}
+
+	@Override
+	protected void restoreState(UndoRecord undoRecord) {
+		Connect4UndoRecord connect4UndoRecord = (Connect4UndoRecord) undoRecord;
+		int x = connect4UndoRecord.x;
+		if (x == 0) {
+			return;
+		}
+		int y = connect4UndoRecord.y;
+		squares[y - 1] &= ~(3 << (2 * (x - 1))); // unset the bits
+		tops[x - 1] = y - 1;
+		piecesPlayed--;
+		winner = connect4UndoRecord.winner;
+		winningGroup = connect4UndoRecord.winningGroup;
+		int[] groups = SQUARE_TO_WINNING_GROUP[y - 1][x - 1];
+		for (int i = 0; i < groups.length; i++) {
+			unbrokenGroupsOfFourStatus[0][groups[i] - 1] = connect4UndoRecord.groupStatuses[0][i];
+			unbrokenGroupsOfFourStatus[1][groups[i] - 1] = connect4UndoRecord.groupStatuses[1][i];
+		}
+	}
+
 	@Override
 	public List<Move> getValidMoves(MoveRanker moveRanker, int depth) {
 		if (gameOver) {
@@ -318,6 +382,18 @@ public class Connect4Board extends AbstractBoard {
 	public int countMovesMade() {
 		return piecesPlayed;
 	}
+
+	/**
+	 * Get a hash of the position. Each row occupies 14 bits, so the squares are packed exactly into two longs before
+	 * being mixed with the colour of the player to move.
+	 * @return A hash of the position.
+	 */
+	@Override
+	public long getPositionHash() {
+		long hash = (currentPlayer == null) ? 0 : ((Connect4Player) currentPlayer).getColour();
+		hash = mixPositionHash(hash, squares[0] | ((long) squares[1] << 14) | ((long) squares[2] << 28));
+		return mixPositionHash(hash, squares[3] | ((long) squares[4] << 14) | ((long) squares[5] << 28));
+	}
 	
 	public Connect4Position[] getWinningGroup() {
 		if (winner != null) {
@@ -366,4 +442,19 @@ public class Connect4Board extends AbstractBoard {
 		if (!Arrays.equals(squares, other.squares)) return false;
 		return true;
 	}
+
+	/**
+	 * Undo record holding the square a piece was dropped into and the previous statuses of the winning groups that
+	 * include it.
+	 */
+	private static class Connect4UndoRecord extends UndoRecord {
+		
+		private static final int MAX_GROUPS_PER_SQUARE = 13;
+		
+		private int x = 0;
+		private int y = 0;
+		private Player winner = null;
+		private Connect4Position[] winningGroup = null;
+		private final int groupStatuses[][] = {new int[MAX_GROUPS_PER_SQUARE], new int[MAX_GROUPS_PER_SQUARE]};
+	}
 }
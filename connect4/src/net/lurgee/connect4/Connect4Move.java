@@ -29,6 +29,10 @@ public class Connect4Move implements Move {
 	public int getX() {
 		return x;
 	}
+	
+	public int getId() {
+		return x - 1;
+	}
 
 	@Override
 	public String toString() {
@@ -40,4 +40,12 @@ public class Connect4MoveFactory implements MoveFactory {
 		}
 		return createMove(x);
 	}
+
+	public Connect4Move createMoveFromId(int id) {
+		return moves[id];
+	}
+
+	public int getMoveIdCount() {
+		return Connect4Board.X_DIMENSION;
+	}
 }
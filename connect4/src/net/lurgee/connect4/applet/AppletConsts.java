@@ -76,6 +76,7 @@ public class AppletConsts {
 	
 	/* Search stuff */
 	public static final int KILLER_MOVES_PER_LEVEL = 4;
+	public static final int PROOF_NUMBER_MIN_MOVES_MADE = 12;
 	
 	/* Players */
 	public static final Player[] PLAYERS = {Connect4Player.getInstance(Colour.RED), Connect4Player.getInstance(Colour.YELLOW)};
@@ -22,6 +22,7 @@ import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.KillerHeuristicMoveRanker;
 import net.lurgee.sgf.NegascoutSearcher;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
 
 /**
  * Container for all game-related entities related to sgf and the connect-four implementation classes.
@@ -49,8 +50,11 @@ public class Connect4Game extends AbstractGame {
 		Evaluator evaluator = new Connect4Evaluator();
 		Connect4Library library = new Connect4Library((GameContext) gameContext);
 		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, library, evaluator, false);
+		negascoutSearcher.setSearchInPlace(true);
 		IterativeSearcher iterativeSearcher = new IterativeSearcher(negascoutSearcher, library);
-		setSearcher(iterativeSearcher);
+		ProofNumberSearcher proofNumberSearcher = new ProofNumberSearcher(gameContext, library, iterativeSearcher);
+		proofNumberSearcher.setMinMovesMade(AppletConsts.PROOF_NUMBER_MIN_MOVES_MADE);
+		setSearcher(proofNumberSearcher);
 		Connect4MoveRanker connect4MoveRanker = new Connect4MoveRanker();
 		KillerHeuristicMoveRanker killerHeuristicMoveRanker = new KillerHeuristicMoveRanker(connect4MoveRanker, AppletConsts.KILLER_MOVES_PER_LEVEL);
 		setMoveRanker(killerHeuristicMoveRanker);
@@ -24,10 +24,12 @@ import net.lurgee.connect4.Connect4Player;
 import net.lurgee.sgf.AbstractSearcher;
 import net.lurgee.sgf.Evaluator;
 import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.Library;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.ObjectPool;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
 import net.lurgee.sgf.SearchProgressListener;
 
 /**
@@ -39,6 +41,8 @@ public class Connect4Game extends AbstractGame {
 	private static final Connect4Player RED_PLAYER = Connect4Player.getInstance(Colour.RED);
 	private static final Connect4Player YELLOW_PLAYER = Connect4Player.getInstance(Colour.YELLOW);
 	private static final String NA = "n/a";
+	// by the middle of the game, many positions can be proven
+	private static final int PROOF_NUMBER_MIN_MOVES_MADE = 12;
 	
 	/** Game stats for the games played. */
 	private GameStats gameStats = new GameStats();
@@ -188,13 +192,23 @@ public class Connect4Game extends AbstractGame {
 			list.add("No");
 			boolean useIterativeDeepening = (input.selectFromList("Iterative deeping on search", list, 1) == 1);
 			long evaluationThreshold = 0;
+			long timeBudget = 0;
 			if (useIterativeDeepening) {
 				evaluationThreshold = input.enterInteger("Iterative deepening evaluation threshold [" + AbstractSearcher.NO_EVALUATION_THRESHOLD + " = none] (" + AbstractSearcher.NO_EVALUATION_THRESHOLD + ")", AbstractSearcher.NO_EVALUATION_THRESHOLD, 0, 10000000);
+				timeBudget = input.enterInteger("Iterative deepening time budget in milliseconds [" + IterativeSearcher.NO_TIME_BUDGET + " = none] (" + IterativeSearcher.NO_TIME_BUDGET + ")", IterativeSearcher.NO_TIME_BUDGET, 0, 3600000);
 			}
 			list.clear();
 			list.add("Standard (default)");
 			list.add("Alternative");
 			boolean useAlternativeEvaluator = (input.selectFromList("Evaluator to use", list, 1) != 1);
+			list.clear();
+			list.add("No (default)");
+			list.add("Yes");
+			boolean useProofNumberSearch = (input.selectFromList("Prove results with proof-number search", list, 1) != 1);
+			long proofNumberNodeLimit = 0;
+			if (useProofNumberSearch) {
+				proofNumberNodeLimit = input.enterInteger("Proof-number search node limit (" + ProofNumberSearcher.DEFAULT_NODE_LIMIT + ")", ProofNumberSearcher.DEFAULT_NODE_LIMIT, 1, 100000000);
+			}
 			// create competitor
 			Evaluator evaluator;
 			if (useAlternativeEvaluator) evaluator = new AlternativeEvaluator();
@@ -203,7 +217,11 @@ public class Connect4Game extends AbstractGame {
 			MoveRanker moveRanker = new Connect4MoveRanker();
 			competitor = new ComputerCompetitor(gameContext, moveRanker, evaluator, library, player, searchProgressListener, useNegamax, useKillerHeuristic, useIterativeDeepening, false);
 			((ComputerCompetitor) competitor).setEvaluationThreshold(evaluationThreshold);
+			((ComputerCompetitor) competitor).setTimeBudget(timeBudget);
 			((ComputerCompetitor) competitor).setTreeDepth(searchDepth);
+			if (useProofNumberSearch) {
+				((ComputerCompetitor) competitor).useProofNumberSearch(proofNumberNodeLimit, PROOF_NUMBER_MIN_MOVES_MADE);
+			}
 		} else {
 			competitor = new Connect4HumanCompetitor(gameContext, player);
 		}
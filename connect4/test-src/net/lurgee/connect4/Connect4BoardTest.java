@@ -19,6 +19,7 @@ import net.lurgee.sgf.Move;
 import net.lurgee.sgf.ObjectPool;
 import net.lurgee.sgf.Player;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.UndoRecord;
 
 /**
  * Unit tests for {@link net.lurgee.connect4.Connect4Board}.
@@ -318,6 +319,47 @@ public class Connect4BoardTest extends TestCase {
 		assertSame(winningGroup, board2.getWinningGroup());
 	}
 	
+	public void testShouldGiveSamePositionHashForSamePositionReachedByDifferentMoveOrders() throws Exception {
+		Connect4Board board2 = (Connect4Board) gameContext.checkOutBoard();
+		board.initialise();
+		board2.initialise();
+		board.playMove(connect4MoveFactory.createMove(1), null, false);
+		board.playMove(connect4MoveFactory.createMove(2), null, false);
+		board.playMove(connect4MoveFactory.createMove(3), null, false);
+		board2.playMove(connect4MoveFactory.createMove(3), null, false);
+		board2.playMove(connect4MoveFactory.createMove(2), null, false);
+		assertFalse(board.getPositionHash() == board2.getPositionHash());
+		board2.playMove(connect4MoveFactory.createMove(1), null, false);
+		assertEquals(board.getPositionHash(), board2.getPositionHash());
+		board2.setCurrentPlayer(Connect4Player.getInstance(Colour.RED));
+		assertFalse(board.getPositionHash() == board2.getPositionHash());
+		gameContext.checkInBoard(board2);
+	}
+	
+	public void testShouldRestoreBoardWhenUnmakingMoves() throws Exception {
+		board.initialise();
+		Connect4Board[] boardsBefore = new Connect4Board[42];
+		UndoRecord[] undoRecords = new UndoRecord[42];
+		int movesMade = 0;
+		while (movesMade < 42 && !board.isGameOver() && board.canMove()) {
+			List<Move> moves = board.getValidMoves(null, 1);
+			boardsBefore[movesMade] = (Connect4Board) gameContext.checkOutBoard();
+			boardsBefore[movesMade].copy(board);
+			undoRecords[movesMade] = board.createUndoRecord();
+			board.playMove(moves.get((movesMade * 7) % moves.size()), undoRecords[movesMade]);
+			movesMade++;
+		}
+		assertTrue(movesMade > 1);
+		for (int i = movesMade - 1; i >= 0; i--) {
+			board.unmakeMove(undoRecords[i]);
+			assertEquals(boardsBefore[i], board);
+			assertEquals(boardsBefore[i].toString(), board.toString());
+			assertEquals(boardsBefore[i].getPositionHash(), board.getPositionHash());
+			assertEquals(boardsBefore[i].getValidMoves(null, 1), board.getValidMoves(null, 1));
+			gameContext.checkInBoard(boardsBefore[i]);
+		}
+	}
+	
 	private void assertUnbrokenGroupOfFourCountsAreCorrect(Connect4Board board, Connect4Player player, int ones, int twos, int threes, int fours) {
 		int colour = player.getColour();
 		int boardOnes = board.countUnbrokenGroupsOfFour(colour, 1);
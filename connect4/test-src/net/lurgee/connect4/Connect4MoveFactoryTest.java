@@ -30,6 +30,15 @@ public class Connect4MoveFactoryTest extends TestCase {
 		assertSame(move, move2);
 	}
 	
+	public void testShouldGetMoveFromId() throws Exception {
+		assertEquals(Connect4Board.X_DIMENSION, connect4MoveFactory.getMoveIdCount());
+		for (int x = 1; x <= Connect4Board.X_DIMENSION; x++) {
+			Connect4Move move = connect4MoveFactory.createMove(x);
+			assertEquals(x - 1, move.getId());
+			assertSame(move, connect4MoveFactory.createMoveFromId(move.getId()));
+		}
+	}
+	
 	public void testShouldThrowExceptionWhenGettingMoveForInvalidString() throws Exception {
 		try {
 			connect4MoveFactory.createMoveFromString("invalid");
@@ -0,0 +1,104 @@
+/*
+ * @(#)ProofNumberSearchTest.java		2026/10/18
+ *
+ * Part of the connect4 common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.connect4;
+
+import junit.framework.TestCase;
+import net.lurgee.sgf.Debug;
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.MoveFactory;
+import net.lurgee.sgf.NegascoutSearcher;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
+import net.lurgee.sgf.TranspositionTable;
+
+/**
+ * Unit tests for proving the results of connect-four boards with a proof-number search.
+ * @author mpatric
+ */
+public class ProofNumberSearchTest extends TestCase {
+
+	private static final String BOARD_WITH_WINNING_POSITION_FOR_RED =
+		"  1 2 3 4 5 6 7 \n" +
+		"6 - - - - - - - \n" +
+		"5 - - - - - - - \n" +
+		"4 - - X - - - - \n" +
+		"3 - - O O O X - \n" +
+		"2 - O X X X O - \n" +
+		"1 - X O O O X - ";
+
+	private static final String BOARD_WITH_FORCED_WIN_FOR_YELLOW =
+		"  1 2 3 4 5 6 7 \n" +
+		"6 - - - - - - - \n" +
+		"5 - - - - O - - \n" +
+		"4 - - - O X - - \n" +
+		"3 - - - X X - - \n" +
+		"2 O O - X X X - \n" +
+		"1 O O X X O O - ";
+
+	private static final String FULL_BOARD =
+		"  1 2 3 4 5 6 7 \n" +
+		"6 O O X O O X O \n" +
+		"5 X X O X X O X \n" +
+		"4 O O X O O X O \n" +
+		"3 X X O X X O X \n" +
+		"2 O O X O O X O \n" +
+		"1 X X O X X O X ";
+
+	private static final Connect4Player redPlayer = Connect4Player.getInstance(Colour.RED);
+	private static final Connect4Player yellowPlayer = Connect4Player.getInstance(Colour.YELLOW);
+
+	private GameContext gameContext;
+	private Connect4Board board;
+	private ProofNumberSearcher proofNumberSearcher;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] { redPlayer, yellowPlayer };
+		ObjectPool connect4BoardPool = new ObjectPool(Connect4Board.class);
+		MoveFactory connect4MoveFactory = new Connect4MoveFactory();
+		gameContext = new GameContext(players, connect4BoardPool, connect4MoveFactory, false);
+		board = (Connect4Board) gameContext.checkOutBoard();
+		proofNumberSearcher = new ProofNumberSearcher(gameContext, null, null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldProveWinWithWinningMove() throws Exception {
+		Debug.output("testShouldProveWinWithWinningMove");
+		board.fromString(BOARD_WITH_WINNING_POSITION_FOR_RED);
+		board.setCurrentPlayer(redPlayer);
+		assertEquals(ProofNumberSearcher.WON, proofNumberSearcher.prove(board));
+		assertEquals(2, ((Connect4Move) proofNumberSearcher.getProvenMove()).getX());
+	}
+
+	public void testShouldProveForcedWinWithFewerNodesThanSearchingToTheEnd() throws Exception {
+		Debug.output("testShouldProveForcedWinWithFewerNodesThanSearchingToTheEnd");
+		board.fromString(BOARD_WITH_FORCED_WIN_FOR_YELLOW);
+		board.setCurrentPlayer(redPlayer);
+		assertEquals(ProofNumberSearcher.LOST, proofNumberSearcher.prove(board));
+		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, new Connect4Evaluator(), false);
+		negascoutSearcher.setSearchInPlace(true);
+		negascoutSearcher.setTranspositionTable(new TranspositionTable());
+		negascoutSearcher.findMove(board, new Connect4MoveRanker(), board.countMaxMovesLeft());
+		Debug.output("proof-number search nodes " + proofNumberSearcher.getNodeCount() + ", negascout nodes " + negascoutSearcher.getSearchStatistics().getNodeCount());
+		assertTrue(proofNumberSearcher.getNodeCount() < negascoutSearcher.getSearchStatistics().getNodeCount());
+	}
+
+	public void testShouldProveDrawWhenBoardIsFull() throws Exception {
+		Debug.output("testShouldProveDrawWhenBoardIsFull");
+		board.fromString(FULL_BOARD);
+		board.setCurrentPlayer(redPlayer);
+		assertEquals(ProofNumberSearcher.DRAWN, proofNumberSearcher.prove(board));
+		assertNull(proofNumberSearcher.getProvenMove());
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * @(#)SearchComparisonTest.java		2026/10/18
+ *
+ * Part of the connect4 common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.connect4;
+
+import junit.framework.TestCase;
+import net.lurgee.sgf.Debug;
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.IterativeSearcher;
+import net.lurgee.sgf.KillerHeuristicMoveRanker;
+import net.lurgee.sgf.MTDfSearcher;
+import net.lurgee.sgf.NegascoutSearcher;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+import net.lurgee.sgf.TranspositionTable;
+
+/**
+ * Unit tests comparing {@link MTDfSearcher} with {@link NegascoutSearcher} on the same positions. The number of nodes
+ * each searches is output, so that they can be compared.
+ * @author mpatric
+ */
+public class SearchComparisonTest extends TestCase {
+
+	private static final int MAX_SEARCH_DEPTH = 8;
+
+	private static final String[] BOARDS = {
+		"  1 2 3 4 5 6 7 \n" +
+		"6 - - - - - - - \n" +
+		"5 - - - - - - - \n" +
+		"4 - - - - - - - \n" +
+		"3 - - - X - - - \n" +
+		"2 - - - O - - - \n" +
+		"1 - - O X X - - ",
+
+		"  1 2 3 4 5 6 7 \n" +
+		"6 - - - - - - - \n" +
+		"5 - - - - - - - \n" +
+		"4 - - X - - - - \n" +
+		"3 - O O O X - - \n" +
+		"2 O X O X O - - \n" +
+		"1 X X X O O - - ",
+
+		"  1 2 3 4 5 6 7 \n" +
+		"6 - - - - - - - \n" +
+		"5 - - - - O - - \n" +
+		"4 - - - O X - - \n" +
+		"3 - - - X X - - \n" +
+		"2 O O - X X X - \n" +
+		"1 O O X X O O - "
+	};
+
+	private static final Connect4Player redPlayer = Connect4Player.getInstance(Colour.RED);
+
+	private GameContext gameContext;
+	private NegascoutSearcher negascoutSearcher;
+	private MTDfSearcher mtdfSearcher;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {redPlayer, Connect4Player.getInstance(Colour.YELLOW)};
+		gameContext = new GameContext(players, new ObjectPool(Connect4Board.class), new Connect4MoveFactory(), false);
+		Connect4Evaluator evaluator = new Connect4Evaluator();
+		negascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, false);
+		negascoutSearcher.setTranspositionTable(new TranspositionTable());
+		mtdfSearcher = new MTDfSearcher(gameContext, null, evaluator, false);
+		mtdfSearcher.setTranspositionTable(new TranspositionTable());
+	}
+
+	public void testNegascoutAndMTDfShouldFindSameScore() throws Exception {
+		Debug.output("testNegascoutAndMTDfShouldFindSameScore");
+		IterativeSearcher iterativeNegascoutSearcher = new IterativeSearcher(negascoutSearcher, null);
+		IterativeSearcher iterativeMTDfSearcher = new IterativeSearcher(mtdfSearcher, null);
+		long negascoutNodeCount = 0;
+		long mtdfNodeCount = 0;
+		for (String boardLayout : BOARDS) {
+			Connect4Board board = (Connect4Board) gameContext.checkOutBoard();
+			board.fromString(boardLayout);
+			board.setCurrentPlayer(redPlayer);
+			iterativeNegascoutSearcher.findMove(board, new KillerHeuristicMoveRanker(new Connect4MoveRanker(), 2), MAX_SEARCH_DEPTH);
+			iterativeMTDfSearcher.findMove(board, new KillerHeuristicMoveRanker(new Connect4MoveRanker(), 2), MAX_SEARCH_DEPTH);
+			assertEquals("Scores don't match!", iterativeNegascoutSearcher.getBestMoveScore(), iterativeMTDfSearcher.getBestMoveScore());
+			negascoutNodeCount += negascoutSearcher.getSearchStatistics().getNodeCount();
+			mtdfNodeCount += mtdfSearcher.getSearchStatistics().getNodeCount();
+			gameContext.checkInBoard(board);
+		}
+		Debug.output("negascout nodes = " + negascoutNodeCount + ", MTD(f) nodes = " + mtdfNodeCount);
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * @(#)SearchSessionTest.java		2026/10/18
+ *
+ * Part of the connect4 common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.connect4;
+
+import java.util.List;
+
+import junit.framework.TestCase;
+import net.lurgee.sgf.Debug;
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.IterativeSearcher;
+import net.lurgee.sgf.KillerHeuristicMoveRanker;
+import net.lurgee.sgf.Move;
+import net.lurgee.sgf.MoveFactory;
+import net.lurgee.sgf.NegascoutSearcher;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
+import net.lurgee.sgf.SearchSession;
+
+/**
+ * Unit tests for carrying search results over from one move to the next in a game of connect-four with a
+ * {@link SearchSession}.
+ * @author mpatric
+ */
+public class SearchSessionTest extends TestCase {
+
+	private static final int SEARCH_DEPTH = 7;
+
+	private static final String BOARD_WITH_DOUBLE_THREAT_FOR_RED =
+		"  1 2 3 4 5 6 7 \n" +
+		"6 - - - - - - - \n" +
+		"5 - - - - - - - \n" +
+		"4 - - - - - - - \n" +
+		"3 - - - - - - - \n" +
+		"2 - - X X - - - \n" +
+		"1 - - O O - - - ";
+
+	private static final Connect4Player redPlayer = Connect4Player.getInstance(Colour.RED);
+	private static final Connect4Player yellowPlayer = Connect4Player.getInstance(Colour.YELLOW);
+
+	private GameContext gameContext;
+	private Connect4Board board;
+	private IterativeSearcher searcher;
+	private SearchSession searchSession;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] { redPlayer, yellowPlayer };
+		ObjectPool connect4BoardPool = new ObjectPool(Connect4Board.class);
+		MoveFactory connect4MoveFactory = new Connect4MoveFactory();
+		gameContext = new GameContext(players, connect4BoardPool, connect4MoveFactory, false);
+		board = (Connect4Board) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(redPlayer);
+		searcher = createSearcher();
+		searchSession = new SearchSession(searcher, new KillerHeuristicMoveRanker(new Connect4MoveRanker(), 3));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldGiveTranspositionTableToSearcher() throws Exception {
+		Debug.output("testShouldGiveTranspositionTableToSearcher");
+		assertNotNull(searchSession.getTranspositionTable());
+		assertSame(searchSession.getTranspositionTable(), searcher.getSinglePassSearcher().getTranspositionTable());
+		searchSession.findMove(board, SEARCH_DEPTH, 0);
+		assertTrue(searchSession.getTranspositionTable().countEntries() > 0);
+	}
+
+	public void testShouldExpectReplyFromPrincipalVariation() throws Exception {
+		Debug.output("testShouldExpectReplyFromPrincipalVariation");
+		Move move = searchSession.findMove(board, SEARCH_DEPTH, 0);
+		List<Move> principalVariation = searcher.getPrincipalVariation();
+		assertEquals(move, principalVariation.get(0));
+		assertEquals(principalVariation.get(1), searchSession.getExpectedReply());
+	}
+
+	public void testShouldResumeSearchWhenExpectedReplyIsPlayed() throws Exception {
+		Debug.output("testShouldResumeSearchWhenExpectedReplyIsPlayed");
+		Move move = searchSession.findMove(board, SEARCH_DEPTH, 0);
+		board.playMove(move, null, false);
+		board.playMove(searchSession.getExpectedReply(), null, false);
+		Move resumedMove = searchSession.findMove(board, SEARCH_DEPTH, 0);
+		assertEquals(1, searchSession.getResumedSearchCount());
+		assertEquals(SEARCH_DEPTH, searcher.getCompletedDepth());
+		// the score is the same as for a search that starts cold
+		IterativeSearcher coldSearcher = createSearcher();
+		Move coldMove = coldSearcher.findMove(board, new KillerHeuristicMoveRanker(new Connect4MoveRanker(), 3), SEARCH_DEPTH);
+		assertEquals(coldSearcher.getBestMoveScore(), searcher.getBestMoveScore());
+		assertEquals(coldMove, resumedMove);
+	}
+
+	public void testShouldNotResumeSearchWhenAnotherReplyIsPlayed() throws Exception {
+		Debug.output("testShouldNotResumeSearchWhenAnotherReplyIsPlayed");
+		Move move = searchSession.findMove(board, SEARCH_DEPTH, 0);
+		board.playMove(move, null, false);
+		Move expectedReply = searchSession.getExpectedReply();
+		for (Move reply : board.getValidMoves(null, 1)) {
+			if (!reply.equals(expectedReply)) {
+				board.playMove(reply, null, false);
+				break;
+			}
+		}
+		searchSession.findMove(board, SEARCH_DEPTH, 0);
+		assertEquals(0, searchSession.getResumedSearchCount());
+	}
+
+	public void testShouldForgetEverythingWhenCleared() throws Exception {
+		Debug.output("testShouldForgetEverythingWhenCleared");
+		Move move = searchSession.findMove(board, SEARCH_DEPTH, 0);
+		searchSession.clear();
+		assertNull(searchSession.getExpectedReply());
+		assertEquals(0, searchSession.getTranspositionTable().countEntries());
+		board.playMove(move, null, false);
+		board.playMove(searcher.getPrincipalVariation().get(1), null, false);
+		searchSession.findMove(board, SEARCH_DEPTH, 0);
+		assertEquals(0, searchSession.getResumedSearchCount());
+	}
+
+	public void testShouldNotResumeLaterSearchWhenMoveIsProven() throws Exception {
+		Debug.output("testShouldNotResumeLaterSearchWhenMoveIsProven");
+		board.fromString(BOARD_WITH_DOUBLE_THREAT_FOR_RED);
+		board.setCurrentPlayer(redPlayer);
+		ProofNumberSearcher proofNumberSearcher = new ProofNumberSearcher(gameContext, null, searcher);
+		// the first position is searched by the fallback searcher, the one it expects is proven
+		proofNumberSearcher.setMinMovesMade(board.countMovesMade() + 1);
+		SearchSession proofNumberSearchSession = new SearchSession(proofNumberSearcher, new Connect4MoveRanker());
+		Move move = proofNumberSearchSession.findMove(board, SEARCH_DEPTH, 0);
+		assertEquals(ProofNumberSearcher.UNKNOWN, proofNumberSearcher.getResult());
+		board.playMove(move, null, false);
+		board.playMove(proofNumberSearchSession.getExpectedReply(), null, false);
+		proofNumberSearchSession.findMove(board, SEARCH_DEPTH, 0);
+		assertEquals(ProofNumberSearcher.WON, proofNumberSearcher.getResult());
+		assertEquals(0, proofNumberSearchSession.getResumedSearchCount());
+		assertFalse(searcher.cancelResume());
+	}
+
+	private IterativeSearcher createSearcher() {
+		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, new Connect4Evaluator(), false);
+		negascoutSearcher.setSearchInPlace(true);
+		return new IterativeSearcher(negascoutSearcher, null);
+	}
+}
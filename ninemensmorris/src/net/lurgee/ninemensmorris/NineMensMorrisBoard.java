@@ -14,13 +14,17 @@ import java.util.List;
 import java.util.Set;
 
 import net.lurgee.sgf.AbstractBoard;
+import net.lurgee.sgf.AbstractUndoableBoard;
+import net.lurgee.sgf.GameResultBoard;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.MoveList;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.Player;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.StagedMoveGenerationBoard;
+import net.lurgee.sgf.UndoRecord;
 
-public class NineMensMorrisBoard extends AbstractBoard {
+public class NineMensMorrisBoard extends AbstractUndoableBoard implements StagedMoveGenerationBoard, GameResultBoard {
 
 	public static final int X_DIMENSION = 7;
 	public static final int Y_DIMENSION = 7;
@@ -201,6 +205,7 @@ public class NineMensMorrisBoard extends AbstractBoard {
 	
 	protected void placePiece(int position, int colour) {
 		squares[position] = colour;
+		squareChanged(position, Colour.NONE);
 		squareCount[colour - 1]++;
 		inHandCount[colour - 1]--;
 		movesPlayedCount[colour - 1]++;
@@ -213,6 +218,7 @@ public class NineMensMorrisBoard extends AbstractBoard {
 	protected void capturePiece(int position) {
 		int colour = squares[position];
 		squares[position] = Colour.NONE;
+		squareChanged(position, colour);
 		squareCount[colour - 1]--;
 		validCaptures[0] = null;
 		validCaptures[1] = null;
@@ -225,6 +231,8 @@ public class NineMensMorrisBoard extends AbstractBoard {
 		int colour = squares[initialPosition];
 		squares[finalPosition] = squares[initialPosition];
 		squares[initialPosition] = Colour.NONE;
+		squareChanged(initialPosition, colour);
+		squareChanged(finalPosition, Colour.NONE);
 		movesPlayedCount[colour - 1]++;
 		validCaptures[0] = null;
 		validCaptures[1] = null;
@@ -235,6 +243,14 @@ public class NineMensMorrisBoard extends AbstractBoard {
 		updateMobilityAfterFillingSquare(finalPosition, colour);
 	}
 	
+	/**
+	 * Staged move generation is supported, as checking a move is much cheaper than generating every move, which
+	 * includes expanding each move that makes a mill by every piece that can be captured.
+	 */
+	public boolean isStagedMoveGenerationSupported() {
+		return true;
+	}
+	
 	public boolean isValidMove(Move move) {
 		final NineMensMorrisMove nineMensMorrisMove = (NineMensMorrisMove) move;
 		int colour = ((NineMensMorrisPlayer) currentPlayer).getColour();
@@ -266,6 +282,14 @@ public class NineMensMorrisBoard extends AbstractBoard {
 		return true;
 	}
 
+	/**
+	 * Moves that make a mill, and so capture a piece, are noisy.
+	 */
+	@Override
+	public boolean isNoisyMove(Move move) {
+		return ((NineMensMorrisMove) move).hasCapture();
+	}
+
 	@Override
 	public boolean canMove() {
 		int colour = ((NineMensMorrisPlayer) currentPlayer).getColour();
@@ -683,7 +707,76 @@ public class NineMensMorrisBoard extends AbstractBoard {
 		inHandCount[1] = nineMensMorrisBoard.inHandCount[1];
 		movesPlayedCount[0] = nineMensMorrisBoard.movesPlayedCount[0];
 		movesPlayedCount[1] = nineMensMorrisBoard.movesPlayedCount[1];
+		mobility[0] = nineMensMorrisBoard.mobility[0];
+		mobility[1] = nineMensMorrisBoard.mobility[1];
+		validCaptures[0] = nineMensMorrisBoard.validCaptures[0];
+		validCaptures[1] = nineMensMorrisBoard.validCaptures[1];
 		shiftsSinceCapture = nineMensMorrisBoard.shiftsSinceCapture;
+		winner = nineMensMorrisBoard.winner;
+	}
+
+	@Override
+	public UndoRecord createUndoRecord() {
+		return new NineMensMorrisUndoRecord();
+	}
+
+	/**
+	 * Save the state of the board before a move. The line and hole caches are updated across the lines through each
+	 * changed position, so the arrays are small enough that saving them whole is cheaper than tracking the changes. The
+	 * valid capture arrays are never modified once created, so only the references are saved.
+	 * @param move The move about to be made.
+	 * @param undoRecord The undo record to save the state to.
+	 */
+	@Override
+	protected void saveState(Move move, UndoRecord undoRecord) {
+		NineMensMorrisUndoRecord nineMensMorrisUndoRecord = (NineMensMorrisUndoRecord) undoRecord;
+		System.arraycopy(squares, 0, nineMensMorrisUndoRecord.squares, 0, NUMBER_OF_POSITIONS);
+		System.arraycopy(holes, 0, nineMensMorrisUndoRecord.holes, 0, NUMBER_OF_POSITIONS);
+		System.arraycopy(millLines, 0, nineMensMorrisUndoRecord.millLines, 0, NUMBER_OF_LINES);
+		System.arraycopy(holeLines, 0, nineMensMorrisUndoRecord.holeLines, 0, NUMBER_OF_LINES);
+		for (int i = 0; i < 2; i++) {
+			nineMensMorrisUndoRecord.squareCount[i] = squareCount[i];
+			nineMensMorrisUndoRecord.inHandCount[i] = inHandCount[i];
+			nineMensMorrisUndoRecord.movesPlayedCount[i] = movesPlayedCount[i];
+			nineMensMorrisUndoRecord.mobility[i] = mobility[i];
+			nineMensMorrisUndoRecord.validCaptures[i] = validCaptures[i];
+		}
+		nineMensMorrisUndoRecord.shiftsSinceCapture = shiftsSinceCapture;
+		nineMensMorrisUndoRecord.winner = winner;
+	}
+
+	@Override
+	protected void restoreState(UndoRecord undoRecord) {
+		NineMensMorrisUndoRecord nineMensMorrisUndoRecord = (NineMensMorrisUndoRecord) undoRecord;
+		System.arraycopy(nineMensMorrisUndoRecord.squares, 0, squares, 0, NUMBER_OF_POSITIONS);
+		System.arraycopy(nineMensMorrisUndoRecord.holes, 0, holes, 0, NUMBER_OF_POSITIONS);
+		System.arraycopy(nineMensMorrisUndoRecord.millLines, 0, millLines, 0, NUMBER_OF_LINES);
+		System.arraycopy(nineMensMorrisUndoRecord.holeLines, 0, holeLines, 0, NUMBER_OF_LINES);
+		for (int i = 0; i < 2; i++) {
+			squareCount[i] = nineMensMorrisUndoRecord.squareCount[i];
+			inHandCount[i] = nineMensMorrisUndoRecord.inHandCount[i];
+			movesPlayedCount[i] = nineMensMorrisUndoRecord.movesPlayedCount[i];
+			mobility[i] = nineMensMorrisUndoRecord.mobility[i];
+			validCaptures[i] = nineMensMorrisUndoRecord.validCaptures[i];
+		}
+		shiftsSinceCapture = nineMensMorrisUndoRecord.shiftsSinceCapture;
+		winner = nineMensMorrisUndoRecord.winner;
+	}
+
+	/**
+	 * Get a hash of the position. The 24 squares take 2 bits each, so they are packed exactly into one long, which is
+	 * mixed with the pieces in hand, the number of shifts since the last capture and the colour of the player to move.
+	 * @return A hash of the position.
+	 */
+	@Override
+	public long getPositionHash() {
+		long packedSquares = 0;
+		for (int i = 0; i < NUMBER_OF_POSITIONS; i++) {
+			packedSquares |= ((long) squares[i]) << (2 * i);
+		}
+		long hash = (currentPlayer == null) ? 0 : ((NineMensMorrisPlayer) currentPlayer).getColour();
+		hash = mixPositionHash(hash, packedSquares);
+		return mixPositionHash(hash, inHandCount[0] | (inHandCount[1] << 4) | (shiftsSinceCapture << 8));
 	}
 
 	@Override
@@ -740,4 +833,22 @@ public class NineMensMorrisBoard extends AbstractBoard {
 			return false;
 		return true;
 	}
+
+	/**
+	 * Undo record holding the squares, lines and counts of the board.
+	 */
+	private static class NineMensMorrisUndoRecord extends UndoRecord {
+		
+		private final int[] squares = new int[NUMBER_OF_POSITIONS];
+		private final boolean[] holes = new boolean[NUMBER_OF_POSITIONS];
+		private final int[] millLines = new int[NUMBER_OF_LINES];
+		private final int[] holeLines = new int[NUMBER_OF_LINES];
+		private final int[] squareCount = new int[2];
+		private final int[] inHandCount = new int[2];
+		private final int[] movesPlayedCount = new int[2];
+		private final int[] mobility = new int[2];
+		private final int[][] validCaptures = new int[2][];
+		private int shiftsSinceCapture = 0;
+		private Player winner = null;
+	}
 }
@@ -9,17 +9,62 @@
 package net.lurgee.ninemensmorris;
 
 import net.lurgee.sgf.AbstractBoard;
-import net.lurgee.sgf.Evaluator;
+import net.lurgee.sgf.IncrementalEvaluator;
 
 /**
  * Nine men's morris evaluator. Used by a {@link net.lurgee.sgf.AbstractSinglePassSearcher searcher} to score board states.
+ * <p/>
+ * The lines score can be kept {@link IncrementalEvaluator incrementally}: the accumulator holds the pieces in each line
+ * and the score of each line for either player being the one to move, so when a square changes only the lines through
+ * it, and the nearby lines that already have two or three pieces of a colour, are scored again.
  * @author mpatric
  */
-public class NineMensMorrisEvaluator implements Evaluator {
+public class NineMensMorrisEvaluator implements IncrementalEvaluator {
 	
 	private static final int WINNING_SCORE = 100000;
 	private static final int DRAW_SCORE = 50000;
 
+	private static final int LINE_COUNTS_OFFSET = 0;
+	private static final int WHITE_LINE_SCORES_OFFSET = NineMensMorrisBoard.NUMBER_OF_LINES;
+	private static final int BLACK_LINE_SCORES_OFFSET = 2 * NineMensMorrisBoard.NUMBER_OF_LINES;
+	private static final int LINES_SCORES_OFFSET = 3 * NineMensMorrisBoard.NUMBER_OF_LINES;
+	private static final int ACCUMULATOR_SIZE = LINES_SCORES_OFFSET + 2;
+
+	/** The lines that don't contain a position, but whose score can depend on what is in it. */
+	private static final int[][] NEARBY_LINES = new int[NineMensMorrisBoard.NUMBER_OF_POSITIONS][];
+
+	static {
+		for (int position = 0; position < NineMensMorrisBoard.NUMBER_OF_POSITIONS; position++) {
+			boolean[] nearby = new boolean[NineMensMorrisBoard.NUMBER_OF_LINES];
+			int nearbyCount = 0;
+			for (int line = 0; line < NineMensMorrisBoard.NUMBER_OF_LINES; line++) {
+				if (NineMensMorrisBoardLinks.isInLine(position, line)) {
+					continue;
+				}
+				for (int positionInLine : NineMensMorrisBoardLinks.getPositionsForLine(line)) {
+					if (NineMensMorrisBoardLinks.areLinked(position, positionInLine)) {
+						nearby[line] = true;
+					}
+				}
+				for (int adjacentPosition : NineMensMorrisBoardLinks.getAdjacentPositionsToLine(line)) {
+					if (adjacentPosition == position) {
+						nearby[line] = true;
+					}
+				}
+				if (nearby[line]) {
+					nearbyCount++;
+				}
+			}
+			NEARBY_LINES[position] = new int[nearbyCount];
+			int index = 0;
+			for (int line = 0; line < NineMensMorrisBoard.NUMBER_OF_LINES; line++) {
+				if (nearby[line]) {
+					NEARBY_LINES[position][index++] = line;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Determine the score of the given board for the specified player. Depth is an important consideration as a win after more moves is
 	 * NOT preferable to a loss after fewer moves, so the depth is subtracted from the score if it's a win or loss situation.
@@ -58,25 +103,29 @@ public class NineMensMorrisEvaluator implements Evaluator {
 			score += mobilityScore * 64;
 			// --- Lines ---
 			int linesScore = 0;
-			for (int line = 0; line < NineMensMorrisBoard.NUMBER_OF_LINES; line++) {
-				int myCountInLine = 0;
-				int opponentCountInLine = 0;
-				int emptyPosition = -1;
-				int[] positionsForLine = NineMensMorrisBoardLinks.getPositionsForLine(line);
-				for (int position : positionsForLine) {
-					int squareColour = nineMensMorrisBoard.getColour(position);
-					if (squareColour == colour) {
-						myCountInLine++;
-					} else if (squareColour == 3 - colour) {
-						opponentCountInLine++;
-					} else {
-						emptyPosition = position;
+			if (nineMensMorrisBoard.getIncrementalEvaluator() == this) {
+				linesScore = nineMensMorrisBoard.getAccumulator()[LINES_SCORES_OFFSET + colour - 1];
+			} else {
+				for (int line = 0; line < NineMensMorrisBoard.NUMBER_OF_LINES; line++) {
+					int myCountInLine = 0;
+					int opponentCountInLine = 0;
+					int emptyPosition = -1;
+					int[] positionsForLine = NineMensMorrisBoardLinks.getPositionsForLine(line);
+					for (int position : positionsForLine) {
+						int squareColour = nineMensMorrisBoard.getColour(position);
+						if (squareColour == colour) {
+							myCountInLine++;
+						} else if (squareColour == 3 - colour) {
+							opponentCountInLine++;
+						} else {
+							emptyPosition = position;
+						}
+					}
+					if (myCountInLine > 0 && opponentCountInLine == 0) {
+						linesScore += scoreOneColourInRow(emptyPosition, myCountInLine, nineMensMorrisBoard, colour, line, colour); 
+					} else if (opponentCountInLine > 0 && myCountInLine == 0) {
+						linesScore -= scoreOneColourInRow(emptyPosition, opponentCountInLine, nineMensMorrisBoard, 3 - colour, line, colour);
 					}
-				}
-				if (myCountInLine > 0 && opponentCountInLine == 0) {
-					linesScore += scoreOneColourInRow(emptyPosition, myCountInLine, nineMensMorrisBoard, colour, line); 
-				} else if (opponentCountInLine > 0 && myCountInLine == 0) {
-					linesScore -= scoreOneColourInRow(emptyPosition, opponentCountInLine, nineMensMorrisBoard, 3 - colour, line);
 				}
 			}
 			score += linesScore;
@@ -84,7 +133,65 @@ public class NineMensMorrisEvaluator implements Evaluator {
 		return score;
 	}
 
-	private int scoreOneColourInRow(int emptyPosition, int count, NineMensMorrisBoard board, int colour, int line) {
+	public int getAccumulatorSize() {
+		return ACCUMULATOR_SIZE;
+	}
+
+	public void initialiseAccumulator(AbstractBoard startBoard, AbstractBoard board, int[] accumulator) {
+		for (int i = 0; i < ACCUMULATOR_SIZE; i++) {
+			accumulator[i] = 0;
+		}
+		for (int line = 0; line < NineMensMorrisBoard.NUMBER_OF_LINES; line++) {
+			updateLine((NineMensMorrisBoard) board, line, accumulator);
+		}
+	}
+
+	public void updateAccumulator(AbstractBoard board, int square, int previousContents, int[] accumulator) {
+		final NineMensMorrisBoard nineMensMorrisBoard = (NineMensMorrisBoard) board;
+		for (int line : NineMensMorrisBoardLinks.getLinesForPosition(square)) {
+			updateLine(nineMensMorrisBoard, line, accumulator);
+		}
+		for (int line : NEARBY_LINES[square]) {
+			// only lines with two or three pieces of one colour, and none of the other, depend on the squares around them
+			int whiteCount = accumulator[LINE_COUNTS_OFFSET + line] & 3;
+			int blackCount = accumulator[LINE_COUNTS_OFFSET + line] >> 2;
+			if ((whiteCount >= 2 && blackCount == 0) || (blackCount >= 2 && whiteCount == 0)) {
+				updateLine(nineMensMorrisBoard, line, accumulator);
+			}
+		}
+	}
+
+	private void updateLine(NineMensMorrisBoard board, int line, int[] accumulator) {
+		int whiteCount = 0;
+		int blackCount = 0;
+		int emptyPosition = -1;
+		for (int position : NineMensMorrisBoardLinks.getPositionsForLine(line)) {
+			int squareColour = board.getColour(position);
+			if (squareColour == Colour.WHITE) {
+				whiteCount++;
+			} else if (squareColour == Colour.BLACK) {
+				blackCount++;
+			} else {
+				emptyPosition = position;
+			}
+		}
+		int whiteLineScore = 0;
+		int blackLineScore = 0;
+		if (whiteCount > 0 && blackCount == 0) {
+			whiteLineScore = scoreOneColourInRow(emptyPosition, whiteCount, board, Colour.WHITE, line, Colour.WHITE);
+			blackLineScore = -scoreOneColourInRow(emptyPosition, whiteCount, board, Colour.WHITE, line, Colour.BLACK);
+		} else if (blackCount > 0 && whiteCount == 0) {
+			whiteLineScore = -scoreOneColourInRow(emptyPosition, blackCount, board, Colour.BLACK, line, Colour.WHITE);
+			blackLineScore = scoreOneColourInRow(emptyPosition, blackCount, board, Colour.BLACK, line, Colour.BLACK);
+		}
+		accumulator[LINE_COUNTS_OFFSET + line] = whiteCount | (blackCount << 2);
+		accumulator[LINES_SCORES_OFFSET] += whiteLineScore - accumulator[WHITE_LINE_SCORES_OFFSET + line];
+		accumulator[LINES_SCORES_OFFSET + 1] += blackLineScore - accumulator[BLACK_LINE_SCORES_OFFSET + line];
+		accumulator[WHITE_LINE_SCORES_OFFSET + line] = whiteLineScore;
+		accumulator[BLACK_LINE_SCORES_OFFSET + line] = blackLineScore;
+	}
+
+	private int scoreOneColourInRow(int emptyPosition, int count, NineMensMorrisBoard board, int colour, int line, int colourToMove) {
 		int scoreForOneColourInRow = 0;
 		switch (count) {
 			case 3:
@@ -108,7 +215,7 @@ public class NineMensMorrisEvaluator implements Evaluator {
 				for (int linkToEmptyPosition : linksToEmptyPosition) {
 					if (linkToEmptyPosition != positionsForLine[0] && linkToEmptyPosition != positionsForLine[1] &&
 							linkToEmptyPosition != positionsForLine[2] && board.getColour(linkToEmptyPosition) == colour) {
-						if (((NineMensMorrisPlayer)board.getCurrentPlayer()).getColour() == colour) {
+						if (colourToMove == colour) {
 							// can make mill immediately!
 							scoreForOneColourInRow += 96;
 						} else {
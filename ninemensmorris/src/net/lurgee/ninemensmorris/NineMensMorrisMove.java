@@ -21,6 +21,7 @@ public class NineMensMorrisMove implements Move {
 	protected final int position1;
 	protected final int position2;
 	protected final int capturePosition;
+	private final int id;
 	
 	/**
 	 * @deprecated Nine men's morris moves should be obtained from a {@link NineMensMorrisMoveFactory} rather.
@@ -30,6 +31,7 @@ public class NineMensMorrisMove implements Move {
 		this.position1 = position1;
 		this.position2 = position2;
 		this.capturePosition = capturePosition;
+		id = NineMensMorrisMoveFactory.getMoveId(position1, position2, capturePosition);
 	}
 	
 	/**
@@ -39,6 +41,7 @@ public class NineMensMorrisMove implements Move {
 		this.position1 = move.position1;
 		this.position2 = move.position2;
 		this.capturePosition = move.capturePosition;
+		this.id = move.id;
 	}
 
 	public int getPosition() {
@@ -57,6 +60,10 @@ public class NineMensMorrisMove implements Move {
 		return capturePosition;
 	}
 	
+	public int getId() {
+		return id;
+	}
+	
 	public boolean isPlacement() {
 		return (position2 == UNDEFINED);
 	}
@@ -98,9 +105,6 @@ public class NineMensMorrisMove implements Move {
 		if (obj == null) return false;
 		if (getClass() != obj.getClass()) return false;
 		final NineMensMorrisMove other = (NineMensMorrisMove) obj;
-		if (capturePosition != other.capturePosition) return false;
-		if (position1 != other.position1) return false;
-		if (position2 != other.position2) return false;
-		return true;
+		return id == other.id;
 	}
 }
@@ -8,7 +8,7 @@
 
 package net.lurgee.ninemensmorris;
 
-import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import net.lurgee.sgf.MoveFactory;
 
@@ -20,7 +20,10 @@ import net.lurgee.sgf.MoveFactory;
  */
 public class NineMensMorrisMoveFactory implements MoveFactory {
 
-	private HashMap<Integer, NineMensMorrisMove> moveMap;
+	private static final int POSITIONS = NineMensMorrisBoard.NUMBER_OF_POSITIONS;
+	private static final int MOVE_ID_COUNT = POSITIONS * (POSITIONS + 1) * (POSITIONS + 1);
+
+	private AtomicReferenceArray<NineMensMorrisMove> moves;
 	
 	public NineMensMorrisMoveFactory() {
 		clear();
@@ -44,14 +47,22 @@ public class NineMensMorrisMoveFactory implements MoveFactory {
 	
 	@SuppressWarnings("deprecation")
 	public NineMensMorrisMove createMove(int position1, int position2, int capturePosition) {
-		int key = (position1 + 1) + ((position2 + 1) << 5) + ((capturePosition + 1) << 10);
-		NineMensMorrisMove move = (NineMensMorrisMove) moveMap.get(key);
+		int id = getMoveId(position1, position2, capturePosition);
+		NineMensMorrisMove move = moves.get(id);
 		if (move == null) {
 			move = new NineMensMorrisMove(position1, position2, capturePosition);
-			moveMap.put(key, move);
+			// another thread may have created the move in the meantime, in which case use its instance
+			if (!moves.compareAndSet(id, null, move)) {
+				move = moves.get(id);
+			}
 		}
 		return move;
 	}
+	
+	public NineMensMorrisMove createMoveFromId(int id) {
+		int positions = id / POSITIONS;
+		return createMove(id % POSITIONS, positions % (POSITIONS + 1) - 1, positions / (POSITIONS + 1) - 1);
+	}
 
 	public NineMensMorrisMove createMoveFromString(String moveAsString) {
 		if (moveAsString.length() == 2) {
@@ -74,11 +85,29 @@ public class NineMensMorrisMoveFactory implements MoveFactory {
 		throw new IllegalArgumentException("Cannot set nine men's morris move from provided string");
 	}
 	
-	protected HashMap<Integer, NineMensMorrisMove> getMoveMap() {
-		return moveMap;
+	public int getMoveIdCount() {
+		return MOVE_ID_COUNT;
+	}
+	
+	/**
+	 * Get the id of a move from its positions, where the second position and the capture position may be -1 if not
+	 * used.
+	 */
+	static int getMoveId(int position1, int position2, int capturePosition) {
+		return position1 + POSITIONS * ((position2 + 1) + (POSITIONS + 1) * (capturePosition + 1));
+	}
+	
+	protected int countMoves() {
+		int count = 0;
+		for (int i = 0; i < moves.length(); i++) {
+			if (moves.get(i) != null) {
+				count++;
+			}
+		}
+		return count;
 	}
 	
 	public void clear() {
-		moveMap = new HashMap<Integer, NineMensMorrisMove>();
+		moves = new AtomicReferenceArray<NineMensMorrisMove>(MOVE_ID_COUNT);
 	}
 }
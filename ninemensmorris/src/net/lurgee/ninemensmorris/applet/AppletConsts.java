@@ -78,6 +78,7 @@ public class AppletConsts {
 	
 	/* Search stuff */
 	public static final int KILLER_MOVES_PER_LEVEL = 5;
+	public static final int PROOF_NUMBER_MIN_MOVES_MADE = 9;
 	
 	/* Players */
 	public static final Player[] PLAYERS = {NineMensMorrisPlayer.getInstance(Colour.WHITE), NineMensMorrisPlayer.getInstance(Colour.BLACK)};
@@ -22,6 +22,7 @@ import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.KillerHeuristicMoveRanker;
 import net.lurgee.sgf.NegascoutSearcher;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.ProofNumberSearcher;
 
 /**
  * Container for all game-related entities related to sgf and the connect-four implementation classes.
@@ -48,8 +49,12 @@ public class NineMensMorrisGame extends AbstractGame {
 	protected void setupSearcherAndMoveRanker() {
 		Evaluator evaluator = new NineMensMorrisEvaluator();
 		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, false);
+		negascoutSearcher.setSearchInPlace(true);
+		negascoutSearcher.setQuiescenceDepth(2);
 		IterativeSearcher iterativeSearcher = new IterativeSearcher(negascoutSearcher, null);
-		setSearcher(iterativeSearcher);
+		ProofNumberSearcher proofNumberSearcher = new ProofNumberSearcher(gameContext, null, iterativeSearcher);
+		proofNumberSearcher.setMinMovesMade(AppletConsts.PROOF_NUMBER_MIN_MOVES_MADE);
+		setSearcher(proofNumberSearcher);
 		NineMensMorrisMoveRanker ninemensmorrisMoveRanker = new NineMensMorrisMoveRanker();
 		KillerHeuristicMoveRanker killerHeuristicMoveRanker = new KillerHeuristicMoveRanker(ninemensmorrisMoveRanker, AppletConsts.KILLER_MOVES_PER_LEVEL);
 		setMoveRanker(killerHeuristicMoveRanker);
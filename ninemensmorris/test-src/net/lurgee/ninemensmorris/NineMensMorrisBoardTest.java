@@ -8,6 +8,7 @@ import net.lurgee.sgf.Move;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.ObjectPool;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.UndoRecord;
 
 public class NineMensMorrisBoardTest extends TestCase {
 
@@ -489,6 +490,16 @@ public class NineMensMorrisBoardTest extends TestCase {
 		assertFalse("when making a mill, capture of opponent piece in mill should be invalid", board.isValidMove(moveFactory.createShiftMove(D7, A1, D6)));
 	}
 	
+	public void testShouldIndicateOnlyMovesThatCapturePiecesAreNoisy() throws Exception {
+		board.fromString(TEST_BOARD_WITH_8_PIECES_OF_EACH_COLOUR);
+		board.setCurrentPlayer(NineMensMorrisPlayer.getInstance(Colour.WHITE));
+		assertFalse(board.isNoisyMove(moveFactory.createPlacementMove(A4)));
+		assertTrue(board.isNoisyMove(moveFactory.createPlacementMove(D3, D7)));
+		board.setInHandCount(Colour.WHITE, 0);
+		assertFalse(board.isNoisyMove(moveFactory.createShiftMove(A7, A4)));
+		assertTrue(board.isNoisyMove(moveFactory.createShiftMove(D2, D3, D7)));
+	}
+	
 	public void testShouldPlacePiece() throws Exception {
 		board.placePiece(B6, Colour.WHITE);
 		assertEquals(Colour.WHITE, board.getColour(B6));
@@ -792,6 +803,45 @@ public class NineMensMorrisBoardTest extends TestCase {
 		}
 	}
 	
+	public void testShouldGiveSamePositionHashForSamePositionReachedByDifferentMoveOrders() throws Exception {
+		NineMensMorrisBoard board2 = (NineMensMorrisBoard) gameContext.checkOutBoard();
+		board2.initialise();
+		board.playMove(moveFactory.createPlacementMove(A7), null, false);
+		board.playMove(moveFactory.createPlacementMove(D7), null, false);
+		board.playMove(moveFactory.createPlacementMove(G7), null, false);
+		board2.playMove(moveFactory.createPlacementMove(G7), null, false);
+		board2.playMove(moveFactory.createPlacementMove(D7), null, false);
+		assertFalse(board.getPositionHash() == board2.getPositionHash());
+		board2.playMove(moveFactory.createPlacementMove(A7), null, false);
+		assertEquals(board.getPositionHash(), board2.getPositionHash());
+		board2.setCurrentPlayer(NineMensMorrisPlayer.getInstance(Colour.WHITE));
+		assertFalse(board.getPositionHash() == board2.getPositionHash());
+		gameContext.checkInBoard(board2);
+	}
+	
+	public void testShouldRestoreBoardWhenUnmakingMoves() throws Exception {
+		NineMensMorrisBoard[] boardsBefore = new NineMensMorrisBoard[60];
+		UndoRecord[] undoRecords = new UndoRecord[60];
+		int movesMade = 0;
+		while (movesMade < 60 && !board.isGameOver() && board.canMove()) {
+			List<Move> moves = board.getValidMoves(null, 1);
+			boardsBefore[movesMade] = (NineMensMorrisBoard) gameContext.checkOutBoard();
+			boardsBefore[movesMade].copy(board);
+			undoRecords[movesMade] = board.createUndoRecord();
+			board.playMove(moves.get((movesMade * 7) % moves.size()), undoRecords[movesMade]);
+			movesMade++;
+		}
+		assertTrue(movesMade > 1);
+		for (int i = movesMade - 1; i >= 0; i--) {
+			board.unmakeMove(undoRecords[i]);
+			assertEquals(boardsBefore[i], board);
+			assertEquals(boardsBefore[i].toString(), board.toString());
+			assertEquals(boardsBefore[i].getPositionHash(), board.getPositionHash());
+			assertEquals(boardsBefore[i].getValidMoves(null, 1), board.getValidMoves(null, 1));
+			gameContext.checkInBoard(boardsBefore[i]);
+		}
+	}
+	
 	private void assertShiftMovesAreAsExpected(List<Move> validMoves, int[][] expectedMoves, int[][] expectedMovesThatCompleteAMill, int[] expectedCaptures) {
 		for (int i = 0; i < expectedMoves.length; i++) {
 			NineMensMorrisMove move = moveFactory.createShiftMove(expectedMoves[i][0], expectedMoves[i][1]);
@@ -0,0 +1,124 @@
+/*
+ * @(#)NineMensMorrisEvaluatorTest.java		2026/10/18
+ *
+ * Part of the ninemensmorris common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.ninemensmorris;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import net.lurgee.sgf.Debug;
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.Move;
+import net.lurgee.sgf.MoveFactory;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+import net.lurgee.sgf.UndoRecord;
+
+/**
+ * Unit tests for the nine men's morris evaluator.
+ * @author mpatric
+ */
+public class NineMensMorrisEvaluatorTest extends TestCase {
+
+	private static final int GAMES = 20;
+	private static final int MAX_MOVES = 80;
+
+	private static final NineMensMorrisPlayer whitePlayer = NineMensMorrisPlayer.getInstance(Colour.WHITE);
+	private static final NineMensMorrisPlayer blackPlayer = NineMensMorrisPlayer.getInstance(Colour.BLACK);
+
+	private GameContext gameContext;
+	private NineMensMorrisEvaluator evaluator;
+	private NineMensMorrisBoard startBoard;
+	private NineMensMorrisBoard board;
+	private NineMensMorrisBoard fullBoard;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] { whitePlayer, blackPlayer };
+		ObjectPool ninemensmorrisBoardPool = new ObjectPool(NineMensMorrisBoard.class);
+		MoveFactory ninemensmorrisMoveFactory = new NineMensMorrisMoveFactory();
+		gameContext = new GameContext(players, ninemensmorrisBoardPool, ninemensmorrisMoveFactory, false);
+		evaluator = new NineMensMorrisEvaluator();
+		startBoard = (NineMensMorrisBoard) gameContext.checkOutBoard();
+		board = (NineMensMorrisBoard) gameContext.checkOutBoard();
+		fullBoard = (NineMensMorrisBoard) gameContext.checkOutBoard();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(startBoard);
+		gameContext.checkInBoard(board);
+		gameContext.checkInBoard(fullBoard);
+	}
+
+	public void testShouldScoreTheSameIncrementallyAsInFullWhileMovesArePlayedAndUnmade() throws Exception {
+		Debug.output("testShouldScoreTheSameIncrementallyAsInFullWhileMovesArePlayedAndUnmade");
+		Random random = new Random(21);
+		for (int game = 0; game < GAMES; game++) {
+			startBoard.initialise();
+			board.copy(startBoard);
+			board.setIncrementalEvaluator(evaluator, startBoard);
+			assertSame(evaluator, board.getIncrementalEvaluator());
+			List<UndoRecord> undoRecords = new ArrayList<UndoRecord>();
+			List<Integer> scores = new ArrayList<Integer>();
+			scores.add(assertScoresMatch());
+			while (!board.isGameOver() && board.canMove() && undoRecords.size() < MAX_MOVES) {
+				List<Move> moves = board.getValidMoves(null, 0);
+				UndoRecord undoRecord = board.createUndoRecord();
+				board.playMove(moves.get(random.nextInt(moves.size())), undoRecord);
+				undoRecords.add(undoRecord);
+				scores.add(assertScoresMatch());
+			}
+			for (int i = undoRecords.size() - 1; i >= 0; i--) {
+				board.unmakeMove(undoRecords.get(i));
+				assertEquals(scores.get(i).intValue(), assertScoresMatch());
+			}
+		}
+	}
+
+	public void testShouldScoreTheSameIncrementallyAsInFullAfterCopyingBoard() throws Exception {
+		Debug.output("testShouldScoreTheSameIncrementallyAsInFullAfterCopyingBoard");
+		Random random = new Random(21);
+		startBoard.initialise();
+		board.copy(startBoard);
+		board.setIncrementalEvaluator(evaluator, startBoard);
+		NineMensMorrisBoard copiedBoard = (NineMensMorrisBoard) gameContext.checkOutBoard();
+		try {
+			for (int i = 0; i < MAX_MOVES && !board.isGameOver() && board.canMove(); i++) {
+				List<Move> moves = board.getValidMoves(null, 0);
+				copiedBoard.copy(board);
+				copiedBoard.playMove(moves.get(random.nextInt(moves.size())), null, true);
+				assertSame(evaluator, copiedBoard.getIncrementalEvaluator());
+				board.copy(copiedBoard);
+				assertScoresMatch();
+			}
+		} finally {
+			gameContext.checkInBoard(copiedBoard);
+		}
+	}
+
+	public void testShouldDetachIncrementalEvaluatorWhenBoardIsCleared() throws Exception {
+		Debug.output("testShouldDetachIncrementalEvaluatorWhenBoardIsCleared");
+		startBoard.initialise();
+		board.copy(startBoard);
+		board.setIncrementalEvaluator(evaluator, startBoard);
+		board.initialise();
+		assertNull(board.getIncrementalEvaluator());
+	}
+
+	private int assertScoresMatch() {
+		fullBoard.copy(board);
+		fullBoard.setIncrementalEvaluator(null, null);
+		int fullScore = evaluator.score(startBoard, fullBoard, 1, 1);
+		int incrementalScore = evaluator.score(startBoard, board, 1, 1);
+		assertEquals("incremental score differs from full score for board\n" + board, fullScore, incrementalScore);
+		return incrementalScore;
+	}
+}
@@ -79,6 +79,17 @@ public class NineMensMorrisMoveFactoryTest extends TestCase {
 		assertEquals(D5, move.getCapturePosition());
 	}
 	
+	public void testShouldGetMoveFromId() throws Exception {
+		NineMensMorrisMove[] moves = {
+			factory.createPlacementMove(A7), factory.createShiftMove(A7, D7),
+			factory.createPlacementMove(A7, D5), factory.createShiftMove(A7, D7, D5)
+		};
+		for (NineMensMorrisMove move : moves) {
+			assertTrue(move.getId() >= 0 && move.getId() < factory.getMoveIdCount());
+			assertSame(move, factory.createMoveFromId(move.getId()));
+		}
+	}
+	
 	public void testKeysShouldBeUniqueForAllMoves() throws Exception {
 		for (int i = 0; i < 24; i++) {
 			factory.createPlacementMove(i);
@@ -100,6 +111,6 @@ public class NineMensMorrisMoveFactoryTest extends TestCase {
 				}
 			}
 		}
-		assertEquals(15000, factory.getMoveMap().size());
+		assertEquals(15000, factory.countMoves());
 	}
 }
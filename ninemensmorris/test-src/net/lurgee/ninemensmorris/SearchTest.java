@@ -8,6 +8,8 @@
 
 package net.lurgee.ninemensmorris;
 
+import java.util.List;
+
 import junit.framework.TestCase;
 import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.AbstractSearcher;
@@ -93,11 +95,11 @@ public class SearchTest extends TestCase implements SearchProgressListener {
 		Debug.output(0, "ITERATION " + iteration + " START");
 	}
 	
-	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached) {
+	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
 		if (thresholdReached) {
 			Debug.output(0, "ITERATION " + iteration + " THRESHOLD REACHED");
 		} else {
-			Debug.output(0, "ITERATION " + iteration + " END move = " + move + " score = " + score);
+			Debug.output(0, "ITERATION " + iteration + " END move = " + move + " score = " + score + " pv = " + principalVariation);
 		}
 	}
 	
@@ -112,4 +114,16 @@ public class SearchTest extends TestCase implements SearchProgressListener {
 	public void onLeafEvaluation(int score, Player player, int depth) {
 		Debug.output(depth + 2, "LEAF score = " + score + " player = " + player + " depth = " + depth);
 	}
+
+	public void onAggregateNodeCount(int iteration, long nodeCount) {
+		Debug.output(0, "ITERATION " + iteration + " NODES " + nodeCount);
+	}
+
+	public void onFailLow(int iteration, int alpha, int beta) {
+		Debug.output(0, "ITERATION " + iteration + " FAIL LOW alpha = " + alpha + " beta = " + beta);
+	}
+
+	public void onFailHigh(int iteration, int alpha, int beta) {
+		Debug.output(0, "ITERATION " + iteration + " FAIL HIGH alpha = " + alpha + " beta = " + beta);
+	}
 }
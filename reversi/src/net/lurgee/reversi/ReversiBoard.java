@@ -13,11 +13,15 @@ import java.util.Collections;
 import java.util.List;
 
 import net.lurgee.sgf.AbstractBoard;
+import net.lurgee.sgf.AbstractUndoableBoard;
+import net.lurgee.sgf.GameResultBoard;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.MoveList;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.Player;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.StagedMoveGenerationBoard;
+import net.lurgee.sgf.UndoRecord;
 
 /**
  * Reversi board. It is is a 8x8 square board; each square on the board may be empty, or may contain a black piece or a
@@ -27,7 +31,7 @@ import net.lurgee.sgf.Position;
  * Squares on the board are identified by x and y co-ordinates, which are one-based (so each has the range 1 to 8).
  * @author mpatric
  */
-public class ReversiBoard extends AbstractBoard implements ReversiDifferenceBoard {
+public class ReversiBoard extends AbstractUndoableBoard implements ReversiDifferenceBoard, StagedMoveGenerationBoard, GameResultBoard {
 
 	public static final int X_DIMENSION = 8;
 	public static final int Y_DIMENSION = 8;
@@ -120,6 +124,19 @@ public class ReversiBoard extends AbstractBoard implements ReversiDifferenceBoar
 		}
 	}
 
+	/**
+	 * Get the player with the most discs on the board.
+	 * @return The player with the most discs, or null if both players have the same number.
+	 */
+	public Player getWinner() {
+		if (counts[Colour.BLACK - 1] > counts[Colour.WHITE - 1]) {
+			return ReversiPlayer.getInstance(Colour.BLACK);
+		} else if (counts[Colour.WHITE - 1] > counts[Colour.BLACK - 1]) {
+			return ReversiPlayer.getInstance(Colour.WHITE);
+		}
+		return null;
+	}
+
 	/**
 	 * Counts how many empty squares there are on the board adjacent to the specified colour. Internally, the count is
 	 * stored if it has been calculated and the stored value is returned for subsequent calls. The stored value needs
@@ -342,6 +359,15 @@ public class ReversiBoard extends AbstractBoard implements ReversiDifferenceBoar
 	public boolean isValidMove(int x, int y) {
 		return isValidMove(x, y, ((ReversiPlayer) getCurrentPlayer()).getColour());
 	}
+	
+	public boolean isStagedMoveGenerationSupported() {
+		return true;
+	}
+	
+	public boolean isValidMove(Move move) {
+		ReversiPosition position = ((ReversiMove) move).getPosition();
+		return isValidMove(position.getX(), position.getY());
+	}
 
 	/**
 	 * Traverse a line in the direction specified by dx and dy, flipping the pieces if fakeIt is false. If the flipped
@@ -472,6 +498,49 @@ public class ReversiBoard extends AbstractBoard implements ReversiDifferenceBoar
 		adjacentCounts[1] = reversiBoard.adjacentCounts[1];
 	}
 
+	@Override
+	public UndoRecord createUndoRecord() {
+		return new ReversiUndoRecord();
+	}
+
+	/**
+	 * Save the state of the board before a move. Flipping pieces changes the adjacent square bits in ways that can't
+	 * cheaply be reversed, so the packed rows and their caches are saved as they are.
+	 * @param move The move about to be made.
+	 * @param undoRecord The undo record to save the state to.
+	 */
+	@Override
+	protected void saveState(Move move, UndoRecord undoRecord) {
+		ReversiUndoRecord reversiUndoRecord = (ReversiUndoRecord) undoRecord;
+		for (int i = 0; i <= 7; i++) {
+			reversiUndoRecord.squares[i] = squares[i];
+			reversiUndoRecord.adjacents[i] = adjacents[0][i];
+			reversiUndoRecord.adjacents[i + Y_DIMENSION] = adjacents[1][i];
+		}
+		reversiUndoRecord.counts[0] = counts[0];
+		reversiUndoRecord.counts[1] = counts[1];
+		reversiUndoRecord.validCounts[0] = validCounts[0];
+		reversiUndoRecord.validCounts[1] = validCounts[1];
+		reversiUndoRecord.adjacentCounts[0] = adjacentCounts[0];
+		reversiUndoRecord.adjacentCounts[1] = adjacentCounts[1];
+	}
+
+	@Override
+	protected void restoreState(UndoRecord undoRecord) {
+		ReversiUndoRecord reversiUndoRecord = (ReversiUndoRecord) undoRecord;
+		for (int i = 0; i <= 7; i++) {
+			squares[i] = reversiUndoRecord.squares[i];
+			adjacents[0][i] = reversiUndoRecord.adjacents[i];
+			adjacents[1][i] = reversiUndoRecord.adjacents[i + Y_DIMENSION];
+		}
+		counts[0] = reversiUndoRecord.counts[0];
+		counts[1] = reversiUndoRecord.counts[1];
+		validCounts[0] = reversiUndoRecord.validCounts[0];
+		validCounts[1] = reversiUndoRecord.validCounts[1];
+		adjacentCounts[0] = reversiUndoRecord.adjacentCounts[0];
+		adjacentCounts[1] = reversiUndoRecord.adjacentCounts[1];
+	}
+
 	public boolean canMove() {
 		int colour = ((ReversiPlayer) getCurrentPlayer()).getColour();
 		return canMove(colour);
@@ -604,6 +673,18 @@ public class ReversiBoard extends AbstractBoard implements ReversiDifferenceBoar
 		return getCount(Colour.ANY) - 4;
 	}
 
+	/**
+	 * Get a hash of the position. Each row occupies 16 bits, so the squares are packed exactly into two longs before
+	 * being mixed with the colour of the player to move.
+	 * @return A hash of the position.
+	 */
+	@Override
+	public long getPositionHash() {
+		long hash = (currentPlayer == null) ? 0 : ((ReversiPlayer) currentPlayer).getColour();
+		hash = mixPositionHash(hash, squares[0] | ((long) squares[1] << 16) | ((long) squares[2] << 32) | ((long) squares[3] << 48));
+		return mixPositionHash(hash, squares[4] | ((long) squares[5] << 16) | ((long) squares[6] << 32) | ((long) squares[7] << 48));
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (this == obj) return true;
@@ -618,4 +699,16 @@ public class ReversiBoard extends AbstractBoard implements ReversiDifferenceBoar
 		if (!Arrays.equals(adjacents[1], other.adjacents[1])) return false;
 		return true;
 	}
+
+	/**
+	 * Undo record holding the rows of the board and their caches.
+	 */
+	private static class ReversiUndoRecord extends UndoRecord {
+		
+		private final int squares[] = new int[Y_DIMENSION];
+		private final long adjacents[] = new long[2 * Y_DIMENSION];
+		private final int counts[] = new int[2];
+		private final int validCounts[] = new int[2];
+		private final int adjacentCounts[] = new int[2];
+	}
 }
@@ -9,15 +9,18 @@
 package net.lurgee.reversi;
 
 import net.lurgee.sgf.AbstractBoard;
-import net.lurgee.sgf.Evaluator;
+import net.lurgee.sgf.BatchEvaluator;
 
 /**
- * Reversi evaluator. Used by a {@link net.lurgee.sgf.AbstractSinglePassSearcher searcher} to score board states.
+ * Reversi evaluator. Used by a {@link net.lurgee.sgf.AbstractSinglePassSearcher searcher} to score board states. When
+ * boards are {@link BatchEvaluator scored in a batch}, the mobility of each player on the start board is only counted
+ * once for the batch, rather than for each board.
  * @author mpatric
  */
-public class ReversiEvaluator implements Evaluator {
+public class ReversiEvaluator implements BatchEvaluator {
 	
 	private static final int WIPEOUT_SCORE = 1000;
+	private static final int NOT_COUNTED = -1;
 	
 	// LEVEL 1
 //	private static final int PIECE_COUNT_WEIGHT[] = {5, 5, 5, 5, 5};
@@ -55,13 +58,36 @@ public class ReversiEvaluator implements Evaluator {
 	 * @return A score for the board for the specified player.
 	 */
 	public int score(AbstractBoard startBoard, AbstractBoard board, int currentDepth, int searchDepth) {
+		return score((ReversiBoard) startBoard, (ReversiBoard) board, currentDepth, NOT_COUNTED, NOT_COUNTED);
+	}
+
+	public void scoreBatch(AbstractBoard startBoard, AbstractBoard[] boards, int count, int currentDepth, int searchDepth, int[] scores) {
+		ReversiBoard originalBoard = (ReversiBoard) startBoard;
+		int whiteStartMobility = originalBoard.countValidMoves(ReversiPlayer.getInstance(Colour.WHITE));
+		int blackStartMobility = originalBoard.countValidMoves(ReversiPlayer.getInstance(Colour.BLACK));
+		for (int i = 0; i < count; i++) {
+			scores[i] = score(originalBoard, (ReversiBoard) boards[i], currentDepth, whiteStartMobility, blackStartMobility);
+		}
+	}
+
+	/**
+	 * Determine the score of the given board for the specified player, as for {@link #score(AbstractBoard, AbstractBoard,
+	 * int, int)}, using the mobility of each player on the start board if it has already been counted.
+	 * @param originalBoard The board before any moves were made.
+	 * @param currentBoard The board to score.
+	 * @param currentDepth The depth of the leaf in the tree where this scoring is being done.
+	 * @param whiteStartMobility The number of valid moves for white on the start board, or NOT_COUNTED.
+	 * @param blackStartMobility The number of valid moves for black on the start board, or NOT_COUNTED.
+	 * @return A score for the board for the specified player.
+	 */
+	private int score(ReversiBoard originalBoard, ReversiBoard currentBoard, int currentDepth, int whiteStartMobility, int blackStartMobility) {
+		AbstractBoard startBoard = originalBoard;
+		AbstractBoard board = currentBoard;
 		int sc = 0;
 		int myScore = 0;
 		int yourScore = 0;
 		ReversiPlayer player = (ReversiPlayer) ((AbstractBoard) board).getCurrentPlayer();
 		int colour = ((ReversiPlayer) player).getColour();
-		ReversiBoard originalBoard = (ReversiBoard) startBoard;
-		ReversiBoard currentBoard = (ReversiBoard) board;
 		// *** check for a wipeout
 		if (((ReversiBoard) board).getCount(colour) == 0) {
 			// note: we stop evaluating here, there's no point going on if it's a wipeout
@@ -175,8 +201,16 @@ public class ReversiEvaluator implements Evaluator {
 			}
 			// *** mobility differential (consider whole board)
 			if (MOBILITY_WEIGHT[weightBand] != 0) {
-				myScore = ((ReversiBoard) board).countValidMoves(player) - ((ReversiBoard) startBoard).countValidMoves(player);
-				yourScore = ((ReversiBoard) board).countValidMoves(ReversiPlayer.getInstance(3 - colour)) - ((ReversiBoard) startBoard).countValidMoves(ReversiPlayer.getInstance(3 - colour));
+				int myStartMobility = (colour == Colour.WHITE) ? whiteStartMobility : blackStartMobility;
+				if (myStartMobility == NOT_COUNTED) {
+					myStartMobility = ((ReversiBoard) startBoard).countValidMoves(player);
+				}
+				int yourStartMobility = (colour == Colour.WHITE) ? blackStartMobility : whiteStartMobility;
+				if (yourStartMobility == NOT_COUNTED) {
+					yourStartMobility = ((ReversiBoard) startBoard).countValidMoves(ReversiPlayer.getInstance(3 - colour));
+				}
+				myScore = ((ReversiBoard) board).countValidMoves(player) - myStartMobility;
+				yourScore = ((ReversiBoard) board).countValidMoves(ReversiPlayer.getInstance(3 - colour)) - yourStartMobility;
 				sc += MOBILITY_WEIGHT[weightBand] * (myScore - yourScore);
 			}
 		}
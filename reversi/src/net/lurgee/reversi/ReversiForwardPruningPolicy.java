@@ -0,0 +1,41 @@
+/*
+ * @(#)ReversiForwardPruningPolicy.java		2026/10/18
+ *
+ * Part of the reversi common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.reversi;
+
+import net.lurgee.sgf.AbstractBoard;
+import net.lurgee.sgf.Move;
+import net.lurgee.sgf.SimpleForwardPruningPolicy;
+
+/**
+ * Forward pruning policy for reversi. Late moves are reduced, except for corner moves, which can swing the evaluation a
+ * long way, and except near the end of the game, where few enough squares are left that the tree should be searched in
+ * full.
+ * @author mpatric
+ */
+public class ReversiForwardPruningPolicy extends SimpleForwardPruningPolicy {
+
+	private static final int MIN_EMPTY_SQUARES = 14;
+
+	public ReversiForwardPruningPolicy() {
+		setLateMoveReductions(3, 3, 1);
+	}
+
+	@Override
+	public int getReduction(AbstractBoard board, Move move, int moveNumber, int d) {
+		ReversiPosition position = ((ReversiMove) move).getPosition();
+		if ((position.getX() == 1 || position.getX() == ReversiBoard.X_DIMENSION)
+			&& (position.getY() == 1 || position.getY() == ReversiBoard.Y_DIMENSION)) {
+			return 0;
+		}
+		if (board.countMaxMovesLeft() < MIN_EMPTY_SQUARES) {
+			return 0;
+		}
+		return super.getReduction(board, move, moveNumber, d);
+	}
+}
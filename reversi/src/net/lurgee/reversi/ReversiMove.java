@@ -17,6 +17,7 @@ import net.lurgee.sgf.Move;
 public class ReversiMove implements Move {
 	
 	private final ReversiPosition position;
+	private final int id;
 	
 	/**
 	 * @deprecated Reversi moves should be obtained from a {@link ReversiMoveFactory} rather.
@@ -24,12 +25,17 @@ public class ReversiMove implements Move {
 	@Deprecated
 	public ReversiMove(int x, int y) {
 		position = new ReversiPosition(x, y);
+		id = ReversiMoveFactory.getMoveId(x, y);
 	}
 
 	public ReversiPosition getPosition() {
 		return position;
 	}
 	
+	public int getId() {
+		return id;
+	}
+	
 	@Override
 	public String toString() {
 		return position.toString();
@@ -40,10 +46,7 @@ public class ReversiMove implements Move {
 		if (this == obj) return true;
 		if (getClass() != obj.getClass()) return false;
 		final ReversiMove other = (ReversiMove) obj;
-		if (position == null) {
-			if (other.position != null) return false;
-		} else if (!position.equals(other.position)) return false;
-		return true;
+		return id == other.id;
 	}
 
 	@Override
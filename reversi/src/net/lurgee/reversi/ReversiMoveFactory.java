@@ -52,4 +52,16 @@ public class ReversiMoveFactory implements MoveFactory {
 		}
 		return createMove(x, y);
 	}
+
+	public ReversiMove createMoveFromId(int id) {
+		return moves[id / ReversiBoard.Y_DIMENSION][id % ReversiBoard.Y_DIMENSION];
+	}
+
+	public int getMoveIdCount() {
+		return ReversiBoard.X_DIMENSION * ReversiBoard.Y_DIMENSION;
+	}
+	
+	static int getMoveId(int x, int y) {
+		return (x - 1) * ReversiBoard.Y_DIMENSION + y - 1;
+	}
 }
@@ -30,8 +30,18 @@ public class ReversiMoveRanker implements MoveRanker {
 		{50,10,40,30,30,40,10,50}
 	};
 	
+	private static final int RANKS_BY_MOVE_ID[] = new int[ReversiBoard.X_DIMENSION * ReversiBoard.Y_DIMENSION];
+	
+	static {
+		for (int x = 1; x <= ReversiBoard.X_DIMENSION; x++) {
+			for (int y = 1; y <= ReversiBoard.Y_DIMENSION; y++) {
+				RANKS_BY_MOVE_ID[ReversiMoveFactory.getMoveId(x, y)] = BOARD_RANKS[y - 1][x - 1];
+			}
+		}
+	}
+	
 	public int getRank(Move move, AbstractBoard board, int depth) {
-		return BOARD_RANKS[((ReversiMove) move).getPosition().getY() - 1][((ReversiMove) move).getPosition().getX() - 1];
+		return RANKS_BY_MOVE_ID[move.getId()];
 	}
 
 	public void onNodeEvaluation(Move move, AbstractBoard board, int score, Player player, int depth) {
@@ -13,6 +13,7 @@ import net.lurgee.common.applet.Settings;
 import net.lurgee.reversi.Colour;
 import net.lurgee.reversi.ReversiBoard;
 import net.lurgee.reversi.ReversiEvaluator;
+import net.lurgee.reversi.ReversiForwardPruningPolicy;
 import net.lurgee.reversi.ReversiLibrary;
 import net.lurgee.reversi.ReversiMoveRanker;
 import net.lurgee.reversi.ReversiPlayer;
@@ -54,6 +55,8 @@ public class ReversiGame extends AbstractGame {
 		Evaluator evaluator = new ReversiEvaluator();
 		ReversiLibrary library = new ReversiLibrary((GameContext) gameContext);
 		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, library, evaluator, true);
+		negascoutSearcher.setSearchInPlace(true);
+		negascoutSearcher.setForwardPruningPolicy(new ReversiForwardPruningPolicy());
 		IterativeSearcher iterativeSearcher = new IterativeSearcher(negascoutSearcher, library);
 		setSearcher(iterativeSearcher);
 		ReversiMoveRanker reversiMoveRanker = new ReversiMoveRanker();
@@ -8,6 +8,7 @@ import net.lurgee.reversi.ReversiBoard;
 import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.Move;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.UndoRecord;
 
 @SuppressWarnings("deprecation")
 public class ExtendedReversiBoard extends ReversiBoard {
@@ -143,6 +144,15 @@ public class ExtendedReversiBoard extends ReversiBoard {
 		oldAdjacentCounts[1] = reversiBoard.oldAdjacentCounts[1];
 	}
 
+	/**
+	 * The extra adjacency state isn't saved in undo records, so searches copy extended boards instead of unmaking moves.
+	 * @return null.
+	 */
+	@Override
+	public UndoRecord createUndoRecord() {
+		return null;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
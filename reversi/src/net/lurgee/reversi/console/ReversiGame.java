@@ -23,6 +23,7 @@ import net.lurgee.reversi.ReversiPlayer;
 import net.lurgee.sgf.AbstractSearcher;
 import net.lurgee.sgf.Evaluator;
 import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.IterativeSearcher;
 import net.lurgee.sgf.Library;
 import net.lurgee.sgf.MoveRanker;
 import net.lurgee.sgf.ObjectPool;
@@ -176,8 +177,10 @@ public class ReversiGame extends AbstractGame {
 			list.add("No");
 			boolean useIterativeDeepening = (input.selectFromList("Iterative deeping on search", list, 1) == 1);
 			long evaluationThreshold = 0;
+			long timeBudget = 0;
 			if (useIterativeDeepening) {
 				evaluationThreshold = input.enterInteger("Iterative deepening evaluation threshold [" + AbstractSearcher.NO_EVALUATION_THRESHOLD + " = none] (" + AbstractSearcher.NO_EVALUATION_THRESHOLD + ")", AbstractSearcher.NO_EVALUATION_THRESHOLD, 0, 10000000);
+				timeBudget = input.enterInteger("Iterative deepening time budget in milliseconds [" + IterativeSearcher.NO_TIME_BUDGET + " = none] (" + IterativeSearcher.NO_TIME_BUDGET + ")", IterativeSearcher.NO_TIME_BUDGET, 0, 3600000);
 			}
 			list.clear();
 			list.add("Standard (default)");
@@ -200,6 +203,7 @@ public class ReversiGame extends AbstractGame {
 			MoveRanker moveRanker = new ReversiMoveRanker();
 			competitor = new ComputerCompetitor(gameContext, moveRanker, evaluator, library, player, searchProgressListener, useNegamax, useKillerHeuristic, useIterativeDeepening, true);
 			((ComputerCompetitor) competitor).setEvaluationThreshold(evaluationThreshold);
+			((ComputerCompetitor) competitor).setTimeBudget(timeBudget);
 			((ComputerCompetitor) competitor).setTreeDepth(searchDepth);
 		} else {
 			competitor = new ReversiHumanCompetitor(gameContext, player);
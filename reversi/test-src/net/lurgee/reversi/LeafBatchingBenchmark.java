@@ -0,0 +1,177 @@
+/*
+ * @(#)LeafBatchingBenchmark.java		2026/10/18
+ *
+ * Part of the reversi common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.reversi;
+
+import java.util.List;
+import java.util.Random;
+
+import net.lurgee.sgf.AbstractBoard;
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.Move;
+import net.lurgee.sgf.NegascoutSearcher;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+import net.lurgee.sgf.UndoRecord;
+
+/**
+ * Benchmark comparing scoring the leaves below a node one at a time with scoring them in a batch. The positions are
+ * taken from games of random moves, and grouped by their branching factor, which is the number of leaves below them.
+ * For each branching factor, the time to score all the leaves one at a time, making and unmaking each move on the board,
+ * is compared with the time to score them in a batch, which needs a copy of the board for each leaf. The lowest
+ * branching factor from which the batch is faster for every higher branching factor is reported as the crossover,
+ * leaving out branching factors with too few positions to time reliably. Searches with and without
+ * {@link NegascoutSearcher#setLeafBatching(boolean) leaf batching} are then timed, as in a search the leaves after a
+ * cutoff are only scored when batching. Run with the benchmark target of the build file.
+ * @author mpatric
+ */
+public class LeafBatchingBenchmark {
+
+	private static final int MAX_BRANCHING_FACTOR = 20;
+	private static final int MIN_POSITIONS = 100;
+	private static final int GAMES = 200;
+	private static final int REPETITIONS = 20;
+	private static final int SEARCH_DEPTH = 5;
+	private static final int SEARCH_POSITIONS = 20;
+
+	private final GameContext gameContext;
+	private final ReversiEvaluator evaluator = new ReversiEvaluator();
+	private final Random random = new Random(22);
+
+	public LeafBatchingBenchmark() {
+		Player[] players = new Player[] {ReversiPlayer.getInstance(Colour.BLACK), ReversiPlayer.getInstance(Colour.WHITE)};
+		gameContext = new GameContext(players, new ObjectPool(ReversiBoard.class), new ReversiMoveFactory(), false);
+	}
+
+	public static void main(String[] args) {
+		LeafBatchingBenchmark benchmark = new LeafBatchingBenchmark();
+		// the first run warms up the virtual machine
+		benchmark.compareLeafScoring(false);
+		benchmark.compareLeafScoring(true);
+		benchmark.compareSearches();
+	}
+
+	private void compareLeafScoring(boolean report) {
+		long[] scalarTimes = new long[MAX_BRANCHING_FACTOR + 1];
+		long[] batchTimes = new long[MAX_BRANCHING_FACTOR + 1];
+		int[] positionCounts = new int[MAX_BRANCHING_FACTOR + 1];
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		ReversiBoard startBoard = (ReversiBoard) gameContext.checkOutBoard();
+		AbstractBoard[] leafBoards = new AbstractBoard[MAX_BRANCHING_FACTOR];
+		int[] scores = new int[MAX_BRANCHING_FACTOR];
+		UndoRecord undoRecord = board.createUndoRecord();
+		for (int game = 0; game < GAMES; game++) {
+			board.initialise();
+			while (!board.isGameOver()) {
+				if (!board.canMove()) {
+					board.nextPlayer();
+					continue;
+				}
+				List<Move> moves = board.getValidMoves(null, 1);
+				int branchingFactor = moves.size();
+				if (branchingFactor <= MAX_BRANCHING_FACTOR) {
+					startBoard.copy(board);
+					long start = System.nanoTime();
+					for (int r = 0; r < REPETITIONS; r++) {
+						for (Move move : moves) {
+							board.playMove(move, undoRecord);
+							scores[0] = evaluator.score(startBoard, board, 1, 1);
+							board.unmakeMove(undoRecord);
+						}
+					}
+					scalarTimes[branchingFactor] += System.nanoTime() - start;
+					start = System.nanoTime();
+					for (int r = 0; r < REPETITIONS; r++) {
+						for (int i = 0; i < branchingFactor; i++) {
+							leafBoards[i] = (AbstractBoard) gameContext.checkOutBoard();
+							leafBoards[i].copy(board);
+							leafBoards[i].playMove(moves.get(i), null, true);
+						}
+						evaluator.scoreBatch(startBoard, leafBoards, branchingFactor, 1, 1, scores);
+						for (int i = 0; i < branchingFactor; i++) {
+							gameContext.checkInBoard(leafBoards[i]);
+						}
+					}
+					batchTimes[branchingFactor] += System.nanoTime() - start;
+					positionCounts[branchingFactor]++;
+				}
+				board.playMove(moves.get(random.nextInt(branchingFactor)), null, false);
+			}
+		}
+		gameContext.checkInBoard(board);
+		gameContext.checkInBoard(startBoard);
+		if (report) {
+			System.out.println("Branching factor, positions, ns per leaf one at a time, ns per leaf in a batch");
+			for (int branchingFactor = 1; branchingFactor <= MAX_BRANCHING_FACTOR; branchingFactor++) {
+				if (positionCounts[branchingFactor] > 0) {
+					long leaves = (long) positionCounts[branchingFactor] * branchingFactor * REPETITIONS;
+					long scalarTime = scalarTimes[branchingFactor] / leaves;
+					long batchTime = batchTimes[branchingFactor] / leaves;
+					System.out.println(branchingFactor + ", " + positionCounts[branchingFactor] + ", " + scalarTime + ", " + batchTime);
+				}
+			}
+			int crossover = -1;
+			for (int branchingFactor = MAX_BRANCHING_FACTOR; branchingFactor >= 1; branchingFactor--) {
+				if (positionCounts[branchingFactor] >= MIN_POSITIONS) {
+					if (batchTimes[branchingFactor] >= scalarTimes[branchingFactor]) {
+						break;
+					}
+					crossover = branchingFactor;
+				}
+			}
+			if (crossover < 0) {
+				System.out.println("Scoring in a batch is not consistently faster for branching factors up to " + MAX_BRANCHING_FACTOR);
+			} else {
+				System.out.println("Scoring in a batch is faster from a branching factor of " + crossover);
+			}
+		}
+	}
+
+	private void compareSearches() {
+		NegascoutSearcher scalarSearcher = new NegascoutSearcher(gameContext, null, evaluator, true);
+		scalarSearcher.setSearchInPlace(true);
+		NegascoutSearcher batchingSearcher = new NegascoutSearcher(gameContext, null, evaluator, true);
+		batchingSearcher.setSearchInPlace(true);
+		batchingSearcher.setLeafBatching(true);
+		ReversiMoveRanker moveRanker = new ReversiMoveRanker();
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		long scalarTime = 0;
+		long batchTime = 0;
+		long scalarEvaluations = 0;
+		long batchEvaluations = 0;
+		for (int position = 0; position < SEARCH_POSITIONS; position++) {
+			board.initialise();
+			int movesToPlay = 10 + random.nextInt(40);
+			for (int i = 0; i < movesToPlay && !board.isGameOver(); i++) {
+				if (!board.canMove()) {
+					board.nextPlayer();
+				} else {
+					List<Move> moves = board.getValidMoves(null, 1);
+					board.playMove(moves.get(random.nextInt(moves.size())), null, false);
+				}
+			}
+			if (board.isGameOver() || !board.canMove()) {
+				continue;
+			}
+			long start = System.nanoTime();
+			Move scalarMove = scalarSearcher.findMove(board, moveRanker, SEARCH_DEPTH);
+			scalarTime += System.nanoTime() - start;
+			scalarEvaluations += scalarSearcher.getEvaluationCount();
+			start = System.nanoTime();
+			Move batchMove = batchingSearcher.findMove(board, moveRanker, SEARCH_DEPTH);
+			batchTime += System.nanoTime() - start;
+			batchEvaluations += batchingSearcher.getEvaluationCount();
+			if (!scalarMove.equals(batchMove) || scalarSearcher.getBestMoveScore() != batchingSearcher.getBestMoveScore()) {
+				throw new IllegalStateException("Searches with and without leaf batching differ for board\n" + board);
+			}
+		}
+		gameContext.checkInBoard(board);
+		System.out.println("Search to depth " + SEARCH_DEPTH + " one at a time: " + scalarTime / 1000000 + "ms, " + scalarEvaluations + " evaluations");
+		System.out.println("Search to depth " + SEARCH_DEPTH + " in batches: " + batchTime / 1000000 + "ms, " + batchEvaluations + " evaluations");
+	}
+}
@@ -9,6 +9,7 @@
 package net.lurgee.reversi;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 import net.lurgee.sgf.GameContext;
@@ -16,6 +17,7 @@ import net.lurgee.sgf.Move;
 import net.lurgee.sgf.ObjectPool;
 import net.lurgee.sgf.Player;
 import net.lurgee.sgf.Position;
+import net.lurgee.sgf.UndoRecord;
 
 /**
  * Unit tests for {@link ReversiBoard}.
@@ -165,6 +167,48 @@ public class ReversiBoardTest extends TestCase {
 		gameContext.checkInBoard(board1);
 	}
 	
+	public void testShouldGiveSamePositionHashForSamePosition() throws Exception {
+		ReversiBoard board1 = (ReversiBoard) gameContext.checkOutBoard();
+		board1.initialise();
+		board1.playMove(reversiMoveFactory.createMove(4, 3), null, false);
+		ReversiBoard board2 = (ReversiBoard) gameContext.checkOutBoard();
+		board2.fromString(board1.toString());
+		board2.setCurrentPlayer(whitePlayer);
+		assertEquals(board1.getPositionHash(), board2.getPositionHash());
+		board2.setCurrentPlayer(blackPlayer);
+		assertFalse(board1.getPositionHash() == board2.getPositionHash());
+		board2.setCurrentPlayer(whitePlayer);
+		board2.playMove(reversiMoveFactory.createMove(3, 5), null, false);
+		assertFalse(board1.getPositionHash() == board2.getPositionHash());
+		gameContext.checkInBoards(board1, board2);
+	}
+	
+	public void testShouldRestoreBoardWhenUnmakingMoves() throws Exception {
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		board.initialise();
+		ReversiBoard[] boardsBefore = new ReversiBoard[30];
+		UndoRecord[] undoRecords = new UndoRecord[30];
+		int movesMade = 0;
+		while (movesMade < 30 && !board.isGameOver() && board.canMove()) {
+			List<Move> moves = board.getValidMoves(null, 1);
+			boardsBefore[movesMade] = (ReversiBoard) gameContext.checkOutBoard();
+			boardsBefore[movesMade].copy(board);
+			undoRecords[movesMade] = board.createUndoRecord();
+			board.playMove(moves.get((movesMade * 7) % moves.size()), undoRecords[movesMade]);
+			movesMade++;
+		}
+		assertTrue(movesMade > 1);
+		for (int i = movesMade - 1; i >= 0; i--) {
+			board.unmakeMove(undoRecords[i]);
+			assertEquals(boardsBefore[i], board);
+			assertEquals(boardsBefore[i].toString(), board.toString());
+			assertEquals(boardsBefore[i].getPositionHash(), board.getPositionHash());
+			assertEquals(boardsBefore[i].getValidMoves(null, 1), board.getValidMoves(null, 1));
+			gameContext.checkInBoard(boardsBefore[i]);
+		}
+		gameContext.checkInBoard(board);
+	}
+	
 	public void testCreationOfADeltaOfOneBoardToAnother() throws Exception {
 		ReversiBoard board1 = (ReversiBoard) gameContext.checkOutBoard();
 		board1.fromString(INITIAL_BOARD_FOR_COMPARISON);
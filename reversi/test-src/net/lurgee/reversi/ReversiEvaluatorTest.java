@@ -8,8 +8,12 @@
 
 package net.lurgee.reversi;
 
+import java.util.List;
+
 import junit.framework.TestCase;
+import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.Move;
 import net.lurgee.sgf.ObjectPool;
 import net.lurgee.sgf.Player;
 
@@ -78,4 +82,23 @@ public class ReversiEvaluatorTest extends TestCase {
 			lastScore = score;
 		}
 	}
+
+	public void testScoringBoardsInABatchShouldYieldSameScoresAsScoringEachBoard() throws Exception {
+		ReversiBoard startBoard = (ReversiBoard) gameContext.checkOutBoard();
+		startBoard.initialise();
+		List<Move> moves = startBoard.getValidMoves(null, 1);
+		AbstractBoard[] boards = new AbstractBoard[moves.size()];
+		for (int i = 0; i < boards.length; i++) {
+			boards[i] = (AbstractBoard) gameContext.checkOutBoard();
+			boards[i].copy(startBoard);
+			boards[i].playMove(moves.get(i), null, true);
+		}
+		int[] scores = new int[boards.length];
+		evaluator.scoreBatch(startBoard, boards, boards.length, 1, 1, scores);
+		for (int i = 0; i < boards.length; i++) {
+			assertEquals("Batch score doesn't match score", evaluator.score(startBoard, boards[i], 1, 1), scores[i]);
+			gameContext.checkInBoard(boards[i]);
+		}
+		gameContext.checkInBoard(startBoard);
+	}
 }
@@ -0,0 +1,74 @@
+/*
+ * @(#)ReversiForwardPruningPolicyTest.java		2026/10/18
+ *
+ * Part of the reversi common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.reversi;
+
+import junit.framework.TestCase;
+import net.lurgee.sgf.Debug;
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+
+/**
+ * Unit tests for {@link ReversiForwardPruningPolicy}.
+ * @author mpatric
+ */
+public class ReversiForwardPruningPolicyTest extends TestCase {
+
+	private static final ReversiPlayer BLACK_PLAYER = ReversiPlayer.getInstance(Colour.BLACK);
+	private static final ReversiPlayer WHITE_PLAYER = ReversiPlayer.getInstance(Colour.WHITE);
+
+	private GameContext gameContext;
+	private ReversiMoveFactory moveFactory;
+	private ReversiBoard board;
+	private ReversiForwardPruningPolicy policy;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {BLACK_PLAYER, WHITE_PLAYER};
+		moveFactory = new ReversiMoveFactory();
+		gameContext = new GameContext(players, new ObjectPool(ReversiBoard.class), moveFactory, false);
+		board = (ReversiBoard) gameContext.checkOutBoard();
+		board.initialise();
+		policy = new ReversiForwardPruningPolicy();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldReduceLateMovesAtDeepEnoughNodes() throws Exception {
+		Debug.output("testShouldReduceLateMovesAtDeepEnoughNodes");
+		ReversiMove move = moveFactory.createMove(3, 4);
+		assertEquals(1, policy.getReduction(board, move, 3, 3));
+		assertEquals(0, policy.getReduction(board, move, 2, 3));
+		assertEquals(0, policy.getReduction(board, move, 3, 2));
+	}
+
+	public void testShouldNotReduceCornerMoves() throws Exception {
+		Debug.output("testShouldNotReduceCornerMoves");
+		assertEquals(0, policy.getReduction(board, moveFactory.createMove(1, 1), 3, 3));
+		assertEquals(0, policy.getReduction(board, moveFactory.createMove(8, 1), 3, 3));
+		assertEquals(0, policy.getReduction(board, moveFactory.createMove(1, 8), 3, 3));
+		assertEquals(0, policy.getReduction(board, moveFactory.createMove(8, 8), 3, 3));
+		assertEquals(1, policy.getReduction(board, moveFactory.createMove(1, 2), 3, 3));
+	}
+
+	public void testShouldNotReduceMovesNearEndOfGame() throws Exception {
+		Debug.output("testShouldNotReduceMovesNearEndOfGame");
+		board.fromString(ReversiEvaluatorTest.TEST_BOARD);
+		assertEquals(0, policy.getReduction(board, moveFactory.createMove(7, 1), 3, 3));
+	}
+
+	public void testShouldNotPruneFutileMovesOrTryNullMoves() throws Exception {
+		Debug.output("testShouldNotPruneFutileMovesOrTryNullMoves");
+		assertEquals(ReversiForwardPruningPolicy.NO_FUTILITY_PRUNING, policy.getFutilityMargin(board, 1));
+		assertEquals(0, policy.getNullMoveReduction(board, 3));
+	}
+}
@@ -30,6 +30,18 @@ public class ReversiMoveFactoryTest extends TestCase {
 		assertSame(move, move2);
 	}
 	
+	public void testShouldGetMoveFromId() throws Exception {
+		boolean[] idsUsed = new boolean[reversiMoveFactory.getMoveIdCount()];
+		for (int x = 1; x <= ReversiBoard.X_DIMENSION; x++) {
+			for (int y = 1; y <= ReversiBoard.Y_DIMENSION; y++) {
+				ReversiMove move = reversiMoveFactory.createMove(x, y);
+				assertFalse(idsUsed[move.getId()]);
+				idsUsed[move.getId()] = true;
+				assertSame(move, reversiMoveFactory.createMoveFromId(move.getId()));
+			}
+		}
+	}
+	
 	public void testShouldThrowExceptionWhenGettingMoveForInvalidString() throws Exception {
 		try {
 			reversiMoveFactory.createMoveFromString("invalid");
@@ -8,6 +8,8 @@
 
 package net.lurgee.reversi;
 
+import java.util.List;
+
 import junit.framework.TestCase;
 import net.lurgee.sgf.AbstractBoard;
 import net.lurgee.sgf.Debug;
@@ -17,7 +19,10 @@ import net.lurgee.sgf.NegamaxSearcher;
 import net.lurgee.sgf.NegascoutSearcher;
 import net.lurgee.sgf.ObjectPool;
 import net.lurgee.sgf.Player;
+import net.lurgee.sgf.RootSplitSearcher;
+import net.lurgee.sgf.YbwcSearcher;
 import net.lurgee.sgf.SearchProgressListener;
+import net.lurgee.sgf.TranspositionTable;
 
 /**
  * Unit tests comparing consistency between {@link NegamaxSearcher} and {@link NegascoutSearcher}.
@@ -43,6 +48,11 @@ public class SearchComparisonTest extends TestCase implements SearchProgressList
 	private NegamaxSearcher negamaxSearcher;
 	private NegamaxSearcher abNegamaxSearcher;
 	private NegascoutSearcher negascoutSearcher;
+	private NegascoutSearcher hashingNegascoutSearcher;
+	private NegascoutSearcher inPlaceNegascoutSearcher;
+	private NegascoutSearcher batchingNegascoutSearcher;
+	private RootSplitSearcher rootSplitSearcher;
+	private YbwcSearcher ybwcSearcher;
 	private ReversiMoveRanker moveRanker;
 	private GameContext gameContext;
 	
@@ -56,12 +66,28 @@ public class SearchComparisonTest extends TestCase implements SearchProgressList
 		negamaxSearcher = new NegamaxSearcher(gameContext, null, evaluator, true, true);
 		abNegamaxSearcher = new NegamaxSearcher(gameContext, null, evaluator, true, true);
 		negascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, true);
+		hashingNegascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, true);
+		hashingNegascoutSearcher.setTranspositionTable(new TranspositionTable());
+		inPlaceNegascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, true);
+		inPlaceNegascoutSearcher.setSearchInPlace(true);
+		batchingNegascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, true);
+		batchingNegascoutSearcher.setSearchInPlace(true);
+		batchingNegascoutSearcher.setLeafBatching(true);
+		rootSplitSearcher = new RootSplitSearcher(gameContext, null, evaluator, true, 4);
+		ybwcSearcher = new YbwcSearcher(gameContext, null, evaluator, true, 4);
+		ybwcSearcher.setMinSplitDepth(2);
 		negamaxSearcher.addSearchProgressListener(this);
 		abNegamaxSearcher.addSearchProgressListener(this);
 		negascoutSearcher.addSearchProgressListener(this);
 		moveRanker = new ReversiMoveRanker();
 	}
 	
+	@Override
+	protected void tearDown() throws Exception {
+		rootSplitSearcher.shutdown();
+		ybwcSearcher.shutdown();
+	}
+	
 	public void testNonAlphaBetaNegamaxAndAlphaBetaNegamaxShouldSelectSameMoveWithSameScore() throws Exception {
 		for (int depth = 1; depth <= MAX_SEARCH_DEPTH; depth++) {
 			compareNonAlphaBetaNegamaxAndAlphaBetaNegamax(depth);
@@ -74,6 +100,36 @@ public class SearchComparisonTest extends TestCase implements SearchProgressList
 		}
 	}
 	
+	public void testNegascoutWithAndWithoutTranspositionTableShouldSelectSameMoveWithSameScore() throws Exception {
+		for (int depth = 1; depth <= MAX_SEARCH_DEPTH; depth++) {
+			compareNegascoutWithAndWithoutTranspositionTable(depth);
+		}
+	}
+	
+	public void testNegascoutWithAndWithoutSearchingInPlaceShouldSelectSameMoveWithSameScore() throws Exception {
+		for (int depth = 1; depth <= MAX_SEARCH_DEPTH; depth++) {
+			compareNegascoutWithAndWithoutSearchingInPlace(depth);
+		}
+	}
+	
+	public void testNegascoutWithAndWithoutLeafBatchingShouldSelectSameMoveWithSameScore() throws Exception {
+		for (int depth = 1; depth <= MAX_SEARCH_DEPTH; depth++) {
+			compareNegascoutWithAndWithoutLeafBatching(depth);
+		}
+	}
+	
+	public void testNegascoutAndRootSplitSearcherShouldSelectSameMoveWithSameScore() throws Exception {
+		for (int depth = 1; depth <= MAX_SEARCH_DEPTH; depth++) {
+			compareNegascoutAndRootSplitSearcher(depth);
+		}
+	}
+	
+	public void testNegascoutAndYbwcSearcherShouldSelectSameMoveWithSameScore() throws Exception {
+		for (int depth = 1; depth <= MAX_SEARCH_DEPTH; depth++) {
+			compareNegascoutAndYbwcSearcher(depth);
+		}
+	}
+	
 	private void compareNonAlphaBetaNegamaxAndAlphaBetaNegamax(int depth) {
 		Debug.output("testAlphaBetaNegamaxAndAlphaBetaNegamaxShouldSelectSameMoveWithSameScore with depth " + depth);
 		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard(); 
@@ -109,11 +165,75 @@ public class SearchComparisonTest extends TestCase implements SearchProgressList
 		gameContext.checkInBoard(board);
 	}
 	
+	private void compareNegascoutWithAndWithoutTranspositionTable(int depth) {
+		Debug.output("testNegascoutWithAndWithoutTranspositionTableShouldSelectSameMoveWithSameScore with depth " + depth);
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		board.fromString(BOARD_FOR_TESTING_EVALUATIONS);
+		board.setCurrentPlayer(blackPlayer);
+		ReversiMove negascoutMove = (ReversiMove) negascoutSearcher.findMove(board, moveRanker, depth);
+		ReversiMove hashingNegascoutMove = (ReversiMove) hashingNegascoutSearcher.findMove(board, moveRanker, depth);
+		assertEquals("Scores don't match!", negascoutSearcher.getBestMoveScore(), hashingNegascoutSearcher.getBestMoveScore());
+		assertEquals("Different moves!", negascoutMove, hashingNegascoutMove);
+		gameContext.checkInBoard(board);
+	}
+	
+	private void compareNegascoutWithAndWithoutSearchingInPlace(int depth) {
+		Debug.output("testNegascoutWithAndWithoutSearchingInPlaceShouldSelectSameMoveWithSameScore with depth " + depth);
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		board.fromString(BOARD_FOR_TESTING_EVALUATIONS);
+		board.setCurrentPlayer(blackPlayer);
+		String boardBeforeSearch = board.toString();
+		ReversiMove negascoutMove = (ReversiMove) negascoutSearcher.findMove(board, moveRanker, depth);
+		ReversiMove inPlaceNegascoutMove = (ReversiMove) inPlaceNegascoutSearcher.findMove(board, moveRanker, depth);
+		assertEquals("Scores don't match!", negascoutSearcher.getBestMoveScore(), inPlaceNegascoutSearcher.getBestMoveScore());
+		assertEquals("Different moves!", negascoutMove, inPlaceNegascoutMove);
+		assertEquals("Board changed by search!", boardBeforeSearch, board.toString());
+		gameContext.checkInBoard(board);
+	}
+	
+	private void compareNegascoutWithAndWithoutLeafBatching(int depth) {
+		Debug.output("testNegascoutWithAndWithoutLeafBatchingShouldSelectSameMoveWithSameScore with depth " + depth);
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		board.fromString(BOARD_FOR_TESTING_EVALUATIONS);
+		board.setCurrentPlayer(blackPlayer);
+		String boardBeforeSearch = board.toString();
+		ReversiMove negascoutMove = (ReversiMove) negascoutSearcher.findMove(board, moveRanker, depth);
+		ReversiMove batchingNegascoutMove = (ReversiMove) batchingNegascoutSearcher.findMove(board, moveRanker, depth);
+		assertEquals("Scores don't match!", negascoutSearcher.getBestMoveScore(), batchingNegascoutSearcher.getBestMoveScore());
+		assertEquals("Different moves!", negascoutMove, batchingNegascoutMove);
+		assertEquals("Board changed by search!", boardBeforeSearch, board.toString());
+		gameContext.checkInBoard(board);
+	}
+	
+	private void compareNegascoutAndRootSplitSearcher(int depth) {
+		Debug.output("testNegascoutAndRootSplitSearcherShouldSelectSameMoveWithSameScore with depth " + depth);
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		board.fromString(BOARD_FOR_TESTING_EVALUATIONS);
+		board.setCurrentPlayer(blackPlayer);
+		ReversiMove negascoutMove = (ReversiMove) negascoutSearcher.findMove(board, moveRanker, depth);
+		ReversiMove rootSplitMove = (ReversiMove) rootSplitSearcher.findMove(board, moveRanker, depth);
+		assertEquals("Scores don't match!", negascoutSearcher.getBestMoveScore(), rootSplitSearcher.getBestMoveScore());
+		assertEquals("Different moves!", negascoutMove, rootSplitMove);
+		gameContext.checkInBoard(board);
+	}
+	
+	private void compareNegascoutAndYbwcSearcher(int depth) {
+		Debug.output("testNegascoutAndYbwcSearcherShouldSelectSameMoveWithSameScore with depth " + depth);
+		ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+		board.fromString(BOARD_FOR_TESTING_EVALUATIONS);
+		board.setCurrentPlayer(blackPlayer);
+		ReversiMove negascoutMove = (ReversiMove) negascoutSearcher.findMove(board, moveRanker, depth);
+		ReversiMove ybwcMove = (ReversiMove) ybwcSearcher.findMove(board, moveRanker, depth);
+		assertEquals("Scores don't match!", negascoutSearcher.getBestMoveScore(), ybwcSearcher.getBestMoveScore());
+		assertEquals("Different moves!", negascoutMove, ybwcMove);
+		gameContext.checkInBoard(board);
+	}
+	
 	public void onIterationStart(int iteration) {
 		Debug.output(0, "ITERATION " + iteration + " START");
 	}
 	
-	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached) {
+	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
 		if (thresholdReached) {
 			Debug.output(0, "ITERATION " + iteration + " THRESHOLD REACHED");
 		} else {
@@ -132,4 +252,16 @@ public class SearchComparisonTest extends TestCase implements SearchProgressList
 	public void onLeafEvaluation(int score, Player player, int depth) {
 		Debug.output(depth + 2, "LEAF score = " + score + " player = " + player + " depth = " + depth);
 	}
+
+	public void onAggregateNodeCount(int iteration, long nodeCount) {
+		Debug.output(0, "ITERATION " + iteration + " NODES " + nodeCount);
+	}
+
+	public void onFailLow(int iteration, int alpha, int beta) {
+		Debug.output(0, "ITERATION " + iteration + " FAIL LOW alpha = " + alpha + " beta = " + beta);
+	}
+
+	public void onFailHigh(int iteration, int alpha, int beta) {
+		Debug.output(0, "ITERATION " + iteration + " FAIL HIGH alpha = " + alpha + " beta = " + beta);
+	}
 }
@@ -0,0 +1,152 @@
+/*
+ * @(#)SearchLatencyBenchmark.java		2026/10/18
+ *
+ * Part of the reversi common module that uses the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.reversi;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import net.lurgee.sgf.GameContext;
+import net.lurgee.sgf.IterativeSearcher;
+import net.lurgee.sgf.KillerHeuristicMoveRanker;
+import net.lurgee.sgf.Move;
+import net.lurgee.sgf.NegascoutSearcher;
+import net.lurgee.sgf.ObjectPool;
+import net.lurgee.sgf.Player;
+
+/**
+ * Benchmark of the time taken to find each move with the searchers used by the lowest levels of the applet, whose
+ * evaluation thresholds are low enough that most searches end part way through an iteration. The games are played by
+ * the searcher against itself from positions after a few random moves, without the library, so that every move is
+ * searched. The mean, 99th percentile and maximum times per move are reported for each level, along with how many
+ * searches ended at the threshold. The cost of ending a search by throwing an exception from deep in the recursion is
+ * also reported, with a stack trace filled in and without. Run with the benchmark target of the build file.
+ * @author mpatric
+ */
+public class SearchLatencyBenchmark {
+
+	// the depths and thresholds of the lowest levels of the applet
+	private static final int[] LEVEL_DEPTHS = {5, 5, 7};
+	private static final int[] LEVEL_THRESHOLDS = {200, 500, 2000};
+	private static final int KILLER_MOVES = 4;
+	private static final int GAMES = 20;
+	private static final int RANDOM_MOVES = 4;
+	private static final int THROW_DEPTH = 20;
+	private static final int THROWS = 100000;
+	private static final RuntimeException STACKLESS = new RuntimeException() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Throwable fillInStackTrace() {
+			return this;
+		}
+	};
+
+	private final GameContext gameContext;
+
+	public SearchLatencyBenchmark() {
+		Player[] players = new Player[] {ReversiPlayer.getInstance(Colour.BLACK), ReversiPlayer.getInstance(Colour.WHITE)};
+		gameContext = new GameContext(players, new ObjectPool(ReversiBoard.class), new ReversiMoveFactory(), false);
+	}
+
+	public static void main(String[] args) {
+		SearchLatencyBenchmark benchmark = new SearchLatencyBenchmark();
+		// the first run warms up the virtual machine
+		benchmark.timeLevels(false);
+		benchmark.timeLevels(true);
+		benchmark.timeThrows(false);
+		benchmark.timeThrows(true);
+	}
+
+	private void timeLevels(boolean report) {
+		if (report) {
+			System.out.println("Level, depth, threshold, moves, searches ended at threshold, mean us, 99th percentile us, max us");
+		}
+		for (int level = 0; level < LEVEL_DEPTHS.length; level++) {
+			NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, new ReversiEvaluator(), true);
+			negascoutSearcher.setSearchInPlace(true);
+			negascoutSearcher.setForwardPruningPolicy(new ReversiForwardPruningPolicy());
+			IterativeSearcher searcher = new IterativeSearcher(negascoutSearcher, null);
+			KillerHeuristicMoveRanker moveRanker = new KillerHeuristicMoveRanker(new ReversiMoveRanker(), KILLER_MOVES);
+			long[] times = new long[GAMES * 64];
+			int moveCount = 0;
+			int thresholdCount = 0;
+			Random random = new Random(25);
+			ReversiBoard board = (ReversiBoard) gameContext.checkOutBoard();
+			for (int game = 0; game < GAMES; game++) {
+				board.initialise();
+				int movesPlayed = 0;
+				while (!board.isGameOver()) {
+					if (!board.canMove()) {
+						board.nextPlayer();
+						continue;
+					}
+					Move move;
+					if (movesPlayed < RANDOM_MOVES) {
+						List<Move> moves = board.getValidMoves(null, 1);
+						move = moves.get(random.nextInt(moves.size()));
+					} else {
+						long start = System.nanoTime();
+						move = searcher.findMove(board, moveRanker, LEVEL_DEPTHS[level], LEVEL_THRESHOLDS[level]);
+						times[moveCount++] = System.nanoTime() - start;
+						if (searcher.getCompletedDepth() < Math.min(LEVEL_DEPTHS[level], board.countMaxMovesLeft())) {
+							thresholdCount++;
+						}
+					}
+					board.playMove(move, null, false);
+					movesPlayed++;
+				}
+			}
+			gameContext.checkInBoard(board);
+			if (report) {
+				long[] sortedTimes = Arrays.copyOf(times, moveCount);
+				Arrays.sort(sortedTimes);
+				long total = 0;
+				for (int i = 0; i < moveCount; i++) {
+					total += sortedTimes[i];
+				}
+				System.out.println((level + 1) + ", " + LEVEL_DEPTHS[level] + ", " + LEVEL_THRESHOLDS[level] + ", " + moveCount + ", "
+						+ thresholdCount + ", " + total / moveCount / 1000 + ", " + sortedTimes[moveCount * 99 / 100] / 1000 + ", "
+						+ sortedTimes[moveCount - 1] / 1000);
+			}
+		}
+	}
+
+	private void timeThrows(boolean report) {
+		long start = System.nanoTime();
+		for (int i = 0; i < THROWS; i++) {
+			try {
+				recurse(THROW_DEPTH, true);
+			} catch (RuntimeException e) {
+				// ended
+			}
+		}
+		long stackTraceTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < THROWS; i++) {
+			try {
+				recurse(THROW_DEPTH, false);
+			} catch (RuntimeException e) {
+				// ended
+			}
+		}
+		long stacklessTime = System.nanoTime() - start;
+		if (report) {
+			System.out.println("Ending a search " + THROW_DEPTH + " calls deep with a stack trace: " + stackTraceTime / THROWS + "ns, without: "
+					+ stacklessTime / THROWS + "ns");
+		}
+	}
+
+	private static int recurse(int depth, boolean stackTrace) {
+		if (depth == 0) {
+			throw stackTrace ? new RuntimeException("Ended") : STACKLESS;
+		}
+		return recurse(depth - 1, stackTrace) + depth;
+	}
+}
@@ -9,7 +9,8 @@
 package net.lurgee.sgf;
 
 /**
- * Runtime exception to indicate a search was aborted.
+ * Runtime exception to indicate a search was aborted. Thrown to unwind the search rather than to report an error, so
+ * no stack trace is filled in; searchers throw a single preallocated instance.
  * @author mpatric
  */
 public class AbortException extends SearchException {
@@ -19,4 +20,10 @@ public class AbortException extends SearchException {
 	public AbortException(String message) {
 		super(message);
 	}
+
+	@Override
+	public Throwable fillInStackTrace() {
+		// filling in the stack of a deep search takes longer than unwinding it, and says nothing useful
+		return this;
+	}
 }
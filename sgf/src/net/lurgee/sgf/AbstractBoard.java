@@ -18,10 +18,14 @@ import java.util.List;
  */
 public abstract class AbstractBoard implements Poolable {
 
+	public static final long NO_POSITION_HASH = 0;
+
 	protected GameContext gameContext = null;
 	protected Player currentPlayer = null;
 	protected boolean gameOver = false;
 	private Move lastMovePlayed = null;
+	private IncrementalEvaluator incrementalEvaluator = null;
+	private int[] accumulator = null;
 	
 	public void setGameContext(GameContext gameContext) {
 		this.gameContext = gameContext;
@@ -50,6 +54,50 @@ public abstract class AbstractBoard implements Poolable {
 		currentPlayer = null;
 		lastMovePlayed = null;
 		gameOver = false;
+		incrementalEvaluator = null;
+	}
+
+	public IncrementalEvaluator getIncrementalEvaluator() {
+		return incrementalEvaluator;
+	}
+
+	/**
+	 * Attach an incremental evaluator to the board, working out its accumulator from scratch. From then on, the
+	 * accumulator is updated as the squares of the board change, until the board is cleared or another evaluator (or
+	 * null) is attached.
+	 * @param incrementalEvaluator The evaluator, or null to detach the current one.
+	 * @param startBoard The board before any moves were made, which features may be relative to.
+	 */
+	public void setIncrementalEvaluator(IncrementalEvaluator incrementalEvaluator, AbstractBoard startBoard) {
+		this.incrementalEvaluator = incrementalEvaluator;
+		if (incrementalEvaluator != null) {
+			int size = incrementalEvaluator.getAccumulatorSize();
+			if (accumulator == null || accumulator.length != size) {
+				accumulator = new int[size];
+			}
+			incrementalEvaluator.initialiseAccumulator(startBoard, this, accumulator);
+		}
+	}
+
+	/**
+	 * Get the accumulator kept for the attached incremental evaluator.
+	 * @return The accumulator, which is only valid while an evaluator is attached.
+	 */
+	public int[] getAccumulator() {
+		return accumulator;
+	}
+
+	/**
+	 * Report that the contents of a square have changed, so that the accumulator of an attached incremental
+	 * evaluator can be updated. Should be called by games that support incremental evaluation each time a square
+	 * changes while a move is made.
+	 * @param square The square that changed, numbered as the game defines.
+	 * @param previousContents The contents of the square before it changed.
+	 */
+	protected final void squareChanged(int square, int previousContents) {
+		if (incrementalEvaluator != null) {
+			incrementalEvaluator.updateAccumulator(this, square, previousContents, accumulator);
+		}
 	}
 	
 	/**
@@ -60,7 +108,30 @@ public abstract class AbstractBoard implements Poolable {
 	public int countMaxMovesLeft() {
 		return Integer.MAX_VALUE;
 	}
-	
+
+	/**
+	 * Get a hash of the position on the board, including the player to move, for looking up positions in a
+	 * {@link TranspositionTable}. Boards representing the same position must return the same hash. Should be
+	 * over-ridden by games that can make use of a transposition table.
+	 * @return A hash of the position, or {@link #NO_POSITION_HASH} if the board does not support position hashing.
+	 */
+	public long getPositionHash() {
+		return NO_POSITION_HASH;
+	}
+
+	/**
+	 * Mix a value into a position hash. Intended for use by implementations of {@link #getPositionHash()}.
+	 * @param hash The hash so far.
+	 * @param value The value to mix in.
+	 * @return The new hash.
+	 */
+	protected static long mixPositionHash(long hash, long value) {
+		long h = hash * 0x9E3779B97F4A7C15L + value;
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
 	/**
 	 * Plays the move specified by the provided move for the current player, then set the board state accordingly.
 	 * Calls {@link AbstractBoard#makeMove(Move, List, boolean) makeMove} method on {@link AbstractBoard}. 
@@ -84,6 +155,51 @@ public abstract class AbstractBoard implements Poolable {
 		return result;
 	}
 	
+	/**
+	 * Save the state common to all boards to an undo record, for {@link AbstractUndoableBoard}.
+	 * @param undoRecord The undo record to save the state to.
+	 */
+	void saveCommonState(UndoRecord undoRecord) {
+		undoRecord.currentPlayer = currentPlayer;
+		undoRecord.lastMovePlayed = lastMovePlayed;
+		undoRecord.gameOver = gameOver;
+		if (incrementalEvaluator != null) {
+			if (undoRecord.accumulator == null || undoRecord.accumulator.length != accumulator.length) {
+				undoRecord.accumulator = new int[accumulator.length];
+			}
+			System.arraycopy(accumulator, 0, undoRecord.accumulator, 0, accumulator.length);
+		}
+	}
+	
+	/**
+	 * Restore the state common to all boards saved by {@link #saveCommonState(UndoRecord) saveCommonState}.
+	 * @param undoRecord The undo record the state was saved to.
+	 */
+	void restoreCommonState(UndoRecord undoRecord) {
+		currentPlayer = undoRecord.currentPlayer;
+		lastMovePlayed = undoRecord.lastMovePlayed;
+		gameOver = undoRecord.gameOver;
+		if (incrementalEvaluator != null) {
+			System.arraycopy(undoRecord.accumulator, 0, accumulator, 0, accumulator.length);
+		}
+	}
+	
+	/**
+	 * Determine whether the specified move is noisy, meaning that it changes the position so much that the board should
+	 * not be evaluated until the replies to it have been searched, such as a capture. Noisy moves are searched past the
+	 * depth of a search when a searcher does a {@link NegamaxSearcher#setQuiescenceDepth(int) quiescence search}.
+	 * Should be over-ridden by games with such moves.
+	 * @param move A valid move for the current player.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the move is noisy;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	public boolean isNoisyMove(Move move) {
+		return false;
+	}
+
 	/**
 	 * Change the current player to the next player.
 	 */
@@ -116,6 +232,14 @@ public abstract class AbstractBoard implements Poolable {
 			this.currentPlayer = ((AbstractBoard) board).currentPlayer;
 			this.lastMovePlayed = ((AbstractBoard) board).lastMovePlayed;
 			this.gameOver = ((AbstractBoard) board).gameOver;
+			this.incrementalEvaluator = ((AbstractBoard) board).incrementalEvaluator;
+			if (incrementalEvaluator != null) {
+				int[] otherAccumulator = ((AbstractBoard) board).accumulator;
+				if (accumulator == null || accumulator.length != otherAccumulator.length) {
+					accumulator = new int[otherAccumulator.length];
+				}
+				System.arraycopy(otherAccumulator, 0, accumulator, 0, otherAccumulator.length);
+			}
 		}
 	}
 
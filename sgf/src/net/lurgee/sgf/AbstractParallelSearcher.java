@@ -0,0 +1,413 @@
+/*
+ * @(#)AbstractParallelSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Abstract class for searchers that split a search between a number of threads. Each thread searches with a
+ * {@link Worker} of its own, on its own copies of the board and with its own move ranker (see
+ * {@link StatefulMoveRanker}). The workers count their evaluations with the {@link SearchControl search control} of
+ * this searcher, reserving them a few at a time when there is an evaluation threshold, so that the threads together
+ * stop at the threshold. The control is the parent of the workers' controls, so aborting the search or setting a
+ * deadline for it applies to all the threads. The workers pass search progress on to the listeners of this searcher.
+ * <p/>
+ * A {@link TranspositionTable} set on a parallel searcher is not used, as transposition tables are not thread-safe.
+ * @author mpatric
+ */
+public abstract class AbstractParallelSearcher extends AbstractSinglePassSearcher {
+
+	protected static final int INFINITY = 100000;
+	private static final int EVALUATION_COUNT_BATCH_SIZE = 64;
+
+	protected final int threadCount;
+	protected final Object listenerLock = new Object();
+	protected final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+	private ExecutorService executorService = null;
+	private MoveRanker[] workerMoveRankers = null;
+	private MoveRanker workerMoveRankersSource = null;
+	private boolean searchInPlace = false;
+	private int quiescenceDepth = 0;
+	private boolean leafBatching = false;
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to evaluate leaf node values. Shared between the threads, so must be thread-safe.
+	 * @param byeAllowed Should the search continue when there are board positions where a player cannot play?
+	 * @param threadCount The number of threads to search with, including the thread calling the searcher.
+	 */
+	public AbstractParallelSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed, int threadCount) {
+		super(gameContext, library, evaluator, true, byeAllowed);
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive");
+		}
+		this.threadCount = threadCount;
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	public boolean isSearchInPlace() {
+		return searchInPlace;
+	}
+
+	/**
+	 * Set whether each thread should make and unmake moves on a single board, as for
+	 * {@link NegamaxSearcher#setSearchInPlace(boolean)}.
+	 * @param searchInPlace Should the search be done in place?
+	 */
+	public void setSearchInPlace(boolean searchInPlace) {
+		this.searchInPlace = searchInPlace;
+	}
+
+	public int getQuiescenceDepth() {
+		return quiescenceDepth;
+	}
+
+	/**
+	 * Set how many plies past the depth of the search each thread should search noisy moves, as for
+	 * {@link NegamaxSearcher#setQuiescenceDepth(int)}.
+	 * @param quiescenceDepth The maximum number of extra plies, or 0 for no quiescence search.
+	 */
+	public void setQuiescenceDepth(int quiescenceDepth) {
+		if (quiescenceDepth < 0) {
+			throw new IllegalArgumentException("Quiescence depth cannot be negative");
+		}
+		this.quiescenceDepth = quiescenceDepth;
+	}
+
+	public boolean isLeafBatching() {
+		return leafBatching;
+	}
+
+	/**
+	 * Set whether each thread should score the leaves below a node together, as for
+	 * {@link NegamaxSearcher#setLeafBatching(boolean)}.
+	 * @param leafBatching Should the leaves be scored in batches?
+	 */
+	public void setLeafBatching(boolean leafBatching) {
+		this.leafBatching = leafBatching;
+	}
+
+	/**
+	 * Stop the threads used by this searcher. They are started again if the searcher is used afterwards.
+	 */
+	public void shutdown() {
+		synchronized (this) {
+			if (executorService != null) {
+				executorService.shutdown();
+				executorService = null;
+			}
+		}
+	}
+
+	@Override
+	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		// the move ranker is being reset, so the threads' move rankers must be too
+		workerMoveRankers = null;
+		return super.findMove(board, moveRanker, depth, evaluationThreshold);
+	}
+
+	/**
+	 * Get the worker used by one of the threads.
+	 * @param index The index of the thread, where 0 is the thread calling the searcher.
+	 * @return The worker.
+	 */
+	protected abstract Worker getWorker(int index);
+
+	/**
+	 * Get the workers ready for a search, giving each thread its own move ranker.
+	 * @param moveRanker The move ranker passed to the searcher, which is used by the thread calling the searcher.
+	 */
+	protected void prepareWorkers(MoveRanker moveRanker) {
+		if (workerMoveRankers == null || workerMoveRankersSource != moveRanker) {
+			workerMoveRankers = new MoveRanker[threadCount];
+			workerMoveRankers[0] = moveRanker;
+			for (int i = 1; i < threadCount; i++) {
+				if (moveRanker instanceof StatefulMoveRanker) {
+					workerMoveRankers[i] = ((StatefulMoveRanker) moveRanker).newInstance();
+				} else {
+					workerMoveRankers[i] = moveRanker;
+				}
+			}
+			workerMoveRankersSource = moveRanker;
+		}
+		failure.set(null);
+		searchControl.setEvaluationCount(evaluationCount);
+		for (int i = 0; i < threadCount; i++) {
+			Worker worker = getWorker(i);
+			worker.searchControl.reset();
+			worker.depthReached = 0;
+			worker.setSearchInPlace(searchInPlace);
+			worker.setQuiescenceDepth(quiescenceDepth);
+			worker.setLeafBatching(leafBatching);
+			worker.setOrderOfMovesIsImportant(orderOfMovesIsImportant);
+			worker.getSearchStatistics().reset();
+			worker.countedLeafCount = 0;
+			worker.setForwardingProgress(searchProgressListeners != null);
+		}
+	}
+
+	/**
+	 * Collect the evaluation count, depth reached and search statistics from the workers once a search has ended.
+	 */
+	protected void collectFromWorkers() {
+		for (int i = 0; i < threadCount; i++) {
+			Worker worker = getWorker(i);
+			worker.flushEvaluationCount();
+			if (worker.depthReached > depthReached) {
+				depthReached = worker.depthReached;
+			}
+			searchStatistics.add(worker.getSearchStatistics());
+		}
+		evaluationCount = searchControl.getEvaluationCount();
+	}
+
+	/**
+	 * Record an exception thrown by one of the threads. The first one ends the search, so the other threads are
+	 * stopped; it is rethrown by {@link #throwFailure()}.
+	 * @param e The exception.
+	 */
+	protected void recordFailure(RuntimeException e) {
+		if (failure.compareAndSet(null, e)) {
+			stopWorkers();
+		}
+	}
+
+	/**
+	 * Throw the first exception recorded by {@link #recordFailure(RuntimeException)}, if there is one.
+	 */
+	protected void throwFailure() {
+		RuntimeException e = failure.get();
+		if (e != null) {
+			throw e;
+		}
+	}
+
+	/**
+	 * Stop the searches of all the threads, without cancelling the search of this searcher.
+	 */
+	protected void stopWorkers() {
+		for (int i = 0; i < threadCount; i++) {
+			getWorker(i).abortSearch();
+		}
+	}
+
+	protected ExecutorService getExecutorService() {
+		synchronized (this) {
+			if (executorService == null) {
+				executorService = Executors.newFixedThreadPool(threadCount - 1, new SearcherThreadFactory(getClass().getSimpleName()));
+			}
+			return executorService;
+		}
+	}
+
+	protected void notifyListenerOfIterationStart() {
+		if (searchProgressListeners != null) {
+			for (int i = 0; i < searchProgressListeners.length; i++) {
+				searchProgressListeners[i].onIterationStart(iteration);
+			}
+		}
+	}
+
+	protected void notifyListenerOfIterationEnd(boolean thresholdReached, Move move, int score) {
+		if (searchProgressListeners != null) {
+			// the principal variation is not collected across threads, so only the best move is reported
+			List<Move> principalVariation = thresholdReached ? Collections.<Move>emptyList() : getPrincipalVariation();
+			for (int i = 0; i < searchProgressListeners.length; i++) {
+				searchProgressListeners[i].onIterationEnd(iteration, move, score, depthReached, thresholdReached, principalVariation);
+			}
+		}
+	}
+
+	protected void notifyListenerOfBranch(Move move, AbstractBoard board, Player player, int depth) {
+		if (searchProgressListeners != null) {
+			synchronized (listenerLock) {
+				for (int i = 0; i < searchProgressListeners.length; i++) {
+					searchProgressListeners[i].onBranch(move, board, player, depth);
+				}
+			}
+		}
+	}
+
+	protected void notifyListenerOfNodeEvaluation(Move move, int score, Player player, int depth) {
+		if (searchProgressListeners != null) {
+			synchronized (listenerLock) {
+				for (int i = 0; i < searchProgressListeners.length; i++) {
+					searchProgressListeners[i].onNodeEvaluation(move, score, player, depth);
+				}
+			}
+		}
+	}
+
+	private void notifyListenerOfLeafEvaluation(int score, Player player, int depth) {
+		if (searchProgressListeners != null) {
+			synchronized (listenerLock) {
+				for (int i = 0; i < searchProgressListeners.length; i++) {
+					searchProgressListeners[i].onLeafEvaluation(score, player, depth);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Searcher used by each thread. Leaf evaluations are counted from the worker's search statistics with the search
+	 * control of the outer searcher, and search progress is passed on to the listeners of the outer searcher if it has
+	 * any.
+	 */
+	protected class Worker extends NegascoutSearcher implements SearchProgressListener {
+
+		protected final int index;
+		private long countedLeafCount = 0;
+		private int pendingEvaluationCount = 0;
+		private int reservedEvaluationCount = 0;
+		private boolean forwardingProgress = false;
+
+		protected Worker(int index) {
+			super(AbstractParallelSearcher.this.gameContext, null, AbstractParallelSearcher.this.evaluator, AbstractParallelSearcher.this.byeAllowed);
+			this.index = index;
+			searchControl.setParent(AbstractParallelSearcher.this.searchControl);
+		}
+
+		/**
+		 * Set whether search progress should be passed on to the listeners of the outer searcher. The worker only
+		 * listens to its own progress while it is, so that a search without listeners is not notified of every node.
+		 * @param forwardingProgress Should search progress be passed on?
+		 */
+		private void setForwardingProgress(boolean forwardingProgress) {
+			if (forwardingProgress != this.forwardingProgress) {
+				if (forwardingProgress) {
+					addSearchProgressListener(this);
+				} else {
+					removeSearchProgressListener(this);
+				}
+				this.forwardingProgress = forwardingProgress;
+			}
+		}
+
+		/**
+		 * Get the move ranker for this worker's thread.
+		 * @return The move ranker.
+		 */
+		protected MoveRanker getMoveRanker() {
+			return workerMoveRankers[index];
+		}
+
+		/**
+		 * Determine whether the evaluation threshold has been reached by all the threads together. Evaluations are
+		 * reserved from the outer searcher's control when this thread has used the ones it reserved before, so the
+		 * threshold is only reached once every evaluation up to it has been reserved by one of the threads.
+		 */
+		@Override
+		protected boolean isEvaluationThresholdReached(long evaluationThreshold) {
+			countLeaves();
+			if (reservedEvaluationCount == 0) {
+				reservedEvaluationCount = AbstractParallelSearcher.this.searchControl.reserveEvaluations(evaluationThreshold);
+			}
+			return reservedEvaluationCount == 0;
+		}
+
+		/**
+		 * Add the evaluations that were done without being reserved to the outer searcher's control, and return the
+		 * ones that were reserved but not done.
+		 */
+		protected void flushEvaluationCount() {
+			countLeaves();
+			SearchControl outerSearchControl = AbstractParallelSearcher.this.searchControl;
+			if (pendingEvaluationCount > 0) {
+				outerSearchControl.addEvaluations(pendingEvaluationCount);
+				pendingEvaluationCount = 0;
+			}
+			if (reservedEvaluationCount > 0) {
+				outerSearchControl.returnEvaluations(reservedEvaluationCount);
+				reservedEvaluationCount = 0;
+			}
+		}
+
+		/**
+		 * Count the leaves evaluated since the last call against the evaluations reserved by this thread, adding any
+		 * beyond those to the evaluations to be added to the outer searcher's control.
+		 */
+		private void countLeaves() {
+			long leafCount = getSearchStatistics().getLeafCount();
+			int leaves = (int) (leafCount - countedLeafCount);
+			countedLeafCount = leafCount;
+			if (leaves <= reservedEvaluationCount) {
+				reservedEvaluationCount -= leaves;
+			} else {
+				pendingEvaluationCount += leaves - reservedEvaluationCount;
+				reservedEvaluationCount = 0;
+				if (pendingEvaluationCount >= EVALUATION_COUNT_BATCH_SIZE) {
+					AbstractParallelSearcher.this.searchControl.addEvaluations(pendingEvaluationCount);
+					pendingEvaluationCount = 0;
+				}
+			}
+		}
+
+		public void onIterationStart(int iteration) {
+			// iterations are reported by the outer searcher
+		}
+
+		public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
+			// iterations are reported by the outer searcher
+		}
+
+		public void onBranch(Move move, AbstractBoard board, Player player, int depth) {
+			AbstractParallelSearcher.this.notifyListenerOfBranch(move, board, player, depth);
+		}
+
+		public void onNodeEvaluation(Move move, int score, Player player, int depth) {
+			AbstractParallelSearcher.this.notifyListenerOfNodeEvaluation(move, score, player, depth);
+		}
+
+		public void onLeafEvaluation(int score, Player player, int depth) {
+			AbstractParallelSearcher.this.notifyListenerOfLeafEvaluation(score, player, depth);
+		}
+
+		public void onAggregateNodeCount(int iteration, long nodeCount) {
+			// leaf evaluations are passed on, so there is no aggregate count to report
+		}
+
+		public void onFailLow(int iteration, int alpha, int beta) {
+			// workers search with a full window at the root
+		}
+
+		public void onFailHigh(int iteration, int alpha, int beta) {
+			// workers search with a full window at the root
+		}
+	}
+
+	/**
+	 * Creates daemon threads, so that an idle searcher doesn't keep the application running.
+	 */
+	static class SearcherThreadFactory implements ThreadFactory {
+
+		private final String name;
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		SearcherThreadFactory(String name) {
+			this.name = name;
+		}
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
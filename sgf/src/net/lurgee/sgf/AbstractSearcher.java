@@ -8,6 +8,9 @@
 
 package net.lurgee.sgf;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Abstract class for generating and searching a game tree to find the best move.
  * @author mpatric
@@ -19,7 +22,7 @@ public abstract class AbstractSearcher {
 	protected final GameContext gameContext;
 	protected final Library library;
 
-	protected boolean aborted = false;
+	protected final SearchControl searchControl = new SearchControl();
 	protected Move bestMove = null;
 	protected int bestMoveScore = 0;
 	public AbstractSearcher(GameContext gameContext, Library library) {
@@ -70,7 +73,7 @@ public abstract class AbstractSearcher {
 		if (depth < 1) {
 			throw new IllegalArgumentException("Invalid depth");
 		}
-		aborted = false;
+		searchControl.reset();
 		bestMove = null;
 		bestMoveScore = 0;
 		if (library != null && library.shouldUseLibrary(board, depth)) {
@@ -80,17 +83,42 @@ public abstract class AbstractSearcher {
 		return move;
 	}
 	
+	/**
+	 * Get the control that the searches of this searcher are ended through. Searchers that search with other searchers
+	 * make it the parent of the other searchers' controls.
+	 */
+	public SearchControl getSearchControl() {
+		return searchControl;
+	}
+
+	/**
+	 * Cancel the current search, which then throws an {@link AbortException}. Also cancels the searches of any other
+	 * searchers it is using, as their controls have this searcher's control as an ancestor.
+	 */
 	public void abortSearch() {
-		aborted = true;
+		searchControl.cancel();
 	}
 
 	public boolean isAborted() {
-		return aborted;
+		return searchControl.isCancelled();
 	}
 	
 	public int getBestMoveScore() {
 		return bestMoveScore;
 	}
+
+	/**
+	 * Get the principal variation found by the last search, starting with the best move and followed by the best replies
+	 * to it for each player in turn. Searchers that do not collect the principal variation return just the best move.
+	 * @return The moves in the principal variation, or an empty list if there is no best move.
+	 */
+	public List<Move> getPrincipalVariation() {
+		List<Move> principalVariation = new ArrayList<Move>(1);
+		if (bestMove != null) {
+			principalVariation.add(bestMove);
+		}
+		return principalVariation;
+	}
 	
 	/**
 	 * Abstract method to generate a game tree and search for the best node, which is returned as a {@link Move}.
@@ -15,7 +15,13 @@ package net.lurgee.sgf;
 public abstract class AbstractSinglePassSearcher extends AbstractSearcher {
 	
 	protected static final String MSG_SEARCHER_ABORTED = "Searcher aborted";
-	protected static final String MSG_SEARCHER_THRESHOLD_REACHED = "Searcher evaluation threshold reached at depth ";
+	protected static final String MSG_SEARCHER_THRESHOLD_REACHED = "Searcher evaluation threshold reached";
+	protected static final String MSG_SEARCHER_DEADLINE_REACHED = "Searcher deadline reached";
+	// the exceptions that end searches are stackless and carry no state, so one of each is shared by all searchers
+	protected static final AbortException SEARCHER_ABORTED = new AbortException(MSG_SEARCHER_ABORTED);
+	protected static final SearchThresholdReachedException SEARCHER_THRESHOLD_REACHED = new SearchThresholdReachedException(MSG_SEARCHER_THRESHOLD_REACHED);
+	protected static final SearchThresholdReachedException SEARCHER_DEADLINE_REACHED = new SearchThresholdReachedException(MSG_SEARCHER_DEADLINE_REACHED);
+	public static final long NO_DEADLINE = SearchControl.NO_DEADLINE;
 
 	protected final Evaluator evaluator;
 	protected final boolean abCutoff;
@@ -23,6 +29,8 @@ public abstract class AbstractSinglePassSearcher extends AbstractSearcher {
 	protected long evaluationCount = 0;
 	protected int depthReached = 0;
 	protected int iteration = 0;
+	protected TranspositionTable transpositionTable = null;
+	protected final SearchStatistics searchStatistics = new SearchStatistics();
 	public boolean orderOfMovesIsImportant = true; // TODO - this should be injected.. hard coded for now
 	
 	protected SearchProgressListener[] searchProgressListeners = null;
@@ -49,6 +57,14 @@ public abstract class AbstractSinglePassSearcher extends AbstractSearcher {
 		return evaluationCount;
 	}
 	
+	/**
+	 * Get the counts of the work done by the current or last search, which are kept whether or not there are any
+	 * {@link SearchProgressListener search progress listeners}.
+	 */
+	public SearchStatistics getSearchStatistics() {
+		return searchStatistics;
+	}
+	
 	public int getIteration() {
 		return iteration;
 	}
@@ -57,6 +73,43 @@ public abstract class AbstractSinglePassSearcher extends AbstractSearcher {
 		this.iteration = iteration;
 	}
 	
+	public long getDeadline() {
+		return searchControl.getOwnDeadline();
+	}
+
+	/**
+	 * Set a time at which searches are ended in the same way as when the evaluation threshold is reached, with a
+	 * {@link SearchThresholdReachedException}. As for the evaluation threshold, a search to a depth of one is not ended.
+	 * The deadline is held by the {@link #getSearchControl() search control}, so an earlier deadline set on one of its
+	 * ancestors applies instead.
+	 * @param deadline The time, as returned by {@link System#currentTimeMillis()}, or {@link #NO_DEADLINE} for none.
+	 */
+	public void setDeadline(long deadline) {
+		searchControl.setDeadline(deadline);
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/**
+	 * Set a transposition table for storing the results of searching positions, so that positions reached by more than
+	 * one sequence of moves are only searched once. Only used with boards that support
+	 * {@link AbstractBoard#getPositionHash() position hashing}.
+	 * @param transpositionTable The transposition table, may be null for none.
+	 */
+	public void setTranspositionTable(TranspositionTable transpositionTable) {
+		this.transpositionTable = transpositionTable;
+	}
+
+	public long getTranspositionTableHits() {
+		return (transpositionTable == null) ? 0 : transpositionTable.getHits();
+	}
+
+	public long getTranspositionTableMisses() {
+		return (transpositionTable == null) ? 0 : transpositionTable.getMisses();
+	}
+
 	public void addSearchProgressListener(SearchProgressListener searchProgressListener) {
 		if (findSearchProgressListener(searchProgressListener) < 0) {
 			if (searchProgressListeners == null) {
@@ -106,6 +159,10 @@ public abstract class AbstractSinglePassSearcher extends AbstractSearcher {
 	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
 		setEvaluationCount(0);
 		setIteration(1);
+		searchStatistics.reset();
+		if (transpositionTable != null) {
+			transpositionTable.newSearch();
+		}
 		return super.findMove(board, moveRanker, depth, evaluationThreshold);
 	}
 	
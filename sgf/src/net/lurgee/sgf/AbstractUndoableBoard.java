@@ -0,0 +1,64 @@
+/*
+ * @(#)AbstractUndoableBoard.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.List;
+
+/**
+ * Abstract class representing a board that supports unmaking moves, so that searchers can make and unmake moves on a
+ * single board rather than copying the board for every move. Games that support unmaking moves should extend this class
+ * rather than {@link AbstractBoard}; searchers copy boards that do not extend it.
+ * @author mpatric
+ */
+public abstract class AbstractUndoableBoard extends AbstractBoard {
+
+	/**
+	 * Create an undo record for saving the state of this board when moves are played, so that they can be unmade.
+	 * Searchers fall back to copying boards when this returns null, which a subclass may do if it holds state that its
+	 * undo records do not save.
+	 * @return A new undo record, or null if unmaking moves is not supported.
+	 */
+	public abstract UndoRecord createUndoRecord();
+
+	/**
+	 * Save the game-specific state of the board that the move about to be made will change.
+	 * @param move The move about to be made.
+	 * @param undoRecord The undo record to save the state to.
+	 */
+	protected abstract void saveState(Move move, UndoRecord undoRecord);
+
+	/**
+	 * Restore the game-specific state of the board saved by {@link #saveState(Move, UndoRecord) saveState}.
+	 * @param undoRecord The undo record the state was saved to.
+	 */
+	protected abstract void restoreState(UndoRecord undoRecord);
+
+	/**
+	 * Plays the move specified during a search, saving the state of the board to an undo record first so that the
+	 * move can be unmade with {@link #unmakeMove(UndoRecord) unmakeMove}.
+	 * @param move The move to play.
+	 * @param undoRecord An undo record created by this board (or another board of the same class), which is overwritten.
+	 * @return The result of playing the move, as for {@link #playMove(Move, List, boolean) playMove}.
+	 */
+	public int playMove(Move move, UndoRecord undoRecord) {
+		saveCommonState(undoRecord);
+		saveState(move, undoRecord);
+		return playMove(move, null, true);
+	}
+
+	/**
+	 * Unmake the last move played with {@link #playMove(Move, UndoRecord)}, restoring the board to the state it was
+	 * in before the move was played. Moves must be unmade in the reverse order to which they were played.
+	 * @param undoRecord The undo record the move was played with.
+	 */
+	public void unmakeMove(UndoRecord undoRecord) {
+		restoreState(undoRecord);
+		restoreCommonState(undoRecord);
+	}
+}
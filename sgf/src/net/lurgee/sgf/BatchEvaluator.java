@@ -0,0 +1,31 @@
+/*
+ * @(#)BatchEvaluator.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that an {@link Evaluator} can implement to score a number of boards in one call. When {@link
+ * NegamaxSearcher#setLeafBatching(boolean) leaf batching} is turned on, the leaves below a node one ply from the depth
+ * of the search are scored together, so the evaluator can work out what the boards have in common, such as features
+ * of the start board, once for all of them.
+ * @author mpatric
+ */
+public interface BatchEvaluator extends Evaluator {
+
+	/**
+	 * Score a number of boards, giving the same scores as {@link Evaluator#score(AbstractBoard, AbstractBoard, int, int)
+	 * score} would for each of them.
+	 * @param startBoard The board before any moves were made.
+	 * @param boards The boards to score, which all have the same depth in the tree.
+	 * @param count The number of boards to score, from the start of the array.
+	 * @param currentDepth The depth of the leaves in the tree where this scoring is being done.
+	 * @param searchDepth The depth being used for searches.
+	 * @param scores The array to put the score for each board in, each for the current player of the board.
+	 */
+	void scoreBatch(AbstractBoard startBoard, AbstractBoard[] boards, int count, int currentDepth, int searchDepth, int[] scores);
+}
@@ -0,0 +1,29 @@
+/*
+ * @(#)CutoffAwareMoveRanker.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that a {@link MoveRanker} that ranks moves by how often they have caused cutoffs, such as
+ * {@link HistoryHeuristicMoveRanker}, must implement to be told about them. Searchers that do alpha-beta pruning call
+ * {@link #onCutoff(Move, AbstractBoard, Player, int, int) onCutoff} whenever a move causes a cutoff. Move rankers that
+ * encapsulate another move ranker should pass the call on to it if it also implements this interface.
+ * @author mpatric
+ */
+public interface CutoffAwareMoveRanker extends MoveRanker {
+
+	/**
+	 * Called when a move causes a cutoff.
+	 * @param move The move that caused the cutoff.
+	 * @param board The board the move was played on.
+	 * @param player The player that played the move.
+	 * @param depth The depth in the search tree at which this move was played.
+	 * @param remainingDepth The depth that the sub-tree below the board was being searched to.
+	 */
+	void onCutoff(Move move, AbstractBoard board, Player player, int depth, int remainingDepth);
+}
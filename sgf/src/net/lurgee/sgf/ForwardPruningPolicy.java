@@ -0,0 +1,62 @@
+/*
+ * @(#)ForwardPruningPolicy.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that a class deciding how a {@link NegascoutSearcher} prunes the tree selectively must implement. Forward
+ * pruning searches some moves less deeply than the others, or not at all, on the assumption that they won't turn out
+ * to be best; it saves nodes at the risk of missing good moves, so how much of it pays off depends on the game.
+ * {@link SimpleForwardPruningPolicy} can be configured, or extended, for each game. The effect of a policy can be judged
+ * from the {@link SearchStatistics search statistics}.
+ * <p/>
+ * Three kinds of pruning are supported:
+ * <ul>
+ * 	<li>late move reductions, where moves ranked late at a node are searched to a reduced depth, and searched again to
+ * 		the full depth if they turn out to be better than the best move so far;</li>
+ * 	<li>futility pruning, where only the first move is searched at nodes near the leaves whose score, with a margin
+ * 		added, is no better than alpha;</li>
+ * 	<li>null move pruning, where the player passes and the opponent's reply is searched to a reduced depth, and the
+ * 		node is cut off if the score is still at least beta. Only done by searchers for which a bye is allowed.</li>
+ * </ul>
+ * @author mpatric
+ */
+public interface ForwardPruningPolicy {
+
+	/** Returned by {@link #getFutilityMargin(AbstractBoard, int) getFutilityMargin} when there is no futility pruning. */
+	public static final int NO_FUTILITY_PRUNING = -1;
+
+	/**
+	 * Get the number of plies by which a move is searched less deeply than the other moves at a node. The first move at
+	 * a node is never reduced.
+	 * @param board The board with the move played on it.
+	 * @param move The move.
+	 * @param moveNumber The position of the move in the order that the moves at the node are searched, starting from 0.
+	 * @param d The depth that the node's sub-tree is being searched to.
+	 * @return The reduction, or 0 for none.
+	 */
+	int getReduction(AbstractBoard board, Move move, int moveNumber, int d);
+
+	/**
+	 * Get the margin added to the score of a node to decide whether searching all its moves is futile. If the score of
+	 * the board with the margin added is no more than alpha, only the first move at the node is searched.
+	 * @param board The board at the node, with the player to move as the current player.
+	 * @param d The depth that the node's sub-tree is being searched to.
+	 * @return The margin, or {@link #NO_FUTILITY_PRUNING} to search all the moves.
+	 */
+	int getFutilityMargin(AbstractBoard board, int d);
+
+	/**
+	 * Get the number of plies by which the search following a null move (a pass) is reduced. Null moves are only tried
+	 * at nodes being searched with a null window, other than the root, and not directly below another null move.
+	 * @param board The board at the node, with the player to move as the current player.
+	 * @param d The depth that the node's sub-tree is being searched to.
+	 * @return The reduction, or 0 to not try a null move.
+	 */
+	int getNullMoveReduction(AbstractBoard board, int d);
+}
@@ -31,6 +31,18 @@ public class GameContext {
 		this.moveFactory = moveFactory;
 		this.randomlyChooseFromEquallyRankedScores = randomlyChooseFromEquallyRankedScores;
 	}
+
+	/**
+	 * Copy constructor. The copy has an empty board pool of its own, for boards of the same class, so that it can be used
+	 * by a different thread to the game context it is a copy of; the players and move factory are shared.
+	 * @param gameContext The game context to copy.
+	 */
+	public GameContext(GameContext gameContext) {
+		this.players = gameContext.players;
+		this.boardPool = new ObjectPool(gameContext.boardPool);
+		this.moveFactory = gameContext.moveFactory;
+		this.randomlyChooseFromEquallyRankedScores = gameContext.randomlyChooseFromEquallyRankedScores;
+	}
 	
 	public void setBoardPool(ObjectPool boardPool) {
 		this.boardPool = boardPool;
@@ -0,0 +1,24 @@
+/*
+ * @(#)GameResultBoard.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that a board can implement to report the result of a game once it is over. Must be implemented by boards
+ * searched by searchers that play games out to the end, such as {@link MctsSearcher} and {@link ProofNumberSearcher}.
+ * @author mpatric
+ */
+public interface GameResultBoard {
+
+	/**
+	 * Get the winner of the game once it is over. A game that ends when neither player can move must work out its
+	 * winner in that position too.
+	 * @return The player who won, or null if the game was drawn.
+	 */
+	Player getWinner();
+}
@@ -0,0 +1,115 @@
+/*
+ * @(#)HistoryHeuristicMoveRanker.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.List;
+
+/**
+ * Implementation of a move ranker that ranks moves by how often they have caused cutoffs, weighted by the depth of the
+ * sub-tree that was cut off, whatever position they were played in. Unlike {@link KillerHeuristicMoveRanker}, which
+ * only remembers a few moves at each depth, every move has a score, so moves in the middle of a move list are ordered
+ * too. Scores are kept for each player in an array indexed by {@link Move#getId() move id}, and
+ * are halved when the move ranker is reset, so that those from previous searches count for less but are not lost.
+ * <p/>
+ * It can encapsulate another move ranker, which is used for ranking moves that have not caused a cutoff. The
+ * encapsulated move ranker should never return ranks higher than {@link #HISTORY_SCORE_BASE}. This move ranker can in
+ * turn be encapsulated by a {@link KillerHeuristicMoveRanker}, so that killer moves are ranked first.
+ * @author mpatric
+ */
+public class HistoryHeuristicMoveRanker implements StatefulMoveRanker, CutoffAwareMoveRanker {
+
+	public static final int HISTORY_SCORE_BASE = 100000;
+	public static final int MAX_HISTORY_SCORE = 500000;
+	
+	private final GameContext gameContext;
+	private final MoveRanker moveRanker;
+	private final Player[] players;
+	private final int moveIdCount;
+	private final int[] historyScores;
+
+	public HistoryHeuristicMoveRanker(GameContext gameContext, MoveRanker moveRanker) {
+		this.gameContext = gameContext;
+		this.moveRanker = moveRanker;
+		List<Player> playerList = gameContext.getPlayers();
+		players = playerList.toArray(new Player[playerList.size()]);
+		moveIdCount = gameContext.getMoveFactory().getMoveIdCount();
+		historyScores = new int[players.length * moveIdCount];
+	}
+
+	public int getRank(Move move, AbstractBoard board, int depth) {
+		int score = historyScores[getIndex(move, board.getCurrentPlayer())];
+		if (score > 0) {
+			return HISTORY_SCORE_BASE + score;
+		}
+		return moveRanker.getRank(move, board, depth);
+	}
+	
+	public void onNodeEvaluation(Move move, AbstractBoard board, int score, Player player, int depth) {
+		moveRanker.onNodeEvaluation(move, board, score, player, depth);
+	}
+	
+	public void onCutoff(Move move, AbstractBoard board, Player player, int depth, int remainingDepth) {
+		int index = getIndex(move, player);
+		int score = historyScores[index] + remainingDepth * remainingDepth;
+		if (score > MAX_HISTORY_SCORE) {
+			age();
+			score = historyScores[index] + remainingDepth * remainingDepth;
+		}
+		historyScores[index] = score;
+		if (moveRanker instanceof CutoffAwareMoveRanker) {
+			((CutoffAwareMoveRanker) moveRanker).onCutoff(move, board, player, depth, remainingDepth);
+		}
+	}
+	
+	/**
+	 * Age the history scores, rather than clearing them, as they are mostly still useful for the next search.
+	 */
+	public void reset() {
+		age();
+		moveRanker.reset();
+	}
+	
+	/**
+	 * Clear the history scores.
+	 */
+	public void clear() {
+		for (int i = 0; i < historyScores.length; i++) {
+			historyScores[i] = 0;
+		}
+	}
+	
+	public MoveRanker newInstance() {
+		MoveRanker newMoveRanker = moveRanker;
+		if (moveRanker instanceof StatefulMoveRanker) {
+			newMoveRanker = ((StatefulMoveRanker) moveRanker).newInstance();
+		}
+		return new HistoryHeuristicMoveRanker(gameContext, newMoveRanker);
+	}
+	
+	protected int getHistoryScore(Move move, Player player) {
+		return historyScores[getIndex(move, player)];
+	}
+	
+	private void age() {
+		for (int i = 0; i < historyScores.length; i++) {
+			historyScores[i] >>= 1;
+		}
+	}
+	
+	private int getIndex(Move move, Player player) {
+		int playerIndex = 0;
+		for (int i = 0; i < players.length; i++) {
+			if (players[i] == player) {
+				playerIndex = i;
+				break;
+			}
+		}
+		return playerIndex * moveIdCount + move.getId();
+	}
+}
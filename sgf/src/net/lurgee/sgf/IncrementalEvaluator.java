@@ -0,0 +1,47 @@
+/*
+ * @(#)IncrementalEvaluator.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that an {@link Evaluator} can implement to score boards incrementally. Once the evaluator is
+ * {@link AbstractBoard#setIncrementalEvaluator(IncrementalEvaluator, AbstractBoard) attached} to a board, the board
+ * reports each square whose contents change as moves are played, and the evaluator keeps a running accumulator of the
+ * features of the board in an array held by the board. The accumulator is copied along with the board, and restored
+ * when a move is unmade, so leaf boards can be scored from it without looking at the rest of the board.
+ * <p/>
+ * {@link NegamaxSearcher} and its subclasses attach incremental evaluators to the boards they search. Boards that the
+ * evaluator is not attached to must still be scored in full by {@link Evaluator#score(AbstractBoard, AbstractBoard, int, int) score}.
+ * @author mpatric
+ */
+public interface IncrementalEvaluator extends Evaluator {
+
+	/**
+	 * Get the number of values in the accumulator kept for a board.
+	 * @return The size of the accumulator.
+	 */
+	int getAccumulatorSize();
+
+	/**
+	 * Work out the accumulator for a board from scratch, when the evaluator is attached to it.
+	 * @param startBoard The board before any moves were made, which features may be relative to.
+	 * @param board The board the evaluator is being attached to.
+	 * @param accumulator The accumulator to fill in.
+	 */
+	void initialiseAccumulator(AbstractBoard startBoard, AbstractBoard board, int[] accumulator);
+
+	/**
+	 * Update the accumulator after the contents of a square of the board have changed. Called while a move is being
+	 * made, so only the contents of the squares of the board should be used; other state may not have been updated yet.
+	 * @param board The board, with the square already changed.
+	 * @param square The square that changed, numbered as the game defines.
+	 * @param previousContents The contents of the square before it changed, as the game defines them.
+	 * @param accumulator The accumulator to update.
+	 */
+	void updateAccumulator(AbstractBoard board, int square, int previousContents, int[] accumulator);
+}
@@ -8,52 +8,254 @@
 
 package net.lurgee.sgf;
 
+import java.util.List;
 
 /**
  * Class for generating and searching a game tree to find the best move with iterative deepening using an underlying
  * single-pass searcher (such as {@link NegamaxSearcher} or {@link NegascoutSearcher}).
+ * <p/>
+ * As well as by an evaluation threshold, searches may be bounded by a {@link #setTimeBudget(long, long) time budget},
+ * which gives similar response times on different hardware and at different stages of a game. Each iteration may be
+ * started with a narrow {@link #setAspirationWindow(int) aspiration window} around the score of the previous one.
+ * <p/>
+ * A search can be {@link #resumeNextSearch(int, List) resumed} from a depth that an earlier search has already partly
+ * solved, such as when the opponent has played the reply that the earlier search expected.
  * @author mpatric
  */
 public class IterativeSearcher extends AbstractSearcher {
 
+	public static final long NO_TIME_BUDGET = 0;
+	public static final int NO_ASPIRATION_WINDOW = 0;
+	private static final int DEFAULT_ITERATION_TIME_GROWTH = 4;
+	private static final int ASPIRATION_WINDOW_GROWTH = 4;
+
 	private final AbstractSinglePassSearcher searcher;
 	private int currentDepth;
+	private long softTimeBudget = NO_TIME_BUDGET;
+	private long hardTimeBudget = NO_TIME_BUDGET;
+	private int aspirationWindow = NO_ASPIRATION_WINDOW;
+	private int completedDepth = 0;
+	private int resumeDepth = 0;
+	private List<Move> resumeVariation = null;
 
 	public IterativeSearcher(AbstractSinglePassSearcher searcher, Library library) {
 		super(searcher.gameContext, library);
 		this.searcher = searcher;
+		searcher.getSearchControl().setParent(searchControl);
+	}
+	
+	public AbstractSinglePassSearcher getSinglePassSearcher() {
+		return searcher;
 	}
 	
+	public long getSoftTimeBudget() {
+		return softTimeBudget;
+	}
+
+	public long getHardTimeBudget() {
+		return hardTimeBudget;
+	}
+
+	/**
+	 * Set the same soft and hard time budget for searches (see {@link #setTimeBudget(long, long)}), so that no search
+	 * takes longer than the budget and an iteration is not started if it is unlikely to finish within it.
+	 * @param timeBudget The time budget in milliseconds, or {@link #NO_TIME_BUDGET} for none.
+	 */
+	public void setTimeBudget(long timeBudget) {
+		setTimeBudget(timeBudget, timeBudget);
+	}
+
+	/**
+	 * Set a time budget for searches. A new iteration is not started once the soft time budget has been used, or if it
+	 * is unlikely to finish within it going by how long the previous iterations took. A search is ended part way through
+	 * an iteration when the hard time budget has been used. Either way, the best move from the last completed iteration
+	 * is returned; the first iteration is always completed, so that there is a best move.
+	 * @param softTimeBudget The soft time budget in milliseconds, or {@link #NO_TIME_BUDGET} for none.
+	 * @param hardTimeBudget The hard time budget in milliseconds, or {@link #NO_TIME_BUDGET} for none.
+	 */
+	public void setTimeBudget(long softTimeBudget, long hardTimeBudget) {
+		if (softTimeBudget < 0 || hardTimeBudget < 0) {
+			throw new IllegalArgumentException("Time budget cannot be negative");
+		}
+		if (hardTimeBudget != NO_TIME_BUDGET && softTimeBudget > hardTimeBudget) {
+			throw new IllegalArgumentException("Soft time budget cannot be more than hard time budget");
+		}
+		this.softTimeBudget = softTimeBudget;
+		this.hardTimeBudget = hardTimeBudget;
+	}
+
+	public int getAspirationWindow() {
+		return aspirationWindow;
+	}
+
+	/**
+	 * Set the size of the aspiration window. Each iteration after the first is started with a window of this size either
+	 * side of the best move score from the previous iteration, rather than a full window. If the score is outside the
+	 * window, the iteration is searched again with the window widened on that side, until the score is within it. Only
+	 * used with searchers that extend {@link NegamaxSearcher}, other than {@link MTDfSearcher}, which already starts from
+	 * the score of the previous iteration.
+	 * @param aspirationWindow The size of the window, or {@link #NO_ASPIRATION_WINDOW} for a full window.
+	 */
+	public void setAspirationWindow(int aspirationWindow) {
+		if (aspirationWindow < 0) {
+			throw new IllegalArgumentException("Aspiration window cannot be negative");
+		}
+		this.aspirationWindow = aspirationWindow;
+	}
+
+	/**
+	 * Get the depth of the last iteration completed by the current or last search.
+	 * @return The depth, or 0 if no iteration was completed, such as when the move was taken from the library.
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	/**
+	 * Resume the next search from a depth that has already been partly solved by an earlier search. After the first
+	 * iteration, which is always searched so that there is a best move, the iterations up to the specified depth are
+	 * skipped, and the principal variation is searched first at each ply. Only the next search is affected.
+	 * @param depth The depth to resume from. It is searched in full, as scores are only reused within a search.
+	 * @param principalVariation The line of play expected from the position searched, such as the rest of the principal
+	 * variation of the earlier search. Only followed by searchers that extend {@link NegamaxSearcher}.
+	 */
+	public void resumeNextSearch(int depth, List<Move> principalVariation) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Invalid depth");
+		}
+		resumeDepth = depth;
+		resumeVariation = principalVariation;
+	}
+
+	/**
+	 * Cancel a resume requested for the next search, if that search has not been started, such as when another searcher
+	 * found the move instead.
+	 * @return True if a resume was cancelled, false if none was pending.
+	 */
+	public boolean cancelResume() {
+		boolean resumePending = resumeDepth > 0;
+		resumeDepth = 0;
+		resumeVariation = null;
+		return resumePending;
+	}
+
 	@Override
 	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
 		searcher.setEvaluationCount(0);
 		searcher.setIteration(1);
-		return super.findMove(board, moveRanker, depth, evaluationThreshold);
+		completedDepth = 0;
+		try {
+			return super.findMove(board, moveRanker, depth, evaluationThreshold);
+		} finally {
+			resumeDepth = 0;
+			resumeVariation = null;
+		}
 	}
 
 	@Override
 	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		long startTime = System.currentTimeMillis();
+		long previousDeadline = searchControl.getOwnDeadline();
+		if (hardTimeBudget != NO_TIME_BUDGET) {
+			// set on this searcher's control, which the searcher's control follows
+			searchControl.setDeadline(startTime + hardTimeBudget);
+		}
+		long lastIterationTime = 0;
+		long previousIterationTime = 0;
 		try {
 			for (currentDepth = 1; currentDepth <= depth; currentDepth++) {
+				long iterationStartTime = System.currentTimeMillis();
 				if (currentDepth == 1) {
 					// no evaluation threshold on first search to ensure bestMove always gets set
 					bestMove = searcher.findMove(board, moveRanker, currentDepth);
 				} else {
+					if (softTimeBudget != NO_TIME_BUDGET
+							&& iterationStartTime - startTime + estimateIterationTime(lastIterationTime, previousIterationTime) > softTimeBudget) {
+						// next iteration is unlikely to finish within the time budget, so use the best move so far
+						break;
+					}
 					searcher.setIteration(searcher.getIteration() + 1);
-					bestMove = searcher.findMoveWithoutResetting(board, moveRanker, currentDepth, evaluationThreshold);
+					bestMove = searchIteration(board, moveRanker, currentDepth, evaluationThreshold);
 				}
 				bestMoveScore = searcher.getBestMoveScore();
+				completedDepth = currentDepth;
+				previousIterationTime = lastIterationTime;
+				lastIterationTime = System.currentTimeMillis() - iterationStartTime;
+				if (currentDepth == 1 && resumeDepth > 2 && depth > 2) {
+					// skip to the depth being resumed from, as the iterations before it have been done by an earlier search
+					currentDepth = Math.min(resumeDepth, depth) - 1;
+					searcher.setIteration(currentDepth);
+					if (resumeVariation != null && searcher instanceof NegamaxSearcher) {
+						((NegamaxSearcher) searcher).followPrincipalVariation(resumeVariation);
+					}
+					// the first iteration says nothing about how long the next one will take
+					lastIterationTime = 0;
+				}
 			}
 		} catch (SearchThresholdReachedException e) {
 			// search threshold reached, so use the best move so far up to this point!
+		} finally {
+			searchControl.setDeadline(previousDeadline);
 		}
 		return bestMove;
 	}
+
+	/**
+	 * Search one iteration after the first, with an aspiration window if one is set.
+	 */
+	private Move searchIteration(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) {
+		if (aspirationWindow == NO_ASPIRATION_WINDOW || !(searcher instanceof NegamaxSearcher) || searcher instanceof MTDfSearcher) {
+			return searcher.findMoveWithoutResetting(board, moveRanker, depth, evaluationThreshold);
+		}
+		NegamaxSearcher negamaxSearcher = (NegamaxSearcher) searcher;
+		int alphaWindow = aspirationWindow;
+		int betaWindow = aspirationWindow;
+		while (true) {
+			int alpha = Math.max(bestMoveScore - alphaWindow, -NegamaxSearcher.INFINITY);
+			int beta = Math.min(bestMoveScore + betaWindow, NegamaxSearcher.INFINITY);
+			Move move = negamaxSearcher.findMoveWithoutResetting(board, moveRanker, depth, alpha, beta, evaluationThreshold);
+			if (negamaxSearcher.isFailedLow()) {
+				alphaWindow = Math.min(alphaWindow * ASPIRATION_WINDOW_GROWTH, 2 * NegamaxSearcher.INFINITY);
+			} else if (negamaxSearcher.isFailedHigh()) {
+				betaWindow = Math.min(betaWindow * ASPIRATION_WINDOW_GROWTH, 2 * NegamaxSearcher.INFINITY);
+			} else {
+				return move;
+			}
+		}
+	}
+
+	/**
+	 * Estimate how long the next iteration will take, assuming that it takes longer than the last one by the same factor
+	 * as the last one took longer than the one before it.
+	 * @param lastIterationTime The time taken by the last iteration in milliseconds.
+	 * @param previousIterationTime The time taken by the iteration before the last one in milliseconds.
+	 * @return The estimated time in milliseconds.
+	 */
+	protected long estimateIterationTime(long lastIterationTime, long previousIterationTime) {
+		if (previousIterationTime > 0) {
+			return lastIterationTime * lastIterationTime / previousIterationTime;
+		}
+		return lastIterationTime * DEFAULT_ITERATION_TIME_GROWTH;
+	}
 	
+	/**
+	 * Get the principal variation found by the last iteration that completed. Only collected by searchers that extend
+	 * {@link NegamaxSearcher}; for other searchers, this is just the best move.
+	 */
 	@Override
-	public void abortSearch() {
-		super.abortSearch();
-		searcher.abortSearch();
+	public List<Move> getPrincipalVariation() {
+		if (searcher instanceof NegamaxSearcher) {
+			return searcher.getPrincipalVariation();
+		}
+		return super.getPrincipalVariation();
+	}
+
+	/**
+	 * Get the counts of the work done by the searcher used for each iteration, covering all the iterations of the
+	 * current or last search.
+	 */
+	public SearchStatistics getSearchStatistics() {
+		return searcher.getSearchStatistics();
 	}
 
 	@Override
@@ -8,35 +8,80 @@
 
 package net.lurgee.sgf;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Implementation of a move ranker that stores a specified number of move ranks based on previous evaluations.
  * These are then used for subsequent rankings. It can encapsulate another move ranker, which is used for ranking
  * if the move being ranked is not one of the 'killer' moves. The encapsulated move ranker should never return
  * ranks higher than {@link #KILLER_MOVE_SCORE_BASE} or this move ranker won't operate as expected.
+ * <p/>
+ * The killer moves for all depths are kept in flat arrays indexed by depth, which grow as deeper searches are done
+ * and are cleared rather than reallocated when the ranker is reset. A bit set of the ids of the killer moves at each
+ * depth means that moves which aren't killer moves, which are most of those ranked, are passed on to the encapsulated
+ * ranker without looking through the killer moves.
+ * <p/>
+ * If a {@link #setMateScore(int) mate score} is set, the last move at each depth scoring at least that much is also
+ * kept in a mate killer slot of its own, which ordinary killer moves can't push out, and which is ranked above them.
  * @author mpatric
  */
-public class KillerHeuristicMoveRanker implements MoveRanker {
+public class KillerHeuristicMoveRanker implements StatefulMoveRanker, CutoffAwareMoveRanker, KillerMoveRanker {
 
 	public static final int KILLER_MOVE_SCORE_BASE = 1000000;
+	public static final int MATE_KILLER_MOVE_SCORE = 2 * KILLER_MOVE_SCORE_BASE;
+	public static final int NO_MATE_SCORE = Integer.MAX_VALUE;
+	
+	private static final int INITIAL_DEPTHS = 32;
+	private static final int INITIAL_ID_WORDS = 4;
 	
 	private final MoveRanker moveRanker;
-	private final Map<Integer, KillerMoveList> killerMoveMap = new HashMap<Integer, KillerMoveList>();
 	private final int killerMovesPerLevel;
+	private int mateScore = NO_MATE_SCORE;
+	private int depths = 0;
+	private Move[] killerMoves;
+	private int[] killerMoveIds;
+	private int[] killerMoveScores;
+	private int[] killerMoveCounts;
+	private Move[] mateKillerMoves;
+	private int[] mateKillerMoveScores;
+	private int idWords = INITIAL_ID_WORDS;
+	private long[] killerMoveIdBits;
+	private int maxDepthUsed = -1;
 
 	public KillerHeuristicMoveRanker(MoveRanker moveRanker, int killerMovesPerLevel) {
 		this.moveRanker = moveRanker;
 		this.killerMovesPerLevel = killerMovesPerLevel;
+		allocate(INITIAL_DEPTHS, INITIAL_ID_WORDS);
+	}
+
+	public int getMateScore() {
+		return mateScore;
+	}
+
+	/**
+	 * Set the score from which a move is taken to win the game, so that it is kept in the mate killer slot for its
+	 * depth as well as being considered as an ordinary killer move. Scores are for the player who played the move, as
+	 * passed to {@link #onNodeEvaluation(Move, AbstractBoard, int, Player, int) onNodeEvaluation}.
+	 * @param mateScore The lowest winning score, or {@link #NO_MATE_SCORE} for no mate killer slot.
+	 */
+	public void setMateScore(int mateScore) {
+		this.mateScore = mateScore;
 	}
 
 	public int getRank(Move move, AbstractBoard board, int depth) {
-		KillerMoveList killerMoveList = killerMoveMap.get(depth);
-		if (killerMoveList != null) {
-			Integer score = killerMoveList.getScore(move);
-			if (score != null) {
-				return KILLER_MOVE_SCORE_BASE + score;
+		if (depth <= maxDepthUsed) {
+			int id = move.getId();
+			Move mateKillerMove = mateKillerMoves[depth];
+			if (mateKillerMove != null && mateKillerMove.getId() == id) {
+				return MATE_KILLER_MOVE_SCORE;
+			}
+			if (isKillerMoveId(depth, id)) {
+				int base = depth * killerMovesPerLevel;
+				for (int i = base; i < base + killerMoveCounts[depth]; i++) {
+					if (killerMoveIds[i] == id) {
+						return KILLER_MOVE_SCORE_BASE + killerMoveScores[i];
+					}
+				}
 			}
 		}
 		return moveRanker.getRank(move, board, depth);
@@ -47,136 +92,180 @@ public class KillerHeuristicMoveRanker implements MoveRanker {
 		moveRanker.onNodeEvaluation(move, board, score, player, depth);
 	}
 	
+	public void onCutoff(Move move, AbstractBoard board, Player player, int depth, int remainingDepth) {
+		if (moveRanker instanceof CutoffAwareMoveRanker) {
+			((CutoffAwareMoveRanker) moveRanker).onCutoff(move, board, player, depth, remainingDepth);
+		}
+	}
+	
+	public int getKillerMoves(int depth, Move[] killerMoves) {
+		int count = 0;
+		if (depth <= maxDepthUsed) {
+			Move mateKillerMove = mateKillerMoves[depth];
+			if (mateKillerMove != null && count < killerMoves.length) {
+				killerMoves[count++] = mateKillerMove;
+			}
+			int base = depth * killerMovesPerLevel;
+			for (int i = base; i < base + killerMoveCounts[depth] && count < killerMoves.length; i++) {
+				if (mateKillerMove == null || killerMoveIds[i] != mateKillerMove.getId()) {
+					killerMoves[count++] = this.killerMoves[i];
+				}
+			}
+		}
+		return count;
+	}
+	
+	public int getMaxKillerMoves() {
+		return (mateScore == NO_MATE_SCORE) ? killerMovesPerLevel : killerMovesPerLevel + 1;
+	}
+	
 	public void reset() {
-		killerMoveMap.clear();
+		if (maxDepthUsed >= 0) {
+			Arrays.fill(killerMoves, 0, (maxDepthUsed + 1) * killerMovesPerLevel, null);
+			Arrays.fill(killerMoveCounts, 0, maxDepthUsed + 1, 0);
+			Arrays.fill(mateKillerMoves, 0, maxDepthUsed + 1, null);
+			Arrays.fill(killerMoveIdBits, 0, (maxDepthUsed + 1) * idWords, 0L);
+			maxDepthUsed = -1;
+		}
+	}
+	
+	public MoveRanker newInstance() {
+		MoveRanker newMoveRanker = moveRanker;
+		if (moveRanker instanceof StatefulMoveRanker) {
+			newMoveRanker = ((StatefulMoveRanker) moveRanker).newInstance();
+		}
+		KillerHeuristicMoveRanker killerHeuristicMoveRanker = new KillerHeuristicMoveRanker(newMoveRanker, killerMovesPerLevel);
+		killerHeuristicMoveRanker.setMateScore(mateScore);
+		return killerHeuristicMoveRanker;
 	}
 	
 	protected int count(int depth) {
-		KillerMoveList killerMoveList = killerMoveMap.get(depth);
-		if (killerMoveList != null) {
-			return killerMoveList.count;
+		return (depth <= maxDepthUsed) ? killerMoveCounts[depth] : 0;
+	}
+
+	protected void addIfKillerMove(Move move, int score, int depth) {
+		int id = move.getId();
+		if (depth >= depths || (id >> 6) >= idWords) {
+			allocate(Math.max(depths, depth + 1), Math.max(idWords, (id >> 6) + 1));
+		}
+		if (depth > maxDepthUsed) {
+			maxDepthUsed = depth;
+		}
+		if (score >= mateScore) {
+			mateKillerMoves[depth] = move;
+			mateKillerMoveScores[depth] = score;
+		}
+		int base = depth * killerMovesPerLevel;
+		int count = killerMoveCounts[depth];
+		int worstScore = (count < killerMovesPerLevel) ? Integer.MIN_VALUE : killerMoveScores[base + count - 1];
+		if (score <= worstScore) {
+			return;
+		}
+		if (isKillerMoveId(depth, id)) {
+			for (int i = base; i < base + count; i++) {
+				if (killerMoveIds[i] == id) {
+					if (score <= killerMoveScores[i]) {
+						return;
+					}
+					// taken out, to be put back in its new place
+					System.arraycopy(killerMoves, i + 1, killerMoves, i, base + count - i - 1);
+					System.arraycopy(killerMoveIds, i + 1, killerMoveIds, i, base + count - i - 1);
+					System.arraycopy(killerMoveScores, i + 1, killerMoveScores, i, base + count - i - 1);
+					count--;
+					killerMoves[base + count] = null;
+					setKillerMoveId(depth, id, false);
+					break;
+				}
+			}
+		}
+		int i = base;
+		while (i < base + count && score < killerMoveScores[i]) {
+			i++;
+		}
+		if (count == killerMovesPerLevel) {
+			// the worst killer move is pushed out
+			setKillerMoveId(depth, killerMoveIds[base + count - 1], false);
+			count--;
+		}
+		System.arraycopy(killerMoves, i, killerMoves, i + 1, base + count - i);
+		System.arraycopy(killerMoveIds, i, killerMoveIds, i + 1, base + count - i);
+		System.arraycopy(killerMoveScores, i, killerMoveScores, i + 1, base + count - i);
+		killerMoves[i] = move;
+		killerMoveIds[i] = id;
+		killerMoveScores[i] = score;
+		killerMoveCounts[depth] = count + 1;
+		setKillerMoveId(depth, id, true);
+	}
+
+	private boolean isKillerMoveId(int depth, int id) {
+		int word = id >> 6;
+		return word < idWords && (killerMoveIdBits[depth * idWords + word] & (1L << id)) != 0;
+	}
+
+	private void setKillerMoveId(int depth, int id, boolean killer) {
+		int index = depth * idWords + (id >> 6);
+		if (killer) {
+			killerMoveIdBits[index] |= 1L << id;
 		} else {
-			return 0;
+			killerMoveIdBits[index] &= ~(1L << id);
 		}
 	}
 
-	protected void addIfKillerMove(Move move, int score, int depth) {
-		KillerMoveList killerMoveList = killerMoveMap.get(depth);
-		if (killerMoveList == null) {
-			killerMoveList = new KillerMoveList(killerMovesPerLevel);
-			killerMoveMap.put(depth, killerMoveList);
+	/**
+	 * Make the tables big enough for the specified number of depths and move ids, keeping the killer moves already in
+	 * them. Only done when a deeper search or a higher move id than before is seen, so rarely after the first search.
+	 */
+	private void allocate(int newDepths, int newIdWords) {
+		Move[] newKillerMoves = new Move[newDepths * killerMovesPerLevel];
+		int[] newKillerMoveIds = new int[newDepths * killerMovesPerLevel];
+		int[] newKillerMoveScores = new int[newDepths * killerMovesPerLevel];
+		int[] newKillerMoveCounts = new int[newDepths];
+		Move[] newMateKillerMoves = new Move[newDepths];
+		int[] newMateKillerMoveScores = new int[newDepths];
+		long[] newKillerMoveIdBits = new long[newDepths * newIdWords];
+		if (depths > 0) {
+			System.arraycopy(killerMoves, 0, newKillerMoves, 0, killerMoves.length);
+			System.arraycopy(killerMoveIds, 0, newKillerMoveIds, 0, killerMoveIds.length);
+			System.arraycopy(killerMoveScores, 0, newKillerMoveScores, 0, killerMoveScores.length);
+			System.arraycopy(killerMoveCounts, 0, newKillerMoveCounts, 0, depths);
+			System.arraycopy(mateKillerMoves, 0, newMateKillerMoves, 0, depths);
+			System.arraycopy(mateKillerMoveScores, 0, newMateKillerMoveScores, 0, depths);
+			for (int depth = 0; depth < depths; depth++) {
+				System.arraycopy(killerMoveIdBits, depth * idWords, newKillerMoveIdBits, depth * newIdWords, idWords);
+			}
 		}
-		killerMoveList.addIfKillerMove(move, score);
+		killerMoves = newKillerMoves;
+		killerMoveIds = newKillerMoveIds;
+		killerMoveScores = newKillerMoveScores;
+		killerMoveCounts = newKillerMoveCounts;
+		mateKillerMoves = newMateKillerMoves;
+		mateKillerMoveScores = newMateKillerMoveScores;
+		killerMoveIdBits = newKillerMoveIdBits;
+		depths = newDepths;
+		idWords = newIdWords;
 	}
 	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		boolean first = true; 
-		for (int depth : killerMoveMap.keySet()) {
-			KillerMoveList killerMoveList = killerMoveMap.get(depth);
-			if (killerMoveList != null) {
+		for (int depth = 0; depth <= maxDepthUsed; depth++) {
+			if (killerMoveCounts[depth] > 0 || mateKillerMoves[depth] != null) {
 				if (first) {
 					first = false;
 				} else {
 					sb.append('\n');
 				}
-				sb.append(depth).append(": ").append(killerMoveList.toString());
-			} else {
-				break;
-			}
-		}
-		return sb.toString();
-	}
-	
-	private class KillerMoveList {
-		private int count; 
-		private Move[] killerMoves;
-		private int[] scores;
-		
-		private KillerMoveList(int maxMoves) {
-			killerMoves = new Move[maxMoves];
-			scores = new int[maxMoves];
-			for (int i = 0; i < maxMoves; i++) {
-				killerMoves[i] = null;
-			}
-			count = 0;
-		}
-		
-		private Integer getScore(Move move) {
-			for (int i = 0; i < killerMoves.length; i++) {
-				if (killerMoves[i] == null) {
-					return null;
-				} else if (killerMoves[i].equals(move)) {
-					return scores[i];
-				}
-			}
-			return null;
-		}
-		
-		private boolean addIfKillerMove(Move move, int score) {
-			boolean added = false;
-			if (score > getWorstScore()) {
-				for (int i = 0; i < killerMoves.length; i++) {
-					if (killerMoves[i] == null) {
-						break;
-					} else if (killerMoves[i].equals(move)) {
-						if (score <= scores[i]) {
-							return false;
-						} else {
-							for (int j = i; j < killerMoves.length - 1; j++) {
-								killerMoves[j] = killerMoves[j + 1];
-								scores[j] = scores[j + 1];
-							}
-							killerMoves[killerMoves.length - 1] = null;
-							scores[killerMoves.length - 1] = Integer.MIN_VALUE;
-							count--;
-							break;
-						}
-					}
+				sb.append(depth).append(": ");
+				if (mateKillerMoves[depth] != null) {
+					sb.append("mate ").append(mateKillerMoves[depth].toString()).append('(').append(mateKillerMoveScores[depth]).append(") ");
 				}
-				for (int i = 0; i < killerMoves.length; i++) {
-					if (killerMoves[i] == null) {
-						killerMoves[i] = move;
-						scores[i] = score;
-						count++;
-						added = true;
-						break;
-					} else if (score >= scores[i]) {
-						for (int j = killerMoves.length - 1; j > i; j--) {
-							killerMoves[j] = killerMoves[j - 1];
-							scores[j] = scores[j - 1];
-						}
-						killerMoves[i] = move;
-						scores[i] = score;
-						if (count < killerMovesPerLevel) {
-							count++;
-						}
-						added = true;
-						break;
-					}
+				int base = depth * killerMovesPerLevel;
+				for (int i = base; i < base + killerMoveCounts[depth]; i++) {
+					sb.append(killerMoves[i].toString()).append('(').append(killerMoveScores[i]).append(") ");
 				}
 			}
-			return added;
-		}
-
-		private int getWorstScore() {
-			if (killerMoves[killerMoves.length - 1] == null) {
-				return Integer.MIN_VALUE;
-			} else {
-				return scores[scores.length - 1];
-			}
-		}
-
-		@Override
-		public String toString() {
-			StringBuilder sb = new StringBuilder();
-			for (int i = 0; i < killerMoves.length; i++) {
-				if (killerMoves[i] != null) {
-					sb.append(killerMoves[i].toString()).append('(').append(scores[i]).append(") ");
-				}
-			}
-			return sb.toString();
 		}
+		return sb.toString();
 	}
 }
@@ -0,0 +1,33 @@
+/*
+ * @(#)KillerMoveRanker.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that a {@link MoveRanker} that keeps killer moves for each depth, such as
+ * {@link KillerHeuristicMoveRanker}, can implement so that searchers can search the killer moves at a node before the
+ * rest of its moves are generated, for boards that support {@link StagedMoveGenerationBoard staged move generation}.
+ * @author mpatric
+ */
+public interface KillerMoveRanker extends MoveRanker {
+
+	/**
+	 * Get the killer moves kept for the specified depth, best first. The moves may not be valid for the board being
+	 * searched, so must be checked before they are played.
+	 * @param depth The depth in the search tree, as passed to {@link MoveRanker#getRank(Move, AbstractBoard, int) getRank}.
+	 * @param killerMoves An array the killer moves are copied to. No more moves than its length are copied.
+	 * @return The number of killer moves copied.
+	 */
+	int getKillerMoves(int depth, Move[] killerMoves);
+
+	/**
+	 * Get the largest number of killer moves kept for a depth.
+	 * @return The number of killer moves kept per depth.
+	 */
+	int getMaxKillerMoves();
+}
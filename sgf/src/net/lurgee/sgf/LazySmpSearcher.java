@@ -0,0 +1,376 @@
+/*
+ * @(#)LazySmpSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class for generating and searching a game tree to find the best move with iterative deepening using a number of
+ * threads, each of which runs the same iterative deepening search with a {@link NegascoutSearcher} of its own (lazy
+ * SMP). The threads share a {@link SharedTranspositionTable}, through which the results found by one thread are used by
+ * the others; the helper threads start at staggered depths, so that they are not all searching the same part of the
+ * tree at the same time. The move found by the thread calling the searcher is returned, and the helper threads are
+ * stopped once it has finished.
+ * <p/>
+ * Each helper thread has its own board pool and, if the move ranker passed in is a {@link StatefulMoveRanker}, its own
+ * move ranker. The evaluation threshold applies to the thread calling the searcher. Only the progress of that thread is
+ * reported to search progress listeners, along with the
+ * {@link SearchProgressListener#onAggregateNodeCount(int, long) number of leaves} evaluated by all the threads.
+ * <p/>
+ * Results are only shared for boards that support {@link AbstractBoard#getPositionHash() position hashing}; for other
+ * boards the helper threads have no effect on the search.
+ * @author mpatric
+ */
+public class LazySmpSearcher extends AbstractSearcher {
+
+	private final int threadCount;
+	private final SharedTranspositionTable transpositionTable;
+	private final NegascoutSearcher searcher;
+	private final HelperSearcher[] helpers;
+	private final AtomicLong helperNodeCount = new AtomicLong();
+	private volatile boolean helpersStopped = false;
+	private ExecutorService executorService = null;
+	private MoveRanker[] helperMoveRankers = null;
+	private MoveRanker helperMoveRankersSource = null;
+	private long nodeCount = 0;
+	private int currentDepth;
+
+	/**
+	 * Constructor for a searcher with a {@link SharedTranspositionTable} of the default size.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to evaluate leaf node values. Shared between the threads, so must be thread-safe.
+	 * @param byeAllowed Should the search continue when there are board positions where a player cannot play?
+	 * @param threadCount The number of threads to search with, including the thread calling the searcher.
+	 */
+	public LazySmpSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed, int threadCount) {
+		this(gameContext, library, evaluator, byeAllowed, threadCount, new SharedTranspositionTable());
+	}
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to evaluate leaf node values. Shared between the threads, so must be thread-safe.
+	 * @param byeAllowed Should the search continue when there are board positions where a player cannot play?
+	 * @param threadCount The number of threads to search with, including the thread calling the searcher.
+	 * @param transpositionTable The table shared by the threads.
+	 */
+	public LazySmpSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed, int threadCount, SharedTranspositionTable transpositionTable) {
+		super(gameContext, library);
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive");
+		}
+		this.threadCount = threadCount;
+		this.transpositionTable = transpositionTable;
+		searcher = new NegascoutSearcher(gameContext, null, evaluator, byeAllowed);
+		searcher.setTranspositionTable(transpositionTable.newView());
+		searcher.getSearchControl().setParent(searchControl);
+		helpers = new HelperSearcher[threadCount - 1];
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i] = new HelperSearcher(new GameContext(gameContext), evaluator, byeAllowed, i + 1);
+		}
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	public SharedTranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/**
+	 * Get the number of leaves evaluated by all the threads during the last search.
+	 * @return The number of leaves.
+	 */
+	public long getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Set whether each thread should make and unmake moves on a single board, as for
+	 * {@link NegamaxSearcher#setSearchInPlace(boolean)}.
+	 * @param searchInPlace Should the search be done in place?
+	 */
+	public void setSearchInPlace(boolean searchInPlace) {
+		searcher.setSearchInPlace(searchInPlace);
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i].setSearchInPlace(searchInPlace);
+		}
+	}
+
+	/**
+	 * Set how many plies past the depth of the search each thread should search noisy moves, as for
+	 * {@link NegamaxSearcher#setQuiescenceDepth(int)}.
+	 * @param quiescenceDepth The maximum number of extra plies, or 0 for no quiescence search.
+	 */
+	public void setQuiescenceDepth(int quiescenceDepth) {
+		searcher.setQuiescenceDepth(quiescenceDepth);
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i].setQuiescenceDepth(quiescenceDepth);
+		}
+	}
+
+	/**
+	 * Set whether each thread should score the leaves below a node together, as for
+	 * {@link NegamaxSearcher#setLeafBatching(boolean)}.
+	 * @param leafBatching Should the leaves be scored in batches?
+	 */
+	public void setLeafBatching(boolean leafBatching) {
+		searcher.setLeafBatching(leafBatching);
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i].setLeafBatching(leafBatching);
+		}
+	}
+
+	/**
+	 * Stop the helper threads used by this searcher. They are started again if the searcher is used afterwards.
+	 */
+	public void shutdown() {
+		synchronized (this) {
+			if (executorService != null) {
+				executorService.shutdown();
+				executorService = null;
+			}
+		}
+	}
+
+	@Override
+	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		searcher.setEvaluationCount(0);
+		searcher.setIteration(1);
+		transpositionTable.newSearch();
+		// the move ranker is being reset, so the helpers' move rankers must be too
+		helperMoveRankers = null;
+		return super.findMove(board, moveRanker, depth, evaluationThreshold);
+	}
+
+	@Override
+	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		nodeCount = 0;
+		helperNodeCount.set(0);
+		AbstractBoard[] helperBoards = new AbstractBoard[helpers.length];
+		List<Future<Object>> futures = startHelpers(board, helperBoards, moveRanker, depth);
+		try {
+			for (currentDepth = 1; currentDepth <= depth; currentDepth++) {
+				if (searchControl.isCancelled()) {
+					throw AbstractSinglePassSearcher.SEARCHER_ABORTED;
+				}
+				if (currentDepth == 1) {
+					// no evaluation threshold on first search to ensure bestMove always gets set
+					bestMove = searcher.findMove(board, moveRanker, currentDepth);
+				} else {
+					searcher.setIteration(searcher.getIteration() + 1);
+					bestMove = searcher.findMoveWithoutResetting(board, moveRanker, currentDepth, evaluationThreshold);
+				}
+				bestMoveScore = searcher.getBestMoveScore();
+				notifyListenerOfAggregateNodeCount();
+			}
+		} catch (SearchThresholdReachedException e) {
+			// search threshold reached, so use the best move so far up to this point!
+			notifyListenerOfAggregateNodeCount();
+		} finally {
+			stopHelpers(futures, helperBoards);
+			nodeCount = searcher.getEvaluationCount() + helperNodeCount.get();
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Start the helper threads, each searching its own copy of the board.
+	 */
+	private List<Future<Object>> startHelpers(AbstractBoard board, AbstractBoard[] helperBoards, MoveRanker moveRanker, int depth) {
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(helpers.length);
+		if (helpers.length > 0) {
+			if (helperMoveRankers == null || helperMoveRankersSource != moveRanker) {
+				helperMoveRankers = new MoveRanker[helpers.length];
+				for (int i = 0; i < helpers.length; i++) {
+					if (moveRanker instanceof StatefulMoveRanker) {
+						helperMoveRankers[i] = ((StatefulMoveRanker) moveRanker).newInstance();
+					} else {
+						helperMoveRankers[i] = moveRanker;
+					}
+				}
+				helperMoveRankersSource = moveRanker;
+			}
+			helpersStopped = false;
+			ExecutorService executorService = getExecutorService();
+			for (int i = 0; i < helpers.length; i++) {
+				helperBoards[i] = helpers[i].gameContext.checkOutBoard();
+				helperBoards[i].copy(board);
+				futures.add(executorService.submit(new HelperTask(helpers[i], helperBoards[i], helperMoveRankers[i], depth)));
+			}
+		}
+		return futures;
+	}
+
+	private void stopHelpers(List<Future<Object>> futures, AbstractBoard[] helperBoards) {
+		helpersStopped = true;
+		boolean interrupted = false;
+		RuntimeException failure = null;
+		for (Future<Object> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					// the helpers are using their boards, so wait for them to stop
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = new RuntimeException(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		for (int i = 0; i < helpers.length; i++) {
+			if (helperBoards[i] != null) {
+				helpers[i].gameContext.checkInBoard(helperBoards[i]);
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	private ExecutorService getExecutorService() {
+		synchronized (this) {
+			if (executorService == null) {
+				executorService = Executors.newFixedThreadPool(helpers.length, new AbstractParallelSearcher.SearcherThreadFactory(getClass().getSimpleName()));
+			}
+			return executorService;
+		}
+	}
+
+	private void notifyListenerOfAggregateNodeCount() {
+		SearchProgressListener[] searchProgressListeners = searcher.searchProgressListeners;
+		if (searchProgressListeners != null) {
+			long count = searcher.getEvaluationCount() + helperNodeCount.get();
+			for (int i = 0; i < searchProgressListeners.length; i++) {
+				searchProgressListeners[i].onAggregateNodeCount(searcher.getIteration(), count);
+			}
+		}
+	}
+
+	/**
+	 * Get the principal variation found by the last iteration that the thread calling the searcher completed.
+	 */
+	@Override
+	public List<Move> getPrincipalVariation() {
+		return searcher.getPrincipalVariation();
+	}
+
+	@Override
+	public void addSearchProgressListener(SearchProgressListener searchProgressListener) {
+		searcher.addSearchProgressListener(searchProgressListener);
+	}
+
+	@Override
+	public void removeSearchProgressListener(SearchProgressListener searchProgressListener) {
+		searcher.removeSearchProgressListener(searchProgressListener);
+	}
+
+	@Override
+	public void setOrderOfMovesIsImportant(boolean orderOfMovesIsImportant) {
+		searcher.setOrderOfMovesIsImportant(orderOfMovesIsImportant);
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i].setOrderOfMovesIsImportant(orderOfMovesIsImportant);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Lazy SMP " + searcher.toString();
+	}
+
+	/**
+	 * Task run by each helper thread, which searches to increasing depths until the thread calling the searcher has
+	 * finished. Every other helper starts a level deeper than the rest.
+	 */
+	private class HelperTask implements Callable<Object> {
+
+		private final HelperSearcher helper;
+		private final AbstractBoard board;
+		private final MoveRanker moveRanker;
+		private final int depth;
+
+		private HelperTask(HelperSearcher helper, AbstractBoard board, MoveRanker moveRanker, int depth) {
+			this.helper = helper;
+			this.board = board;
+			this.moveRanker = moveRanker;
+			this.depth = depth;
+		}
+
+		public Object call() {
+			int firstDepth = 1 + helper.index % 2;
+			try {
+				for (int d = firstDepth; d <= depth && !helpersStopped; d++) {
+					if (d == firstDepth) {
+						helper.countedLeafCount = 0;
+						helper.findMove(board, moveRanker, d);
+					} else {
+						helper.setIteration(helper.getIteration() + 1);
+						helper.findMoveWithoutResetting(board, moveRanker, d, NO_EVALUATION_THRESHOLD);
+					}
+					helper.flushNodeCount();
+				}
+			} catch (SearchException e) {
+				// stopped as the thread calling the searcher has finished, or as the deadline of the search has passed
+			} finally {
+				helper.flushNodeCount();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Searcher used by each helper thread. It stops when the helpers are stopped, and adds the leaves counted in its
+	 * search statistics to the count shared by the helpers after each iteration; its progress is not otherwise reported.
+	 */
+	private class HelperSearcher extends NegascoutSearcher {
+
+		private final int index;
+		private long countedLeafCount = 0;
+
+		private HelperSearcher(GameContext gameContext, Evaluator evaluator, boolean byeAllowed, int index) {
+			super(gameContext, null, evaluator, byeAllowed);
+			this.index = index;
+			setTranspositionTable(LazySmpSearcher.this.transpositionTable.newView());
+			searchControl.setParent(LazySmpSearcher.this.searchControl);
+		}
+
+		@Override
+		protected int search(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) throws SearchException, RuntimeException {
+			if (helpersStopped) {
+				throw SEARCHER_ABORTED;
+			}
+			return super.search(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+		}
+
+		private void flushNodeCount() {
+			long leafCount = getSearchStatistics().getLeafCount();
+			if (leafCount > countedLeafCount) {
+				helperNodeCount.addAndGet(leafCount - countedLeafCount);
+				countedLeafCount = leafCount;
+			}
+		}
+	}
+}
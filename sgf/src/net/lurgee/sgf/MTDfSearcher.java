@@ -0,0 +1,130 @@
+/*
+ * @(#)MTDfSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Class for generating and searching a game tree to find the best move using the MTD(f) algorithm, which finds the
+ * score of the root with a series of null window searches by the negascout algorithm, each one moving a bound on the
+ * score towards a first guess at it, until the bounds meet. With a good first guess, such as the score from an earlier
+ * iteration when used with an {@link IterativeSearcher}, only a few searches are needed; and as null window searches
+ * cut off more than searches with a wider window, fewer nodes are usually searched than by {@link NegascoutSearcher},
+ * especially for games with a narrow range of scores.
+ * <p/>
+ * The same parts of the tree are searched again by each search, so MTD(f) relies on a {@link TranspositionTable} to
+ * pay off. If none is set, the searcher uses one of its own. Either way, it is only used with boards that support
+ * {@link AbstractBoard#getPositionHash() position hashing}. Search progress listeners are told of each search as
+ * though it were an iteration, and of each search that fails low or high, so the same iteration may be reported a
+ * number of times. The principal variation is the one found by the last search that failed high, so it may be cut short
+ * where a position's score was found in the transposition table.
+ * @author mpatric
+ */
+public class MTDfSearcher extends NegascoutSearcher {
+
+	private int lastScore = 0;
+	private int secondLastScore = 0;
+	private int scoreCount = 0;
+	private int searchCount = 0;
+	private TranspositionTable boundTable = null;
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to evaluate leaf node values.
+	 * @param byeAllowed Should the search continue when there are board positions where a player cannot play?
+	 */
+	public MTDfSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed) {
+		super(gameContext, library, evaluator, byeAllowed);
+	}
+
+	/**
+	 * Get the number of null window searches done by the current or last call to
+	 * {@link #findMove(AbstractBoard, MoveRanker, int, long) findMove}, for all the iterations when used with an
+	 * {@link IterativeSearcher}.
+	 */
+	public int getSearchCount() {
+		return searchCount;
+	}
+
+	@Override
+	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		// a new position, so the score of the last one is no guide
+		scoreCount = 0;
+		searchCount = 0;
+		if (boundTable != null) {
+			boundTable.newSearch();
+		}
+		return super.findMove(board, moveRanker, depth, evaluationThreshold);
+	}
+
+	@Override
+	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		boolean usingBoundTable = (transpositionTable == null);
+		if (usingBoundTable) {
+			if (boundTable == null) {
+				boundTable = new TranspositionTable();
+			}
+			transpositionTable = boundTable;
+		}
+		try {
+			int score = getFirstGuess();
+			int lowerBound = -INFINITY;
+			int upperBound = INFINITY;
+			Move move = null;
+			int moveScore = 0;
+			while (lowerBound < upperBound) {
+				int beta = (score == lowerBound) ? score + 1 : score;
+				score = searchRoot(board, moveRanker, depth, beta - 1, beta, evaluationThreshold);
+				searchCount++;
+				if (score < beta) {
+					upperBound = score;
+				} else {
+					lowerBound = score;
+					// the move that failed high last scores at least the lower bound, so it is the best move
+					move = bestMove;
+					moveScore = score;
+				}
+				if (bestMove == null && !isFailedLow()) {
+					// no moves were searched, as the game is over
+					return null;
+				}
+			}
+			secondLastScore = lastScore;
+			lastScore = score;
+			scoreCount++;
+			bestMove = move;
+			bestMoveScore = moveScore;
+			return move;
+		} finally {
+			if (usingBoundTable) {
+				transpositionTable = null;
+			}
+		}
+	}
+
+	/**
+	 * Get the first guess at the score of the root. Scores tend to swing between odd and even depths, as the player who
+	 * moves last gains the most, so the score from two iterations before is a better guess than the score from the last
+	 * iteration, if there is one.
+	 * @return The first guess.
+	 */
+	private int getFirstGuess() {
+		if (scoreCount >= 2) {
+			return secondLastScore;
+		} else if (scoreCount == 1) {
+			return lastScore;
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return "MTD(f)";
+	}
+}
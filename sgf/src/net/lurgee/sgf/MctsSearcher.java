@@ -0,0 +1,730 @@
+/*
+ * @(#)MctsSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class for finding the best move with Monte Carlo tree search, using the UCT formula to choose which moves to explore.
+ * Each playout follows the tree from the root to a leaf, adds the moves at the leaf to the tree, and then plays random
+ * valid moves until the game is over, the result of which is recorded for every move on the way. The move played
+ * most often from the root is returned. Unlike the other searchers no evaluator is needed, but the boards must implement
+ * {@link GameResultBoard} so that the winner of each playout is known; if an evaluator is set, playouts are instead
+ * ended after a {@link #setPlayoutCutoff(int) number of plies} and the side that the evaluator favours is taken to have
+ * won.
+ * <p/>
+ * The playouts are shared between a number of threads, each playing moves on a board from a board pool of its own. The
+ * tree is shared, and is only used while holding a lock; a playout adds a virtual loss to the moves it follows, so
+ * that the other threads explore other moves until its result is known. The nodes of the tree are kept in arrays of
+ * primitives that are reused from one search to the next, so that large trees do not create large numbers of objects.
+ * <p/>
+ * The search depth is not used, other than to be checked, as the size of a search is set by the
+ * {@link #setPlayoutCount(int) number of playouts}. A search also ends once the evaluation threshold (counted in
+ * playouts) or the {@link #setDeadline(long) deadline} is reached, in which case the best move found so far is
+ * returned.
+ * @author mpatric
+ */
+public class MctsSearcher extends AbstractSearcher {
+
+	public static final int DEFAULT_PLAYOUT_COUNT = 10000;
+	public static final int DEFAULT_PLAYOUT_CUTOFF = 20;
+	public static final double DEFAULT_EXPLORATION_CONSTANT = 1.0;
+	public static final int DEFAULT_VIRTUAL_LOSS = 1;
+	public static final int DEFAULT_MAX_NODE_COUNT = 1 << 21;
+	private static final int INITIAL_NODE_CAPACITY = 1 << 12;
+	private static final int MAX_PLAYOUT_LENGTH = 1000;
+	private static final int PASS = -1;
+	private static final int UNEXPANDED = -1;
+	private static final int WIN = 2;
+	private static final int DRAW = 1;
+
+	private final int threadCount;
+	private final Evaluator evaluator;
+	private final Worker[] workers;
+	private final Object treeLock = new Object();
+	private final AtomicLong playoutsStarted = new AtomicLong();
+	private final AtomicLong playoutsCompleted = new AtomicLong();
+	private ExecutorService executorService = null;
+	private SearchProgressListener[] searchProgressListeners = null;
+	private int playoutCount = DEFAULT_PLAYOUT_COUNT;
+	private int playoutCutoff = DEFAULT_PLAYOUT_CUTOFF;
+	private double explorationConstant = DEFAULT_EXPLORATION_CONSTANT;
+	private int virtualLoss = DEFAULT_VIRTUAL_LOSS;
+	private int maxNodeCount = DEFAULT_MAX_NODE_COUNT;
+	private volatile long playoutLimit;
+	private volatile boolean stopped = false;
+	private AbstractBoard rootBoard = null;
+
+	// the tree, where the children of each node are stored next to each other
+	private int nodeCount = 0;
+	private int[] firstChild = new int[0];
+	private int[] childCount = new int[0];
+	private int[] moveIds = new int[0];
+	private byte[] movers = new byte[0];
+	private int[] visits = new int[0];
+	private int[] rewards = new int[0];
+
+	/**
+	 * Constructor for a searcher that plays out every game to the end.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param threadCount The number of threads to run playouts with, including the thread calling the searcher.
+	 */
+	public MctsSearcher(GameContext gameContext, Library library, int threadCount) {
+		this(gameContext, library, null, threadCount);
+	}
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to end playouts early, or null to play out every game to the end. Shared
+	 * between the threads, so must be thread-safe.
+	 * @param threadCount The number of threads to run playouts with, including the thread calling the searcher.
+	 */
+	public MctsSearcher(GameContext gameContext, Library library, Evaluator evaluator, int threadCount) {
+		super(gameContext, library);
+		if (threadCount < 1) {
+			throw new IllegalArgumentException("Thread count must be positive");
+		}
+		this.threadCount = threadCount;
+		this.evaluator = evaluator;
+		workers = new Worker[threadCount];
+		workers[0] = new Worker(gameContext, 0);
+		for (int i = 1; i < threadCount; i++) {
+			workers[i] = new Worker(new GameContext(gameContext), i);
+		}
+	}
+
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	public int getPlayoutCount() {
+		return playoutCount;
+	}
+
+	/**
+	 * Set the number of playouts done by each search.
+	 * @param playoutCount The number of playouts.
+	 */
+	public void setPlayoutCount(int playoutCount) {
+		if (playoutCount < 1) {
+			throw new IllegalArgumentException("Playout count must be positive");
+		}
+		this.playoutCount = playoutCount;
+	}
+
+	public int getPlayoutCutoff() {
+		return playoutCutoff;
+	}
+
+	/**
+	 * Set the number of random moves after which a playout is ended and the board evaluated. Only used if the
+	 * searcher has an evaluator.
+	 * @param playoutCutoff The number of plies, or 0 to play out every game to the end.
+	 */
+	public void setPlayoutCutoff(int playoutCutoff) {
+		if (playoutCutoff < 0) {
+			throw new IllegalArgumentException("Playout cutoff cannot be negative");
+		}
+		this.playoutCutoff = playoutCutoff;
+	}
+
+	public double getExplorationConstant() {
+		return explorationConstant;
+	}
+
+	/**
+	 * Set the weight given to exploring moves that have been played less often over playing the moves that have won
+	 * most often.
+	 * @param explorationConstant The exploration constant of the UCT formula.
+	 */
+	public void setExplorationConstant(double explorationConstant) {
+		if (explorationConstant < 0) {
+			throw new IllegalArgumentException("Exploration constant cannot be negative");
+		}
+		this.explorationConstant = explorationConstant;
+	}
+
+	public int getVirtualLoss() {
+		return virtualLoss;
+	}
+
+	/**
+	 * Set the number of lost playouts added to each move followed by a playout until its result is known, which stops
+	 * the threads all following the same moves.
+	 * @param virtualLoss The number of lost playouts, or 0 for none.
+	 */
+	public void setVirtualLoss(int virtualLoss) {
+		if (virtualLoss < 0) {
+			throw new IllegalArgumentException("Virtual loss cannot be negative");
+		}
+		this.virtualLoss = virtualLoss;
+	}
+
+	public int getMaxNodeCount() {
+		return maxNodeCount;
+	}
+
+	/**
+	 * Set the maximum number of nodes in the tree. Once it is full, playouts are still done but no more moves are added
+	 * to the tree.
+	 * @param maxNodeCount The maximum number of nodes.
+	 */
+	public void setMaxNodeCount(int maxNodeCount) {
+		if (maxNodeCount < 2) {
+			throw new IllegalArgumentException("Max node count must be at least 2");
+		}
+		this.maxNodeCount = maxNodeCount;
+	}
+
+	public long getDeadline() {
+		return searchControl.getOwnDeadline();
+	}
+
+	/**
+	 * Set a time at which searches are ended, with the best move found so far being returned. The deadline is held by
+	 * the {@link #getSearchControl() search control}, so an earlier deadline set on one of its ancestors applies instead.
+	 * @param deadline The time, as returned by {@link System#currentTimeMillis()}, or
+	 * {@link AbstractSinglePassSearcher#NO_DEADLINE} for none.
+	 */
+	public void setDeadline(long deadline) {
+		searchControl.setDeadline(deadline);
+	}
+
+	/**
+	 * Get the number of nodes in the tree built by the last search, including the root.
+	 */
+	public int getNodeCount() {
+		synchronized (treeLock) {
+			return nodeCount;
+		}
+	}
+
+	/**
+	 * Get the number of playouts completed by the last search.
+	 */
+	public long getPlayoutsCompleted() {
+		return playoutsCompleted.get();
+	}
+
+	/**
+	 * Stop the threads used by this searcher. They are started again if the searcher is used afterwards.
+	 */
+	public void shutdown() {
+		synchronized (this) {
+			if (executorService != null) {
+				executorService.shutdown();
+				executorService = null;
+			}
+		}
+	}
+
+	/**
+	 * Find the next move for the current player, as for {@link AbstractSearcher#findMove(AbstractBoard, MoveRanker, int,
+	 * long) findMove}.
+	 * @throws IllegalArgumentException The board does not implement {@link GameResultBoard}.
+	 */
+	@Override
+	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		if (!(board instanceof GameResultBoard)) {
+			throw new IllegalArgumentException("Board must implement GameResultBoard");
+		}
+		return super.findMove(board, moveRanker, depth, evaluationThreshold);
+	}
+
+	@Override
+	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		notifyListenerOfIterationStart();
+		playoutLimit = (evaluationThreshold > NO_EVALUATION_THRESHOLD && evaluationThreshold < playoutCount) ? evaluationThreshold : playoutCount;
+		playoutsStarted.set(0);
+		playoutsCompleted.set(0);
+		stopped = false;
+		rootBoard = board;
+		synchronized (treeLock) {
+			nodeCount = 0;
+			allocateNodes(1);
+		}
+		List<Future<Object>> futures = startWorkers();
+		RuntimeException failure = null;
+		try {
+			workers[0].call();
+		} catch (RuntimeException e) {
+			failure = e;
+		} finally {
+			failure = stopWorkers(futures, failure);
+			rootBoard = null;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		if (searchControl.isCancelled()) {
+			throw AbstractSinglePassSearcher.SEARCHER_ABORTED;
+		}
+		int bestChild;
+		synchronized (treeLock) {
+			bestChild = findMostVisitedChild(0);
+			if (bestChild >= 0 && moveIds[bestChild] != PASS) {
+				bestMove = gameContext.getMoveFactory().createMoveFromId(moveIds[bestChild]);
+				bestMoveScore = (int) Math.round(rewards[bestChild] * 100.0 / (WIN * visits[bestChild]));
+			}
+		}
+		notifyListenerOfAggregateNodeCount();
+		notifyListenerOfIterationEnd(depth);
+		return bestMove;
+	}
+
+	/**
+	 * Get the moves played most often from the root of the tree built by the last search, and then from each of the
+	 * moves after it in turn. A null move is a pass.
+	 */
+	@Override
+	public List<Move> getPrincipalVariation() {
+		List<Move> principalVariation = new ArrayList<Move>();
+		if (bestMove != null) {
+			synchronized (treeLock) {
+				int node = findMostVisitedChild(0);
+				while (node >= 0) {
+					principalVariation.add(moveIds[node] == PASS ? null : gameContext.getMoveFactory().createMoveFromId(moveIds[node]));
+					node = findMostVisitedChild(node);
+				}
+			}
+		}
+		return principalVariation;
+	}
+
+	public void addSearchProgressListener(SearchProgressListener searchProgressListener) {
+		synchronized (this) {
+			for (int i = 0; searchProgressListeners != null && i < searchProgressListeners.length; i++) {
+				if (searchProgressListeners[i] == searchProgressListener) {
+					return;
+				}
+			}
+			int length = (searchProgressListeners == null) ? 0 : searchProgressListeners.length;
+			SearchProgressListener[] newSearchProgressListeners = new SearchProgressListener[length + 1];
+			for (int i = 0; i < length; i++) {
+				newSearchProgressListeners[i] = searchProgressListeners[i];
+			}
+			newSearchProgressListeners[length] = searchProgressListener;
+			searchProgressListeners = newSearchProgressListeners;
+		}
+	}
+
+	public void removeSearchProgressListener(SearchProgressListener searchProgressListener) {
+		synchronized (this) {
+			if (searchProgressListeners != null) {
+				List<SearchProgressListener> remaining = new ArrayList<SearchProgressListener>(searchProgressListeners.length);
+				for (int i = 0; i < searchProgressListeners.length; i++) {
+					if (searchProgressListeners[i] != searchProgressListener) {
+						remaining.add(searchProgressListeners[i]);
+					}
+				}
+				searchProgressListeners = remaining.isEmpty() ? null : remaining.toArray(new SearchProgressListener[remaining.size()]);
+			}
+		}
+	}
+
+	/**
+	 * Not used, as moves are chosen by the results of playouts rather than the order in which they are generated.
+	 */
+	public void setOrderOfMovesIsImportant(boolean orderOfMovesIsImportant) {
+	}
+
+	@Override
+	public String toString() {
+		return "MCTS";
+	}
+
+	private List<Future<Object>> startWorkers() {
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(threadCount - 1);
+		if (threadCount > 1) {
+			ExecutorService executorService = getExecutorService();
+			for (int i = 1; i < threadCount; i++) {
+				futures.add(executorService.submit(workers[i]));
+			}
+		}
+		return futures;
+	}
+
+	private RuntimeException stopWorkers(List<Future<Object>> futures, RuntimeException failure) {
+		stopped = true;
+		boolean interrupted = false;
+		for (Future<Object> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					// the workers are using the tree, so wait for them to stop
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = new RuntimeException(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return failure;
+	}
+
+	private ExecutorService getExecutorService() {
+		synchronized (this) {
+			if (executorService == null) {
+				executorService = Executors.newFixedThreadPool(threadCount - 1, new AbstractParallelSearcher.SearcherThreadFactory(getClass().getSimpleName()));
+			}
+			return executorService;
+		}
+	}
+
+	/**
+	 * Claim the next playout for a thread.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the playout should be done;</li>
+	 * 		<li>false if the search has ended.</li>
+	 * 	</ul>
+	 */
+	private boolean startPlayout() {
+		if (stopped || searchControl.isCancelled() || playoutsStarted.getAndIncrement() >= playoutLimit) {
+			return false;
+		}
+		if (playoutsStarted.get() > 1 && searchControl.isDeadlineReached()) {
+			// the first playout is always done, so that there is a move to return
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Add nodes to the end of the tree, growing the arrays if needed. Must be called holding the tree lock.
+	 * @param count The number of nodes to add.
+	 * @return The index of the first node added, or -1 if the tree is full.
+	 */
+	private int allocateNodes(int count) {
+		if (nodeCount + count > maxNodeCount) {
+			return -1;
+		}
+		if (nodeCount + count > visits.length) {
+			int capacity = Math.max(visits.length, INITIAL_NODE_CAPACITY);
+			while (capacity < nodeCount + count) {
+				capacity = (int) Math.min((long) capacity * 2, maxNodeCount);
+			}
+			firstChild = copyOf(firstChild, capacity);
+			childCount = copyOf(childCount, capacity);
+			moveIds = copyOf(moveIds, capacity);
+			visits = copyOf(visits, capacity);
+			rewards = copyOf(rewards, capacity);
+			byte[] newMovers = new byte[capacity];
+			System.arraycopy(movers, 0, newMovers, 0, nodeCount);
+			movers = newMovers;
+		}
+		int first = nodeCount;
+		for (int i = first; i < first + count; i++) {
+			firstChild[i] = UNEXPANDED;
+			childCount[i] = 0;
+			moveIds[i] = PASS;
+			movers[i] = 0;
+			visits[i] = 0;
+			rewards[i] = 0;
+		}
+		nodeCount += count;
+		return first;
+	}
+
+	private int[] copyOf(int[] array, int capacity) {
+		int[] newArray = new int[capacity];
+		System.arraycopy(array, 0, newArray, 0, nodeCount);
+		return newArray;
+	}
+
+	/**
+	 * Choose the child of a node to follow with the UCT formula, trying each child once before any is tried again.
+	 * Must be called holding the tree lock.
+	 */
+	private int selectChild(int node) {
+		double logVisits = Math.log(Math.max(visits[node], 1));
+		int bestChild = -1;
+		double bestValue = Double.NEGATIVE_INFINITY;
+		for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+			if (visits[child] == 0) {
+				return child;
+			}
+			double value = rewards[child] / (double) (WIN * visits[child]) + explorationConstant * Math.sqrt(logVisits / visits[child]);
+			if (value > bestValue) {
+				bestValue = value;
+				bestChild = child;
+			}
+		}
+		return bestChild;
+	}
+
+	/**
+	 * Find the child of a node that has been played most often. Must be called holding the tree lock.
+	 * @return The child, or -1 if the node has no children that have been played.
+	 */
+	private int findMostVisitedChild(int node) {
+		int bestChild = -1;
+		if (firstChild[node] != UNEXPANDED) {
+			for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+				if (visits[child] > 0 && (bestChild < 0 || visits[child] > visits[bestChild])) {
+					bestChild = child;
+				}
+			}
+		}
+		return bestChild;
+	}
+
+	private int getPlayerIndex(Player player) {
+		return gameContext.getPlayers().indexOf(player);
+	}
+
+	private void notifyListenerOfIterationStart() {
+		SearchProgressListener[] searchProgressListeners = this.searchProgressListeners;
+		if (searchProgressListeners != null) {
+			for (int i = 0; i < searchProgressListeners.length; i++) {
+				searchProgressListeners[i].onIterationStart(1);
+			}
+		}
+	}
+
+	private void notifyListenerOfAggregateNodeCount() {
+		SearchProgressListener[] searchProgressListeners = this.searchProgressListeners;
+		if (searchProgressListeners != null) {
+			for (int i = 0; i < searchProgressListeners.length; i++) {
+				searchProgressListeners[i].onAggregateNodeCount(1, playoutsCompleted.get());
+			}
+		}
+	}
+
+	private void notifyListenerOfIterationEnd(int depth) {
+		SearchProgressListener[] searchProgressListeners = this.searchProgressListeners;
+		if (searchProgressListeners != null) {
+			List<Move> principalVariation = getPrincipalVariation();
+			for (int i = 0; i < searchProgressListeners.length; i++) {
+				searchProgressListeners[i].onIterationEnd(1, bestMove, bestMoveScore, depth, false, principalVariation);
+			}
+		}
+	}
+
+	/**
+	 * Playouts done by one of the threads, on boards from its own game context.
+	 */
+	private class Worker implements Callable<Object> {
+
+		private final GameContext gameContext;
+		private final Random random;
+		private int[] path = new int[64];
+		private int[] pathMoveIds = new int[64];
+
+		private Worker(GameContext gameContext, int index) {
+			this.gameContext = gameContext;
+			this.random = new Random(System.nanoTime() + index);
+		}
+
+		public Object call() {
+			AbstractBoard board = gameContext.checkOutBoard();
+			try {
+				while (startPlayout()) {
+					board.copy(rootBoard);
+					playout(board);
+					playoutsCompleted.incrementAndGet();
+				}
+			} finally {
+				gameContext.checkInBoard(board);
+			}
+			return null;
+		}
+
+		private void playout(AbstractBoard board) {
+			int length = selectLeaf();
+			for (int i = 1; i < length; i++) {
+				playTreeMove(board, pathMoveIds[i]);
+			}
+			int leaf = path[length - 1];
+			if (expand(board, leaf)) {
+				length = selectExpandedChild(leaf, length);
+				playTreeMove(board, pathMoveIds[length - 1]);
+			}
+			int winner = playRandomMoves(board, length - 1);
+			backPropagate(length, winner);
+		}
+
+		/**
+		 * Follow the tree from the root to a node that has not been expanded, or that has no children, adding a virtual
+		 * loss to each node on the way.
+		 * @return The length of the path, including the root.
+		 */
+		private int selectLeaf() {
+			synchronized (treeLock) {
+				int node = 0;
+				int length = 0;
+				while (true) {
+					visits[node] += virtualLoss;
+					addToPath(length++, node);
+					if (firstChild[node] == UNEXPANDED || childCount[node] == 0) {
+						return length;
+					}
+					node = selectChild(node);
+				}
+			}
+		}
+
+		/**
+		 * Add the moves for the board to a node of the tree, unless another thread has already done so. A player who
+		 * cannot move passes, unless the next player cannot move either.
+		 * @return
+		 * 	<ul>
+		 * 		<li>true if the node has children to choose from;</li>
+		 * 		<li>false if the game is over or the tree is full.</li>
+		 * 	</ul>
+		 */
+		private boolean expand(AbstractBoard board, int node) {
+			synchronized (treeLock) {
+				if (firstChild[node] != UNEXPANDED) {
+					return childCount[node] > 0;
+				}
+			}
+			int[] childMoveIds;
+			if (board.isGameOver()) {
+				childMoveIds = new int[0];
+			} else if (board.canMove()) {
+				List<Move> moves = board.getValidMoves(null, 1);
+				childMoveIds = new int[moves.size()];
+				for (int i = 0; i < childMoveIds.length; i++) {
+					childMoveIds[i] = moves.get(i).getId();
+				}
+			} else {
+				Player player = board.getCurrentPlayer();
+				board.nextPlayer();
+				childMoveIds = board.canMove() ? new int[] { PASS } : new int[0];
+				board.currentPlayer = player;
+			}
+			byte mover = (byte) getPlayerIndex(board.getCurrentPlayer());
+			synchronized (treeLock) {
+				if (firstChild[node] == UNEXPANDED) {
+					int first = allocateNodes(childMoveIds.length);
+					if (first < 0) {
+						return false;
+					}
+					for (int i = 0; i < childMoveIds.length; i++) {
+						moveIds[first + i] = childMoveIds[i];
+						movers[first + i] = mover;
+					}
+					firstChild[node] = first;
+					childCount[node] = childMoveIds.length;
+				}
+				return childCount[node] > 0;
+			}
+		}
+
+		/**
+		 * Choose a child of a node that has just been expanded, picking one at random until they have all been played.
+		 * @return The length of the path including the child.
+		 */
+		private int selectExpandedChild(int node, int length) {
+			synchronized (treeLock) {
+				int child = firstChild[node] + random.nextInt(childCount[node]);
+				if (visits[child] > 0) {
+					child = selectChild(node);
+				}
+				visits[child] += virtualLoss;
+				addToPath(length, child);
+				return length + 1;
+			}
+		}
+
+		private void addToPath(int index, int node) {
+			if (index == path.length) {
+				int[] newPath = new int[path.length * 2];
+				System.arraycopy(path, 0, newPath, 0, path.length);
+				path = newPath;
+				int[] newPathMoveIds = new int[pathMoveIds.length * 2];
+				System.arraycopy(pathMoveIds, 0, newPathMoveIds, 0, pathMoveIds.length);
+				pathMoveIds = newPathMoveIds;
+			}
+			path[index] = node;
+			pathMoveIds[index] = moveIds[node];
+		}
+
+		private void playTreeMove(AbstractBoard board, int moveId) {
+			if (moveId == PASS) {
+				board.nextPlayer();
+			} else {
+				board.playMove(gameContext.getMoveFactory().createMoveFromId(moveId), null, true);
+			}
+		}
+
+		/**
+		 * Play random moves until the game is over, or until the playout cutoff if there is an evaluator.
+		 * @param depth The number of moves played from the root to the start of the playout.
+		 * @return The index of the player who won, or -1 for a draw.
+		 */
+		private int playRandomMoves(AbstractBoard board, int depth) {
+			int plies = 0;
+			while (!board.isGameOver() && plies < MAX_PLAYOUT_LENGTH) {
+				if (!board.canMove()) {
+					board.nextPlayer();
+					if (!board.canMove()) {
+						break;
+					}
+				}
+				if (evaluator != null && playoutCutoff > 0 && plies == playoutCutoff) {
+					int score = evaluator.score(rootBoard, board, depth + plies, depth + plies);
+					if (score == 0) {
+						return -1;
+					} else if (score < 0) {
+						board.nextPlayer();
+					}
+					return getPlayerIndex(board.getCurrentPlayer());
+				}
+				List<Move> moves = board.getValidMoves(null, 1);
+				board.playMove(moves.get(random.nextInt(moves.size())), null, true);
+				plies++;
+			}
+			if (plies == MAX_PLAYOUT_LENGTH && !board.isGameOver()) {
+				// treat games that go on for too long as draws
+				return -1;
+			}
+			Player winner = ((GameResultBoard) board).getWinner();
+			return (winner == null) ? -1 : getPlayerIndex(winner);
+		}
+
+		/**
+		 * Record the result of a playout for each node on its path, removing the virtual losses added to them.
+		 */
+		private void backPropagate(int length, int winner) {
+			synchronized (treeLock) {
+				for (int i = 0; i < length; i++) {
+					int node = path[i];
+					visits[node] += 1 - virtualLoss;
+					if (i > 0) {
+						if (winner < 0) {
+							rewards[node] += DRAW;
+						} else if (movers[node] == winner) {
+							rewards[node] += WIN;
+						}
+					}
+				}
+			}
+		}
+	}
+}
@@ -9,10 +9,20 @@
 package net.lurgee.sgf;
 
 /**
- * Marker interface that a class representing a move in the game must implement. A marker interface is used to
- * convey <b>intention</b> throughout the rest of the framework, which would not be evident if simple Objects were
- * passed around.
+ * Interface that a class representing a move in the game must implement. An interface is used to convey
+ * <b>intention</b> throughout the rest of the framework, which would not be evident if simple Objects were passed
+ * around.
+ * <p/>
+ * Each move has a small integer id, which is the same for all instances of the move, so that information about moves
+ * can be kept in arrays rather than maps and moves can be compared without calling equals(). A move can be obtained
+ * from its id with {@link MoveFactory#createMoveFromId(int)}.
  * @author mpatric
  */
 public interface Move {
+
+	/**
+	 * Get the id of the move.
+	 * @return The id of the move, from 0 to {@link MoveFactory#getMoveIdCount()} - 1.
+	 */
+	int getId();
 }
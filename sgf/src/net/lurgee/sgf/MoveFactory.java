@@ -20,4 +20,17 @@ public interface MoveFactory {
 	 * @return A move instance.
 	 */
 	Move createMoveFromString(String moveAsString);
+
+	/**
+	 * Create a move from its id.
+	 * @param id The id of the move, as returned by {@link Move#getId()}.
+	 * @return A move instance.
+	 */
+	Move createMoveFromId(int id);
+
+	/**
+	 * Get the number of move ids, which are from 0 to this number - 1.
+	 * @return The number of move ids.
+	 */
+	int getMoveIdCount();
 }
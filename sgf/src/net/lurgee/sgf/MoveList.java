@@ -8,40 +8,60 @@
 
 package net.lurgee.sgf;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Random;
 
 /**
  * Stores a list of moves, sorted in descending order by rank if provided, or by the rank determined with a
  * {@link MoveRanker} if provided.
+ * <p>
+ * Moves and their ranks are held in parallel arrays and are not sorted as they are added. Instead, the list of moves
+ * is put in order lazily as it is read: each time a move beyond those already ordered is needed, the best of the
+ * remaining moves is selected and moved into place. A node that cuts off after its first move or two therefore never
+ * pays for sorting the rest. Of moves with equal rank, the one added last comes first, unless moves with equal rank
+ * are to be put in random order. Moves added without a rank are kept in the order they were added, provided none
+ * are added with a rank.
  * @author mpatric
  */
 public class MoveList {
 
 	private static final Random random = new Random();
 
-	protected final ArrayList<Move> moves;
-	protected final ArrayList<Integer> ranks;
+	private Move[] moves;
+	private int[] ranks;
+	private int size = 0;
+	private int orderedCount = 0;
+	private boolean ranked = false;
+	private final List<Move> moveView = new MoveView();
 
 	private final boolean randomOrderForEqualScores;
 	
 	public MoveList(int initialCapacity, boolean randomOrderForEqualScores) {
-		moves = new ArrayList<Move>(initialCapacity);
-		ranks = new ArrayList<Integer>(initialCapacity);
+		moves = new Move[initialCapacity > 0 ? initialCapacity : 1];
+		ranks = new int[moves.length];
 		this.randomOrderForEqualScores = randomOrderForEqualScores;
 	}
 
+	/**
+	 * Get the moves as a list, which is put in order as it is read. The list is backed by this move list.
+	 */
 	public List<Move> getMoves() {
-		return moves;
+		return moveView;
 	}
 
 	protected Move getMove(int index) {
-		return moves.get(index);
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		while (orderedCount <= index) {
+			selectNext();
+		}
+		return moves[index];
 	}
 	
 	public int size() {
-		return moves.size();
+		return size;
 	}
 	
 	public void add(Move move, AbstractBoard board, int depth, MoveRanker moveRanker) {
@@ -53,60 +73,183 @@ public class MoveList {
 	}
 
 	protected void add(Move move) {
-		moves.add(move);
-		ranks.add(0);
+		ensureCapacity(size + 1);
+		moves[size] = move;
+		ranks[size] = 0;
+		size++;
+		if (! ranked) {
+			orderedCount = size;
+		}
 	}
 	
 	protected void add(Move move, int rank) {
-		if (! randomOrderForEqualScores) {
-			int i = 0;
-			for (Integer storedRank : ranks) {
-				if (rank >= storedRank) {
-					// add it at this point
-					moves.add(i, move);
-					ranks.add(i, rank);
-					return;
-				}
-				i++;
-			}
+		ensureCapacity(size + 1);
+		moves[size] = move;
+		ranks[size] = rank;
+		size++;
+		ranked = true;
+	}
+	
+	/**
+	 * Move the specified move to the front of the list, without putting the moves that have not been read yet in
+	 * order. Nothing is done if the move is not in the list.
+	 * @param moves A list of moves, which need not come from a move list.
+	 * @param move The move to move to the front.
+	 */
+	public static void moveToFront(List<Move> moves, Move move) {
+		if (moves instanceof MoveList.MoveView) {
+			((MoveList.MoveView) moves).moveToFront(move);
 		} else {
-			int equalRanks = 0;
-			int i = 0;
-			for (Integer storedRank : ranks) {
-				if (rank > storedRank) {
-					if (equalRanks == 0) {
-						// add it at this point
-						moves.add(i, move);
-						ranks.add(i, rank);
-					} else {
-						// add it at a random point amongst the equal ranked moves
-						int position = i - equalRanks + selectRandom(equalRanks + 1);
-						moves.add(position, move);
-						ranks.add(position, rank);
-					}
-					return;
-				} else if (rank == storedRank) {
-					equalRanks++;
-					if (i == ranks.size() - 1) {
-						int position = i - equalRanks + selectRandom(equalRanks + 1) + 1;
-						moves.add(position, move);
-						ranks.add(position, rank);
-						return;
-					}
-				}
-				i++;
+			int index = moves.indexOf(move);
+			if (index > 0) {
+				moves.add(0, moves.remove(index));
 			}
 		}
-		// add it to the end
-		moves.add(move);
-		ranks.add(rank);
 	}
 	
 	public void clear() {
-		moves.clear();
+		for (int i = 0; i < size; i++) {
+			moves[i] = null;
+		}
+		size = 0;
+		orderedCount = 0;
+		ranked = false;
 	}
 	
 	protected int selectRandom(int numberOfChoices) {
 		return random.nextInt(numberOfChoices);
 	}
+
+	/**
+	 * Select the best of the moves that have not been put in order yet and move it into place after those that have.
+	 * The moves left are kept in the order they were added, so that ties are broken in the same way whenever the
+	 * list is read.
+	 */
+	private void selectNext() {
+		int bestRank = ranks[orderedCount];
+		int equalRanks = 1;
+		for (int i = orderedCount + 1; i < size; i++) {
+			if (ranks[i] > bestRank) {
+				bestRank = ranks[i];
+				equalRanks = 1;
+			} else if (ranks[i] == bestRank) {
+				equalRanks++;
+			}
+		}
+		// of the equally ranked moves, count back from the one added last to the one to select
+		int skip = 0;
+		if (randomOrderForEqualScores && equalRanks > 1) {
+			skip = selectRandom(equalRanks);
+		}
+		int index = size - 1;
+		while (ranks[index] != bestRank || skip-- > 0) {
+			index--;
+		}
+		placeAt(index, orderedCount);
+		orderedCount++;
+	}
+
+	/**
+	 * Move the move at the specified index to an earlier position, shifting those in between along by one.
+	 */
+	private void placeAt(int index, int position) {
+		Move move = moves[index];
+		int rank = ranks[index];
+		System.arraycopy(moves, position, moves, position + 1, index - position);
+		System.arraycopy(ranks, position, ranks, position + 1, index - position);
+		moves[position] = move;
+		ranks[position] = rank;
+	}
+
+	private int indexOf(Move move) {
+		int id = move.getId();
+		for (int i = 0; i < size; i++) {
+			if (moves[i].getId() == id) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > moves.length) {
+			int newCapacity = Math.max(capacity, moves.length * 2);
+			Move[] newMoves = new Move[newCapacity];
+			int[] newRanks = new int[newCapacity];
+			System.arraycopy(moves, 0, newMoves, 0, size);
+			System.arraycopy(ranks, 0, newRanks, 0, size);
+			moves = newMoves;
+			ranks = newRanks;
+		}
+	}
+
+	/**
+	 * List view of the moves, which puts them in order as they are read.
+	 */
+	private class MoveView extends AbstractList<Move> {
+
+		@Override
+		public Move get(int index) {
+			return getMove(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void add(int index, Move move) {
+			if (index < 0 || index > size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			if (index > orderedCount) {
+				// the position of moves that have not been put in order yet isn't known, so order them all first
+				getMove(size - 1);
+			}
+			ensureCapacity(size + 1);
+			moves[size] = move;
+			size++;
+			placeAt(size - 1, index);
+			orderedCount++;
+			modCount++;
+		}
+
+		@Override
+		public Move remove(int index) {
+			Move move = getMove(index);
+			System.arraycopy(moves, index + 1, moves, index, size - index - 1);
+			System.arraycopy(ranks, index + 1, ranks, index, size - index - 1);
+			size--;
+			moves[size] = null;
+			orderedCount--;
+			modCount++;
+			return move;
+		}
+
+		@Override
+		public Move set(int index, Move move) {
+			Move previousMove = getMove(index);
+			moves[index] = move;
+			return previousMove;
+		}
+
+		@Override
+		public void clear() {
+			MoveList.this.clear();
+			modCount++;
+		}
+
+		private void moveToFront(Move move) {
+			int index = MoveList.this.indexOf(move);
+			if (index >= 0) {
+				placeAt(index, 0);
+				if (index >= orderedCount) {
+					// the move is no longer amongst those that have not been put in order yet
+					orderedCount++;
+				}
+				modCount++;
+			}
+		}
+	}
 }
@@ -8,16 +8,55 @@
 
 package net.lurgee.sgf;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Class for generating and searching a game tree to find the best move using a negamax algorithm with alpha-beta
  * pruning.
+ * <p/>
+ * The principal variation (the line of best play found for both players) is collected in a triangular table as the
+ * tree is searched. When the same position is searched again to a greater depth without resetting, as done by
+ * {@link IterativeSearcher}, the move from the previous principal variation is searched first at each ply along it.
+ * <p/>
+ * For boards that support {@link StagedMoveGenerationBoard staged move generation}, the moves at
+ * each node are iterated with a {@link StagedMoveIterator}, so that the principal variation move, the move from the
+ * transposition table and killer moves are searched before the rest of the moves are generated.
+ * <p/>
+ * If the evaluator is an {@link IncrementalEvaluator}, it is attached to the boards searched, so that leaves are scored
+ * from an accumulator that is updated as moves are made, rather than from the whole board.
+ * <p/>
+ * If the evaluator is a {@link BatchEvaluator} and {@link #setLeafBatching(boolean) leaf batching} is turned on, the
+ * leaves below each node one ply from the depth of the search are scored in one call to the evaluator.
  * @author mpatric
  */
 public class NegamaxSearcher extends AbstractSinglePassSearcher {
 
-	private static final int INFINITY = 100000;
+	protected static final int INFINITY = 100000;
+	
+	private boolean searchInPlace = false;
+	private int quiescenceDepth = 0;
+	private UndoRecord[] undoRecords = null;
+	private boolean searchingInPlace = false;
+	private int deadlineCheckCountdown = 0;
+	private int rootAlpha = -INFINITY;
+	private int rootBeta = INFINITY;
+	private boolean failedLow = false;
+	private boolean failedHigh = false;
+	private Move[][] pvTable = null;
+	private int[] pvLength = null;
+	private Move[] previousPv = null;
+	private int previousPvLength = 0;
+	private boolean followingPv = false;
+	private StagedMoveIterator[] stagedMoveIterators = null;
+	private boolean leafBatching = false;
+	private AbstractBoard[] leafBoards = new AbstractBoard[0];
+	private Move[] leafMoves = new Move[0];
+	private int[] leafScores = new int[0];
+	private int leafBatchSize = 0;
+	
 	/**
 	 * Constructor.
 	 * @param gameContext A game context object.
@@ -30,20 +69,259 @@ public class NegamaxSearcher extends AbstractSinglePassSearcher {
 		super(gameContext, library, evaluator, abCutoff, byeAllowed);
 	}
 
+	public boolean isSearchInPlace() {
+		return searchInPlace;
+	}
+
+	/**
+	 * Set whether moves should be made and unmade on a single board during a search, rather than each move being made
+	 * on a copy of the board. Only used for boards that support {@link AbstractUndoableBoard unmaking moves};
+	 * other boards are always copied.
+	 * @param searchInPlace Should the search be done in place?
+	 */
+	public void setSearchInPlace(boolean searchInPlace) {
+		this.searchInPlace = searchInPlace;
+	}
+
+	public int getQuiescenceDepth() {
+		return quiescenceDepth;
+	}
+
+	/**
+	 * Set how many plies past the depth of the search to keep searching {@link AbstractBoard#isNoisyMove(Move) noisy}
+	 * moves, so that leaves are only evaluated once the position is quiet. At each of these extra plies, the current
+	 * player can stand pat on the evaluation of the position rather than play a noisy move. Only useful for games that
+	 * define which moves are noisy.
+	 * @param quiescenceDepth The maximum number of extra plies, or 0 for no quiescence search.
+	 */
+	public void setQuiescenceDepth(int quiescenceDepth) {
+		if (quiescenceDepth < 0) {
+			throw new IllegalArgumentException("Quiescence depth cannot be negative");
+		}
+		this.quiescenceDepth = quiescenceDepth;
+	}
+
+	public boolean isLeafBatching() {
+		return leafBatching;
+	}
+
+	/**
+	 * Set whether the leaves below a node one ply from the depth of the search should be scored together, with one call
+	 * to the evaluator, rather than one at a time as they are searched. Only used when the evaluator is a {@link
+	 * BatchEvaluator} and there is no quiescence search. The leaves are scored once the rest of the moves at the node are
+	 * known, which for boards that support {@link StagedMoveGenerationBoard staged move generation}
+	 * is once the moves have been generated. Leaves are scored even if an earlier one causes a cutoff, so batching pays
+	 * off when the evaluator saves more per leaf than is lost to the leaves that would have been cut off, which depends
+	 * on the branching factor of the game.
+	 * @param leafBatching Should the leaves be scored in batches?
+	 */
+	public void setLeafBatching(boolean leafBatching) {
+		this.leafBatching = leafBatching;
+	}
+
+	@Override
+	public Move findMove(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		// the principal variation from a previous search is only followed when searching the same position again
+		previousPvLength = 0;
+		return super.findMove(board, moveRanker, depth, evaluationThreshold);
+	}
+
+	/**
+	 * Get the principal variation found by the last search that completed without failing low. Moves in it are null where
+	 * a player had to pass.
+	 */
+	@Override
+	public List<Move> getPrincipalVariation() {
+		List<Move> principalVariation = new ArrayList<Move>(previousPvLength);
+		for (int i = 0; i < previousPvLength; i++) {
+			principalVariation.add(previousPv[i]);
+		}
+		return principalVariation;
+	}
+
+	/**
+	 * Follow the specified principal variation in the next search without resetting, as if it had been found by the last
+	 * search. Used to resume searching a position that was reached by playing the first moves of the principal variation
+	 * found by an earlier search.
+	 * @param principalVariation The moves to search first at each ply, starting with the move at the root.
+	 */
+	protected void followPrincipalVariation(List<Move> principalVariation) {
+		int length = principalVariation.size();
+		if (previousPv == null || previousPv.length < length) {
+			previousPv = new Move[length];
+		}
+		for (int i = 0; i < length; i++) {
+			previousPv[i] = principalVariation.get(i);
+		}
+		previousPvLength = length;
+	}
+
+	/**
+	 * The same as {@link #findMoveWithoutResetting(AbstractBoard, MoveRanker, int, long) findMoveWithoutResetting} but
+	 * searching with the specified window at the root rather than a full window, for aspiration search. If the best
+	 * score is outside the window, the search {@link #isFailedLow() fails low} or {@link #isFailedHigh() fails high} and
+	 * search progress listeners are told. When it fails low there is no best move; when it fails high the best move is
+	 * the one that failed high, and its score is only a lower bound.
+	 * @param alpha Alpha value at the root.
+	 * @param beta Beta value at the root.
+	 */
+	protected Move findMoveWithoutResetting(AbstractBoard board, MoveRanker moveRanker, int depth, int alpha, int beta, long evaluationThreshold) {
+		rootAlpha = alpha;
+		rootBeta = beta;
+		failedLow = false;
+		failedHigh = false;
+		try {
+			return findMoveWithoutResetting(board, moveRanker, depth, evaluationThreshold);
+		} finally {
+			rootAlpha = -INFINITY;
+			rootBeta = INFINITY;
+		}
+	}
+
+	/**
+	 * Determine whether the last search failed low, as the best score was no more than alpha at the root.
+	 */
+	protected boolean isFailedLow() {
+		return failedLow;
+	}
+
+	/**
+	 * Determine whether the last search failed high, as the best score was at least beta at the root.
+	 */
+	protected boolean isFailedHigh() {
+		return failedHigh;
+	}
+
 	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		searchFromRoot(board, moveRanker, depth, evaluationThreshold);
+		return bestMove;
+	}
+
+	/**
+	 * Search from the root with the specified window, in the same way as
+	 * {@link #findMoveWithoutResetting(AbstractBoard, MoveRanker, int, int, int, long) findMoveWithoutResetting} but
+	 * without using the library or resetting the abort flag. Used by searchers that search the root more than once for
+	 * each depth, such as {@link MTDfSearcher}. The best move is set as for findMoveWithoutResetting.
+	 * @param alpha Alpha value at the root.
+	 * @param beta Beta value at the root.
+	 * @return The score of the root, which is an upper bound if the search fails low and a lower bound if it fails high.
+	 */
+	protected int searchRoot(AbstractBoard board, MoveRanker moveRanker, int depth, int alpha, int beta, long evaluationThreshold) throws SearchException, RuntimeException {
+		rootAlpha = alpha;
+		rootBeta = beta;
+		try {
+			return searchFromRoot(board, moveRanker, depth, evaluationThreshold);
+		} finally {
+			rootAlpha = -INFINITY;
+			rootBeta = INFINITY;
+		}
+	}
+
+	private int searchFromRoot(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
 		bestMove = null;
 		depthReached = 0;
+		failedLow = false;
+		failedHigh = false;
+		deadlineCheckCountdown = 0;
+		followingPv = previousPvLength > 0;
 		notifyListenerOfIterationStart();
+		int score = 0;
 		int maxMovesLeft = board.countMaxMovesLeft();
 		if (maxMovesLeft > 0) {
 			int d = depth;
 			if (d > maxMovesLeft) {
 				d = maxMovesLeft;
 			}
-			search(board, board, moveRanker, d, d, -INFINITY, INFINITY, evaluationThreshold);
+			if ((searchInPlace && prepareUndoRecords(board, d)) || evaluator instanceof IncrementalEvaluator) {
+				// search a copy, so that the board passed in is left alone while moves are made and unmade, and so that no
+				// evaluator is attached to it
+				AbstractBoard searchBoard = (AbstractBoard) gameContext.checkOutBoard();
+				searchBoard.copy(board);
+				if (evaluator instanceof IncrementalEvaluator) {
+					searchBoard.setIncrementalEvaluator((IncrementalEvaluator) evaluator, board);
+				}
+				try {
+					score = searchBoard(board, searchBoard, moveRanker, d, d, rootAlpha, rootBeta, evaluationThreshold);
+				} finally {
+					gameContext.checkInBoard(searchBoard);
+				}
+			} else {
+				score = search(board, board, moveRanker, d, d, rootAlpha, rootBeta, evaluationThreshold);
+			}
+			if (score <= rootAlpha && rootAlpha > -INFINITY) {
+				failedLow = true;
+				notifyListenerOfFailLow();
+			} else if (score >= rootBeta && rootBeta < INFINITY) {
+				failedHigh = true;
+				notifyListenerOfFailHigh();
+			}
+			if (!failedLow) {
+				savePrincipalVariation();
+			}
 		}
-		notifyListenerOfIterationEnd(false, bestMove, bestMoveScore);
-		return bestMove;
+		notifyListenerOfIterationEnd(false, bestMove, bestMoveScore, failedLow ? Collections.<Move>emptyList() : getPrincipalVariation());
+		return score;
+	}
+
+	/**
+	 * Search the tree below the specified board. If searching in place, moves are made and unmade on the board itself,
+	 * which is left as it was once the search completes; otherwise they are made on copies of it. Used to search
+	 * sub-trees by searchers that split a search between a number of {@link NegamaxSearcher} instances.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The board to search from.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param d Maximum depth minus the depth of the board.
+	 * @param alpha Alpha value for alpha-beta cutoff.
+	 * @param beta Beta value for alpha-beta cutoff.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return The best score for the board, playing moves down to the allowed depth.
+	 */
+	protected int searchBoard(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) throws SearchException, RuntimeException {
+		if (evaluator instanceof IncrementalEvaluator && board.getIncrementalEvaluator() != evaluator) {
+			board.setIncrementalEvaluator((IncrementalEvaluator) evaluator, startBoard);
+		}
+		if (!searchInPlace || !prepareUndoRecords(board, depth)) {
+			return search(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+		}
+		searchingInPlace = true;
+		try {
+			return search(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+		} finally {
+			searchingInPlace = false;
+		}
+	}
+
+	/**
+	 * Make sure there is an undo record for each level of a search to the specified depth, and for each level of the
+	 * quiescence search below it.
+	 * @param board The board being searched.
+	 * @param depth The depth of the search.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the board supports unmaking moves;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	private boolean prepareUndoRecords(AbstractBoard board, int depth) {
+		if (!(board instanceof AbstractUndoableBoard)) {
+			return false;
+		}
+		int levels = depth + quiescenceDepth;
+		if (undoRecords == null || undoRecords.length < levels) {
+			UndoRecord[] newUndoRecords = new UndoRecord[levels];
+			for (int i = 0; i < levels; i++) {
+				if (undoRecords != null && i < undoRecords.length) {
+					newUndoRecords[i] = undoRecords[i];
+				} else {
+					newUndoRecords[i] = ((AbstractUndoableBoard) board).createUndoRecord();
+					if (newUndoRecords[i] == null) {
+						return false;
+					}
+				}
+			}
+			undoRecords = newUndoRecords;
+		}
+		return true;
 	}
 
 	/**
@@ -61,55 +339,179 @@ public class NegamaxSearcher extends AbstractSinglePassSearcher {
 	 * @throws RuntimeException Fatal error.
 	 */
 	protected int search(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) throws SearchException, RuntimeException {
-		if (aborted) {
-			throw new AbortException(MSG_SEARCHER_ABORTED);
+		if (searchControl.isCancelled()) {
+			throw SEARCHER_ABORTED;
 		}
 		if (depth > 1 && evaluationThreshold != NO_EVALUATION_THRESHOLD) {
-			if (evaluationCount >= evaluationThreshold) {
-				notifyListenerOfIterationEnd(true, null, 0);
-				throw new SearchThresholdReachedException(MSG_SEARCHER_THRESHOLD_REACHED + depth);
+			if (isEvaluationThresholdReached(evaluationThreshold)) {
+				notifyListenerOfIterationEnd(true, null, 0, Collections.<Move>emptyList());
+				throw SEARCHER_THRESHOLD_REACHED;
+			}
+		}
+		if (depth > 1 && --deadlineCheckCountdown <= 0) {
+			// the clock is only read every so often, as reading it is slow compared to searching a node
+			deadlineCheckCountdown = SearchControl.DEADLINE_CHECK_INTERVAL;
+			if (searchControl.isDeadlineReached()) {
+				notifyListenerOfIterationEnd(true, null, 0, Collections.<Move>emptyList());
+				throw SEARCHER_DEADLINE_REACHED;
+			}
+		}
+		if (pvLength == null || pvLength.length <= depth) {
+			// sized here rather than per search, as sub-trees may be searched directly by parallel searchers
+			pvTable = new Move[depth + 1][depth + 1];
+			pvLength = new int[depth + 1];
+		}
+		if (stagedMoveIterators == null || stagedMoveIterators.length <= depth) {
+			StagedMoveIterator[] newStagedMoveIterators = new StagedMoveIterator[depth + 1];
+			for (int i = 0; i <= depth; i++) {
+				if (stagedMoveIterators != null && i < stagedMoveIterators.length) {
+					newStagedMoveIterators[i] = stagedMoveIterators[i];
+				} else {
+					newStagedMoveIterators[i] = new StagedMoveIterator();
+				}
 			}
+			stagedMoveIterators = newStagedMoveIterators;
 		}
+		int ply = depth - d;
+		searchStatistics.countNode(ply);
+		pvLength[ply] = ply;
+		boolean onPv = followingPv;
+		followingPv = false;
 		int score = 0;
 		Player player = ((AbstractBoard) board).getCurrentPlayer();
 		if (d == 0) {
 			// leaf node
-			score = evaluator.score(startBoard, board, depth, depth);
-			notifyListenerOfLeafEvaluation(score, player, depth, d);
+			if (quiescenceDepth > 0) {
+				// the evaluations are counted by the quiescence search
+				score = quiesce(startBoard, board, depth, 0, alpha, beta);
+				searchStatistics.countLeaf();
+			} else {
+				score = evaluator.score(startBoard, board, depth, depth);
+				countLeaf();
+			}
+			if (searchProgressListeners != null) {
+				notifyListenerOfLeafEvaluation(score, player, depth - d);
+			}
 		} else {
+			long hash = AbstractBoard.NO_POSITION_HASH;
+			Move hashMove = null;
+			if (transpositionTable != null) {
+				hash = board.getPositionHash();
+				if (hash != AbstractBoard.NO_POSITION_HASH) {
+					int slot = transpositionTable.find(hash);
+					if (slot >= 0) {
+						// the root node is always searched, as the best move has to be set
+						if (d < depth && transpositionTable.isScoreUsable(slot, d, depth)) {
+							int hashScore = transpositionTable.getScore(slot);
+							int type = transpositionTable.getType(slot);
+							if (type == TranspositionTable.EXACT || (type == TranspositionTable.LOWER_BOUND && hashScore >= beta)
+									|| (type == TranspositionTable.UPPER_BOUND && hashScore <= alpha)) {
+								// the score was found by searching to at least the full depth
+								depthReached = depth;
+								return hashScore;
+							}
+						}
+						hashMove = transpositionTable.getMove(slot);
+					}
+				}
+			}
 			if (!board.canMove()) {
-				score = noMoves(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+				score = noMoves(startBoard, board, moveRanker, depth, d, alpha, beta, onPv, evaluationThreshold);
+			} else if (isCutoffBeforeSearchingMoves(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold)) {
+				score = beta;
 			} else {
-				List<Move> moves = board.getValidMoves(moveRanker, depth - d + 1);
+				int futilityScore = getFutilityScore(startBoard, board, depth, d, alpha, beta);
+				Move pvMove = null;
+				if (onPv && ply < previousPvLength) {
+					pvMove = previousPv[ply];
+				}
+				Iterator<Move> moves;
+				if (board instanceof StagedMoveGenerationBoard && ((StagedMoveGenerationBoard) board).isStagedMoveGenerationSupported()) {
+					StagedMoveIterator stagedMoveIterator = stagedMoveIterators[ply];
+					stagedMoveIterator.reset(board, moveRanker, depth - d + 1, pvMove, hashMove);
+					moves = stagedMoveIterator;
+				} else {
+					List<Move> moveList = board.getValidMoves(moveRanker, depth - d + 1);
+					if (hashMove != null) {
+						moveToFront(moveList, hashMove);
+					}
+					if (pvMove != null) {
+						moveToFront(moveList, pvMove);
+					}
+					moves = moveList.iterator();
+				}
+				int originalAlpha = alpha;
 				int bestScore = alpha;
 				int actualBestScore = -INFINITY;
+				Move actualBestMove = null;
 				int b = beta;
 				int bestCount = 0;
 				int count = 0;
-				for (Move moveToPlay : moves) {
-					// copy board and make move
-					AbstractBoard newBoard = (AbstractBoard) gameContext.checkOutBoard();
-					newBoard.copy(board);
-					newBoard.playMove(moveToPlay, null, true);
-					notifyListenerOfBranch(moveToPlay, newBoard, player, depth, d);
+				boolean batchingLeaves = d == 1 && futilityScore == -INFINITY && isLeafBatchingUsed();
+				int leafIndex = -1;
+				while (leafIndex >= 0 ? leafIndex + 1 < leafBatchSize : moves.hasNext()) {
+					Move moveToPlay;
+					if (leafIndex >= 0) {
+						moveToPlay = leafMoves[++leafIndex];
+					} else {
+						moveToPlay = moves.next();
+						if (batchingLeaves && (!(moves instanceof StagedMoveIterator) || ((StagedMoveIterator) moves).isGenerated())) {
+							// the rest of the moves are known, in the order they would be searched, so their leaves are scored together
+							scoreLeafBatch(startBoard, board, moveToPlay, moves, depth);
+							leafIndex = 0;
+						}
+					}
+					AbstractBoard newBoard;
+					UndoRecord undoRecord = null;
+					if (leafIndex >= 0) {
+						newBoard = leafBoards[leafIndex];
+					} else if (searchingInPlace) {
+						// make move on this board, it's unmade once the child node has been searched
+						newBoard = board;
+						undoRecord = undoRecords[depth - d];
+						((AbstractUndoableBoard) newBoard).playMove(moveToPlay, undoRecord);
+					} else {
+						// copy board and make move
+						newBoard = (AbstractBoard) gameContext.checkOutBoard();
+						newBoard.copy(board);
+						newBoard.playMove(moveToPlay, null, true);
+					}
+					if (searchProgressListeners != null) {
+						notifyListenerOfBranch(moveToPlay, newBoard, player, depth - d + 1);
+					}
+					followingPv = pvMove != null && moveToPlay.getId() == pvMove.getId();
 					try {
-						score = searchChildNode(startBoard, newBoard, moveRanker, depth, d, alpha, beta, b, (count == 0), evaluationThreshold);
-						notifyListenerOfNodeEvaluation(moveToPlay, -score, player, depth, d);
-						if (moveRanker != null) {
-							notifyMoveRankerOfNodeEvaluation(moveToPlay, board, score, player, depth, d, moveRanker);
+						if (leafIndex >= 0) {
+							score = -searchBatchedLeaf(newBoard, depth, leafIndex);
+						} else {
+							score = searchChildNode(startBoard, newBoard, moveRanker, moveToPlay, count, depth, d, alpha, beta, b, evaluationThreshold);
 						}
 					} finally {
-						gameContext.checkInBoard(newBoard);
+						if (leafIndex >= 0) {
+							// checked in along with the rest of the batch
+						} else if (undoRecord != null) {
+							((AbstractUndoableBoard) board).unmakeMove(undoRecord);
+						} else {
+							gameContext.checkInBoard(newBoard);
+						}
 					}
 					newBoard = null;
+					if (searchProgressListeners != null) {
+						notifyListenerOfNodeEvaluation(moveToPlay, -score, player, depth - d + 1);
+					}
+					if (moveRanker != null) {
+						notifyMoveRankerOfNodeEvaluation(moveToPlay, board, score, player, depth, d, moveRanker);
+					}
 					if (score > actualBestScore) {
 						actualBestScore = score;
+						actualBestMove = moveToPlay;
 					}
 					if (score == bestScore) {
 						bestCount++;
 					} else if (score > bestScore) {
 						bestScore = score;
 						bestCount = 1;
+						updatePrincipalVariation(ply, moveToPlay);
 						if (d == depth) {
 							this.bestMove = moveToPlay;
 							this.bestMoveScore = bestScore;
@@ -119,16 +521,37 @@ public class NegamaxSearcher extends AbstractSinglePassSearcher {
 						if (bestScore > alpha) {
 							alpha = bestScore; // adjust search window
 						}
+						beta = tightenBeta(depth, d, originalAlpha, beta);
 						if (alpha >= beta) {
 							// cutoff
 							bestScore = alpha;
+							searchStatistics.countCutoff(ply);
+							if (moveRanker instanceof CutoffAwareMoveRanker) {
+								((CutoffAwareMoveRanker) moveRanker).onCutoff(moveToPlay, board, player, depth - d + 1, d);
+							}
 							break;
 						}
 					}
 					b = alpha + 1; // set new null window
 					count++;
+					if (futilityScore != -INFINITY) {
+						// only the first move is searched, the score of the rest is assumed to be no better than this
+						if (moves.hasNext()) {
+							searchStatistics.countFutilityPrune();
+							if (futilityScore > actualBestScore) {
+								actualBestScore = futilityScore;
+							}
+						}
+						break;
+					}
+				}
+				if (leafIndex >= 0) {
+					releaseLeafBatch();
 				}
 				score = actualBestScore;
+				if (hash != AbstractBoard.NO_POSITION_HASH) {
+					storeInTranspositionTable(hash, score, originalAlpha, beta, d, depth, actualBestMove);
+				}
 			}
 		}
 		if (depth - d > depthReached) {
@@ -137,33 +560,350 @@ public class NegamaxSearcher extends AbstractSinglePassSearcher {
 		return score;
 	}
 	
-	protected int searchChildNode(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, int b, boolean firstChild, long evaluationThreshold) {
+	/**
+	 * Search only the {@link AbstractBoard#isNoisyMove(Move) noisy} moves from a board at or past the depth of the
+	 * search, until the position is quiet or the quiescence depth is reached. The current player can stand pat, taking
+	 * the evaluation of the board as its score, rather than play a noisy move; with alpha-beta cutoff this bounds the
+	 * search, as noisy moves are only searched while they could improve on the evaluation. The nodes searched below the
+	 * leaf of the main search are not passed to search progress listeners or move rankers, and have no effect on the
+	 * principal variation or the transposition table.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The current board.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param q The number of plies past the depth of the search, 0 for a leaf of the main search.
+	 * @param alpha Alpha value for alpha-beta cutoff.
+	 * @param beta Beta value for alpha-beta cutoff.
+	 * @return The score for the current player.
+	 */
+	private int quiesce(AbstractBoard startBoard, AbstractBoard board, int depth, int q, int alpha, int beta) {
+		if (q > 0) {
+			searchStatistics.countQuiescenceNode();
+		}
+		int standPat = evaluator.score(startBoard, board, depth + q, depth);
+		evaluationCount++;
+		if (q == quiescenceDepth || (abCutoff && standPat >= beta) || board.isGameOver() || !board.canMove()) {
+			return standPat;
+		}
+		int bestScore = standPat;
+		if (bestScore > alpha) {
+			alpha = bestScore;
+		}
+		for (Move move : board.getValidMoves(null, depth + q + 1)) {
+			if (!board.isNoisyMove(move)) {
+				continue;
+			}
+			int score;
+			if (searchingInPlace) {
+				UndoRecord undoRecord = undoRecords[depth + q];
+				((AbstractUndoableBoard) board).playMove(move, undoRecord);
+				try {
+					score = -quiesce(startBoard, board, depth, q + 1, -beta, -alpha);
+				} finally {
+					((AbstractUndoableBoard) board).unmakeMove(undoRecord);
+				}
+			} else {
+				AbstractBoard newBoard = (AbstractBoard) gameContext.checkOutBoard();
+				newBoard.copy(board);
+				newBoard.playMove(move, null, true);
+				try {
+					score = -quiesce(startBoard, newBoard, depth, q + 1, -beta, -alpha);
+				} finally {
+					gameContext.checkInBoard(newBoard);
+				}
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				if (bestScore > alpha) {
+					alpha = bestScore;
+				}
+			}
+			if (abCutoff && alpha >= beta) {
+				break;
+			}
+		}
+		return bestScore;
+	}
+
+	private boolean isLeafBatchingUsed() {
+		return leafBatching && quiescenceDepth == 0 && evaluator instanceof BatchEvaluator;
+	}
+
+	/**
+	 * Play each of the moves left at a node one ply from the depth of the search on a copy of the board, and score the
+	 * leaves with a single call to the evaluator.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The board at the node.
+	 * @param firstMove The next move to be searched at the node.
+	 * @param moves The moves to be searched after the first one.
+	 * @param depth The maximum depth that this search is being done to.
+	 */
+	private void scoreLeafBatch(AbstractBoard startBoard, AbstractBoard board, Move firstMove, Iterator<Move> moves, int depth) {
+		// a batch left over from a search that was ended part way through it is checked in first
+		releaseLeafBatch();
+		addLeaf(board, firstMove);
+		while (moves.hasNext()) {
+			addLeaf(board, moves.next());
+		}
+		((BatchEvaluator) evaluator).scoreBatch(startBoard, leafBoards, leafBatchSize, depth, depth, leafScores);
+		for (int i = 0; i < leafBatchSize; i++) {
+			countLeaf();
+		}
+	}
+
+	private void addLeaf(AbstractBoard board, Move move) {
+		if (leafBatchSize == leafBoards.length) {
+			int size = Math.max(16, leafBoards.length * 2);
+			AbstractBoard[] newLeafBoards = new AbstractBoard[size];
+			System.arraycopy(leafBoards, 0, newLeafBoards, 0, leafBatchSize);
+			leafBoards = newLeafBoards;
+			Move[] newLeafMoves = new Move[size];
+			System.arraycopy(leafMoves, 0, newLeafMoves, 0, leafBatchSize);
+			leafMoves = newLeafMoves;
+			leafScores = new int[size];
+		}
+		AbstractBoard leafBoard = (AbstractBoard) gameContext.checkOutBoard();
+		leafBoard.copy(board);
+		leafBoard.playMove(move, null, true);
+		leafBoards[leafBatchSize] = leafBoard;
+		leafMoves[leafBatchSize] = move;
+		leafBatchSize++;
+	}
+
+	/**
+	 * Search a leaf that was scored as part of a batch, doing what {@link #search(AbstractBoard, AbstractBoard,
+	 * MoveRanker, int, int, int, int, long) search} does for a leaf, apart from scoring it.
+	 * @param board The leaf board.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param leafIndex The index of the leaf in the batch.
+	 * @return The score for the current player of the leaf board.
+	 */
+	private int searchBatchedLeaf(AbstractBoard board, int depth, int leafIndex) {
+		if (searchControl.isCancelled()) {
+			throw SEARCHER_ABORTED;
+		}
+		searchStatistics.countNode(depth);
+		pvLength[depth] = depth;
+		followingPv = false;
+		int score = leafScores[leafIndex];
+		if (searchProgressListeners != null) {
+			notifyListenerOfLeafEvaluation(score, board.getCurrentPlayer(), depth);
+		}
+		if (depth > depthReached) {
+			depthReached = depth;
+		}
+		return score;
+	}
+
+	private void releaseLeafBatch() {
+		for (int i = 0; i < leafBatchSize; i++) {
+			gameContext.checkInBoard(leafBoards[i]);
+			leafBoards[i] = null;
+			leafMoves[i] = null;
+		}
+		leafBatchSize = 0;
+	}
+
+	/**
+	 * Determine whether the evaluation threshold has been reached. May be over-ridden by searchers that share an
+	 * evaluation count between a number of searchers.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the search should end;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	protected boolean isEvaluationThresholdReached(long evaluationThreshold) {
+		return evaluationCount >= evaluationThreshold;
+	}
+
+	/**
+	 * Called after each child of a node is searched, to allow the beta value of the node to be lowered while it is
+	 * being searched. May be over-ridden by searchers that search parts of a tree concurrently, where a better bound
+	 * can be found elsewhere in the tree after the node was entered. Returns beta unchanged by default.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param d Maximum depth minus the current depth.
+	 * @param alpha The alpha value the node was entered with; the value returned must be greater than this.
+	 * @param beta The current beta value of the node.
+	 * @return The beta value to use for the rest of the node.
+	 */
+	protected int tightenBeta(int depth, int d, int alpha, int beta) {
+		return beta;
+	}
+
+	/**
+	 * Called before the moves at a node are searched, after the transposition table has been checked, to allow the node
+	 * to be cut off without searching them, for example with a {@link #searchPass(AbstractBoard, AbstractBoard, MoveRanker,
+	 * int, int, int, int, int, long) null move}. May be over-ridden by searchers that prune the tree selectively. Returns
+	 * false by default.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The current board, on which the current player has moves.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param d Maximum depth minus the current depth.
+	 * @param alpha Alpha value for alpha-beta cutoff.
+	 * @param beta Beta value for alpha-beta cutoff.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the node should be cut off, with a score of beta;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	protected boolean isCutoffBeforeSearchingMoves(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) {
+		return false;
+	}
+
+	/**
+	 * Called before the moves at a node are searched, to allow all but the first move to be left out when searching them
+	 * is futile. May be over-ridden by searchers that prune the tree selectively. Returns -{@link #INFINITY} by default.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The current board.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param d Maximum depth minus the current depth.
+	 * @param alpha Alpha value for alpha-beta cutoff.
+	 * @param beta Beta value for alpha-beta cutoff.
+	 * @return A score, no more than alpha, that the moves left out are assumed not to beat, or -{@link #INFINITY} to
+	 * search all the moves.
+	 */
+	protected int getFutilityScore(AbstractBoard startBoard, AbstractBoard board, int depth, int d, int alpha, int beta) {
+		return -INFINITY;
+	}
+
+	/**
+	 * Search a child node.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The board with the move played on it.
+	 * @param move The move played to reach the child node.
+	 * @param moveNumber The position of the move in the order that the moves at the node are searched, starting from 0.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param d Maximum depth minus the depth of the node (not the child node).
+	 * @param alpha Alpha value for alpha-beta cutoff.
+	 * @param beta Beta value for alpha-beta cutoff.
+	 * @param b Null window value.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return The score for the child node.
+	 */
+	protected int searchChildNode(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, Move move, int moveNumber, int depth, int d, int alpha, int beta, int b, long evaluationThreshold) {
 		return -(search(startBoard, board, moveRanker, depth, d - 1, -beta, -alpha, evaluationThreshold));
 	}
 
-	private int noMoves(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) {
+	/**
+	 * Move the specified move to the front of a list of moves, if it is in the list.
+	 * @param moves The list of moves.
+	 * @param move The move to search first.
+	 */
+	private void moveToFront(List<Move> moves, Move move) {
+		MoveList.moveToFront(moves, move);
+	}
+
+	/**
+	 * Set the principal variation at the specified ply to the specified move followed by the principal variation found
+	 * below it.
+	 */
+	private void updatePrincipalVariation(int ply, Move move) {
+		Move[] row = pvTable[ply];
+		Move[] childRow = pvTable[ply + 1];
+		int childLength = pvLength[ply + 1];
+		row[ply] = move;
+		for (int i = ply + 1; i < childLength; i++) {
+			row[i] = childRow[i];
+		}
+		pvLength[ply] = Math.max(childLength, ply + 1);
+	}
+
+	/**
+	 * Keep the principal variation found at the root, to be followed first by the next search of the same position.
+	 */
+	private void savePrincipalVariation() {
+		int length = pvLength[0];
+		if (previousPv == null || previousPv.length < length) {
+			previousPv = new Move[pvTable.length];
+		}
+		System.arraycopy(pvTable[0], 0, previousPv, 0, length);
+		previousPvLength = length;
+	}
+
+	private void storeInTranspositionTable(long hash, int score, int alpha, int beta, int d, int depth, Move move) {
+		int type;
+		if (!abCutoff) {
+			type = TranspositionTable.EXACT;
+		} else if (score <= alpha) {
+			type = TranspositionTable.UPPER_BOUND;
+		} else if (score >= beta) {
+			type = TranspositionTable.LOWER_BOUND;
+		} else {
+			type = TranspositionTable.EXACT;
+		}
+		transpositionTable.store(hash, score, type, d, depth, move);
+	}
+
+	private int noMoves(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, boolean onPv, long evaluationThreshold) {
 		int score;
 		Player player = ((AbstractBoard) board).getCurrentPlayer();
 		if (byeAllowed) {
+			int ply = depth - d;
+			followingPv = onPv && ply < previousPvLength && previousPv[ply] == null;
+			score = searchPass(startBoard, board, moveRanker, depth, d, d - 1, alpha, beta, evaluationThreshold);
+			updatePrincipalVariation(ply, null);
+		} else {
+			// end here as a bye is not allowed, so this is a leaf node
+			score = evaluator.score(startBoard, board, depth - d, depth);
+			countLeaf();
+			if (searchProgressListeners != null) {
+				notifyListenerOfLeafEvaluation(score, player, depth - d);
+			}
+		}
+		return score;
+	}
+	
+	/**
+	 * Search the board with the next player to move, as when the current player passes. Used for byes, and by searchers
+	 * that prune the tree with null moves, where the current player passes even though they have moves.
+	 * @param startBoard The board before any moves were made.
+	 * @param board The current board.
+	 * @param depth The maximum depth that this search is being done to.
+	 * @param d Maximum depth minus the current depth.
+	 * @param childD Maximum depth minus the depth that the board after the pass is searched as, which is d - 1 unless the
+	 * search is reduced.
+	 * @param alpha Alpha value for alpha-beta cutoff.
+	 * @param beta Beta value for alpha-beta cutoff.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return The score for the current player.
+	 */
+	protected int searchPass(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int childD, int alpha, int beta, long evaluationThreshold) {
+		int score;
+		Player player = ((AbstractBoard) board).getCurrentPlayer();
+		if (searchingInPlace) {
+			// call search again for next depth with the next player on this board, then switch back
+			if (searchProgressListeners != null) {
+				notifyListenerOfBranch(null, board, player, depth - d + 1);
+			}
+			board.nextPlayer();
+			try {
+				score = -(search(startBoard, board, moveRanker, depth, childD, -beta, -alpha, evaluationThreshold));
+			} finally {
+				board.currentPlayer = player;
+			}
+		} else {
 			// call search again for next depth - must copy board so as not to modify passed in board
 			AbstractBoard newBoard = (AbstractBoard) gameContext.checkOutBoard();
 			newBoard.copy(board);
-			notifyListenerOfBranch(null, newBoard, player, depth, d);
+			if (searchProgressListeners != null) {
+				notifyListenerOfBranch(null, newBoard, player, depth - d + 1);
+			}
 			newBoard.nextPlayer();
 			try {
-				score = -(search(startBoard, newBoard, moveRanker, depth, d - 1, -beta, -alpha, evaluationThreshold));
+				score = -(search(startBoard, newBoard, moveRanker, depth, childD, -beta, -alpha, evaluationThreshold));
 			} finally {
 				gameContext.checkInBoard(newBoard);
 			}
-			notifyListenerOfNodeEvaluation(null, -score, player, depth, d);
-		} else {
-			// end here as a bye is not allowed, so this is a leaf node
-			score = evaluator.score(startBoard, board, depth - d, depth);
-			notifyListenerOfLeafEvaluation(score, player, depth, d);
+		}
+		if (searchProgressListeners != null) {
+			notifyListenerOfNodeEvaluation(null, -score, player, depth - d + 1);
 		}
 		return score;
 	}
-	
+
 	private void notifyListenerOfIterationStart() {
 		if (searchProgressListeners != null) {
 			for (int i = 0; i < searchProgressListeners.length; i++) {
@@ -172,36 +912,59 @@ public class NegamaxSearcher extends AbstractSinglePassSearcher {
 		}
 	}
 	
-	private void notifyListenerOfIterationEnd(boolean thresholdReached, Move move, int score) {
+	private void notifyListenerOfIterationEnd(boolean thresholdReached, Move move, int score, List<Move> principalVariation) {
 		if (searchProgressListeners != null) {
 			for (int i = 0; i < searchProgressListeners.length; i++) {
-				searchProgressListeners[i].onIterationEnd(iteration , move, score, depthReached, thresholdReached);
+				searchProgressListeners[i].onIterationEnd(iteration , move, score, depthReached, thresholdReached, principalVariation);
 			}
 		}
 	}
 	
-	private void notifyListenerOfBranch(Move move, AbstractBoard board, Player player, int depth, int d) {
+	private void notifyListenerOfFailLow() {
 		if (searchProgressListeners != null) {
 			for (int i = 0; i < searchProgressListeners.length; i++) {
-				searchProgressListeners[i].onBranch(move, board, player, depth - d + 1);
+				searchProgressListeners[i].onFailLow(iteration, rootAlpha, rootBeta);
 			}
 		}
 	}
 	
-	private void notifyListenerOfNodeEvaluation(Move move, int score, Player player, int depth, int d) {
+	private void notifyListenerOfFailHigh() {
 		if (searchProgressListeners != null) {
 			for (int i = 0; i < searchProgressListeners.length; i++) {
-				searchProgressListeners[i].onNodeEvaluation(move, score, player, depth - d + 1);
+				searchProgressListeners[i].onFailHigh(iteration, rootAlpha, rootBeta);
 			}
 		}
 	}
 	
-	private void notifyListenerOfLeafEvaluation(int score, Player player, int depth, int d) {
+	/**
+	 * Count an evaluation of the board that the search is not continued past, towards the evaluation threshold and in
+	 * the search statistics.
+	 */
+	protected void countLeaf() {
 		evaluationCount++;
-		if (searchProgressListeners != null) {
-			for (int i = 0; i < searchProgressListeners.length; i++) {
-				searchProgressListeners[i].onLeafEvaluation(score, player, depth - d);
-			}
+		searchStatistics.countLeaf();
+	}
+	
+	/*
+	 * The notifications below are made for every node, so they are only called when there are search progress listeners,
+	 * to keep searches without any from working out the arguments.
+	 */
+	
+	private void notifyListenerOfBranch(Move move, AbstractBoard board, Player player, int depth) {
+		for (int i = 0; i < searchProgressListeners.length; i++) {
+			searchProgressListeners[i].onBranch(move, board, player, depth);
+		}
+	}
+	
+	private void notifyListenerOfNodeEvaluation(Move move, int score, Player player, int depth) {
+		for (int i = 0; i < searchProgressListeners.length; i++) {
+			searchProgressListeners[i].onNodeEvaluation(move, score, player, depth);
+		}
+	}
+	
+	private void notifyListenerOfLeafEvaluation(int score, Player player, int depth) {
+		for (int i = 0; i < searchProgressListeners.length; i++) {
+			searchProgressListeners[i].onLeafEvaluation(score, player, depth);
 		}
 	}
 	
@@ -14,10 +14,17 @@ package net.lurgee.sgf;
  * Note: {@link AbstractSinglePassSearcher#abCutoff abCutoff} is ignored and assumed to always be <code>true</code> for this
  * class for a slight performance improvement (so a check does not need to be done on every loop in
  * {@link #search(AbstractBoard, AbstractBoard, MoveRanker, int, int, int, int, long) search}.  
+ * <p/>
+ * The tree can be pruned selectively by setting a {@link ForwardPruningPolicy}. Moves searched to a reduced depth, and
+ * the search following a null move, are searched as though they were deeper in the tree, so the depths passed to move
+ * rankers and search progress listeners below them are greater than the number of moves played.
  * @author mpatric
  */
 public class NegascoutSearcher extends NegamaxSearcher {
 
+	private ForwardPruningPolicy forwardPruningPolicy = null;
+	private boolean searchingNullMove = false;
+
 	/**
 	 * Constructor.
 	 * @param gameContext A game context object.
@@ -28,25 +35,95 @@ public class NegascoutSearcher extends NegamaxSearcher {
 	public NegascoutSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed) {
 		super(gameContext, library, evaluator, true, byeAllowed);
 	}
+
+	public ForwardPruningPolicy getForwardPruningPolicy() {
+		return forwardPruningPolicy;
+	}
+
+	/**
+	 * Set a policy for pruning the tree selectively. Late moves are reduced at any node other than the root, while futility
+	 * and null move pruning are only done at nodes searched with a null window. The numbers of moves reduced, moves
+	 * searched again and so on are kept in the {@link SearchStatistics search statistics}.
+	 * @param forwardPruningPolicy The policy, may be null for no forward pruning.
+	 */
+	public void setForwardPruningPolicy(ForwardPruningPolicy forwardPruningPolicy) {
+		this.forwardPruningPolicy = forwardPruningPolicy;
+	}
+
+	/**
+	 * Try a null move, if the forward pruning policy allows one at this node, and cut the node off if the opponent's
+	 * reply, searched to a reduced depth, still scores at least beta.
+	 */
+	@Override
+	protected boolean isCutoffBeforeSearchingMoves(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) {
+		if (forwardPruningPolicy == null || !byeAllowed || searchingNullMove || d == depth || beta - alpha != 1) {
+			return false;
+		}
+		int reduction = forwardPruningPolicy.getNullMoveReduction(board, d);
+		if (reduction <= 0) {
+			return false;
+		}
+		int score;
+		searchingNullMove = true;
+		try {
+			score = searchPass(startBoard, board, moveRanker, depth, d, Math.max(d - 1 - reduction, 0), alpha, beta, evaluationThreshold);
+		} finally {
+			searchingNullMove = false;
+		}
+		searchStatistics.countNullMove(score >= beta);
+		return score >= beta;
+	}
+
+	/**
+	 * Evaluate the board, if the forward pruning policy has a futility margin for this node, to decide whether searching
+	 * the moves after the first is futile.
+	 */
+	@Override
+	protected int getFutilityScore(AbstractBoard startBoard, AbstractBoard board, int depth, int d, int alpha, int beta) {
+		if (forwardPruningPolicy == null || d == depth || beta - alpha != 1) {
+			return -INFINITY;
+		}
+		int margin = forwardPruningPolicy.getFutilityMargin(board, d);
+		if (margin == ForwardPruningPolicy.NO_FUTILITY_PRUNING) {
+			return -INFINITY;
+		}
+		int score = evaluator.score(startBoard, board, depth - d, depth) + margin;
+		countLeaf();
+		return (score <= alpha) ? score : -INFINITY;
+	}
 	
 	/**
-	 * Calls {@link #searchChildNode(AbstractBoard, AbstractBoard, MoveRanker, int, int, int, int, int, boolean, long) search}
-	 * for a child node, re-searching if necessary.
+	 * Calls {@link #search(AbstractBoard, AbstractBoard, MoveRanker, int, int, int, int, long) search} for a child node,
+	 * re-searching if necessary. Moves that the forward pruning policy reduces are searched to the reduced depth first,
+	 * and only searched to the full depth if they score more than alpha.
 	 * @param startBoard The board before any moves were made.
-	 * @param board The current board.
+	 * @param board The board with the move played on it.
+	 * @param move The move played to reach the child node.
+	 * @param moveNumber The position of the move in the order that the moves at the node are searched, starting from 0.
 	 * @param depth The maximum depth that this search is being done to.
 	 * @param d Maximum depth minus the current depth (so when d is 0, maximum depth is reached).
 	 * @param alpha Alpha value for alpha-beta cutoff.
 	 * @param beta Beta value for alpha-beta cutoff.
 	 * @param b null window value.
-	 * @param firstChild Flag indicating whether the search is currently on the first child of a node.
 	 * @param evaluationThreshold The number of evaluations at which the search is ended.
 	 * @return The score for the child node.
 	 */
 	@Override
-	protected int searchChildNode(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, int b, boolean firstChild, long evaluationThreshold) {
-		int score = -(search(startBoard, board, moveRanker, depth, d - 1, -b, -alpha, evaluationThreshold));
-		if (d > 1 && alpha < score && score < beta && ! firstChild) {
+	protected int searchChildNode(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, Move move, int moveNumber, int depth, int d, int alpha, int beta, int b, long evaluationThreshold) {
+		int score;
+		if (forwardPruningPolicy != null && moveNumber > 0 && d > 1 && d < depth) {
+			int reduction = Math.min(forwardPruningPolicy.getReduction(board, move, moveNumber, d), d - 1);
+			if (reduction > 0) {
+				searchStatistics.countReduction();
+				score = -(search(startBoard, board, moveRanker, depth, d - 1 - reduction, -b, -alpha, evaluationThreshold));
+				if (score <= alpha) {
+					return score;
+				}
+				searchStatistics.countReSearch();
+			}
+		}
+		score = -(search(startBoard, board, moveRanker, depth, d - 1, -b, -alpha, evaluationThreshold));
+		if (d > 1 && alpha < score && score < beta && moveNumber > 0) {
 			// re-search
 			score = -(search(startBoard, board, moveRanker, depth, d - 1, -beta, -score, evaluationThreshold));
 		}
@@ -9,12 +9,21 @@
 package net.lurgee.sgf;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class for pooling homogeneous objects that implement {@link Poolable}. This allows objects to be reused during
  * recursive processes rather than having to create new ones (which often results in many short-lived objects being
  * created). This is of particular advantage when the cost of creating the objects is much higher than the cost
  * of reuse. 
+ * <p/>
+ * Each thread using the pool has its own list of available objects and keeps track of the objects it has checked out
+ * by identity, so checking objects out and in takes constant time and threads searching in parallel don't contend for
+ * the pool. An object may be checked in by a different thread to the one that checked it out, but that is slower. The
+ * available objects of threads that have ended are taken over by the next thread to use the pool.
  * @author mpatric
  */
 public class ObjectPool {
@@ -23,10 +32,18 @@ public class ObjectPool {
 	private static final int DEFAULT_MAX_OBJECTS = -1;
 	private static final int DEFAULT_INITIAL_CAPACITY = 4;
 
-	protected final ArrayList<Poolable> availableObjects;
-	protected final ArrayList<Poolable> checkedOutObjects;
 	protected final Class<?> itemClass;
 	protected final int maxObjects;
+	private final int initialCapacity;
+	private final AtomicInteger size = new AtomicInteger(0);
+	private final List<ThreadState> threadStates = new CopyOnWriteArrayList<ThreadState>();
+	private final ThreadLocal<ThreadState> threadState = new ThreadLocal<ThreadState>() {
+		@Override
+		protected ThreadState initialValue() {
+			return createThreadState();
+		}
+	};
+	private volatile int retiredHighWaterMark = 0;
 
 	/**
 	 * Default constructor; create a pool with the default max objects, initial capacity.
@@ -49,30 +66,43 @@ public class ObjectPool {
 	 * Constructor to create a pool with the specified max objects and initial capacity.
 	 * @param itemClass The class of the items being stored in this pool.
 	 * @param maxObjects Maximum number of objects in the pool (or -1 for no maximum).
-	 * @param initialCapacity Initial capacity for the pool.
+	 * @param initialCapacity Initial capacity for each thread using the pool.
 	 */
 	public ObjectPool(Class<?> itemClass, int maxObjects, int initialCapacity) {
 		this.itemClass = itemClass;
 		this.maxObjects = maxObjects;
-		availableObjects = new ArrayList<Poolable>(initialCapacity);
-		checkedOutObjects = new ArrayList<Poolable>(initialCapacity);
+		this.initialCapacity = initialCapacity;
+	}
+
+	/**
+	 * Constructor to create an empty pool for the same class of items as another pool, with the same max objects and
+	 * the default initial capacity.
+	 * @param objectPool The pool to copy the settings of.
+	 */
+	public ObjectPool(ObjectPool objectPool) {
+		this(objectPool.itemClass, objectPool.maxObjects, DEFAULT_INITIAL_CAPACITY);
 	}
 
 	protected Poolable createPoolable() throws ObjectPoolFullException, ObjectPoolException {
-		synchronized (this) {
-			Poolable poolable = null;
-			if (maxObjects > 0 && checkedOutObjects.size() + availableObjects.size() >= maxObjects) {
-				throw new ObjectPoolFullException(MSG_MAX_OBJECTS_IN_POOL);
-			}
-			try {
-				poolable = (Poolable) itemClass.newInstance();
-			} catch (InstantiationException ie) {
-				throw new ObjectPoolException(ie.getMessage());
-			} catch (IllegalAccessException iae) {
-				throw new ObjectPoolException(iae.getMessage());
-			}
-			availableObjects.add(poolable);
-			return poolable;
+		if (maxObjects > 0) {
+			int count;
+			do {
+				count = size.get();
+				if (count >= maxObjects) {
+					throw new ObjectPoolFullException(MSG_MAX_OBJECTS_IN_POOL);
+				}
+			} while (!size.compareAndSet(count, count + 1));
+		} else {
+			size.incrementAndGet();
+		}
+		try {
+			return (Poolable) itemClass.newInstance();
+		} catch (InstantiationException ie) {
+			size.decrementAndGet();
+			throw new ObjectPoolException(ie.getMessage());
+		} catch (IllegalAccessException iae) {
+			size.decrementAndGet();
+			throw new ObjectPoolException(iae.getMessage());
 		}
 	}
 
@@ -96,23 +126,24 @@ public class ObjectPool {
 	 * @throws ObjectPoolException Another error occurred.
 	 */
 	public Poolable checkOut(Object params) throws ObjectPoolFullException, ObjectPoolException {
-		synchronized (this) {
-			boolean isNew = false;
-			Poolable poolable = null;
-			if (availableObjects.size() == 0) {
+		ThreadState state = threadState.get();
+		// only contended if another thread is checking in an object that this thread checked out
+		synchronized (state) {
+			Poolable poolable;
+			int available = state.availableObjects.size();
+			if (available == 0) {
 				// create a new object for the pool
 				poolable = createPoolable();
-				isNew = true;
-			}
-			// use an existing object from the pool
-			poolable = availableObjects.get(0);
-			if (isNew) {
 				poolable.poolableInit(params);
 			} else {
+				// use an existing object from the pool, the one most recently checked in
+				poolable = state.availableObjects.remove(available - 1);
 				poolable.poolableRecycle(params);
 			}
-			availableObjects.remove(poolable);
-			checkedOutObjects.add(poolable);
+			state.checkedOutObjects.put(poolable, Boolean.TRUE);
+			if (state.checkedOutObjects.size() > state.highWaterMark) {
+				state.highWaterMark = state.checkedOutObjects.size();
+			}
 			return poolable;
 		}
 	}
@@ -127,17 +158,116 @@ public class ObjectPool {
 	 * 	</ul>
 	 */
 	public boolean checkIn(Poolable poolable) {
-		synchronized (this) {
-			if (checkedOutObjects.remove(poolable)) {
+		ThreadState state = threadState.get();
+		synchronized (state) {
+			if (state.checkedOutObjects.remove(poolable) != null) {
 				poolable.poolableDone();
-				availableObjects.add(poolable);
+				state.availableObjects.add(poolable);
 				return true;
 			}
-			return false;
 		}
+		// not checked out by this thread, so look for the thread that did check it out
+		for (ThreadState otherState : threadStates) {
+			if (otherState != state) {
+				boolean found;
+				synchronized (otherState) {
+					found = (otherState.checkedOutObjects.remove(poolable) != null);
+				}
+				if (found) {
+					poolable.poolableDone();
+					synchronized (state) {
+						state.availableObjects.add(poolable);
+					}
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 	
 	public int countCheckedOutObjects() {
-		return checkedOutObjects.size();
+		int count = 0;
+		for (ThreadState state : threadStates) {
+			synchronized (state) {
+				count += state.checkedOutObjects.size();
+			}
+		}
+		return count;
+	}
+	
+	public int countAvailableObjects() {
+		int count = 0;
+		for (ThreadState state : threadStates) {
+			synchronized (state) {
+				count += state.availableObjects.size();
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Get the number of objects that have been created by the pool, whether checked out or available.
+	 */
+	public int getSize() {
+		return size.get();
+	}
+	
+	/**
+	 * Get the largest number of objects that any one thread has had checked out at once.
+	 */
+	public int getHighWaterMark() {
+		int highWaterMark = retiredHighWaterMark;
+		for (ThreadState state : threadStates) {
+			synchronized (state) {
+				if (state.highWaterMark > highWaterMark) {
+					highWaterMark = state.highWaterMark;
+				}
+			}
+		}
+		return highWaterMark;
+	}
+
+	/**
+	 * Create the state for the current thread, taking over the available objects of any threads that have ended.
+	 */
+	private ThreadState createThreadState() {
+		ThreadState state = new ThreadState(Thread.currentThread(), initialCapacity);
+		for (ThreadState otherState : threadStates) {
+			if (!otherState.thread.isAlive()) {
+				synchronized (otherState) {
+					state.availableObjects.addAll(otherState.availableObjects);
+					otherState.availableObjects.clear();
+					if (otherState.checkedOutObjects.isEmpty()) {
+						// objects still checked out by the thread may yet be checked in by another one
+						threadStates.remove(otherState);
+						retireHighWaterMark(otherState.highWaterMark);
+					}
+				}
+			}
+		}
+		threadStates.add(state);
+		return state;
+	}
+
+	private synchronized void retireHighWaterMark(int highWaterMark) {
+		if (highWaterMark > retiredHighWaterMark) {
+			retiredHighWaterMark = highWaterMark;
+		}
+	}
+
+	/**
+	 * The objects checked out and available for one thread using the pool.
+	 */
+	private static class ThreadState {
+		private final Thread thread;
+		private final ArrayList<Poolable> availableObjects;
+		private final IdentityHashMap<Poolable, Boolean> checkedOutObjects;
+		private int highWaterMark = 0;
+		
+		private ThreadState(Thread thread, int initialCapacity) {
+			this.thread = thread;
+			availableObjects = new ArrayList<Poolable>(initialCapacity);
+			checkedOutObjects = new IdentityHashMap<Poolable, Boolean>(initialCapacity);
+		}
 	}
 }
@@ -0,0 +1,464 @@
+/*
+ * @(#)ProofNumberSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Class for proving whether the player to move has won, lost or drawn a position, with a depth-first proof-number
+ * search (df-pn). Rather than searching every move to a fixed depth, a proof-number search expands the position that
+ * is cheapest to prove or disprove next, judged by how many positions are left to prove, so that a forced result is
+ * often found with far fewer nodes than an alpha-beta search to the end of the game would need. The proof and disproof
+ * numbers are kept in a bounded {@link ProofNumberTable}, and the search ends once a node limit or time limit is
+ * reached, in which case the result is unknown.
+ * <p/>
+ * A win is proved first; if it is disproved, the search then tries to prove that the player to move can at least draw.
+ * The games are played to the end, so boards must implement {@link GameResultBoard}, and must also support {@link
+ * AbstractBoard#getPositionHash() position hashing}, without which the result is always unknown. A player who cannot
+ * move passes, unless the next player cannot move either, in which case the game is over.
+ * <p/>
+ * As a searcher, a move that wins or draws a proven position is returned. Otherwise the move is found by the fallback
+ * searcher, which is also told of the search progress listeners added to this searcher, if there is one; without a
+ * fallback searcher, null is returned.
+ * @author mpatric
+ */
+public class ProofNumberSearcher extends AbstractSearcher {
+
+	/** The result of the position could not be proved within the limits. */
+	public static final int UNKNOWN = 0;
+	/** The player to move can force a win. */
+	public static final int WON = 1;
+	/** The player to move can force a draw, but not a win. */
+	public static final int DRAWN = 2;
+	/** The player to move cannot avoid losing. */
+	public static final int LOST = 3;
+
+	public static final int WIN_SCORE = 100000;
+	public static final long DEFAULT_NODE_LIMIT = 1000000;
+	public static final long NO_TIME_LIMIT = 0;
+	private static final int INFINITY = Integer.MAX_VALUE / 2;
+	private static final int TIME_CHECK_INTERVAL = 256;
+	private static final int NOT_OVER = -1;
+	private static final String MSG_NODE_LIMIT_REACHED = "Proof-number search node limit reached";
+	private static final String MSG_TIME_LIMIT_REACHED = "Proof-number search time limit reached";
+	private static final SearchThresholdReachedException NODE_LIMIT_REACHED = new SearchThresholdReachedException(MSG_NODE_LIMIT_REACHED);
+	private static final SearchThresholdReachedException TIME_LIMIT_REACHED = new SearchThresholdReachedException(MSG_TIME_LIMIT_REACHED);
+
+	private final AbstractSearcher fallbackSearcher;
+	private final ProofNumberTable table;
+	private final List<UndoRecord> undoRecords = new ArrayList<UndoRecord>();
+	private long nodeLimit = DEFAULT_NODE_LIMIT;
+	private long timeLimit = NO_TIME_LIMIT;
+	private int minMovesMade = 0;
+	private long deadline;
+	private long nodeCount = 0;
+	private int result = UNKNOWN;
+	private Move provenMove = null;
+	private Player rootPlayer;
+	private boolean drawIsProof;
+	private boolean searchingInPlace;
+
+	/**
+	 * Constructor for a searcher with a {@link ProofNumberTable} of the default size.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param fallbackSearcher A searcher used to find moves in positions that are not proven a win or a draw, may be null.
+	 */
+	public ProofNumberSearcher(GameContext gameContext, Library library, AbstractSearcher fallbackSearcher) {
+		this(gameContext, library, fallbackSearcher, new ProofNumberTable());
+	}
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param fallbackSearcher A searcher used to find moves in positions that are not proven a win or a draw, may be null.
+	 * @param table The table to keep proof and disproof numbers in.
+	 */
+	public ProofNumberSearcher(GameContext gameContext, Library library, AbstractSearcher fallbackSearcher, ProofNumberTable table) {
+		super(gameContext, library);
+		this.fallbackSearcher = fallbackSearcher;
+		this.table = table;
+		if (fallbackSearcher != null) {
+			fallbackSearcher.getSearchControl().setParent(searchControl);
+		}
+	}
+
+	public AbstractSearcher getFallbackSearcher() {
+		return fallbackSearcher;
+	}
+
+	public ProofNumberTable getTable() {
+		return table;
+	}
+
+	public long getNodeLimit() {
+		return nodeLimit;
+	}
+
+	/**
+	 * Set the number of nodes after which a proof is given up.
+	 * @param nodeLimit The number of nodes.
+	 */
+	public void setNodeLimit(long nodeLimit) {
+		if (nodeLimit < 1) {
+			throw new IllegalArgumentException("Node limit must be positive");
+		}
+		this.nodeLimit = nodeLimit;
+	}
+
+	public long getTimeLimit() {
+		return timeLimit;
+	}
+
+	/**
+	 * Set the time after which a proof is given up.
+	 * @param timeLimit The time in milliseconds, or {@link #NO_TIME_LIMIT} for none.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		if (timeLimit < 0) {
+			throw new IllegalArgumentException("Time limit cannot be negative");
+		}
+		this.timeLimit = timeLimit;
+	}
+
+	public int getMinMovesMade() {
+		return minMovesMade;
+	}
+
+	/**
+	 * Set how far into a game positions must be before they are proven when searching for a move, so that the time
+	 * taken by proofs that are unlikely to succeed is not wasted early in the game. Positions earlier in the game are
+	 * searched by the fallback searcher straight away.
+	 * @param minMovesMade The number of moves, as counted by {@link AbstractBoard#countMovesMade()}.
+	 */
+	public void setMinMovesMade(int minMovesMade) {
+		if (minMovesMade < 0) {
+			throw new IllegalArgumentException("Min moves made cannot be negative");
+		}
+		this.minMovesMade = minMovesMade;
+	}
+
+	/**
+	 * Get the number of nodes searched by the last proof.
+	 */
+	public long getNodeCount() {
+		return nodeCount;
+	}
+
+	/**
+	 * Get the result of the last proof.
+	 * @return One of {@link #WON}, {@link #DRAWN}, {@link #LOST} or {@link #UNKNOWN}.
+	 */
+	public int getResult() {
+		return result;
+	}
+
+	/**
+	 * Get the move found by the last proof that wins or draws the position, as its result was proved to be.
+	 * @return The move, or null if the position was not proven a win or a draw, the game was already over, or the player
+	 * to move has to pass.
+	 */
+	public Move getProvenMove() {
+		return provenMove;
+	}
+
+	/**
+	 * Prove the result of a position for the player to move.
+	 * @param board The board to prove the result of, which is left unchanged.
+	 * @return One of {@link #WON}, {@link #DRAWN}, {@link #LOST} or {@link #UNKNOWN}.
+	 * @throws AbortException The search is aborted prematurely.
+	 * @throws IllegalArgumentException The board does not implement {@link GameResultBoard}.
+	 */
+	public int prove(AbstractBoard board) throws AbortException {
+		if (!(board instanceof GameResultBoard)) {
+			throw new IllegalArgumentException("Board must implement GameResultBoard");
+		}
+		searchControl.reset();
+		nodeCount = 0;
+		result = UNKNOWN;
+		provenMove = null;
+		deadline = (timeLimit == NO_TIME_LIMIT) ? 0 : System.currentTimeMillis() + timeLimit;
+		if (board.getPositionHash() == AbstractBoard.NO_POSITION_HASH) {
+			return result;
+		}
+		rootPlayer = board.getCurrentPlayer();
+		searchingInPlace = board instanceof AbstractUndoableBoard && ((AbstractUndoableBoard) board).createUndoRecord() != null;
+		AbstractBoard rootBoard = gameContext.checkOutBoard();
+		rootBoard.copy(board);
+		try {
+			if (proveRoot(rootBoard, false)) {
+				result = WON;
+			} else if (proveRoot(rootBoard, true)) {
+				result = DRAWN;
+			} else {
+				result = LOST;
+				provenMove = null;
+			}
+		} catch (SearchThresholdReachedException e) {
+			// a limit was reached, so the result is unknown
+			result = UNKNOWN;
+			provenMove = null;
+		} finally {
+			gameContext.checkInBoard(rootBoard);
+		}
+		return result;
+	}
+
+	@Override
+	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		if (board.countMovesMade() >= minMovesMade) {
+			prove(board);
+		} else {
+			result = UNKNOWN;
+			provenMove = null;
+			nodeCount = 0;
+		}
+		if ((result == WON || result == DRAWN) && provenMove != null) {
+			bestMove = provenMove;
+			bestMoveScore = (result == WON) ? WIN_SCORE : 0;
+		} else if (fallbackSearcher != null) {
+			bestMove = fallbackSearcher.findMove(board, moveRanker, depth, evaluationThreshold);
+			bestMoveScore = fallbackSearcher.getBestMoveScore();
+		}
+		return bestMove;
+	}
+
+	@Override
+	public List<Move> getPrincipalVariation() {
+		if (provenMove == null && fallbackSearcher != null) {
+			return fallbackSearcher.getPrincipalVariation();
+		}
+		return super.getPrincipalVariation();
+	}
+
+	@Override
+	public boolean isAborted() {
+		return super.isAborted() || (fallbackSearcher != null && fallbackSearcher.isAborted());
+	}
+
+	public void addSearchProgressListener(SearchProgressListener searchProgressListener) {
+		if (fallbackSearcher != null) {
+			fallbackSearcher.addSearchProgressListener(searchProgressListener);
+		}
+	}
+
+	public void removeSearchProgressListener(SearchProgressListener searchProgressListener) {
+		if (fallbackSearcher != null) {
+			fallbackSearcher.removeSearchProgressListener(searchProgressListener);
+		}
+	}
+
+	public void setOrderOfMovesIsImportant(boolean orderOfMovesIsImportant) {
+		if (fallbackSearcher != null) {
+			fallbackSearcher.setOrderOfMovesIsImportant(orderOfMovesIsImportant);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return (fallbackSearcher == null) ? "Proof-number" : "Proof-number with " + fallbackSearcher.toString();
+	}
+
+	/**
+	 * Prove or disprove that the player to move can win, or at least draw, from the root of the search.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if it is proved;</li>
+	 * 		<li>false if it is disproved.</li>
+	 * 	</ul>
+	 */
+	private boolean proveRoot(AbstractBoard board, boolean drawIsProof) {
+		this.drawIsProof = drawIsProof;
+		table.newSearch();
+		int winner = getOutcome(board);
+		if (winner != NOT_OVER) {
+			return getProofNumber(board, winner) == 0;
+		}
+		search(board, 0, INFINITY, INFINITY);
+		int slot = table.find(board.getPositionHash());
+		return table.getProofNumber(slot) == 0;
+	}
+
+	/**
+	 * Search a position until its proof number reaches the proof number threshold or its disproof number reaches the
+	 * disproof number threshold, keeping the numbers for each position searched in the table. The numbers are for the
+	 * player to move in each position, so the proof number of a position is the smallest disproof number of the
+	 * positions after it, and its disproof number is the sum of their proof numbers.
+	 * @param board The board to search, which is not over.
+	 * @param ply The number of moves made since the root of the search.
+	 * @param proofThreshold The proof number threshold.
+	 * @param disproofThreshold The disproof number threshold.
+	 */
+	private void search(AbstractBoard board, int ply, int proofThreshold, int disproofThreshold) {
+		countNode();
+		long hash = board.getPositionHash();
+		long startNodeCount = nodeCount;
+		List<Move> moves = getMoves(board, ply);
+		int moveCount = moves.size();
+		long[] childHashes = new long[moveCount];
+		for (int i = 0; i < moveCount; i++) {
+			AbstractBoard child = playMove(board, moves.get(i), ply);
+			try {
+				childHashes[i] = child.getPositionHash();
+				if (table.find(childHashes[i]) < 0) {
+					int winner = getOutcome(child);
+					if (winner != NOT_OVER) {
+						int proofNumber = getProofNumber(child, winner);
+						table.store(childHashes[i], proofNumber, INFINITY - proofNumber, 0);
+					}
+				}
+			} finally {
+				unmakeMove(board, child, moves.get(i), ply);
+			}
+		}
+		while (true) {
+			// the proof number is the smallest disproof number of the children, the disproof number the sum of their proof numbers
+			int proofNumber = INFINITY;
+			int disproofNumber = 0;
+			int bestChild = -1;
+			int bestChildProofNumber = 0;
+			int secondDisproofNumber = INFINITY;
+			for (int i = 0; i < moveCount; i++) {
+				int slot = table.find(childHashes[i]);
+				int childProofNumber = (slot < 0) ? 1 : table.getProofNumber(slot);
+				int childDisproofNumber = (slot < 0) ? 1 : table.getDisproofNumber(slot);
+				if (childDisproofNumber < proofNumber) {
+					secondDisproofNumber = proofNumber;
+					proofNumber = childDisproofNumber;
+					bestChild = i;
+					bestChildProofNumber = childProofNumber;
+				} else if (childDisproofNumber < secondDisproofNumber) {
+					secondDisproofNumber = childDisproofNumber;
+				}
+				disproofNumber = Math.min(INFINITY, disproofNumber + childProofNumber);
+			}
+			if (proofNumber >= proofThreshold || disproofNumber >= disproofThreshold) {
+				table.store(hash, proofNumber, disproofNumber, (int) Math.min(Integer.MAX_VALUE, nodeCount - startNodeCount));
+				if (ply == 0) {
+					provenMove = (proofNumber == 0) ? moves.get(bestChild) : null;
+				}
+				return;
+			}
+			int childProofThreshold = (int) Math.min(INFINITY, (long) disproofThreshold - disproofNumber + bestChildProofNumber);
+			int childDisproofThreshold = (int) Math.min(proofThreshold, (long) secondDisproofNumber + secondDisproofNumber / 4 + 1);
+			AbstractBoard child = playMove(board, moves.get(bestChild), ply);
+			try {
+				int winner = getOutcome(child);
+				if (winner != NOT_OVER) {
+					// the entry stored for the game being over has been replaced
+					int childProofNumber = getProofNumber(child, winner);
+					table.store(childHashes[bestChild], childProofNumber, INFINITY - childProofNumber, 0);
+				} else {
+					search(child, ply + 1, childProofThreshold, childDisproofThreshold);
+				}
+			} finally {
+				unmakeMove(board, child, moves.get(bestChild), ply);
+			}
+		}
+	}
+
+	private void countNode() {
+		nodeCount++;
+		if (searchControl.isCancelled()) {
+			throw AbstractSinglePassSearcher.SEARCHER_ABORTED;
+		}
+		if (nodeCount > nodeLimit) {
+			throw NODE_LIMIT_REACHED;
+		}
+		if (nodeCount % TIME_CHECK_INTERVAL == 0 && ((deadline != 0 && System.currentTimeMillis() >= deadline) || searchControl.isDeadlineReached())) {
+			throw TIME_LIMIT_REACHED;
+		}
+	}
+
+	/**
+	 * Get the moves for the player to move, where a pass is a null move.
+	 */
+	private List<Move> getMoves(AbstractBoard board, int ply) {
+		if (board.canMove()) {
+			return board.getValidMoves(null, ply + 1);
+		}
+		return Collections.<Move>singletonList(null);
+	}
+
+	/**
+	 * Determine whether the game is over.
+	 * @return The index of the player who won, the number of players for a draw, or {@link #NOT_OVER}.
+	 */
+	private int getOutcome(AbstractBoard board) {
+		if (!board.isGameOver()) {
+			if (board.canMove()) {
+				return NOT_OVER;
+			}
+			Player player = board.getCurrentPlayer();
+			board.nextPlayer();
+			boolean nextPlayerCanMove = board.canMove();
+			board.currentPlayer = player;
+			if (nextPlayerCanMove) {
+				return NOT_OVER;
+			}
+		}
+		Player winner = ((GameResultBoard) board).getWinner();
+		return (winner == null) ? gameContext.getPlayers().size() : gameContext.getPlayers().indexOf(winner);
+	}
+
+	/**
+	 * Get the proof number of a position in which the game is over, for the player to move.
+	 * @return 0 if the outcome is proved for the player to move, or {@link #INFINITY} if it is disproved.
+	 */
+	private int getProofNumber(AbstractBoard board, int winner) {
+		boolean proved;
+		if (winner == gameContext.getPlayers().size()) {
+			proved = drawIsProof;
+		} else {
+			proved = gameContext.getPlayers().get(winner).equals(rootPlayer);
+		}
+		// the outcome is for the player at the root, so is reversed for the other player
+		return (proved == rootPlayer.equals(board.getCurrentPlayer())) ? 0 : INFINITY;
+	}
+
+	private AbstractBoard playMove(AbstractBoard board, Move move, int ply) {
+		if (searchingInPlace) {
+			while (undoRecords.size() <= ply) {
+				undoRecords.add(((AbstractUndoableBoard) board).createUndoRecord());
+			}
+			UndoRecord undoRecord = undoRecords.get(ply);
+			if (move == null) {
+				undoRecord.currentPlayer = board.currentPlayer;
+				board.nextPlayer();
+			} else {
+				((AbstractUndoableBoard) board).playMove(move, undoRecord);
+			}
+			return board;
+		}
+		AbstractBoard newBoard = gameContext.checkOutBoard();
+		newBoard.copy(board);
+		if (move == null) {
+			newBoard.nextPlayer();
+		} else {
+			newBoard.playMove(move, null, true);
+		}
+		return newBoard;
+	}
+
+	private void unmakeMove(AbstractBoard board, AbstractBoard child, Move move, int ply) {
+		if (searchingInPlace) {
+			UndoRecord undoRecord = undoRecords.get(ply);
+			if (move == null) {
+				board.currentPlayer = undoRecord.currentPlayer;
+			} else {
+				((AbstractUndoableBoard) board).unmakeMove(undoRecord);
+			}
+		} else {
+			gameContext.checkInBoard(child);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * @(#)ProofNumberTable.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Bounded table of proof and disproof numbers keyed on {@link AbstractBoard#getPositionHash() position hashes}, used
+ * by {@link ProofNumberSearcher}. Entries are held in parallel primitive arrays, so the table never grows beyond the
+ * size it was created with.
+ * <p/>
+ * The slots are arranged in pairs, and a position can be stored in either slot of the pair its hash maps to. A new
+ * entry always replaces the entry of the pair that took the least work to find, so that the positions on the path
+ * being searched are never lost, while positions whose proofs took a lot of work are kept for as long as possible.
+ * <p/>
+ * The numbers depend on what is being proved, so only entries stored since the last call to {@link #newSearch()} are
+ * found.
+ * @author mpatric
+ */
+public class ProofNumberTable {
+
+	public static final int DEFAULT_SIZE = 1 << 18;
+
+	private final int mask;
+	private final long[] hashes;
+	private final int[] proofNumbers;
+	private final int[] disproofNumbers;
+	private final int[] work;
+	private final int[] generations;
+	private int generation = 1;
+	private long hits = 0;
+	private long misses = 0;
+
+	/**
+	 * Constructor for a table with {@link #DEFAULT_SIZE} slots.
+	 */
+	public ProofNumberTable() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * @param size The number of slots in the table, rounded up to a power of two of at least 2.
+	 */
+	public ProofNumberTable(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Proof number table size must be positive");
+		}
+		int slots = 2;
+		while (slots < size) {
+			slots <<= 1;
+		}
+		mask = slots - 2;
+		hashes = new long[slots];
+		proofNumbers = new int[slots];
+		disproofNumbers = new int[slots];
+		work = new int[slots];
+		generations = new int[slots];
+	}
+
+	public int getSize() {
+		return hashes.length;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Remove all entries from the table and reset the counters.
+	 */
+	public void clear() {
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = 0;
+			generations[i] = 0;
+		}
+		generation = 1;
+		hits = 0;
+		misses = 0;
+	}
+
+	/**
+	 * Mark the start of a new proof. Entries stored before this call are no longer found.
+	 */
+	public void newSearch() {
+		generation++;
+	}
+
+	/**
+	 * Look up the slot holding an entry for the specified position.
+	 * @param hash The position hash.
+	 * @return The slot holding the entry, or -1 if there is no entry for the position.
+	 */
+	public int find(long hash) {
+		int slot = (int) hash & mask;
+		if (generations[slot] == generation && hashes[slot] == hash) {
+			hits++;
+			return slot;
+		}
+		slot++;
+		if (generations[slot] == generation && hashes[slot] == hash) {
+			hits++;
+			return slot;
+		}
+		misses++;
+		return -1;
+	}
+
+	public int getProofNumber(int slot) {
+		return proofNumbers[slot];
+	}
+
+	public int getDisproofNumber(int slot) {
+		return disproofNumbers[slot];
+	}
+
+	public int getWork(int slot) {
+		return work[slot];
+	}
+
+	/**
+	 * Store the proof and disproof numbers of a position.
+	 * @param hash The position hash.
+	 * @param proofNumber The proof number for the player to move in the position.
+	 * @param disproofNumber The disproof number for the player to move in the position.
+	 * @param work The number of nodes searched to find the numbers.
+	 */
+	public void store(long hash, int proofNumber, int disproofNumber, int work) {
+		int slot = (int) hash & mask;
+		if (!(generations[slot] == generation && hashes[slot] == hash)) {
+			int other = slot + 1;
+			if (generations[other] == generation && hashes[other] == hash) {
+				slot = other;
+			} else if (generations[slot] == generation && (generations[other] != generation || this.work[other] < this.work[slot])) {
+				// replace the entry that is left over from an earlier proof, or that took the least work
+				slot = other;
+			}
+		}
+		hashes[slot] = hash;
+		proofNumbers[slot] = proofNumber;
+		disproofNumbers[slot] = disproofNumber;
+		this.work[slot] = work;
+		generations[slot] = generation;
+	}
+
+	/**
+	 * Count the slots that hold an entry from the current proof.
+	 * @return The number of slots in use.
+	 */
+	public int countEntries() {
+		int count = 0;
+		for (int i = 0; i < generations.length; i++) {
+			if (generations[i] == generation) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * @(#)RootSplitSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class for generating and searching a game tree to find the best move with a number of threads, by splitting the
+ * moves at the root of the tree between them. Each thread searches the moves it takes with a {@link NegascoutSearcher}
+ * of its own (see {@link AbstractParallelSearcher}).
+ * <p/>
+ * The first move is searched on its own to find a bound for the rest. The threads then take the remaining moves in
+ * turn, searching each with a null window against the best score found so far, which is shared between them. A move
+ * that fails high is re-searched against the best score found by then, which picks up improvements made by the other
+ * threads while it was running. Of the moves with the best score, the one that comes first in the move list
+ * is chosen (as it is by {@link NegascoutSearcher}), so the move found does not depend on the order in which the
+ * threads finish.
+ * @author mpatric
+ */
+public class RootSplitSearcher extends AbstractParallelSearcher {
+
+	private static final int NO_ROOT_MOVE = -1;
+	private static final int NO_SCORE = Integer.MIN_VALUE;
+
+	private final RootSplitWorker[] workers;
+	private final AtomicInteger nextMoveIndex = new AtomicInteger();
+	private List<Move> rootMoves = null;
+	// scores of the root moves searched, which are passed to the move ranker once the threads have finished with it
+	private int[] rootScores = null;
+	// best score in the high 32 bits and the index of its move in the low 32 bits, so both are read together
+	private volatile long best = 0;
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to evaluate leaf node values. Shared between the threads, so must be thread-safe.
+	 * @param byeAllowed Should the search continue when there are board positions where a player cannot play?
+	 * @param threadCount The number of threads to search with, including the thread calling the searcher.
+	 */
+	public RootSplitSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed, int threadCount) {
+		super(gameContext, library, evaluator, byeAllowed, threadCount);
+		workers = new RootSplitWorker[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			workers[i] = new RootSplitWorker(i);
+		}
+	}
+
+	@Override
+	protected Worker getWorker(int index) {
+		return workers[index];
+	}
+
+	@Override
+	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		bestMove = null;
+		depthReached = 0;
+		notifyListenerOfIterationStart();
+		int maxMovesLeft = board.countMaxMovesLeft();
+		if (maxMovesLeft > 0) {
+			int d = depth;
+			if (d > maxMovesLeft) {
+				d = maxMovesLeft;
+			}
+			prepareWorkers(moveRanker);
+			try {
+				if (searchControl.isCancelled()) {
+					throw SEARCHER_ABORTED;
+				}
+				if (threadCount == 1 || d == 1 || !board.canMove()) {
+					// nothing to gain from splitting the search, so search with one thread
+					bestMove = workers[0].findMoveBySearch(board, moveRanker, d, evaluationThreshold);
+					bestMoveScore = workers[0].getBestMoveScore();
+				} else {
+					// the root node is searched by this searcher, and the nodes below it by the workers
+					searchStatistics.countNode(0);
+					searchRootMoves(board, moveRanker, d, evaluationThreshold);
+				}
+			} catch (SearchThresholdReachedException e) {
+				notifyListenerOfIterationEnd(true, null, 0);
+				throw e;
+			} finally {
+				rootMoves = null;
+				rootScores = null;
+				collectFromWorkers();
+			}
+		}
+		notifyListenerOfIterationEnd(false, bestMove, bestMoveScore);
+		return bestMove;
+	}
+
+	@Override
+	protected void prepareWorkers(MoveRanker moveRanker) {
+		super.prepareWorkers(moveRanker);
+		for (int i = 0; i < threadCount; i++) {
+			workers[i].rootMoveIndex = NO_ROOT_MOVE;
+		}
+	}
+
+	/**
+	 * Search the first move at the root of the tree, then split the remaining moves between the threads.
+	 */
+	private void searchRootMoves(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) {
+		rootMoves = board.getValidMoves(moveRanker, 1);
+		rootScores = new int[rootMoves.size()];
+		Arrays.fill(rootScores, NO_SCORE);
+		best = pack(-INFINITY, Integer.MAX_VALUE);
+		searchRootMove(workers[0], board, 0, depth, evaluationThreshold);
+		nextMoveIndex.set(1);
+		List<Future<Object>> futures = new ArrayList<Future<Object>>(threadCount - 1);
+		ExecutorService executorService = getExecutorService();
+		for (int i = 1; i < threadCount; i++) {
+			futures.add(executorService.submit(new RootMoveTask(workers[i], board, depth, evaluationThreshold)));
+		}
+		new RootMoveTask(workers[0], board, depth, evaluationThreshold).call();
+		boolean interrupted = false;
+		for (Future<Object> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					// the other threads still have boards checked out, so wait for them to stop
+					interrupted = true;
+					stopWorkers();
+				} catch (ExecutionException e) {
+					recordFailure(new RuntimeException(e.getCause()));
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		rankRootMoves(board, moveRanker, depth);
+		throwFailure();
+	}
+
+	/**
+	 * Pass the scores of the root moves that were searched to the move ranker passed to the searcher. This is only done
+	 * once all the threads have stopped, as the thread calling the searcher searches with the same move ranker.
+	 */
+	private void rankRootMoves(AbstractBoard board, MoveRanker moveRanker, int depth) {
+		if (moveRanker == null || (orderOfMovesIsImportant && depth > 1)) {
+			return;
+		}
+		Player player = board.getCurrentPlayer();
+		for (int i = 0; i < rootScores.length; i++) {
+			if (rootScores[i] != NO_SCORE) {
+				moveRanker.onNodeEvaluation(rootMoves.get(i), board, rootScores[i], player, 1);
+			}
+		}
+	}
+
+	/**
+	 * Search one of the moves at the root of the tree, setting it as the best move if it is better than the best move
+	 * found so far. The first move is searched with an open window; the rest are searched with a null window first.
+	 */
+	private void searchRootMove(RootSplitWorker worker, AbstractBoard board, int index, int depth, long evaluationThreshold) {
+		Move move = rootMoves.get(index);
+		Player player = board.getCurrentPlayer();
+		MoveRanker workerMoveRanker = worker.getMoveRanker();
+		AbstractBoard newBoard = (AbstractBoard) gameContext.checkOutBoard();
+		newBoard.copy(board);
+		newBoard.playMove(move, null, true);
+		notifyListenerOfBranch(move, newBoard, player, 1);
+		int score;
+		worker.rootMoveIndex = index;
+		try {
+			if (index == 0) {
+				score = -worker.searchBoard(board, newBoard, workerMoveRanker, depth, depth - 1, -INFINITY, INFINITY, evaluationThreshold);
+			} else {
+				int bound = getBound(index);
+				score = -worker.searchBoard(board, newBoard, workerMoveRanker, depth, depth - 1, -bound - 1, -bound, evaluationThreshold);
+				if (score > bound) {
+					// may be better than the best move so far, so re-search against the best score found by now
+					bound = getBound(index);
+					score = -worker.searchBoard(board, newBoard, workerMoveRanker, depth, depth - 1, -INFINITY, -bound, evaluationThreshold);
+				}
+			}
+		} finally {
+			worker.rootMoveIndex = NO_ROOT_MOVE;
+			gameContext.checkInBoard(newBoard);
+		}
+		synchronized (this) {
+			notifyListenerOfNodeEvaluation(move, -score, player, 1);
+			rootScores[index] = score;
+			int bestScore = (int) (best >> 32);
+			int bestIndex = (int) best;
+			if (score > bestScore || (score == bestScore && index < bestIndex)) {
+				best = pack(score, index);
+				bestMove = move;
+				bestMoveScore = score;
+			}
+		}
+	}
+
+	/**
+	 * Get the score that a move at the root of the tree must beat to become the best move.
+	 * @param index The index of the move in the list of root moves.
+	 * @return The score to beat.
+	 */
+	private int getBound(int index) {
+		long packed = best;
+		int bestScore = (int) (packed >> 32);
+		int bestIndex = (int) packed;
+		// a move before the best move in the list only has to equal its score
+		return (index < bestIndex) ? bestScore - 1 : bestScore;
+	}
+
+	private static long pack(int score, int index) {
+		return ((long) score << 32) | (index & 0xffffffffL);
+	}
+
+	@Override
+	public String toString() {
+		return "Root split negascout";
+	}
+
+	/**
+	 * Task run by each thread, which takes moves at the root of the tree in turn until there are none left.
+	 */
+	private class RootMoveTask implements Callable<Object> {
+
+		private final RootSplitWorker worker;
+		private final AbstractBoard board;
+		private final int depth;
+		private final long evaluationThreshold;
+
+		private RootMoveTask(RootSplitWorker worker, AbstractBoard board, int depth, long evaluationThreshold) {
+			this.worker = worker;
+			this.board = board;
+			this.depth = depth;
+			this.evaluationThreshold = evaluationThreshold;
+		}
+
+		public Object call() {
+			try {
+				int index;
+				while ((index = nextMoveIndex.getAndIncrement()) < rootMoves.size()) {
+					searchRootMove(worker, board, index, depth, evaluationThreshold);
+				}
+			} catch (RuntimeException e) {
+				// the first failure ends the search; the other threads are stopped, so fail with aborts after it
+				recordFailure(e);
+			} finally {
+				worker.flushEvaluationCount();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Worker that narrows the window for the children of the root move it is searching as the best root move found by
+	 * any thread improves.
+	 */
+	private class RootSplitWorker extends Worker {
+
+		private int rootMoveIndex = NO_ROOT_MOVE;
+
+		private RootSplitWorker(int index) {
+			super(index);
+		}
+
+		@Override
+		protected int tightenBeta(int depth, int d, int alpha, int beta) {
+			if (d == depth - 1 && rootMoveIndex > 0) {
+				// children of the root move being searched, whose score must beat the best root move found by any thread
+				int bound = -getBound(rootMoveIndex);
+				if (bound < beta) {
+					return (bound > alpha) ? bound : alpha + 1;
+				}
+			}
+			return beta;
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * @(#)SearchControl.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Controls when a search ends: holds a cancellation flag, a deadline and an evaluation count, which are read by the
+ * searchers while they search. Each {@link AbstractSearcher searcher} has a control of its own; a searcher that uses
+ * other searchers (such as an {@link IterativeSearcher}, or a searcher that uses a number of threads) makes its control
+ * the {@link #setParent(SearchControl) parent} of theirs, so that cancelling its search or setting a deadline for it
+ * also applies to them, whichever thread they are searching in.
+ * <p/>
+ * The cancellation flag is cheap to read, so it is checked at every node. The deadline needs the clock to be read, so
+ * it is only checked every {@link #DEADLINE_CHECK_INTERVAL} nodes. The evaluation count is shared by searchers that
+ * search in different threads towards the same evaluation threshold: each of them
+ * {@link #reserveEvaluations(long) reserves} a few evaluations at a time and counts them off by itself, so that the
+ * count is only updated once for every few evaluations, but the threads together never do more evaluations than the
+ * threshold allows.
+ * @author mpatric
+ */
+public class SearchControl {
+
+	public static final long NO_DEADLINE = 0;
+	public static final int DEADLINE_CHECK_INTERVAL = 256;
+	private static final int MAX_RESERVATION = 64;
+	private static final int RESERVATION_DIVISOR = 16;
+
+	private volatile SearchControl parent = null;
+	private volatile boolean cancelled = false;
+	private volatile long deadline = NO_DEADLINE;
+	private final AtomicLong evaluationCount = new AtomicLong();
+
+	public SearchControl getParent() {
+		return parent;
+	}
+
+	/**
+	 * Set the control that this control follows, so that this one is cancelled when it is and its deadline applies
+	 * here too. Used by searchers that search with other searchers, which give the other searchers' controls their own
+	 * control as a parent.
+	 * @param parent The parent control, may be null for none.
+	 */
+	public void setParent(SearchControl parent) {
+		for (SearchControl ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+			if (ancestor == this) {
+				throw new IllegalArgumentException("Search control cannot be its own ancestor");
+			}
+		}
+		this.parent = parent;
+	}
+
+	/**
+	 * Cancel the search, along with the searches of any controls that have this control as an ancestor.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Determine whether the search has been cancelled, either through this control or one of its ancestors.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the search has been cancelled;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	public boolean isCancelled() {
+		SearchControl control = this;
+		do {
+			if (control.cancelled) {
+				return true;
+			}
+			control = control.parent;
+		} while (control != null);
+		return false;
+	}
+
+	/**
+	 * Clear the cancellation flag of this control, for a new search. The flags of its ancestors are left alone, so that a
+	 * search that is cancelled while it is between searches with the searcher of this control stays cancelled.
+	 */
+	public void reset() {
+		cancelled = false;
+	}
+
+	/**
+	 * Get the earliest of the deadline of this control and those of its ancestors.
+	 * @return The time, as returned by {@link System#currentTimeMillis()}, or {@link #NO_DEADLINE} for none.
+	 */
+	public long getDeadline() {
+		long earliestDeadline = NO_DEADLINE;
+		for (SearchControl control = this; control != null; control = control.parent) {
+			long deadline = control.deadline;
+			if (deadline != NO_DEADLINE && (earliestDeadline == NO_DEADLINE || deadline < earliestDeadline)) {
+				earliestDeadline = deadline;
+			}
+		}
+		return earliestDeadline;
+	}
+
+	/**
+	 * Set a time at which searches with this control, or with a control that has it as an ancestor, are ended.
+	 * @param deadline The time, as returned by {@link System#currentTimeMillis()}, or {@link #NO_DEADLINE} for none.
+	 */
+	public void setDeadline(long deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Get the deadline set on this control only, ignoring those of its ancestors.
+	 */
+	public long getOwnDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Determine whether the deadline has been reached. Reads the clock, so should only be called every so often.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if there is a deadline and it has been reached;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	public boolean isDeadlineReached() {
+		long deadline = getDeadline();
+		return deadline != NO_DEADLINE && System.currentTimeMillis() >= deadline;
+	}
+
+	/**
+	 * Get the number of evaluations done or reserved with this control.
+	 */
+	public long getEvaluationCount() {
+		return evaluationCount.get();
+	}
+
+	public void setEvaluationCount(long evaluationCount) {
+		this.evaluationCount.set(evaluationCount);
+	}
+
+	/**
+	 * Add evaluations that were done without being reserved.
+	 * @param count The number of evaluations.
+	 */
+	public void addEvaluations(long count) {
+		evaluationCount.addAndGet(count);
+	}
+
+	/**
+	 * Reserve a number of evaluations to be done before the evaluation threshold is reached. Fewer are reserved as the
+	 * threshold gets closer, so that the threads sharing this control finish their reservations at much the same time.
+	 * Any that are not used must be {@link #returnEvaluations(long) returned}.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return The number of evaluations reserved, which is 0 if the threshold has been reached.
+	 */
+	public int reserveEvaluations(long evaluationThreshold) {
+		while (true) {
+			long count = evaluationCount.get();
+			long remaining = evaluationThreshold - count;
+			if (remaining <= 0) {
+				return 0;
+			}
+			int reservation = (int) Math.max(1, Math.min(MAX_RESERVATION, remaining / RESERVATION_DIVISOR));
+			if (evaluationCount.compareAndSet(count, count + reservation)) {
+				return reservation;
+			}
+		}
+	}
+
+	/**
+	 * Return evaluations that were reserved but not done.
+	 * @param count The number of evaluations.
+	 */
+	public void returnEvaluations(long count) {
+		evaluationCount.addAndGet(-count);
+	}
+}
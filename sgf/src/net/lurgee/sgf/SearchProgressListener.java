@@ -8,6 +8,8 @@
 
 package net.lurgee.sgf;
 
+import java.util.List;
+
 /**
  * Interface that a class representing a search progress listener, which is provided with feedback during the search process
  * done by a {@link AbstractSinglePassSearcher searcher}, must implement.
@@ -27,8 +29,10 @@ public interface SearchProgressListener {
 	 * @param iteration The iteration number.
 	 * @param depth The maximum search depth reached in this iteration.
 	 * @param thresholdReached If true, indicates that the search in this iteration did not complete as it reached its threshold.
+	 * @param principalVariation The principal variation found in this iteration, starting with the best move (see
+	 * {@link AbstractSearcher#getPrincipalVariation()}). Empty if the iteration did not complete or has no best move.
 	 */
-	void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached);
+	void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation);
 	
 	/**
 	 * Called when a new branch is created by a searcher while finding a move.
@@ -55,4 +59,30 @@ public interface SearchProgressListener {
 	 * @param depth The depth into the tree.
 	 */
 	void onLeafEvaluation(int score, Player player, int depth);
+
+	/**
+	 * Called at the end of each iteration by searchers that search with a number of threads but only report the progress
+	 * of one of them through the other methods of this interface, such as {@link LazySmpSearcher}.
+	 * @param iteration The iteration number.
+	 * @param nodeCount The number of leaves evaluated by all the threads so far in the search.
+	 */
+	void onAggregateNodeCount(int iteration, long nodeCount);
+
+	/**
+	 * Called when a search with a narrowed window at the root (see {@link IterativeSearcher#setAspirationWindow(int)})
+	 * fails low, as the best score is no more than alpha. The search is then repeated with a wider window.
+	 * @param iteration The iteration number.
+	 * @param alpha The alpha value at the root.
+	 * @param beta The beta value at the root.
+	 */
+	void onFailLow(int iteration, int alpha, int beta);
+
+	/**
+	 * Called when a search with a narrowed window at the root (see {@link IterativeSearcher#setAspirationWindow(int)})
+	 * fails high, as the best score is at least beta. The search is then repeated with a wider window.
+	 * @param iteration The iteration number.
+	 * @param alpha The alpha value at the root.
+	 * @param beta The beta value at the root.
+	 */
+	void onFailHigh(int iteration, int alpha, int beta);
 }
@@ -0,0 +1,208 @@
+/*
+ * @(#)SearchSession.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Context for the searches made by one player during a game, which carries what is learnt by each search over to the
+ * next rather than starting every move cold. A session keeps:
+ * <ul>
+ * 	<li>a {@link TranspositionTable transposition table}, whose best moves are used to order moves in later searches;</li>
+ * 	<li>the move ranker, so that stateful move rankers such as {@link HistoryHeuristicMoveRanker} keep their ranks;</li>
+ * 	<li>the position expected after the opponent's reply, taken from the principal variation of the last search.</li>
+ * </ul>
+ * When the opponent plays the reply that was expected, the position has already been searched as part of the last
+ * search, to a depth of as many plies fewer as were played. An {@link IterativeSearcher} (which may be the fallback
+ * searcher of a {@link ProofNumberSearcher}) then {@link IterativeSearcher#resumeNextSearch(int, List) resumes} at the
+ * depth that the last search completed, following the rest of its principal variation, rather than iterating up to it
+ * from the start.
+ * <p/>
+ * A session must be {@link #clear() cleared} when a new game is started or moves are undone.
+ * @author mpatric
+ */
+public class SearchSession {
+
+	private final AbstractSearcher searcher;
+	private final IterativeSearcher iterativeSearcher;
+	private final TranspositionTable transpositionTable;
+	private MoveRanker moveRanker;
+	private AbstractBoard expectedBoard = null;
+	private Move expectedReply = null;
+	private List<Move> expectedVariation = null;
+	private int expectedDepth = 0;
+	private int resumedSearchCount = 0;
+
+	/**
+	 * Constructor for a session with a transposition table of {@link TranspositionTable#DEFAULT_SIZE default size}.
+	 * @param searcher The searcher used to find moves.
+	 * @param moveRanker A move ranker for ranking moves for ordering, may be null.
+	 */
+	public SearchSession(AbstractSearcher searcher, MoveRanker moveRanker) {
+		this(searcher, moveRanker, new TranspositionTable());
+	}
+
+	/**
+	 * Constructor.
+	 * @param searcher The searcher used to find moves.
+	 * @param moveRanker A move ranker for ranking moves for ordering, may be null.
+	 * @param transpositionTable A transposition table, which is given to the searcher if it is a single-pass searcher (or
+	 * wraps one) without a table of its own. May be null for none.
+	 */
+	public SearchSession(AbstractSearcher searcher, MoveRanker moveRanker, TranspositionTable transpositionTable) {
+		this.searcher = searcher;
+		this.moveRanker = moveRanker;
+		AbstractSearcher underlyingSearcher = searcher;
+		if (underlyingSearcher instanceof ProofNumberSearcher) {
+			underlyingSearcher = ((ProofNumberSearcher) underlyingSearcher).getFallbackSearcher();
+		}
+		if (underlyingSearcher instanceof IterativeSearcher) {
+			iterativeSearcher = (IterativeSearcher) underlyingSearcher;
+			underlyingSearcher = iterativeSearcher.getSinglePassSearcher();
+		} else {
+			iterativeSearcher = null;
+		}
+		if (underlyingSearcher instanceof AbstractSinglePassSearcher) {
+			AbstractSinglePassSearcher singlePassSearcher = (AbstractSinglePassSearcher) underlyingSearcher;
+			if (singlePassSearcher.getTranspositionTable() == null) {
+				singlePassSearcher.setTranspositionTable(transpositionTable);
+			}
+			this.transpositionTable = singlePassSearcher.getTranspositionTable();
+		} else {
+			this.transpositionTable = null;
+		}
+	}
+
+	public AbstractSearcher getSearcher() {
+		return searcher;
+	}
+
+	public MoveRanker getMoveRanker() {
+		return moveRanker;
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	/**
+	 * Get the reply to the last move found that the search for it expected the opponent to play.
+	 * @return The expected reply, or null if no reply is expected.
+	 */
+	public Move getExpectedReply() {
+		return expectedReply;
+	}
+
+	/**
+	 * Get the number of searches that were resumed from a depth partly solved by the search before them. Searches for
+	 * moves that a {@link ProofNumberSearcher} proved, without its fallback searcher, are not counted.
+	 */
+	public int getResumedSearchCount() {
+		return resumedSearchCount;
+	}
+
+	/**
+	 * Find the next move for the current player, as for {@link AbstractSearcher#findMove(AbstractBoard, MoveRanker, int, long)},
+	 * resuming from the last search if the board is in the position it expected.
+	 * @param board The board used for the operations.
+	 * @param depth The search depth.
+	 * @param evaluationThreshold The number of evaluations at which the search is ended.
+	 * @return The best move, as determined by the search.
+	 * @throws AbortException The search is aborted prematurely.
+	 * @throws RuntimeException Fatal error.
+	 */
+	public Move findMove(AbstractBoard board, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		boolean resuming = false;
+		if (expectedBoard != null) {
+			if (board.equals(expectedBoard)) {
+				iterativeSearcher.resumeNextSearch(expectedDepth, expectedVariation);
+				resuming = true;
+			}
+			forgetExpectedPosition();
+		}
+		Move move;
+		try {
+			move = searcher.findMove(board, moveRanker, depth, evaluationThreshold);
+		} finally {
+			// the iterative searcher is not called if a proof-number searcher proves the move, and must not resume a later search
+			if (resuming && !iterativeSearcher.cancelResume()) {
+				resumedSearchCount++;
+			}
+		}
+		if (move != null) {
+			expectPosition(board, move);
+		}
+		return move;
+	}
+
+	/**
+	 * Clear everything carried over between searches, for when a new game is started or moves are undone. A stateful
+	 * move ranker is replaced by a {@link StatefulMoveRanker#newInstance() new instance} of it, with no stored ranks.
+	 */
+	public void clear() {
+		forgetExpectedPosition();
+		if (transpositionTable != null) {
+			transpositionTable.clear();
+		}
+		if (moveRanker instanceof StatefulMoveRanker) {
+			moveRanker = ((StatefulMoveRanker) moveRanker).newInstance();
+		} else if (moveRanker != null) {
+			moveRanker.reset();
+		}
+	}
+
+	/**
+	 * Work out the position the last search expected to be searched next, by playing the move found and the rest of its
+	 * principal variation up to the opponent's last reply. A player that cannot move passes, as when a game is played.
+	 */
+	private void expectPosition(AbstractBoard board, Move move) {
+		if (iterativeSearcher == null) {
+			return;
+		}
+		List<Move> principalVariation = searcher.getPrincipalVariation();
+		int length = Math.min(principalVariation.size(), iterativeSearcher.getCompletedDepth());
+		if (length < 2 || principalVariation.get(0) == null || principalVariation.get(0).getId() != move.getId()) {
+			// the move was not found by an iterative search, or there is no reply in the principal variation
+			return;
+		}
+		Player player = board.getCurrentPlayer();
+		AbstractBoard nextBoard = searcher.gameContext.checkOutBoard();
+		nextBoard.copy(board);
+		nextBoard.playMove(move, null, false);
+		int ply = 1;
+		while (ply < length && !nextBoard.isGameOver() && !nextBoard.getCurrentPlayer().equals(player)) {
+			Move replyMove = principalVariation.get(ply++);
+			if (replyMove == null) {
+				nextBoard.nextPlayer();
+			} else {
+				nextBoard.playMove(replyMove, null, false);
+			}
+		}
+		if (nextBoard.isGameOver() || !nextBoard.getCurrentPlayer().equals(player) || ply == length) {
+			// nothing to resume from
+			searcher.gameContext.checkInBoard(nextBoard);
+			return;
+		}
+		expectedBoard = nextBoard;
+		expectedReply = principalVariation.get(1);
+		expectedVariation = new ArrayList<Move>(principalVariation.subList(ply, length));
+		expectedDepth = length;
+	}
+
+	private void forgetExpectedPosition() {
+		if (expectedBoard != null) {
+			searcher.gameContext.checkInBoard(expectedBoard);
+			expectedBoard = null;
+		}
+		expectedReply = null;
+		expectedVariation = null;
+		expectedDepth = 0;
+	}
+}
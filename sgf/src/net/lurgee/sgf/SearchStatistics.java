@@ -0,0 +1,254 @@
+/*
+ * @(#)SearchStatistics.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.Arrays;
+
+/**
+ * Counts of the work done by a {@link NegamaxSearcher} (or one of its subclasses) while searching, broken down by ply.
+ * The counts are always kept, as they are only a few increments of primitive fields per node, unlike
+ * {@link SearchProgressListener search progress listeners}, which are told of every node and leaf and so are best
+ * only added when the detail is needed. Counts cover a whole call to {@link AbstractSearcher#findMove(AbstractBoard,
+ * MoveRanker, int, long) findMove}, including every iteration of an {@link IterativeSearcher}.
+ * <p/>
+ * The counts are not synchronized; searchers that use a number of threads keep a set per thread and add them together
+ * once a search has ended.
+ * @author mpatric
+ */
+public class SearchStatistics {
+
+	private static final int INITIAL_PLY_COUNT = 16;
+
+	private long nodeCount = 0;
+	private long leafCount = 0;
+	private long cutoffCount = 0;
+	private long reductionCount = 0;
+	private long reSearchCount = 0;
+	private long futilityPruneCount = 0;
+	private long nullMoveCount = 0;
+	private long nullMoveCutoffCount = 0;
+	private long quiescenceNodeCount = 0;
+	private long[] nodeCountByPly = new long[INITIAL_PLY_COUNT];
+	private long[] cutoffCountByPly = new long[INITIAL_PLY_COUNT];
+	private int plyCount = 0;
+
+	/**
+	 * Count a node searched, including leaves and nodes whose score is found in the transposition table.
+	 * @param ply The number of moves from the root to the node, 0 for the root.
+	 */
+	void countNode(int ply) {
+		nodeCount++;
+		if (ply >= plyCount) {
+			ensurePlyCount(ply + 1);
+		}
+		nodeCountByPly[ply]++;
+	}
+
+	/**
+	 * Count a leaf evaluated. The node must have already been counted.
+	 */
+	void countLeaf() {
+		leafCount++;
+	}
+
+	/**
+	 * Count a cutoff, where the rest of the moves at a node are not searched. The node must have already been counted.
+	 * @param ply The number of moves from the root to the node.
+	 */
+	void countCutoff(int ply) {
+		cutoffCount++;
+		cutoffCountByPly[ply]++;
+	}
+
+	/**
+	 * Count a move searched to a reduced depth by a {@link ForwardPruningPolicy forward pruning policy}.
+	 */
+	void countReduction() {
+		reductionCount++;
+	}
+
+	/**
+	 * Count a reduced move searched again to the full depth, as it was better than the best move so far.
+	 */
+	void countReSearch() {
+		reSearchCount++;
+	}
+
+	/**
+	 * Count a node where moves were left out as searching them was futile.
+	 */
+	void countFutilityPrune() {
+		futilityPruneCount++;
+	}
+
+	/**
+	 * Count a null move tried, and whether it caused a cutoff.
+	 * @param cutoff Did the null move cause a cutoff?
+	 */
+	void countNullMove(boolean cutoff) {
+		nullMoveCount++;
+		if (cutoff) {
+			nullMoveCutoffCount++;
+		}
+	}
+
+	/**
+	 * Count a node searched by a quiescence search past the depth of the search. These nodes are not counted as nodes
+	 * of the main search.
+	 */
+	void countQuiescenceNode() {
+		quiescenceNodeCount++;
+	}
+
+	private void ensurePlyCount(int count) {
+		if (count > nodeCountByPly.length) {
+			int length = nodeCountByPly.length;
+			while (length < count) {
+				length <<= 1;
+			}
+			long[] newNodeCountByPly = new long[length];
+			long[] newCutoffCountByPly = new long[length];
+			System.arraycopy(nodeCountByPly, 0, newNodeCountByPly, 0, plyCount);
+			System.arraycopy(cutoffCountByPly, 0, newCutoffCountByPly, 0, plyCount);
+			nodeCountByPly = newNodeCountByPly;
+			cutoffCountByPly = newCutoffCountByPly;
+		}
+		plyCount = count;
+	}
+
+	/**
+	 * Add the counts from another set of statistics to these, as done by searchers that use a number of threads.
+	 * @param searchStatistics The statistics to add.
+	 */
+	public void add(SearchStatistics searchStatistics) {
+		nodeCount += searchStatistics.nodeCount;
+		leafCount += searchStatistics.leafCount;
+		cutoffCount += searchStatistics.cutoffCount;
+		reductionCount += searchStatistics.reductionCount;
+		reSearchCount += searchStatistics.reSearchCount;
+		futilityPruneCount += searchStatistics.futilityPruneCount;
+		nullMoveCount += searchStatistics.nullMoveCount;
+		nullMoveCutoffCount += searchStatistics.nullMoveCutoffCount;
+		quiescenceNodeCount += searchStatistics.quiescenceNodeCount;
+		if (searchStatistics.plyCount > plyCount) {
+			ensurePlyCount(searchStatistics.plyCount);
+		}
+		for (int i = 0; i < searchStatistics.plyCount; i++) {
+			nodeCountByPly[i] += searchStatistics.nodeCountByPly[i];
+			cutoffCountByPly[i] += searchStatistics.cutoffCountByPly[i];
+		}
+	}
+
+	/**
+	 * Set all the counts back to zero, keeping the arrays used for the counts by ply.
+	 */
+	public void reset() {
+		nodeCount = 0;
+		leafCount = 0;
+		cutoffCount = 0;
+		reductionCount = 0;
+		reSearchCount = 0;
+		futilityPruneCount = 0;
+		nullMoveCount = 0;
+		nullMoveCutoffCount = 0;
+		quiescenceNodeCount = 0;
+		Arrays.fill(nodeCountByPly, 0, plyCount, 0);
+		Arrays.fill(cutoffCountByPly, 0, plyCount, 0);
+		plyCount = 0;
+	}
+
+	public long getNodeCount() {
+		return nodeCount;
+	}
+
+	public long getLeafCount() {
+		return leafCount;
+	}
+
+	public long getCutoffCount() {
+		return cutoffCount;
+	}
+
+	/**
+	 * Get the number of moves searched to a reduced depth by a {@link ForwardPruningPolicy forward pruning policy}.
+	 */
+	public long getReductionCount() {
+		return reductionCount;
+	}
+
+	/**
+	 * Get the number of reduced moves that were searched again to the full depth.
+	 */
+	public long getReSearchCount() {
+		return reSearchCount;
+	}
+
+	/**
+	 * Get the number of nodes at which moves were left out as searching them was futile.
+	 */
+	public long getFutilityPruneCount() {
+		return futilityPruneCount;
+	}
+
+	public long getNullMoveCount() {
+		return nullMoveCount;
+	}
+
+	public long getNullMoveCutoffCount() {
+		return nullMoveCutoffCount;
+	}
+
+	/**
+	 * Get the number of nodes searched by a quiescence search past the depth of the search.
+	 */
+	public long getQuiescenceNodeCount() {
+		return quiescenceNodeCount;
+	}
+
+	/**
+	 * Get the number of plies for which there are counts, which is one more than the deepest ply a node was searched at.
+	 */
+	public int getPlyCount() {
+		return plyCount;
+	}
+
+	/**
+	 * Get the number of nodes searched at the specified ply.
+	 * @param ply The number of moves from the root, 0 for the root.
+	 */
+	public long getNodeCount(int ply) {
+		return (ply < plyCount) ? nodeCountByPly[ply] : 0;
+	}
+
+	/**
+	 * Get the number of cutoffs at the specified ply.
+	 * @param ply The number of moves from the root, 0 for the root.
+	 */
+	public long getCutoffCount(int ply) {
+		return (ply < plyCount) ? cutoffCountByPly[ply] : 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("nodes ").append(nodeCount).append(", leaves ").append(leafCount).append(", cutoffs ").append(cutoffCount);
+		if (reductionCount > 0 || futilityPruneCount > 0 || nullMoveCount > 0) {
+			sb.append(", reductions ").append(reductionCount).append(", re-searches ").append(reSearchCount);
+			sb.append(", futility prunes ").append(futilityPruneCount);
+			sb.append(", null moves ").append(nullMoveCount).append(", null move cutoffs ").append(nullMoveCutoffCount);
+		}
+		if (quiescenceNodeCount > 0) {
+			sb.append(", quiescence nodes ").append(quiescenceNodeCount);
+		}
+		for (int i = 0; i < plyCount; i++) {
+			sb.append("\n  ply ").append(i).append(": nodes ").append(nodeCountByPly[i]).append(", cutoffs ").append(cutoffCountByPly[i]);
+		}
+		return sb.toString();
+	}
+}
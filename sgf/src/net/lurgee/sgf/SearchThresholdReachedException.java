@@ -9,7 +9,8 @@
 package net.lurgee.sgf;
 
 /**
- * Runtime exception to indicate a search ended due to the threshold being reached.
+ * Runtime exception to indicate a search ended due to the threshold being reached. Thrown to unwind the search rather
+ * than to report an error, so no stack trace is filled in; searchers throw preallocated instances.
  * @author mpatric
  */
 public class SearchThresholdReachedException extends SearchException {
@@ -19,4 +20,10 @@ public class SearchThresholdReachedException extends SearchException {
 	public SearchThresholdReachedException(String message) {
 		super(message);
 	}
+
+	@Override
+	public Throwable fillInStackTrace() {
+		// thrown on every move of searches with a low threshold, where filling in the stack would cost more than unwinding it
+		return this;
+	}
 }
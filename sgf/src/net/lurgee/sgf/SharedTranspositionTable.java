@@ -0,0 +1,272 @@
+/*
+ * @(#)SharedTranspositionTable.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Table of search results that can be shared between threads without locking, used by {@link LazySmpSearcher}. Each
+ * thread searches with a {@link #newView() view} of the table: a {@link TranspositionTable} that reads and writes the
+ * entries of this table, and which works in the same way as an ordinary transposition table otherwise.
+ * <p/>
+ * Each entry is packed into a single long, which is stored along with the position hash xor-ed with it. As entries are
+ * written without locking, a thread may read an entry that another thread is part way through writing; the entry and
+ * the stored hash then no longer match when xor-ed, so the entry is treated as missing. The best move for an entry is
+ * held separately and is not checked in this way, so it may occasionally belong to another position, but best moves are
+ * only used for ordering moves.
+ * @author mpatric
+ */
+public class SharedTranspositionTable {
+
+	private static final int DEPTH_SHIFT = 32;
+	private static final int SEARCH_DEPTH_SHIFT = 40;
+	private static final int TYPE_SHIFT = 48;
+	private static final int GENERATION_SHIFT = 50;
+	private static final long SCORE_MASK = 0xffffffffL;
+	private static final int BYTE_MASK = 0xff;
+	private static final int TYPE_MASK = 0x3;
+	private static final int GENERATION_MASK = 0x3fff;
+	private static final long NO_ENTRY = 0;
+
+	private final int mask;
+	private final long[] keys;
+	private final long[] entries;
+	private final Move[] moves;
+	private volatile int generation = 0;
+
+	/**
+	 * Constructor for a table with {@link TranspositionTable#DEFAULT_SIZE} slots.
+	 */
+	public SharedTranspositionTable() {
+		this(TranspositionTable.DEFAULT_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * @param size The number of slots in the table, rounded up to a power of two.
+	 */
+	public SharedTranspositionTable(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Transposition table size must be positive");
+		}
+		int slots = 1;
+		while (slots < size) {
+			slots <<= 1;
+		}
+		mask = slots - 1;
+		keys = new long[slots];
+		entries = new long[slots];
+		moves = new Move[slots];
+	}
+
+	public int getSize() {
+		return entries.length;
+	}
+
+	/**
+	 * Create a view of this table for one thread to search with. A view must only be used by one thread at a time.
+	 * @return The view.
+	 */
+	public TranspositionTable newView() {
+		return new View();
+	}
+
+	/**
+	 * Remove all entries from the table. Must not be called while a search is using the table.
+	 */
+	public void clear() {
+		for (int i = 0; i < entries.length; i++) {
+			keys[i] = 0;
+			entries[i] = NO_ENTRY;
+			moves[i] = null;
+		}
+		generation = 0;
+	}
+
+	/**
+	 * Mark the start of a search from a new start board, as for {@link TranspositionTable#newSearch()}. Calls to
+	 * newSearch on the views of this table are ignored, as the threads using them are all searching from the same start
+	 * board.
+	 */
+	public void newSearch() {
+		generation = (generation + 1) & GENERATION_MASK;
+	}
+
+	/**
+	 * Count the slots that hold an entry.
+	 * @return The number of slots in use.
+	 */
+	public int countEntries() {
+		int count = 0;
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i] != NO_ENTRY) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private long find(long hash) {
+		int slot = (int) hash & mask;
+		long entry = entries[slot];
+		if (entry != NO_ENTRY && (keys[slot] ^ entry) == hash) {
+			return entry;
+		}
+		return NO_ENTRY;
+	}
+
+	private void store(long hash, int score, int type, int d, int searchDepth, Move move) {
+		int slot = (int) hash & mask;
+		long existingEntry = entries[slot];
+		boolean samePosition = existingEntry != NO_ENTRY && (keys[slot] ^ existingEntry) == hash;
+		if (existingEntry != NO_ENTRY && !samePosition && getGeneration(existingEntry) == generation
+				&& getSearchDepth(existingEntry) == clampDepth(searchDepth) && getDepth(existingEntry) > d) {
+			// keep the deeper entry from the current search
+			return;
+		}
+		if (move == null && samePosition) {
+			move = moves[slot];
+		}
+		long entry = (score & SCORE_MASK) | ((long) clampDepth(d) << DEPTH_SHIFT) | ((long) clampDepth(searchDepth) << SEARCH_DEPTH_SHIFT)
+				| ((long) type << TYPE_SHIFT) | ((long) generation << GENERATION_SHIFT);
+		moves[slot] = move;
+		entries[slot] = entry;
+		keys[slot] = hash ^ entry;
+	}
+
+	private static int getScore(long entry) {
+		return (int) entry;
+	}
+
+	private static int getDepth(long entry) {
+		return (int) (entry >>> DEPTH_SHIFT) & BYTE_MASK;
+	}
+
+	private static int getSearchDepth(long entry) {
+		return (int) (entry >>> SEARCH_DEPTH_SHIFT) & BYTE_MASK;
+	}
+
+	private static int getType(long entry) {
+		return (int) (entry >>> TYPE_SHIFT) & TYPE_MASK;
+	}
+
+	private static int clampDepth(int d) {
+		return (d > Byte.MAX_VALUE) ? Byte.MAX_VALUE : d;
+	}
+
+	private static int getGeneration(long entry) {
+		return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+	}
+
+	/**
+	 * View of the table used by one thread. The entry found by {@link #find(long) find} is kept by the view, so that it
+	 * does not change while it is being used if another thread writes to the same slot.
+	 */
+	private class View extends TranspositionTable {
+
+		private int foundSlot = -1;
+		private long foundEntry = NO_ENTRY;
+		private long hits = 0;
+		private long misses = 0;
+		private long stores = 0;
+
+		private View() {
+			// the entries are held by the shared table
+			super(1);
+		}
+
+		@Override
+		public int getSize() {
+			return SharedTranspositionTable.this.getSize();
+		}
+
+		@Override
+		public long getHits() {
+			return hits;
+		}
+
+		@Override
+		public long getMisses() {
+			return misses;
+		}
+
+		@Override
+		public long getStores() {
+			return stores;
+		}
+
+		@Override
+		public void clear() {
+			SharedTranspositionTable.this.clear();
+			foundSlot = -1;
+			foundEntry = NO_ENTRY;
+			hits = 0;
+			misses = 0;
+			stores = 0;
+		}
+
+		@Override
+		public void newSearch() {
+			// new searches are started on the shared table
+		}
+
+		@Override
+		public int find(long hash) {
+			long entry = SharedTranspositionTable.this.find(hash);
+			if (entry != NO_ENTRY) {
+				hits++;
+				foundSlot = (int) hash & SharedTranspositionTable.this.mask;
+				foundEntry = entry;
+				return foundSlot;
+			}
+			misses++;
+			return -1;
+		}
+
+		@Override
+		public boolean isScoreUsable(int slot, int d, int searchDepth) {
+			long entry = getEntry(slot);
+			return getGeneration(entry) == SharedTranspositionTable.this.generation && getSearchDepth(entry) == clampDepth(searchDepth)
+					&& SharedTranspositionTable.getDepth(entry) >= d;
+		}
+
+		@Override
+		public int getScore(int slot) {
+			return SharedTranspositionTable.getScore(getEntry(slot));
+		}
+
+		@Override
+		public int getType(int slot) {
+			return SharedTranspositionTable.getType(getEntry(slot));
+		}
+
+		@Override
+		public int getDepth(int slot) {
+			return SharedTranspositionTable.getDepth(getEntry(slot));
+		}
+
+		@Override
+		public Move getMove(int slot) {
+			return SharedTranspositionTable.this.moves[slot];
+		}
+
+		@Override
+		public void store(long hash, int score, int type, int d, int searchDepth, Move move) {
+			SharedTranspositionTable.this.store(hash, score, type, d, searchDepth, move);
+			stores++;
+		}
+
+		@Override
+		public int countEntries() {
+			return SharedTranspositionTable.this.countEntries();
+		}
+
+		private long getEntry(int slot) {
+			return (slot == foundSlot) ? foundEntry : entries[slot];
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * @(#)SimpleForwardPruningPolicy.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Forward pruning policy that does each kind of pruning in the same way throughout the tree, as configured. Nothing is
+ * pruned until it is configured. Games can extend it to leave out moves or positions for which pruning is unsafe, for
+ * example tactical moves, or positions near the end of the game.
+ * @author mpatric
+ */
+public class SimpleForwardPruningPolicy implements ForwardPruningPolicy {
+
+	private int reductionMinDepth = 0;
+	private int reductionMinMoveNumber = 0;
+	private int reduction = 0;
+	private int[] futilityMargins = new int[0];
+	private int nullMoveMinDepth = 0;
+	private int nullMoveReduction = 0;
+
+	/**
+	 * Reduce late moves at nodes that are searched deeply enough.
+	 * @param minDepth The depth that a node's sub-tree must be searched to for its moves to be reduced.
+	 * @param minMoveNumber The position of the first move to reduce in the order that the moves at a node are searched,
+	 * starting from 0 (which is never reduced).
+	 * @param reduction The number of plies to reduce the depth by, or 0 for no late move reductions.
+	 */
+	public void setLateMoveReductions(int minDepth, int minMoveNumber, int reduction) {
+		if (minDepth < 2 || minMoveNumber < 1 || reduction < 0) {
+			throw new IllegalArgumentException("Invalid late move reductions");
+		}
+		this.reductionMinDepth = minDepth;
+		this.reductionMinMoveNumber = minMoveNumber;
+		this.reduction = reduction;
+	}
+
+	/**
+	 * Prune futile moves at nodes near the leaves.
+	 * @param futilityMargins The margin for each depth that a node's sub-tree is searched to, starting from 1 for the
+	 * nodes directly above the leaves. There is no futility pruning at depths without a margin.
+	 */
+	public void setFutilityMargins(int... futilityMargins) {
+		for (int margin : futilityMargins) {
+			if (margin < 0) {
+				throw new IllegalArgumentException("Futility margins cannot be negative");
+			}
+		}
+		this.futilityMargins = futilityMargins.clone();
+	}
+
+	/**
+	 * Try null moves at nodes that are searched deeply enough.
+	 * @param minDepth The depth that a node's sub-tree must be searched to for a null move to be tried.
+	 * @param reduction The number of plies, in addition to the pass, to reduce the depth of the search after the null move
+	 * by, or 0 for no null move pruning.
+	 */
+	public void setNullMoveReduction(int minDepth, int reduction) {
+		if (minDepth < 1 || reduction < 0) {
+			throw new IllegalArgumentException("Invalid null move reduction");
+		}
+		this.nullMoveMinDepth = minDepth;
+		this.nullMoveReduction = reduction;
+	}
+
+	public int getReduction(AbstractBoard board, Move move, int moveNumber, int d) {
+		if (d < reductionMinDepth || moveNumber < reductionMinMoveNumber) {
+			return 0;
+		}
+		return reduction;
+	}
+
+	public int getFutilityMargin(AbstractBoard board, int d) {
+		if (d > futilityMargins.length) {
+			return NO_FUTILITY_PRUNING;
+		}
+		return futilityMargins[d - 1];
+	}
+
+	public int getNullMoveReduction(AbstractBoard board, int d) {
+		if (d < nullMoveMinDepth) {
+			return 0;
+		}
+		return nullMoveReduction;
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * @(#)StagedMoveGenerationBoard.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that a board can implement to support staged move generation, where the moves at a node that are known
+ * without generating its moves (the move on the principal variation, the move from the transposition table and killer
+ * moves) are checked with {@link #isValidMove(Move) isValidMove} and searched first, and the rest of the valid moves are
+ * only generated if none of them cause a cutoff. Should be implemented by games where checking a move is much cheaper
+ * than generating all the valid moves. Moves at a node are iterated by a {@link StagedMoveIterator}.
+ * @author mpatric
+ */
+public interface StagedMoveGenerationBoard {
+
+	/**
+	 * Determine whether staged move generation should be used when searching this board.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if staged move generation should be used;</li>
+	 * 		<li>false if all the valid moves at each node should be generated up front.</li>
+	 * 	</ul>
+	 */
+	boolean isStagedMoveGenerationSupported();
+
+	/**
+	 * Determine whether the specified move is valid for the current player.
+	 * @param move The move to check, which may have been valid in some other position.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the move is valid;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	boolean isValidMove(Move move);
+}
@@ -0,0 +1,183 @@
+/*
+ * @(#)StagedMoveIterator.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the moves at a node in stages, for boards that support {@link StagedMoveGenerationBoard staged move
+ * generation}. The move on the principal variation comes first, then the move from the transposition table, then the
+ * killer moves kept by a {@link KillerMoveRanker}; each is checked with {@link StagedMoveGenerationBoard#isValidMove(Move)
+ * isValidMove} rather than generated. The rest of the valid moves are only generated, with {@link
+ * AbstractBoard#getValidMoves(MoveRanker, int) getValidMoves}, once those have all been searched, so a node that cuts
+ * off on one of them never generates its moves. Moves already returned are skipped when the rest are generated.
+ * <p/>
+ * The board must be in the state of the node whenever {@link #hasNext()} or {@link #next()} is called. An iterator
+ * is reset for each node, so that one can be kept for each level of a search rather than being created for each node.
+ * @author mpatric
+ */
+public class StagedMoveIterator implements Iterator<Move> {
+
+	private static final int PV_MOVE_STAGE = 0;
+	private static final int HASH_MOVE_STAGE = 1;
+	private static final int KILLER_MOVES_STAGE = 2;
+	private static final int GENERATED_MOVES_STAGE = 3;
+	private static final int DONE = 4;
+
+	private AbstractBoard board = null;
+	private StagedMoveGenerationBoard stagedMoveGenerationBoard = null;
+	private MoveRanker moveRanker = null;
+	private int depth;
+	private Move pvMove = null;
+	private Move hashMove = null;
+	private Move[] killerMoves = new Move[0];
+	private int killerMoveCount = 0;
+	private int killerMoveIndex = 0;
+	private int[] returnedMoveIds = new int[2];
+	private int returnedMoveCount = 0;
+	private List<Move> generatedMoves = null;
+	private int generatedMoveIndex = 0;
+	private int stage = DONE;
+	private Move nextMove = null;
+
+	/**
+	 * Reset the iterator for a new node.
+	 * @param board The board at the node, which must implement {@link StagedMoveGenerationBoard}.
+	 * @param moveRanker The move ranker to generate moves with, which may be null.
+	 * @param depth The depth in the search tree, as passed to {@link AbstractBoard#getValidMoves(MoveRanker, int) getValidMoves}.
+	 * @param pvMove The move on the principal variation from a previous search, or null if there is none.
+	 * @param hashMove The move from the transposition table, or null if there is none.
+	 */
+	public void reset(AbstractBoard board, MoveRanker moveRanker, int depth, Move pvMove, Move hashMove) {
+		this.board = board;
+		this.stagedMoveGenerationBoard = (StagedMoveGenerationBoard) board;
+		this.moveRanker = moveRanker;
+		this.depth = depth;
+		this.pvMove = pvMove;
+		this.hashMove = hashMove;
+		killerMoveCount = 0;
+		killerMoveIndex = 0;
+		copyKillerMoves();
+		returnedMoveCount = 0;
+		generatedMoves = null;
+		generatedMoveIndex = 0;
+		stage = PV_MOVE_STAGE;
+		nextMove = null;
+	}
+
+	public boolean hasNext() {
+		if (nextMove == null) {
+			nextMove = findNextMove();
+		}
+		return nextMove != null;
+	}
+
+	public Move next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Move move = nextMove;
+		nextMove = null;
+		return move;
+	}
+
+	/**
+	 * Moves cannot be removed, as the moves at a node are not held in a collection.
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Determine whether the valid moves have been generated for the current node.
+	 */
+	public boolean isGenerated() {
+		return generatedMoves != null;
+	}
+
+	private Move findNextMove() {
+		while (stage != DONE) {
+			switch (stage) {
+				case PV_MOVE_STAGE:
+					stage = HASH_MOVE_STAGE;
+					if (isUnreturnedValidMove(pvMove)) {
+						return returned(pvMove);
+					}
+					break;
+				case HASH_MOVE_STAGE:
+					stage = KILLER_MOVES_STAGE;
+					if (isUnreturnedValidMove(hashMove)) {
+						return returned(hashMove);
+					}
+					break;
+				case KILLER_MOVES_STAGE:
+					while (killerMoveIndex < killerMoveCount) {
+						Move killerMove = killerMoves[killerMoveIndex++];
+						if (isUnreturnedValidMove(killerMove)) {
+							return returned(killerMove);
+						}
+					}
+					stage = GENERATED_MOVES_STAGE;
+					break;
+				case GENERATED_MOVES_STAGE:
+					if (generatedMoves == null) {
+						generatedMoves = board.getValidMoves(moveRanker, depth);
+					}
+					while (generatedMoveIndex < generatedMoves.size()) {
+						Move move = generatedMoves.get(generatedMoveIndex++);
+						if (!isReturned(move)) {
+							return move;
+						}
+					}
+					stage = DONE;
+					break;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Copy the killer moves for the node when it is entered, as they change while it is being searched.
+	 */
+	private void copyKillerMoves() {
+		if (moveRanker instanceof KillerMoveRanker) {
+			KillerMoveRanker killerMoveRanker = (KillerMoveRanker) moveRanker;
+			if (killerMoves.length < killerMoveRanker.getMaxKillerMoves()) {
+				killerMoves = new Move[killerMoveRanker.getMaxKillerMoves()];
+			}
+			killerMoveCount = killerMoveRanker.getKillerMoves(depth, killerMoves);
+		}
+	}
+
+	private boolean isUnreturnedValidMove(Move move) {
+		return move != null && !isReturned(move) && stagedMoveGenerationBoard.isValidMove(move);
+	}
+
+	private boolean isReturned(Move move) {
+		int id = move.getId();
+		for (int i = 0; i < returnedMoveCount; i++) {
+			if (returnedMoveIds[i] == id) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Move returned(Move move) {
+		if (returnedMoveCount == returnedMoveIds.length) {
+			int[] newReturnedMoveIds = new int[returnedMoveIds.length * 2];
+			System.arraycopy(returnedMoveIds, 0, newReturnedMoveIds, 0, returnedMoveCount);
+			returnedMoveIds = newReturnedMoveIds;
+		}
+		returnedMoveIds[returnedMoveCount++] = move.getId();
+		return move;
+	}
+}
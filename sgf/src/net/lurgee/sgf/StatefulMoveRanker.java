@@ -0,0 +1,25 @@
+/*
+ * @(#)StatefulMoveRanker.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Interface that a {@link MoveRanker} that stores ranks between calls, such as {@link KillerHeuristicMoveRanker},
+ * must implement to be used by searchers that search with more than one thread. Each thread is given its own move
+ * ranker, created with {@link #newInstance()}. Move rankers that don't implement this interface are shared between
+ * the threads, so must not store state.
+ * @author mpatric
+ */
+public interface StatefulMoveRanker extends MoveRanker {
+
+	/**
+	 * Create a new move ranker that ranks moves in the same way as this one, with no stored ranks.
+	 * @return The new move ranker.
+	 */
+	MoveRanker newInstance();
+}
@@ -0,0 +1,214 @@
+/*
+ * @(#)TranspositionTable.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Bounded table of search results keyed on {@link AbstractBoard#getPositionHash() position hashes}, used by
+ * {@link NegamaxSearcher} and its subclasses to avoid searching the same position more than once. Entries are held in
+ * parallel primitive arrays indexed by the low bits of the hash, so the table never grows beyond the size it was
+ * created with.
+ * <p/>
+ * Each slot holds one entry. When two positions map to the same slot, the entry that was searched to the greater depth
+ * is kept, unless the existing entry is left over from an earlier search, in which case it is always replaced.
+ * <p/>
+ * Scores depend on the board a search was started from, so bounds are only used for entries stored during the current
+ * search (see {@link #newSearch()}). Scores also depend on the depth of the search, as evaluators are given the depth of
+ * the leaves they score, so bounds are only used for entries stored by a search to the same depth - an entry stored in
+ * one iteration of an iterative deepening search is not used for its score in the next. Best moves from earlier
+ * searches, and from searches to other depths, are still returned, as they remain useful for ordering moves.
+ * @author mpatric
+ */
+public class TranspositionTable {
+
+	/** The stored score is the exact score of the position. */
+	public static final int EXACT = 1;
+	/** The stored score is a lower bound - the search failed high. */
+	public static final int LOWER_BOUND = 2;
+	/** The stored score is an upper bound - the search failed low. */
+	public static final int UPPER_BOUND = 3;
+
+	public static final int DEFAULT_SIZE = 1 << 16;
+
+	private static final int NO_ENTRY = 0;
+
+	private final int mask;
+	private final long[] hashes;
+	private final int[] scores;
+	private final byte[] depths;
+	private final byte[] searchDepths;
+	private final byte[] types;
+	private final int[] generations;
+	private final Move[] moves;
+	private int generation = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private long stores = 0;
+
+	/**
+	 * Constructor for a table with {@link #DEFAULT_SIZE} slots.
+	 */
+	public TranspositionTable() {
+		this(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Constructor.
+	 * @param size The number of slots in the table, rounded up to a power of two.
+	 */
+	public TranspositionTable(int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Transposition table size must be positive");
+		}
+		int slots = 1;
+		while (slots < size) {
+			slots <<= 1;
+		}
+		mask = slots - 1;
+		hashes = new long[slots];
+		scores = new int[slots];
+		depths = new byte[slots];
+		searchDepths = new byte[slots];
+		types = new byte[slots];
+		generations = new int[slots];
+		moves = new Move[slots];
+	}
+
+	public int getSize() {
+		return hashes.length;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public long getStores() {
+		return stores;
+	}
+
+	/**
+	 * Remove all entries from the table and reset the counters.
+	 */
+	public void clear() {
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = 0;
+			types[i] = NO_ENTRY;
+			moves[i] = null;
+		}
+		generation = 0;
+		hits = 0;
+		misses = 0;
+		stores = 0;
+	}
+
+	/**
+	 * Mark the start of a search from a new start board. Entries stored before this call are only used for their best
+	 * moves, and are replaced in preference to entries stored after it.
+	 */
+	public void newSearch() {
+		generation++;
+	}
+
+	/**
+	 * Look up the slot holding an entry for the specified position.
+	 * @param hash The position hash.
+	 * @return The slot holding the entry, or -1 if there is no entry for the position.
+	 */
+	public int find(long hash) {
+		int slot = (int) hash & mask;
+		if (types[slot] != NO_ENTRY && hashes[slot] == hash) {
+			hits++;
+			return slot;
+		}
+		misses++;
+		return -1;
+	}
+
+	/**
+	 * Determine whether the score stored in a slot can be used for a search to the specified depth.
+	 * @param slot A slot returned by {@link #find(long) find}.
+	 * @param d The depth remaining in the search.
+	 * @param searchDepth The depth the search was started with.
+	 * @return
+	 * 	<ul>
+	 * 		<li>true if the entry was stored during the current search, by a search started with the same depth, to at
+	 * 		least the depth specified;</li>
+	 * 		<li>false otherwise.</li>
+	 * 	</ul>
+	 */
+	public boolean isScoreUsable(int slot, int d, int searchDepth) {
+		return generations[slot] == generation && searchDepths[slot] == clampDepth(searchDepth) && depths[slot] >= d;
+	}
+
+	public int getScore(int slot) {
+		return scores[slot];
+	}
+
+	public int getType(int slot) {
+		return types[slot];
+	}
+
+	public int getDepth(int slot) {
+		return depths[slot];
+	}
+
+	public Move getMove(int slot) {
+		return moves[slot];
+	}
+
+	/**
+	 * Store the result of searching a position.
+	 * @param hash The position hash.
+	 * @param score The score found by the search.
+	 * @param type The type of score - one of {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}.
+	 * @param d The depth the position was searched to.
+	 * @param searchDepth The depth the search was started with.
+	 * @param move The best move found, may be null.
+	 */
+	public void store(long hash, int score, int type, int d, int searchDepth, Move move) {
+		int slot = (int) hash & mask;
+		if (types[slot] != NO_ENTRY && hashes[slot] != hash && generations[slot] == generation
+				&& searchDepths[slot] == clampDepth(searchDepth) && depths[slot] > d) {
+			// keep the deeper entry from the current search
+			return;
+		}
+		if (move == null && hashes[slot] == hash) {
+			move = moves[slot];
+		}
+		hashes[slot] = hash;
+		scores[slot] = score;
+		depths[slot] = clampDepth(d);
+		searchDepths[slot] = clampDepth(searchDepth);
+		types[slot] = (byte) type;
+		generations[slot] = generation;
+		moves[slot] = move;
+		stores++;
+	}
+
+	/**
+	 * Count the slots that hold an entry.
+	 * @return The number of slots in use.
+	 */
+	public int countEntries() {
+		int count = 0;
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] != NO_ENTRY) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static byte clampDepth(int d) {
+		return (byte) (d > Byte.MAX_VALUE ? Byte.MAX_VALUE : d);
+	}
+}
@@ -0,0 +1,24 @@
+/*
+ * @(#)UndoRecord.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+/**
+ * Record of the state of a board before a move was made, used to unmake the move. Holds the state common to all
+ * boards; games that support unmaking moves extend this class to hold the state their moves change, and return
+ * instances of it from {@link AbstractUndoableBoard#createUndoRecord()}. Undo records are created once and reused for
+ * every move made at the same level of a search.
+ * @author mpatric
+ */
+public class UndoRecord {
+
+	protected Player currentPlayer = null;
+	protected Move lastMovePlayed = null;
+	protected boolean gameOver = false;
+	protected int[] accumulator = null;
+}
@@ -0,0 +1,504 @@
+/*
+ * @(#)YbwcSearcher.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Class for generating and searching a game tree to find the best move with a number of threads, using the young
+ * brothers wait concept: the first move at a node is searched on its own to find a bound for the rest, after which the
+ * remaining moves (the young brothers) may be shared with threads that are idle. This happens at any node at least
+ * {@link #setMinSplitDepth(int) minSplitDepth} above the leaves, not just at the root, so threads are kept busy deep in
+ * the tree. Each thread searches with a {@link NegascoutSearcher} of its own (see {@link AbstractParallelSearcher}).
+ * <p/>
+ * The moves at a node that has been split are searched with a null window against the best score found at the node so
+ * far, which is shared between the threads searching it, and re-searched if they fail high. When a move causes a
+ * cutoff, the threads still searching the other moves of the node stop. As for {@link RootSplitSearcher}, of the root
+ * moves with the best score the one that comes first in the move list is chosen.
+ * <p/>
+ * The thread that splits a node searches its moves along with the threads helping it, and waits for them to finish
+ * once there are no moves left.
+ * @author mpatric
+ */
+public class YbwcSearcher extends AbstractParallelSearcher {
+
+	private static final int DEFAULT_MIN_SPLIT_DEPTH = 3;
+	private static final CutoffException CUTOFF = new CutoffException();
+
+	private final YbwcWorker[] workers;
+	private final YbwcWorker[] idleWorkers;
+	private final Object idleWorkersLock = new Object();
+	private volatile int idleWorkerCount = 0;
+	private int splitCount = 0;
+	private int minSplitDepth = DEFAULT_MIN_SPLIT_DEPTH;
+
+	/**
+	 * Constructor.
+	 * @param gameContext A game context object.
+	 * @param library A move library for selecting library moves.
+	 * @param evaluator An evaluator, used to evaluate leaf node values. Shared between the threads, so must be thread-safe.
+	 * @param byeAllowed Should the search continue when there are board positions where a player cannot play?
+	 * @param threadCount The number of threads to search with, including the thread calling the searcher.
+	 */
+	public YbwcSearcher(GameContext gameContext, Library library, Evaluator evaluator, boolean byeAllowed, int threadCount) {
+		super(gameContext, library, evaluator, byeAllowed, threadCount);
+		workers = new YbwcWorker[threadCount];
+		idleWorkers = new YbwcWorker[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			workers[i] = new YbwcWorker(i);
+		}
+	}
+
+	public int getMinSplitDepth() {
+		return minSplitDepth;
+	}
+
+	/**
+	 * Set the minimum number of levels a node must be above the leaves for its moves to be shared with other threads.
+	 * Nodes closer to the leaves are searched by one thread, as their sub-trees are too small to be worth sharing.
+	 * @param minSplitDepth The minimum depth, which must be at least 2.
+	 */
+	public void setMinSplitDepth(int minSplitDepth) {
+		if (minSplitDepth < 2) {
+			throw new IllegalArgumentException("Minimum split depth must be at least 2");
+		}
+		this.minSplitDepth = minSplitDepth;
+	}
+
+	/**
+	 * Get the number of nodes whose moves were shared with other threads during the last search.
+	 * @return The number of nodes.
+	 */
+	public int getSplitCount() {
+		synchronized (idleWorkersLock) {
+			return splitCount;
+		}
+	}
+
+	@Override
+	protected Worker getWorker(int index) {
+		return workers[index];
+	}
+
+	@Override
+	protected Move findMoveBySearch(AbstractBoard board, MoveRanker moveRanker, int depth, long evaluationThreshold) throws SearchException, RuntimeException {
+		bestMove = null;
+		depthReached = 0;
+		notifyListenerOfIterationStart();
+		int maxMovesLeft = board.countMaxMovesLeft();
+		if (maxMovesLeft > 0) {
+			int d = depth;
+			if (d > maxMovesLeft) {
+				d = maxMovesLeft;
+			}
+			prepareWorkers(moveRanker);
+			try {
+				if (searchControl.isCancelled()) {
+					throw SEARCHER_ABORTED;
+				}
+				YbwcWorker worker = workers[0];
+				if (threadCount == 1 || d < minSplitDepth || !board.canMove()) {
+					// nothing to gain from splitting the search, so search with one thread
+					worker.splitting = false;
+					bestMove = worker.findMoveBySearch(board, moveRanker, d, evaluationThreshold);
+				} else {
+					try {
+						worker.search(board, board, moveRanker, d, d, -INFINITY, INFINITY, evaluationThreshold);
+					} catch (RuntimeException e) {
+						recordFailure(e);
+					}
+					throwFailure();
+					bestMove = worker.bestMove;
+				}
+				bestMoveScore = worker.getBestMoveScore();
+			} catch (SearchThresholdReachedException e) {
+				notifyListenerOfIterationEnd(true, null, 0);
+				throw e;
+			} finally {
+				collectFromWorkers();
+			}
+		}
+		notifyListenerOfIterationEnd(false, bestMove, bestMoveScore);
+		return bestMove;
+	}
+
+	@Override
+	protected void prepareWorkers(MoveRanker moveRanker) {
+		super.prepareWorkers(moveRanker);
+		for (int i = 0; i < threadCount; i++) {
+			YbwcWorker worker = workers[i];
+			worker.splitting = true;
+			worker.inSerialSubtree = false;
+			worker.currentSplitPoint = null;
+			worker.bestMove = null;
+			worker.bestMoveScore = 0;
+		}
+		synchronized (idleWorkersLock) {
+			// the first worker runs in the calling thread, the rest are idle until they are needed
+			for (int i = 1; i < threadCount; i++) {
+				idleWorkers[i - 1] = workers[i];
+			}
+			idleWorkerCount = threadCount - 1;
+			splitCount = 0;
+		}
+	}
+
+	/**
+	 * Share the moves left at a split point with idle threads, if there are any.
+	 * @param splitPoint The split point.
+	 */
+	private void recruitHelpers(SplitPoint splitPoint) {
+		if (idleWorkerCount == 0) {
+			return;
+		}
+		ExecutorService executorService = getExecutorService();
+		synchronized (idleWorkersLock) {
+			while (idleWorkerCount > 0 && splitPoint.addHelper()) {
+				YbwcWorker helper = idleWorkers[--idleWorkerCount];
+				idleWorkers[idleWorkerCount] = null;
+				executorService.submit(new HelperTask(helper, splitPoint));
+			}
+			if (splitPoint.isShared() && !splitPoint.counted) {
+				splitPoint.counted = true;
+				splitCount++;
+			}
+		}
+	}
+
+	private void releaseHelper(YbwcWorker helper) {
+		synchronized (idleWorkersLock) {
+			idleWorkers[idleWorkerCount++] = helper;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "YBWC negascout";
+	}
+
+	/**
+	 * Runtime exception thrown in the threads searching below a split point when a move at the split point causes a
+	 * cutoff, to stop their searches.
+	 */
+	private static class CutoffException extends RuntimeException {
+
+		static final long serialVersionUID = -4613873510283310557L;
+
+		@Override
+		public Throwable fillInStackTrace() {
+			// only used to unwind the threads below a split point, so the stack is not needed
+			return this;
+		}
+	}
+
+	/**
+	 * A node whose moves, other than the first, are being shared between threads.
+	 */
+	private class SplitPoint {
+
+		private final SplitPoint parent;
+		private final YbwcWorker owner;
+		private final AbstractBoard startBoard;
+		private final AbstractBoard board;
+		private final List<Move> moves;
+		private final int depth;
+		private final int d;
+		private final int alpha;
+		private final int beta;
+		private final long evaluationThreshold;
+		private volatile boolean cutoff = false;
+		private boolean counted = false;
+		private int nextIndex = 1;
+		private int helperCount = 0;
+		private int bestScore;
+		private int bestIndex = 0;
+		private Move bestMove;
+
+		private SplitPoint(YbwcWorker owner, AbstractBoard startBoard, AbstractBoard board, List<Move> moves, int depth, int d, int alpha, int beta, int firstScore, long evaluationThreshold) {
+			this.parent = owner.currentSplitPoint;
+			this.owner = owner;
+			this.startBoard = startBoard;
+			this.board = board;
+			this.moves = moves;
+			this.depth = depth;
+			this.d = d;
+			this.alpha = alpha;
+			this.beta = beta;
+			this.evaluationThreshold = evaluationThreshold;
+			this.bestScore = firstScore;
+			this.bestMove = moves.get(0);
+		}
+
+		/**
+		 * Determine whether this split point, or a split point it is below, has been cut off.
+		 */
+		private boolean isCutoff() {
+			for (SplitPoint splitPoint = this; splitPoint != null; splitPoint = splitPoint.parent) {
+				if (splitPoint.cutoff) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Get the score that a move at this split point must beat to become the best move.
+		 * @param index The index of the move in the list of moves.
+		 * @return The score to beat.
+		 */
+		private synchronized int getBound(int index) {
+			if (bestScore <= alpha) {
+				return alpha;
+			}
+			// a move before the best move in the list only has to equal its score
+			return (index < bestIndex) ? bestScore - 1 : bestScore;
+		}
+
+		/**
+		 * Add a helper, if there are more moves left than threads searching them.
+		 * @return true if a helper was added.
+		 */
+		private synchronized boolean addHelper() {
+			if (cutoff || moves.size() - nextIndex <= helperCount) {
+				return false;
+			}
+			helperCount++;
+			return true;
+		}
+
+		private synchronized boolean isShared() {
+			return helperCount > 0;
+		}
+
+		private synchronized void removeHelper() {
+			helperCount--;
+			notifyAll();
+		}
+
+		/**
+		 * Search moves at this split point until there are none left or there is a cutoff. Called by the owner of the
+		 * split point and by each of the threads helping it.
+		 * @param worker The worker searching the moves.
+		 * @throws CutoffException A split point above this one was cut off.
+		 */
+		private void search(YbwcWorker worker) {
+			MoveRanker moveRanker = worker.getMoveRanker();
+			while (true) {
+				if (worker == owner) {
+					recruitHelpers(this);
+				}
+				int index;
+				synchronized (this) {
+					if (cutoff || nextIndex >= moves.size()) {
+						return;
+					}
+					index = nextIndex++;
+				}
+				Move move = moves.get(index);
+				int score;
+				try {
+					score = worker.searchMove(startBoard, board, move, moveRanker, depth, d, alpha, beta, this, index, evaluationThreshold);
+				} catch (CutoffException e) {
+					if (cutoff) {
+						// caused by another move at this split point
+						return;
+					}
+					throw e;
+				}
+				synchronized (this) {
+					if (score > bestScore || (score == bestScore && index < bestIndex)) {
+						bestScore = score;
+						bestIndex = index;
+						bestMove = move;
+					}
+					if (bestScore >= beta) {
+						cutoff = true;
+						worker.getSearchStatistics().countCutoff(depth - d);
+						return;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Wait for the threads helping at this split point to finish. If the owner has not finished searching the
+		 * moves, because its search has been ended, the helpers are stopped first.
+		 * @param completed Did the owner finish searching the moves?
+		 */
+		private synchronized void finish(boolean completed) {
+			if (!completed) {
+				cutoff = true;
+			}
+			boolean interrupted = false;
+			while (helperCount > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// the helpers still have boards checked out, so wait for them to stop
+					interrupted = true;
+					cutoff = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Task run by a thread helping at a split point.
+	 */
+	private class HelperTask implements Callable<Object> {
+
+		private final YbwcWorker worker;
+		private final SplitPoint splitPoint;
+
+		private HelperTask(YbwcWorker worker, SplitPoint splitPoint) {
+			this.worker = worker;
+			this.splitPoint = splitPoint;
+		}
+
+		public Object call() {
+			worker.currentSplitPoint = splitPoint;
+			try {
+				splitPoint.search(worker);
+			} catch (CutoffException e) {
+				// a split point above the one being helped was cut off, which its owner deals with
+			} catch (RuntimeException e) {
+				// the first failure ends the search; the other threads are stopped, so fail with aborts after it
+				recordFailure(e);
+			} finally {
+				worker.currentSplitPoint = null;
+				worker.flushEvaluationCount();
+				releaseHelper(worker);
+				splitPoint.removeHelper();
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Worker that splits nodes far enough above the leaves, and stops searching when a split point it is below is cut
+	 * off. Nodes closer to the leaves are searched by {@link NegascoutSearcher}, in place if set.
+	 */
+	private class YbwcWorker extends Worker {
+
+		private boolean splitting = false;
+		private boolean inSerialSubtree = false;
+		private SplitPoint currentSplitPoint = null;
+
+		private YbwcWorker(int index) {
+			super(index);
+		}
+
+		@Override
+		protected int search(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) throws SearchException, RuntimeException {
+			if (splitting) {
+				if (currentSplitPoint != null && currentSplitPoint.isCutoff()) {
+					throw CUTOFF;
+				}
+				if (!inSerialSubtree) {
+					if (d >= minSplitDepth) {
+						return searchNode(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+					}
+					inSerialSubtree = true;
+					try {
+						return searchBoard(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+					} finally {
+						inSerialSubtree = false;
+					}
+				}
+			}
+			return super.search(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+		}
+
+		/**
+		 * Search a node that may be split: the first move is searched by this thread, then the rest are shared with
+		 * threads that are idle.
+		 */
+		private int searchNode(AbstractBoard startBoard, AbstractBoard board, MoveRanker moveRanker, int depth, int d, int alpha, int beta, long evaluationThreshold) {
+			if (searchControl.isCancelled()) {
+				throw SEARCHER_ABORTED;
+			}
+			if (evaluationThreshold != NO_EVALUATION_THRESHOLD && isEvaluationThresholdReached(evaluationThreshold)) {
+				throw SEARCHER_THRESHOLD_REACHED;
+			}
+			if (!board.canMove()) {
+				return super.search(startBoard, board, moveRanker, depth, d, alpha, beta, evaluationThreshold);
+			}
+			searchStatistics.countNode(depth - d);
+			List<Move> moves = board.getValidMoves(moveRanker, depth - d + 1);
+			// the young brothers wait for the first move to be searched, to find a bound for them
+			Move move = moves.get(0);
+			int score = searchMove(startBoard, board, move, moveRanker, depth, d, alpha, beta, null, 0, evaluationThreshold);
+			if (score >= beta) {
+				searchStatistics.countCutoff(depth - d);
+			} else if (moves.size() > 1) {
+				SplitPoint splitPoint = new SplitPoint(this, startBoard, board, moves, depth, d, alpha, beta, score, evaluationThreshold);
+				currentSplitPoint = splitPoint;
+				boolean completed = false;
+				try {
+					splitPoint.search(this);
+					completed = true;
+				} finally {
+					currentSplitPoint = splitPoint.parent;
+					splitPoint.finish(completed);
+				}
+				score = splitPoint.bestScore;
+				move = splitPoint.bestMove;
+			}
+			if (d == depth) {
+				bestMove = move;
+				bestMoveScore = score;
+			}
+			if (depth - d > depthReached) {
+				depthReached = depth - d;
+			}
+			return score;
+		}
+
+		/**
+		 * Search one of the moves at a node. The first move is searched with the window of the node; moves at a split
+		 * point are searched with a null window against the best score found so far, and re-searched if they fail high.
+		 * @param splitPoint The split point, or null if searching the first move.
+		 * @param index The index of the move at the split point.
+		 * @return The score for the move.
+		 */
+		private int searchMove(AbstractBoard startBoard, AbstractBoard board, Move move, MoveRanker moveRanker, int depth, int d, int alpha, int beta, SplitPoint splitPoint, int index, long evaluationThreshold) {
+			Player player = board.getCurrentPlayer();
+			AbstractBoard newBoard = (AbstractBoard) gameContext.checkOutBoard();
+			newBoard.copy(board);
+			newBoard.playMove(move, null, true);
+			onBranch(move, newBoard, player, depth - d + 1);
+			int score;
+			try {
+				if (splitPoint == null) {
+					score = -search(startBoard, newBoard, moveRanker, depth, d - 1, -beta, -alpha, evaluationThreshold);
+				} else {
+					int bound = splitPoint.getBound(index);
+					score = -search(startBoard, newBoard, moveRanker, depth, d - 1, -bound - 1, -bound, evaluationThreshold);
+					if (score > bound && score < beta) {
+						// may be better than the best move so far, so re-search against the best score found by now
+						bound = Math.max(splitPoint.getBound(index), score);
+						score = -search(startBoard, newBoard, moveRanker, depth, d - 1, -beta, -bound, evaluationThreshold);
+					}
+				}
+			} finally {
+				gameContext.checkInBoard(newBoard);
+			}
+			onNodeEvaluation(move, -score, player, depth - d + 1);
+			if (moveRanker != null && (!orderOfMovesIsImportant || d == 1)) {
+				moveRanker.onNodeEvaluation(move, board, score, player, depth - d + 1);
+			}
+			return score;
+		}
+	}
+}
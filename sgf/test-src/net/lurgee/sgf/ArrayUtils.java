@@ -38,4 +38,16 @@ public class ArrayUtils {
 		}
 		return charArray;
 	}
+
+	public static char[] testMoveListToArray(List<Move> moves) {
+		char[] charArray = new char[moves.size()];
+		Iterator<Move> iterator = moves.iterator();
+		int i = 0;
+		while (iterator.hasNext()) {
+			TestMove move = (TestMove) iterator.next();
+			// a bye is shown as '-'
+			charArray[i++] = (move == null) ? '-' : move.getPosition().getValue();
+		}
+		return charArray;
+	}
 }
@@ -0,0 +1,130 @@
+/*
+ * @(#)HistoryHeuristicMoveRankerTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link HistoryHeuristicMoveRanker}.
+ * @author mpatric
+ */
+public class HistoryHeuristicMoveRankerTest extends TestCase {
+	
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final TestPlayer PLAYER2 = TestPlayer.getInstance(2);
+	
+	private TestMoveFactory testMoveFactory;
+	private GameContext gameContext;
+	private TestBoard board;
+	private TestMoveRanker moveRanker;
+	private HistoryHeuristicMoveRanker historyHeuristicMoveRanker;
+	
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {PLAYER1, PLAYER2};
+		testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, new ObjectPool(TestBoard.class), testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('A');
+		moveRanker = new TestMoveRanker();
+		historyHeuristicMoveRanker = new HistoryHeuristicMoveRanker(gameContext, moveRanker);
+	}
+	
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldRankMovesThatCausedCutoffsAndDelegateRankingToMoveRankerForOtherMoves() throws Exception {
+		Debug.output("testShouldRankMovesThatCausedCutoffsAndDelegateRankingToMoveRankerForOtherMoves");
+		TestMove cutoffMove = testMoveFactory.getMove('B');
+		TestMove otherMove = testMoveFactory.getMove('C');
+		historyHeuristicMoveRanker.onCutoff(cutoffMove, board, PLAYER1, 1, 2);
+		assertEquals(HistoryHeuristicMoveRanker.HISTORY_SCORE_BASE + 4, historyHeuristicMoveRanker.getRank(cutoffMove, board, 1));
+		assertEquals(2, historyHeuristicMoveRanker.getRank(otherMove, board, 1));
+		char[] expectedMoves = {'C'};
+		assertTrue(Arrays.equals(expectedMoves, moveRanker.getMoves()));
+	}
+
+	public void testShouldRankMovesByCutoffsWeightedByRemainingDepthWhateverTheDepth() throws Exception {
+		Debug.output("testShouldRankMovesByCutoffsWeightedByRemainingDepthWhateverTheDepth");
+		TestMove move1 = testMoveFactory.getMove('D');
+		TestMove move2 = testMoveFactory.getMove('E');
+		historyHeuristicMoveRanker.onCutoff(move1, board, PLAYER1, 1, 3);
+		historyHeuristicMoveRanker.onCutoff(move2, board, PLAYER1, 2, 2);
+		historyHeuristicMoveRanker.onCutoff(move2, board, PLAYER1, 3, 1);
+		assertEquals(9, historyHeuristicMoveRanker.getHistoryScore(move1, PLAYER1));
+		assertEquals(5, historyHeuristicMoveRanker.getHistoryScore(move2, PLAYER1));
+		assertEquals(HistoryHeuristicMoveRanker.HISTORY_SCORE_BASE + 9, historyHeuristicMoveRanker.getRank(move1, board, 4));
+		assertEquals(HistoryHeuristicMoveRanker.HISTORY_SCORE_BASE + 5, historyHeuristicMoveRanker.getRank(move2, board, 4));
+	}
+
+	public void testShouldKeepSeparateScoresForEachPlayer() throws Exception {
+		Debug.output("testShouldKeepSeparateScoresForEachPlayer");
+		TestMove move = testMoveFactory.getMove('D');
+		historyHeuristicMoveRanker.onCutoff(move, board, PLAYER2, 2, 3);
+		assertEquals(0, historyHeuristicMoveRanker.getHistoryScore(move, PLAYER1));
+		assertEquals(9, historyHeuristicMoveRanker.getHistoryScore(move, PLAYER2));
+		assertEquals(1, historyHeuristicMoveRanker.getRank(move, board, 2));
+		board.setCurrentPlayer(PLAYER2);
+		assertEquals(HistoryHeuristicMoveRanker.HISTORY_SCORE_BASE + 9, historyHeuristicMoveRanker.getRank(move, board, 2));
+	}
+
+	public void testShouldAgeScoresWhenResetAndRemoveThemWhenCleared() throws Exception {
+		Debug.output("testShouldAgeScoresWhenResetAndRemoveThemWhenCleared");
+		TestMove move = testMoveFactory.getMove('D');
+		historyHeuristicMoveRanker.onCutoff(move, board, PLAYER1, 1, 3);
+		historyHeuristicMoveRanker.reset();
+		assertEquals(4, historyHeuristicMoveRanker.getHistoryScore(move, PLAYER1));
+		historyHeuristicMoveRanker.clear();
+		assertEquals(0, historyHeuristicMoveRanker.getHistoryScore(move, PLAYER1));
+	}
+
+	public void testShouldAgeScoresRatherThanExceedMaximumScore() throws Exception {
+		Debug.output("testShouldAgeScoresRatherThanExceedMaximumScore");
+		TestMove move1 = testMoveFactory.getMove('D');
+		TestMove move2 = testMoveFactory.getMove('E');
+		historyHeuristicMoveRanker.onCutoff(move2, board, PLAYER1, 1, 10);
+		for (int i = 0; i < HistoryHeuristicMoveRanker.MAX_HISTORY_SCORE / 100 + 1; i++) {
+			historyHeuristicMoveRanker.onCutoff(move1, board, PLAYER1, 1, 10);
+		}
+		assertTrue(historyHeuristicMoveRanker.getHistoryScore(move1, PLAYER1) <= HistoryHeuristicMoveRanker.MAX_HISTORY_SCORE);
+		assertEquals(50, historyHeuristicMoveRanker.getHistoryScore(move2, PLAYER1));
+	}
+
+	public void testShouldCreateNewInstanceWithNoScores() throws Exception {
+		Debug.output("testShouldCreateNewInstanceWithNoScores");
+		TestMove move = testMoveFactory.getMove('B');
+		historyHeuristicMoveRanker.onCutoff(move, board, PLAYER1, 1, 2);
+		HistoryHeuristicMoveRanker newHistoryHeuristicMoveRanker = (HistoryHeuristicMoveRanker) historyHeuristicMoveRanker.newInstance();
+		assertNotSame(historyHeuristicMoveRanker, newHistoryHeuristicMoveRanker);
+		assertEquals(4, historyHeuristicMoveRanker.getHistoryScore(move, PLAYER1));
+		assertEquals(0, newHistoryHeuristicMoveRanker.getHistoryScore(move, PLAYER1));
+	}
+
+	public void testShouldBeToldOfCutoffsBySearcherThroughKillerHeuristicMoveRanker() throws Exception {
+		Debug.output("testShouldBeToldOfCutoffsBySearcherThroughKillerHeuristicMoveRanker");
+		NegamaxSearcher searcher = new NegamaxSearcher(gameContext, null, new TestEvaluator(), true, true);
+		historyHeuristicMoveRanker = new HistoryHeuristicMoveRanker(gameContext, new TestMoveRanker(false));
+		MoveRanker killerHeuristicMoveRanker = new KillerHeuristicMoveRanker(historyHeuristicMoveRanker, 2);
+		TestMove move = (TestMove) searcher.findMove(board, killerHeuristicMoveRanker, 3);
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		// K refutes E with one ply left to search, and F refutes C with two
+		assertEquals(1, historyHeuristicMoveRanker.getHistoryScore(testMoveFactory.getMove('K'), PLAYER1));
+		assertEquals(4, historyHeuristicMoveRanker.getHistoryScore(testMoveFactory.getMove('F'), PLAYER2));
+		assertEquals(0, historyHeuristicMoveRanker.getHistoryScore(testMoveFactory.getMove('B'), PLAYER1));
+	}
+}
@@ -9,6 +9,8 @@
 package net.lurgee.sgf;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import junit.framework.TestCase;
 
@@ -111,4 +113,155 @@ public class IterativeSearcherTest extends TestCase {
 		assertEquals(5, searchProgressListener.getLastCompleteIteration());
 		assertEquals(5, searchProgressListener.getLastCompleteIterationEndDepth());
 	}
+	
+	public void testShouldReportPrincipalVariationAtEndOfEachIteration() throws Exception {
+		searcher.findMove(board, moveRanker, 3);
+		char[] expectedPrincipalVariation = {'B', 'D', 'J'};
+		assertTrue(Arrays.equals(expectedPrincipalVariation, ArrayUtils.testMoveListToArray(searchProgressListener.getLastPrincipalVariation())));
+		assertTrue(Arrays.equals(expectedPrincipalVariation, ArrayUtils.testMoveListToArray(searcher.getPrincipalVariation())));
+	}
+	
+	public void testShouldKeepPrincipalVariationFromLastCompleteIterationWhenThresholdReached() throws Exception {
+		TestBoard.infiniteGameTree = true;
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 12, 50);
+		assertEquals(5, searchProgressListener.getLastCompleteIterationEndDepth());
+		assertTrue(searchProgressListener.getLastPrincipalVariation().isEmpty());
+		assertEquals(5, searcher.getPrincipalVariation().size());
+		assertEquals(bestMove, searcher.getPrincipalVariation().get(0));
+	}
+	
+	public void testShouldStopSearchWhenHardTimeBudgetIsUsedThenReturnBestMoveAtThatTime() throws Exception {
+		TestBoard.infiniteGameTree = true;
+		searcher.setTimeBudget(IterativeSearcher.NO_TIME_BUDGET, 50);
+		long startTime = System.currentTimeMillis();
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 60);
+		long time = System.currentTimeMillis() - startTime;
+		assertNotNull(bestMove);
+		assertTrue(time < 2000);
+		assertTrue(searchProgressListener.getLastCompleteIteration() >= 1);
+		// iteration that was running when the time budget was used did not complete
+		assertEquals(searchProgressListener.getLastCompleteIteration() + 1, searchProgressListener.getLastIteration());
+		assertEquals(AbstractSinglePassSearcher.NO_DEADLINE, negamaxSearcher.getDeadline());
+	}
+	
+	public void testShouldNotStartIterationUnlikelyToFinishWithinSoftTimeBudgetThenReturnBestMoveAtThatTime() throws Exception {
+		TestBoard.infiniteGameTree = true;
+		searcher.setTimeBudget(20, IterativeSearcher.NO_TIME_BUDGET);
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 60);
+		assertNotNull(bestMove);
+		assertTrue(searchProgressListener.getLastCompleteIteration() < 60);
+		// no iteration was ended part way through
+		assertEquals(searchProgressListener.getLastCompleteIteration(), searchProgressListener.getLastIteration());
+	}
+	
+	public void testShouldEndSearchWhenAbortedBetweenIterations() throws Exception {
+		negamaxSearcher.addSearchProgressListener(new TestSearchProgressListener() {
+			@Override
+			public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
+				super.onIterationEnd(iteration, move, score, depth, thresholdReached, principalVariation);
+				if (iteration == 1) {
+					searcher.abortSearch();
+				}
+			}
+		});
+		try {
+			searcher.findMove(board, moveRanker, 3);
+			fail("Expected exception not thrown");
+		} catch (AbortException e) {
+			// pass
+			assertTrue(searcher.isAborted());
+			assertEquals(1, searchProgressListener.getLastCompleteIteration());
+		}
+	}
+	
+	public void testShouldEndSearchAtDeadlineOfSearchControl() throws Exception {
+		TestBoard.infiniteGameTree = true;
+		searcher.getSearchControl().setDeadline(System.currentTimeMillis() + 50);
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 60);
+		assertNotNull(bestMove);
+		assertEquals(searchProgressListener.getLastCompleteIteration() + 1, searchProgressListener.getLastIteration());
+	}
+	
+	public void testShouldEstimateIterationTimeFromPreviousIterations() throws Exception {
+		assertEquals(90, searcher.estimateIterationTime(30, 10));
+		assertEquals(40, searcher.estimateIterationTime(10, 0));
+	}
+	
+	public void testShouldNotAllowSoftTimeBudgetMoreThanHardTimeBudget() throws Exception {
+		try {
+			searcher.setTimeBudget(100, 50);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+	
+	public void testShouldFindSameBestMoveWithAspirationWindowResearchingWhenScoreIsOutsideWindow() throws Exception {
+		searcher.setAspirationWindow(1);
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 3);
+		assertEquals('B', bestMove.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		// scores at depths 1, 2 and 3 are -1, -2 and -3, so iterations 2 and 3 each fail low once
+		assertEquals(2, searchProgressListener.getFailLowCount());
+		assertEquals(0, searchProgressListener.getFailHighCount());
+	}
+	
+	public void testShouldFindSameBestMoveWithAspirationWindowAndNegascoutSearcher() throws Exception {
+		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, new TestEvaluator(), false);
+		negascoutSearcher.addSearchProgressListener(searchProgressListener);
+		searcher = new IterativeSearcher(negascoutSearcher, null);
+		searcher.setAspirationWindow(4);
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 3);
+		assertEquals('B', bestMove.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertEquals(0, searchProgressListener.getFailLowCount());
+		assertEquals(0, searchProgressListener.getFailHighCount());
+	}
+	
+	public void testShouldSkipToResumedDepthAfterFirstIteration() throws Exception {
+		searcher.resumeNextSearch(3, Collections.<Move>emptyList());
+		TestMove bestMove = (TestMove) searcher.findMove(board, moveRanker, 3);
+		assertEquals('B', bestMove.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		int[] expectedIterations = {1, 3};
+		assertTrue(Arrays.equals(expectedIterations, searchProgressListener.getIterations()));
+		assertEquals(3, searcher.getCompletedDepth());
+	}
+	
+	public void testShouldFollowPrincipalVariationWhenResuming() throws Exception {
+		searcher.findMove(board, moveRanker, 3);
+		IterativeSearcher resumedSearcher = new IterativeSearcher(new NegamaxSearcher(gameContext, null, new TestEvaluator(), false, false), null);
+		resumedSearcher.resumeNextSearch(3, searcher.getPrincipalVariation());
+		TestMove bestMove = (TestMove) resumedSearcher.findMove(board, moveRanker, 3);
+		assertEquals('B', bestMove.getPosition().getValue());
+		assertEquals(-3, resumedSearcher.getBestMoveScore());
+		char[] expectedPrincipalVariation = {'B', 'D', 'J'};
+		assertTrue(Arrays.equals(expectedPrincipalVariation, ArrayUtils.testMoveListToArray(resumedSearcher.getPrincipalVariation())));
+	}
+	
+	public void testShouldOnlyResumeNextSearch() throws Exception {
+		searcher.resumeNextSearch(3, Collections.<Move>emptyList());
+		searcher.findMove(board, moveRanker, 3);
+		searcher.findMove(board, moveRanker, 3);
+		int[] expectedIterations = {1, 3, 1, 2, 3};
+		assertTrue(Arrays.equals(expectedIterations, searchProgressListener.getIterations()));
+	}
+	
+	public void testShouldNotAllowResumingFromInvalidDepth() throws Exception {
+		try {
+			searcher.resumeNextSearch(0, Collections.<Move>emptyList());
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+	
+	public void testShouldNotAllowNegativeAspirationWindow() throws Exception {
+		try {
+			searcher.setAspirationWindow(-1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
 }
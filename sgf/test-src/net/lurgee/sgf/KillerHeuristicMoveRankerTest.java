@@ -103,4 +103,68 @@ public class KillerHeuristicMoveRankerTest extends TestCase {
 		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE - 2, killerHeuristicMoveRanker.getRank(killerMove2, board, 2));
 		assertEquals(2, killerHeuristicMoveRanker.count(2));
 	}
+	
+	public void testShouldRankLastMateKillerMoveAboveOtherKillerMoves() throws Exception {
+		Debug.output("testShouldRankLastMateKillerMoveAboveOtherKillerMoves");
+		TestMove killerMove1 = testMoveFactory.getMove('D');
+		TestMove killerMove2 = testMoveFactory.getMove('E');
+		TestMove killerMove3 = testMoveFactory.getMove('F');
+		killerHeuristicMoveRanker.setMateScore(100);
+		assertEquals(3, killerHeuristicMoveRanker.getMaxKillerMoves());
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove2, 150, 2);
+		assertEquals(KillerHeuristicMoveRanker.MATE_KILLER_MOVE_SCORE, killerHeuristicMoveRanker.getRank(killerMove2, board, 2));
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove1, 400, 2);
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove3, 300, 2);
+		Debug.output(killerHeuristicMoveRanker.toString());
+		assertEquals(KillerHeuristicMoveRanker.MATE_KILLER_MOVE_SCORE, killerHeuristicMoveRanker.getRank(killerMove3, board, 2));
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE + 400, killerHeuristicMoveRanker.getRank(killerMove1, board, 2));
+		assertTrue(killerHeuristicMoveRanker.getRank(killerMove2, board, 2) < KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE);
+		Move[] killerMoves = new Move[killerHeuristicMoveRanker.getMaxKillerMoves()];
+		assertEquals(2, killerHeuristicMoveRanker.getKillerMoves(2, killerMoves));
+		assertEquals(killerMove3, killerMoves[0]);
+		assertEquals(killerMove1, killerMoves[1]);
+	}
+
+	public void testShouldNotKeepMateKillerMoveIfNoMateScore() throws Exception {
+		Debug.output("testShouldNotKeepMateKillerMoveIfNoMateScore");
+		TestMove killerMove = testMoveFactory.getMove('D');
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove, 100000, 2);
+		assertEquals(2, killerHeuristicMoveRanker.getMaxKillerMoves());
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE + 100000, killerHeuristicMoveRanker.getRank(killerMove, board, 2));
+	}
+
+	public void testShouldKeepKillerMovesForDeepSearchesAndHighMoveIdsUntilReset() throws Exception {
+		Debug.output("testShouldKeepKillerMovesForDeepSearchesAndHighMoveIdsUntilReset");
+		TestMove killerMove1 = testMoveFactory.getMove('D');
+		TestMove killerMove2 = new TestMove((char) 1000);
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove1, 3, 1);
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove2, 5, 100);
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove1, 4, 100);
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE + 3, killerHeuristicMoveRanker.getRank(killerMove1, board, 1));
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE + 5, killerHeuristicMoveRanker.getRank(killerMove2, board, 100));
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE + 4, killerHeuristicMoveRanker.getRank(killerMove1, board, 100));
+		assertEquals(2, killerHeuristicMoveRanker.count(100));
+		killerHeuristicMoveRanker.reset();
+		assertEquals(0, killerHeuristicMoveRanker.count(1));
+		assertEquals(0, killerHeuristicMoveRanker.count(100));
+		assertEquals(1, killerHeuristicMoveRanker.getRank(killerMove1, board, 1));
+		assertEquals(0, killerHeuristicMoveRanker.getKillerMoves(100, new Move[2]));
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove2, -1, 100);
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE - 1, killerHeuristicMoveRanker.getRank(killerMove2, board, 100));
+		assertEquals(1, killerHeuristicMoveRanker.count(100));
+	}
+
+	public void testShouldCreateNewInstanceWithNoKillerMoves() throws Exception {
+		Debug.output("testShouldCreateNewInstanceWithNoKillerMoves");
+		TestMove killerMove = testMoveFactory.getMove('B');
+		killerHeuristicMoveRanker.addIfKillerMove(killerMove, -3, 1);
+		KillerHeuristicMoveRanker newKillerHeuristicMoveRanker = (KillerHeuristicMoveRanker) killerHeuristicMoveRanker.newInstance();
+		assertNotSame(killerHeuristicMoveRanker, newKillerHeuristicMoveRanker);
+		assertEquals(1, killerHeuristicMoveRanker.count(1));
+		assertEquals(0, newKillerHeuristicMoveRanker.count(1));
+		assertEquals(1, newKillerHeuristicMoveRanker.getRank(killerMove, board, 1));
+		newKillerHeuristicMoveRanker.addIfKillerMove(killerMove, 4, 1);
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE + 4, newKillerHeuristicMoveRanker.getRank(killerMove, board, 1));
+		assertEquals(KillerHeuristicMoveRanker.KILLER_MOVE_SCORE_BASE - 3, killerHeuristicMoveRanker.getRank(killerMove, board, 1));
+	}
 }
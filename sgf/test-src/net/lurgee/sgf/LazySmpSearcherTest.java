@@ -0,0 +1,151 @@
+/*
+ * @(#)LazySmpSearcherTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link LazySmpSearcher}.
+ * @author mpatric
+ */
+public class LazySmpSearcherTest extends TestCase {
+
+	private static final boolean BYE_ALLOWED = true;
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final int TREE_DEPTH = 3;
+	private static final int THREAD_COUNT = 3;
+
+	private TestEvaluator evaluator = new TestEvaluator();
+	private MoveRanker moveRanker;
+	private TestBoard board;
+	private TestSearchProgressListener searchProgressListener;
+	private GameContext gameContext;
+	private LazySmpSearcher searcher;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {TestPlayer.getInstance(1), TestPlayer.getInstance(2)};
+		ObjectPool testBoardPool = new ObjectPool(TestBoard.class);
+		TestMoveFactory testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('A');
+		moveRanker = new KillerHeuristicMoveRanker(new TestMoveRanker(), 10);
+		searchProgressListener = new TestSearchProgressListener();
+		searcher = new LazySmpSearcher(gameContext, null, evaluator, BYE_ALLOWED, THREAD_COUNT);
+		searcher.addSearchProgressListener(searchProgressListener);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		searcher.shutdown();
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldFindBestMove() throws Exception {
+		Debug.output("testShouldFindBestMove");
+		TestMove move = (TestMove) (searcher.findMove(board, moveRanker, TREE_DEPTH));
+		Debug.output("BEST move = " + move.getPosition().getValue() + " score = " + searcher.getBestMoveScore() + " player = " + PLAYER1);
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertEquals('A', board.getState());
+		assertTrue(searcher.getTranspositionTable().countEntries() > 0);
+	}
+
+	public void testShouldFindBestMoveWithOneThread() throws Exception {
+		Debug.output("testShouldFindBestMoveWithOneThread");
+		searcher = new LazySmpSearcher(gameContext, null, evaluator, BYE_ALLOWED, 1);
+		searcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (searcher.findMove(board, moveRanker, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		int[] expectedIterations = {1, 2, 3};
+		assertTrue(Arrays.equals(expectedIterations, searchProgressListener.getIterations()));
+		assertEquals(searchProgressListener.getLeafScores().length, searcher.getNodeCount());
+	}
+
+	public void testShouldNotAllowThreadCountLessThanOne() throws Exception {
+		Debug.output("testShouldNotAllowThreadCountLessThanOne");
+		try {
+			new LazySmpSearcher(gameContext, null, evaluator, BYE_ALLOWED, 0);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	public void testShouldFindBestMoveWithABoardWithANoMoveSituationWithByesAllowed() throws Exception {
+		Debug.output("testShouldFindBestMoveWithABoardWithANoMoveSituationWithByesAllowed");
+		TestBoard.noMoveSituation = true;
+		TestMove move = (TestMove) (searcher.findMove(board, moveRanker, TREE_DEPTH));
+		assertEquals('R', move.getPosition().getValue());
+		assertEquals(-6, searcher.getBestMoveScore());
+	}
+
+	public void testShouldReportAggregateNodeCountForEachIteration() throws Exception {
+		Debug.output("testShouldReportAggregateNodeCountForEachIteration");
+		searcher.findMove(board, moveRanker, TREE_DEPTH);
+		int[] expectedIterations = {1, 2, 3};
+		assertTrue(Arrays.equals(expectedIterations, searchProgressListener.getIterations()));
+		assertEquals(TREE_DEPTH, searchProgressListener.getLastCompleteIterationEndDepth());
+		assertTrue(searchProgressListener.getLastAggregateNodeCount() >= searchProgressListener.getLeafScores().length);
+		assertTrue(searcher.getNodeCount() >= searchProgressListener.getLastAggregateNodeCount());
+	}
+
+	public void testShouldStopSearchWhenThresholdReachedThenReturnBestMoveAtThatTime() throws Exception {
+		Debug.output("testShouldStopSearchWhenThresholdReachedThenReturnBestMoveAtThatTime");
+		TestBoard.infiniteGameTree = true;
+		TestMove move = (TestMove) searcher.findMove(board, moveRanker, 12, 1);
+		assertNotNull(move);
+		int[] expectedIterations = {1, 2};
+		assertTrue(Arrays.equals(expectedIterations, searchProgressListener.getIterations()));
+		assertEquals(1, searchProgressListener.getLastCompleteIteration());
+		assertTrue(searchProgressListener.getLastAggregateNodeCount() > 0);
+	}
+
+	public void testShouldEndSearchAtDeadlineThenReturnBestMoveAtThatTime() throws Exception {
+		Debug.output("testShouldEndSearchAtDeadlineThenReturnBestMoveAtThatTime");
+		TestBoard.infiniteGameTree = true;
+		searcher.getSearchControl().setDeadline(System.currentTimeMillis() + 50);
+		TestMove move = (TestMove) searcher.findMove(board, moveRanker, 60);
+		assertNotNull(move);
+		assertTrue(searchProgressListener.getLastCompleteIteration() < 60);
+		assertEquals(searchProgressListener.getLastCompleteIteration() + 1, searchProgressListener.getLastIteration());
+	}
+
+	public void testShouldEndSearchIfAborted() throws Exception {
+		Debug.output("testShouldEndSearchIfAborted");
+		TestBoard.infiniteGameTree = true;
+		searcher.addSearchProgressListener(new TestSearchProgressListener() {
+			@Override
+			public void onLeafEvaluation(int score, Player player, int depth) {
+				super.onLeafEvaluation(score, player, depth);
+				if (getLeafScores().length == 2) {
+					searcher.abortSearch();
+				}
+			}
+		});
+		try {
+			searcher.findMove(board, moveRanker, 14);
+			fail("Expected exception not thrown");
+		} catch (AbortException e) {
+			// pass
+			assertTrue(searcher.isAborted());
+		}
+		TestBoard.infiniteGameTree = false;
+		TestMove move = (TestMove) (searcher.findMove(board, moveRanker, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * @(#)MTDfSearcherTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link MTDfSearcher}.
+ * @author mpatric
+ */
+public class MTDfSearcherTest extends TestCase {
+
+	private static final boolean BYE_NOT_ALLOWED = false;
+	private static final boolean BYE_ALLOWED = true;
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final int DEPTH = 3;
+
+	private TestEvaluator evaluator = new TestEvaluator();
+	private TestBoard board;
+	private GameContext gameContext;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {TestPlayer.getInstance(1), TestPlayer.getInstance(2)};
+		ObjectPool testBoardPool = new ObjectPool(TestBoard.class);
+		TestMoveFactory testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('A');
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldFindBestMove() throws Exception {
+		Debug.output("testShouldFindBestMove");
+		MTDfSearcher gameSearcher = new MTDfSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		// the first guess of 0 fails low with a score of -3, which a second search confirms by failing high
+		assertEquals(2, gameSearcher.getSearchCount());
+		assertEquals(move, gameSearcher.getPrincipalVariation().get(0));
+	}
+
+	public void testShouldFindBestMoveOnSubtreeStartingWithBlackToPlay() throws Exception {
+		Debug.output("testShouldFindBestMoveOnSubtreeStartingWithBlackToPlay");
+		board.setState('B');
+		MTDfSearcher gameSearcher = new MTDfSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('E', move.getPosition().getValue());
+		assertEquals(0, gameSearcher.getBestMoveScore());
+	}
+
+	public void testShouldFindSameMovesAndScoresAsNegascout() throws Exception {
+		Debug.output("testShouldFindSameMovesAndScoresAsNegascout");
+		for (boolean noMoveSituation : new boolean[] {false, true}) {
+			TestBoard.noMoveSituation = noMoveSituation;
+			for (boolean byeAllowed : new boolean[] {BYE_NOT_ALLOWED, BYE_ALLOWED}) {
+				for (int depth = 1; depth <= DEPTH; depth++) {
+					NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, evaluator, byeAllowed);
+					MTDfSearcher mtdfSearcher = new MTDfSearcher(gameContext, null, evaluator, byeAllowed);
+					Move negascoutMove = negascoutSearcher.findMove(board, null, depth);
+					Move mtdfMove = mtdfSearcher.findMove(board, null, depth);
+					assertEquals(negascoutMove, mtdfMove);
+					assertEquals(negascoutSearcher.getBestMoveScore(), mtdfSearcher.getBestMoveScore());
+				}
+			}
+		}
+	}
+
+	public void testShouldFindSameMoveAndScoreWithIterativeDeepening() throws Exception {
+		Debug.output("testShouldFindSameMoveAndScoreWithIterativeDeepening");
+		MTDfSearcher mtdfSearcher = new MTDfSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		IterativeSearcher gameSearcher = new IterativeSearcher(mtdfSearcher, null);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		// each iteration starts from the score of an earlier one, which is more than its score
+		assertEquals(2 * DEPTH, mtdfSearcher.getSearchCount());
+	}
+
+	public void testShouldUseOwnTranspositionTableOnlyWhenNoneIsSet() throws Exception {
+		Debug.output("testShouldUseOwnTranspositionTableOnlyWhenNoneIsSet");
+		MTDfSearcher gameSearcher = new MTDfSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		gameSearcher.findMove(board, null, DEPTH);
+		assertNull(gameSearcher.getTranspositionTable());
+		TranspositionTable transpositionTable = new TranspositionTable(64);
+		gameSearcher.setTranspositionTable(transpositionTable);
+		gameSearcher.findMove(board, null, DEPTH);
+		assertSame(transpositionTable, gameSearcher.getTranspositionTable());
+		assertTrue(transpositionTable.countEntries() > 0);
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+	}
+}
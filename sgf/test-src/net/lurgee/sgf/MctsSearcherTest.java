@@ -0,0 +1,203 @@
+/*
+ * @(#)MctsSearcherTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link MctsSearcher}. The games on the test board end at its leaves, where the player that the
+ * {@link TestEvaluator} favours wins.
+ * @author mpatric
+ */
+public class MctsSearcherTest extends TestCase {
+
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final int DEPTH = 3;
+	private static final int PLAYOUT_COUNT = 1000;
+	private static final int TREE_NODE_COUNT = 17;
+
+	private TestBoard board;
+	private GameContext gameContext;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {TestPlayer.getInstance(1), TestPlayer.getInstance(2)};
+		ObjectPool testBoardPool = new ObjectPool(TestBoard.class);
+		TestMoveFactory testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('B');
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldFindMoveThatAvoidsLosing() throws Exception {
+		Debug.output("testShouldFindMoveThatAvoidsLosing");
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 1);
+		gameSearcher.setPlayoutCount(PLAYOUT_COUNT);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		// every game after D is lost, while the opponent can do no better than a draw after E
+		assertEquals('E', move.getPosition().getValue());
+		assertTrue(gameSearcher.getBestMoveScore() >= 50);
+		assertEquals(PLAYOUT_COUNT, gameSearcher.getPlayoutsCompleted());
+		assertEquals('B', board.getState());
+	}
+
+	public void testShouldFindSameMoveWithMultipleThreads() throws Exception {
+		Debug.output("testShouldFindSameMoveWithMultipleThreads");
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 4);
+		try {
+			gameSearcher.setPlayoutCount(PLAYOUT_COUNT);
+			for (int i = 0; i < 3; i++) {
+				TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+				assertEquals('E', move.getPosition().getValue());
+				assertEquals(PLAYOUT_COUNT, gameSearcher.getPlayoutsCompleted());
+			}
+		} finally {
+			gameSearcher.shutdown();
+		}
+	}
+
+	public void testShouldReturnMostPlayedMovesAsPrincipalVariation() throws Exception {
+		Debug.output("testShouldReturnMostPlayedMovesAsPrincipalVariation");
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 1);
+		gameSearcher.setPlayoutCount(PLAYOUT_COUNT);
+		gameSearcher.findMove(board, null, DEPTH);
+		List<Move> principalVariation = gameSearcher.getPrincipalVariation();
+		assertEquals(2, principalVariation.size());
+		assertEquals('E', ((TestMove) principalVariation.get(0)).getPosition().getValue());
+		assertEquals('L', ((TestMove) principalVariation.get(1)).getPosition().getValue());
+	}
+
+	public void testShouldLimitPlayoutsToEvaluationThreshold() throws Exception {
+		Debug.output("testShouldLimitPlayoutsToEvaluationThreshold");
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 1);
+		gameSearcher.setPlayoutCount(PLAYOUT_COUNT);
+		assertNotNull(gameSearcher.findMove(board, null, DEPTH, 10));
+		assertEquals(10, gameSearcher.getPlayoutsCompleted());
+	}
+
+	public void testShouldBuildWholeTreeUnlessItIsFull() throws Exception {
+		Debug.output("testShouldBuildWholeTreeUnlessItIsFull");
+		board.setState('A');
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 1);
+		gameSearcher.setPlayoutCount(PLAYOUT_COUNT);
+		gameSearcher.findMove(board, null, DEPTH);
+		assertEquals(TREE_NODE_COUNT, gameSearcher.getNodeCount());
+		gameSearcher.setMaxNodeCount(3);
+		assertNotNull(gameSearcher.findMove(board, null, DEPTH));
+		assertEquals(3, gameSearcher.getNodeCount());
+		assertEquals(PLAYOUT_COUNT, gameSearcher.getPlayoutsCompleted());
+	}
+
+	public void testShouldOnlyEvaluatePlayoutsThatReachTheCutoff() throws Exception {
+		Debug.output("testShouldOnlyEvaluatePlayoutsThatReachTheCutoff");
+		board.setState('A');
+		CountingEvaluator evaluator = new CountingEvaluator();
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, evaluator, 1);
+		gameSearcher.setPlayoutCount(PLAYOUT_COUNT);
+		gameSearcher.setPlayoutCutoff(1);
+		gameSearcher.findMove(board, null, DEPTH);
+		// only playouts from the first two levels of the tree reach the cutoff before the end of the game
+		assertTrue(evaluator.count > 0);
+		assertTrue(evaluator.count < PLAYOUT_COUNT);
+		evaluator.count = 0;
+		gameSearcher.setPlayoutCutoff(0);
+		gameSearcher.findMove(board, null, DEPTH);
+		assertEquals(0, evaluator.count);
+	}
+
+	public void testShouldNotAllowInvalidSettings() throws Exception {
+		Debug.output("testShouldNotAllowInvalidSettings");
+		try {
+			new MctsSearcher(gameContext, null, 0);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 1);
+		try {
+			gameSearcher.setPlayoutCount(0);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+		try {
+			gameSearcher.setVirtualLoss(-1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+		try {
+			gameSearcher.setMaxNodeCount(1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	public void testShouldNotSearchBoardThatDoesNotReportGameResult() throws Exception {
+		Debug.output("testShouldNotSearchBoardThatDoesNotReportGameResult");
+		MctsSearcher gameSearcher = new MctsSearcher(gameContext, null, 1);
+		try {
+			gameSearcher.findMove(new BoardWithoutGameResult(), null, DEPTH);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	private static class BoardWithoutGameResult extends AbstractBoard {
+
+		@Override
+		public void initialise() {
+		}
+
+		@Override
+		public boolean canMove() {
+			return true;
+		}
+
+		@Override
+		public List<Move> getValidMoves(MoveRanker moveRanker, int depth) {
+			return new ArrayList<Move>();
+		}
+
+		@Override
+		public int countMovesMade() {
+			return 0;
+		}
+
+		@Override
+		public int makeMove(Move move, List<Position> changes, boolean searching) {
+			return 0;
+		}
+	}
+
+	private static class CountingEvaluator extends TestEvaluator {
+
+		private int count = 0;
+
+		@Override
+		public int score(AbstractBoard startBoard, AbstractBoard board, int currentDepth, int searchDepth) {
+			count++;
+			return super.score(startBoard, board, currentDepth, searchDepth);
+		}
+	}
+}
@@ -87,6 +87,96 @@ public class MoveListTest extends TestCase {
 		assertEquals(MOVE_B, moveListWithoutRandomSelect.getMove(4));
 	}
 	
+	public void testShouldOrderEqualRankedMovesWithLastAddedFirstWhenNotRandom() {
+		moveListWithoutRandomSelect.add(MOVE_A, 2);
+		moveListWithoutRandomSelect.add(MOVE_B, 1);
+		moveListWithoutRandomSelect.add(MOVE_C, 2);
+		moveListWithoutRandomSelect.add(MOVE_D, 2);
+		List<Move> expectedList = new ArrayList<Move>();
+		expectedList.add(MOVE_D);
+		expectedList.add(MOVE_C);
+		expectedList.add(MOVE_A);
+		expectedList.add(MOVE_B);
+		assertEquals(expectedList, moveListWithoutRandomSelect.getMoves());
+	}
+	
+	public void testShouldOnlyOrderMovesAsFarAsTheyAreRead() {
+		final int[] selections = new int[1];
+		MoveList countingMoveList = new MoveList(4, true) {
+			@Override
+			protected int selectRandom(int numberOfChoices) {
+				selections[0]++;
+				return 0;
+			}
+		};
+		countingMoveList.add(MOVE_A, 1);
+		countingMoveList.add(MOVE_B, 2);
+		countingMoveList.add(MOVE_C, 1);
+		countingMoveList.add(MOVE_D, 1);
+		assertEquals(MOVE_B, countingMoveList.getMove(0));
+		assertEquals(0, selections[0]);
+		assertEquals(MOVE_D, countingMoveList.getMove(1));
+		assertEquals(1, selections[0]);
+		assertEquals(MOVE_D, countingMoveList.getMove(1));
+		assertEquals(1, selections[0]);
+	}
+	
+	public void testShouldMoveMovesToFrontOfList() {
+		moveListWithoutRandomSelect.add(MOVE_A, 3);
+		moveListWithoutRandomSelect.add(MOVE_B, 1);
+		moveListWithoutRandomSelect.add(MOVE_C, 2);
+		moveListWithoutRandomSelect.add(MOVE_D, 5);
+		moveListWithoutRandomSelect.add(MOVE_E, 4);
+		List<Move> moves = moveListWithoutRandomSelect.getMoves();
+		MoveList.moveToFront(moves, MOVE_A);
+		MoveList.moveToFront(moves, MOVE_C);
+		MoveList.moveToFront(moves, MOVE_B);
+		MoveList.moveToFront(moves, MOVE_C);
+		List<Move> expectedList = new ArrayList<Move>();
+		expectedList.add(MOVE_C);
+		expectedList.add(MOVE_B);
+		expectedList.add(MOVE_A);
+		expectedList.add(MOVE_D);
+		expectedList.add(MOVE_E);
+		assertEquals(expectedList, moves);
+		MoveList.moveToFront(expectedList, MOVE_E);
+		assertEquals(MOVE_E, expectedList.get(0));
+		assertEquals(MOVE_C, expectedList.get(1));
+	}
+	
+	public void testShouldAddAndRemoveMovesThroughListOfMoves() {
+		moveListWithoutRandomSelect.add(MOVE_A, 3);
+		moveListWithoutRandomSelect.add(MOVE_B, 1);
+		moveListWithoutRandomSelect.add(MOVE_C, 2);
+		List<Move> moves = moveListWithoutRandomSelect.getMoves();
+		assertEquals(MOVE_C, moves.remove(1));
+		moves.add(0, MOVE_D);
+		moves.add(3, MOVE_E);
+		List<Move> expectedList = new ArrayList<Move>();
+		expectedList.add(MOVE_D);
+		expectedList.add(MOVE_A);
+		expectedList.add(MOVE_B);
+		expectedList.add(MOVE_E);
+		assertEquals(expectedList, moves);
+		assertEquals(4, moveListWithoutRandomSelect.size());
+	}
+	
+	public void testShouldReuseMoveListOnceCleared() {
+		moveListWithoutRandomSelect.add(MOVE_A, 3);
+		moveListWithoutRandomSelect.add(MOVE_B, 1);
+		moveListWithoutRandomSelect.add(MOVE_C, 2);
+		moveListWithoutRandomSelect.add(MOVE_D, 4);
+		moveListWithoutRandomSelect.add(MOVE_E, 5);
+		assertEquals(MOVE_E, moveListWithoutRandomSelect.getMove(0));
+		moveListWithoutRandomSelect.clear();
+		moveListWithoutRandomSelect.add(MOVE_B);
+		moveListWithoutRandomSelect.add(MOVE_A);
+		List<Move> expectedList = new ArrayList<Move>();
+		expectedList.add(MOVE_B);
+		expectedList.add(MOVE_A);
+		assertEquals(expectedList, moveListWithoutRandomSelect.getMoves());
+	}
+	
 	public void testShouldClearMoveList() throws Exception {
 		moveListWithoutRandomSelect.add(MOVE_A);
 		moveListWithoutRandomSelect.add(MOVE_B);
@@ -39,6 +39,8 @@ public class NegamaxSearcherTest extends TestCase {
 		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
 		TestBoard.infiniteGameTree = false;
 		TestBoard.noMoveSituation = false;
+		TestBoard.stagedMoveGeneration = false;
+		TestBoard.noisyMoves = "";
 		board = (TestBoard) gameContext.checkOutBoard();
 		board.initialise();
 		board.setCurrentPlayer(PLAYER1);
@@ -208,6 +210,24 @@ public class NegamaxSearcherTest extends TestCase {
 		}
 	}
 	
+	public void testShouldEndSearchesWithSameStacklessException() throws Exception {
+		Debug.output("testShouldEndSearchesWithSameStacklessException");
+		TestBoard.infiniteGameTree = true;
+		AbstractSearcher searcher = new NegamaxSearcher(gameContext, null, evaluator, NO_AB_CUTOFF, BYE_ALLOWED);
+		SearchException[] exceptions = new SearchException[2];
+		for (int i = 0; i < exceptions.length; i++) {
+			try {
+				searcher.findMove(board, null, 14, 20);
+				fail("Expected exception not thrown");
+			} catch (SearchThresholdReachedException e) {
+				// pass
+				exceptions[i] = e;
+			}
+		}
+		assertSame(exceptions[0], exceptions[1]);
+		assertEquals(0, exceptions[0].getStackTrace().length);
+	}
+	
 	public void testShouldUseKillerHeuristicRanksOnSubsequentSearchIfMoveRankerNotReset() throws Exception {
 		Debug.output("testShouldUseKillerHeuristicRanksOnSubsequentSearchIfMoveRankerNotReset");
 		AbstractSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
@@ -254,6 +274,271 @@ public class NegamaxSearcherTest extends TestCase {
 		assertEquals(1, searchProgressListener.getLastIteration());
 	}
 
+	public void testShouldCollectPrincipalVariation() throws Exception {
+		Debug.output("testShouldCollectPrincipalVariation");
+		AbstractSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		gameSearcher.findMove(board, null, TREE_DEPTH);
+		char[] expectedPrincipalVariation = {'B', 'D', 'J'};
+		assertTrue(Arrays.equals(expectedPrincipalVariation, ArrayUtils.testMoveListToArray(gameSearcher.getPrincipalVariation())));
+		assertEquals(gameSearcher.getPrincipalVariation(), searchProgressListener.getLastPrincipalVariation());
+	}
+
+	public void testShouldCollectPrincipalVariationWithAByeInItWithANoMoveSituationWithByesAllowed() throws Exception {
+		Debug.output("testShouldCollectPrincipalVariationWithAByeInItWithANoMoveSituationWithByesAllowed");
+		TestBoard.noMoveSituation = true;
+		AbstractSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.findMove(board, null, TREE_DEPTH);
+		char[] expectedPrincipalVariation = {'R', '-', 'S'};
+		assertTrue(Arrays.equals(expectedPrincipalVariation, ArrayUtils.testMoveListToArray(gameSearcher.getPrincipalVariation())));
+	}
+
+	public void testShouldSearchPrincipalVariationFromPreviousSearchFirstIfNotReset() throws Exception {
+		Debug.output("testShouldSearchPrincipalVariationFromPreviousSearchFirstIfNotReset");
+		AbstractSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMoveRanker moveRanker = new TestMoveRanker();
+		gameSearcher.findMove(board, moveRanker, TREE_DEPTH - 1);
+		searchProgressListener = new TestSearchProgressListener();
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMoveWithoutResetting(board, moveRanker, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		char[] expectedBranches = {'B', 'D', 'J', 'I', 'H', 'E', 'L', 'C', 'G', 'O', 'Q', 'N', 'P', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+	}
+
+	public void testShouldFindSameBestMoveUsingTranspositionTable() throws Exception {
+		Debug.output("testShouldFindSameBestMoveUsingTranspositionTable");
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setTranspositionTable(new TranspositionTable(64));
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		assertEquals(0, gameSearcher.getTranspositionTableHits());
+		assertTrue(gameSearcher.getTranspositionTableMisses() > 0);
+	}
+	
+	public void testShouldNotSearchSubTreesAgainWhenResultsAreInTranspositionTable() throws Exception {
+		Debug.output("testShouldNotSearchSubTreesAgainWhenResultsAreInTranspositionTable");
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setTranspositionTable(new TranspositionTable(64));
+		gameSearcher.findMove(board, null, TREE_DEPTH);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMoveWithoutResetting(board, null, TREE_DEPTH, AbstractSearcher.NO_EVALUATION_THRESHOLD));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		char[] expectedBranches = {'B', 'C'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		int[] expectedLeafScores = {};
+		assertTrue(Arrays.equals(expectedLeafScores, searchProgressListener.getLeafScores()));
+		assertEquals(3, gameSearcher.getTranspositionTableHits());
+	}
+	
+	public void testShouldFindSameBestMoveSearchingInPlace() throws Exception {
+		Debug.output("testShouldFindSameBestMoveSearchingInPlace");
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setSearchInPlace(true);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		int[] expectedNodeScores = {7, 6, 3, -3, -2, 2, 3, 8, -8, 8};
+		assertTrue(Arrays.equals(expectedNodeScores, searchProgressListener.getNodeScores()));
+		int[] expectedLeafScores = {7, 6, 3, -2, 8};
+		assertTrue(Arrays.equals(expectedLeafScores, searchProgressListener.getLeafScores()));
+		assertEquals('A', board.getState());
+		assertEquals(PLAYER1, board.getCurrentPlayer());
+	}
+	
+	public void testShouldFindSameBestMoveSearchingInPlaceWithANoMoveSituationWithByesAllowed() throws Exception {
+		Debug.output("testShouldFindSameBestMoveSearchingInPlaceWithANoMoveSituationWithByesAllowed");
+		TestBoard.noMoveSituation = true;
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setSearchInPlace(true);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('R', move.getPosition().getValue());
+		assertEquals(-6, gameSearcher.getBestMoveScore());
+		char[] expectedBranches = {'R', 'R', 'S', 'T', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		int[] expectedNodeScores = {6, 7, -6, 6, 8, -8, 8};
+		assertTrue(Arrays.equals(expectedNodeScores, searchProgressListener.getNodeScores()));
+		int[] expectedLeafDepths = {3, 3, 3};
+		assertTrue(Arrays.equals(expectedLeafDepths, searchProgressListener.getLeafDepths()));
+		assertEquals('A', board.getState());
+		assertEquals(PLAYER1, board.getCurrentPlayer());
+	}
+	
+	public void testShouldCountNodesLeavesAndCutoffsByPly() throws Exception {
+		Debug.output("testShouldCountNodesLeavesAndCutoffsByPly");
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.findMove(board, null, TREE_DEPTH);
+		SearchStatistics searchStatistics = gameSearcher.getSearchStatistics();
+		assertEquals(11, searchStatistics.getNodeCount());
+		assertEquals(5, searchStatistics.getLeafCount());
+		assertEquals(2, searchStatistics.getCutoffCount());
+		assertEquals(TREE_DEPTH + 1, searchStatistics.getPlyCount());
+		long[] expectedNodeCounts = {1, 2, 3, 5};
+		long[] expectedCutoffCounts = {0, 1, 1, 0};
+		for (int ply = 0; ply <= TREE_DEPTH; ply++) {
+			assertEquals(expectedNodeCounts[ply], searchStatistics.getNodeCount(ply));
+			assertEquals(expectedCutoffCounts[ply], searchStatistics.getCutoffCount(ply));
+		}
+		assertEquals(gameSearcher.getEvaluationCount(), searchStatistics.getLeafCount());
+	}
+	
+	public void testShouldCountSameWithOrWithoutSearchProgressListeners() throws Exception {
+		Debug.output("testShouldCountSameWithOrWithoutSearchProgressListeners");
+		TestBoard.noMoveSituation = true;
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.findMove(board, null, TREE_DEPTH);
+		String searchStatisticsWithoutListener = gameSearcher.getSearchStatistics().toString();
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		gameSearcher.findMove(board, null, TREE_DEPTH);
+		assertEquals(searchStatisticsWithoutListener, gameSearcher.getSearchStatistics().toString());
+		assertEquals(searchProgressListener.getLeafScores().length, gameSearcher.getSearchStatistics().getLeafCount());
+		assertEquals(searchProgressListener.getBranches().length + 1, gameSearcher.getSearchStatistics().getNodeCount());
+	}
+	
+	public void testShouldSearchSameBranchesWithFewerMovesGeneratedWithStagedMoveGeneration() throws Exception {
+		Debug.output("testShouldSearchSameBranchesWithFewerMovesGeneratedWithStagedMoveGeneration");
+		TestSearchProgressListener unstagedSearchProgressListener = new TestSearchProgressListener();
+		TestMove unstagedMove = searchTwiceWithKillerMovesAndTranspositionTable(unstagedSearchProgressListener);
+		int unstagedValidMovesGeneratedCount = TestBoard.validMovesGeneratedCount;
+		TestBoard.stagedMoveGeneration = true;
+		TestMove stagedMove = searchTwiceWithKillerMovesAndTranspositionTable(searchProgressListener);
+		assertEquals(unstagedMove, stagedMove);
+		assertTrue(Arrays.equals(unstagedSearchProgressListener.getBranches(), searchProgressListener.getBranches()));
+		assertTrue(Arrays.equals(unstagedSearchProgressListener.getNodeScores(), searchProgressListener.getNodeScores()));
+		assertTrue(TestBoard.validMovesGeneratedCount < unstagedValidMovesGeneratedCount);
+	}
+	
+	public void testShouldFindSameBestMoveSearchingInPlaceWithStagedMoveGeneration() throws Exception {
+		Debug.output("testShouldFindSameBestMoveSearchingInPlaceWithStagedMoveGeneration");
+		TestBoard.stagedMoveGeneration = true;
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setSearchInPlace(true);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, new KillerHeuristicMoveRanker(new TestMoveRanker(false), 2), TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		assertEquals('A', board.getState());
+		assertEquals(PLAYER1, board.getCurrentPlayer());
+	}
+	
+	public void testShouldSearchNoisyMovesPastDepthOfSearch() throws Exception {
+		Debug.output("testShouldSearchNoisyMovesPastDepthOfSearch");
+		TestBoard.noisyMoves = "DE";
+		for (boolean searchInPlace : new boolean[] {false, true}) {
+			NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+			gameSearcher.setSearchInPlace(searchInPlace);
+			gameSearcher.setQuiescenceDepth(1);
+			TestSearchProgressListener searchProgressListener = new TestSearchProgressListener();
+			gameSearcher.addSearchProgressListener(searchProgressListener);
+			TestMove move = (TestMove) (gameSearcher.findMove(board, null, 1));
+			assertEquals('B', move.getPosition().getValue());
+			assertEquals(-2, gameSearcher.getBestMoveScore());
+			char[] expectedBranches = {'B', 'C'};
+			assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+			int[] expectedLeafScores = {2, 7};
+			assertTrue(Arrays.equals(expectedLeafScores, searchProgressListener.getLeafScores()));
+			// C is not searched past the depth of the search, as standing pat is already better than B
+			assertEquals(2, gameSearcher.getSearchStatistics().getQuiescenceNodeCount());
+			assertEquals('A', board.getState());
+		}
+	}
+	
+	public void testShouldNotSearchQuietMovesPastDepthOfSearch() throws Exception {
+		Debug.output("testShouldNotSearchQuietMovesPastDepthOfSearch");
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setQuiescenceDepth(1);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, 1));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-1, gameSearcher.getBestMoveScore());
+		assertEquals(0, gameSearcher.getSearchStatistics().getQuiescenceNodeCount());
+	}
+	
+	public void testShouldSearchNoisyMovesNoFurtherThanQuiescenceDepth() throws Exception {
+		Debug.output("testShouldSearchNoisyMovesNoFurtherThanQuiescenceDepth");
+		TestBoard.noisyMoves = "DH";
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setQuiescenceDepth(1);
+		gameSearcher.findMove(board, null, 1);
+		assertEquals(1, gameSearcher.getSearchStatistics().getQuiescenceNodeCount());
+		gameSearcher.setQuiescenceDepth(2);
+		gameSearcher.findMove(board, null, 1);
+		assertEquals(2, gameSearcher.getSearchStatistics().getQuiescenceNodeCount());
+	}
+	
+	public void testShouldNotAllowNegativeQuiescenceDepth() throws Exception {
+		Debug.output("testShouldNotAllowNegativeQuiescenceDepth");
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		try {
+			gameSearcher.setQuiescenceDepth(-1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+	
+	public void testShouldFindSameBestMoveScoringLeavesInBatches() throws Exception {
+		Debug.output("testShouldFindSameBestMoveScoringLeavesInBatches");
+		for (boolean stagedMoveGeneration : new boolean[] {false, true}) {
+			for (boolean searchInPlace : new boolean[] {false, true}) {
+				TestBoard.stagedMoveGeneration = stagedMoveGeneration;
+				TestEvaluator evaluator = new TestEvaluator();
+				NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+				gameSearcher.setSearchInPlace(searchInPlace);
+				gameSearcher.setLeafBatching(true);
+				TestSearchProgressListener searchProgressListener = new TestSearchProgressListener();
+				gameSearcher.addSearchProgressListener(searchProgressListener);
+				TestMove move = (TestMove) (gameSearcher.findMove(board, null, TREE_DEPTH));
+				assertEquals('B', move.getPosition().getValue());
+				assertEquals(-3, gameSearcher.getBestMoveScore());
+				char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+				assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+				int[] expectedNodeScores = {7, 6, 3, -3, -2, 2, 3, 8, -8, 8};
+				assertTrue(Arrays.equals(expectedNodeScores, searchProgressListener.getNodeScores()));
+				int[] expectedLeafScores = {7, 6, 3, -2, 8};
+				assertTrue(Arrays.equals(expectedLeafScores, searchProgressListener.getLeafScores()));
+				// L is scored along with K, even though K causes a cutoff
+				assertEquals(3, evaluator.getBatchCount());
+				assertEquals(6, gameSearcher.getEvaluationCount());
+				assertEquals('A', board.getState());
+				assertEquals(PLAYER1, board.getCurrentPlayer());
+			}
+		}
+	}
+
+	public void testShouldNotScoreLeavesInBatchesWithQuiescenceSearch() throws Exception {
+		Debug.output("testShouldNotScoreLeavesInBatchesWithQuiescenceSearch");
+		TestEvaluator evaluator = new TestEvaluator();
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setLeafBatching(true);
+		gameSearcher.setQuiescenceDepth(1);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(0, evaluator.getBatchCount());
+	}
+	
+	private TestMove searchTwiceWithKillerMovesAndTranspositionTable(TestSearchProgressListener searchProgressListener) {
+		NegamaxSearcher gameSearcher = new NegamaxSearcher(gameContext, null, evaluator, AB_CUTOFF, BYE_ALLOWED);
+		gameSearcher.setTranspositionTable(new TranspositionTable(64));
+		MoveRanker moveRanker = new KillerHeuristicMoveRanker(new TestMoveRanker(false), 2);
+		gameSearcher.findMove(board, moveRanker, TREE_DEPTH - 1);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestBoard.validMovesGeneratedCount = 0;
+		TestMove move = (TestMove) (gameSearcher.findMoveWithoutResetting(board, moveRanker, TREE_DEPTH, AbstractSearcher.NO_EVALUATION_THRESHOLD));
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		return move;
+	}
+	
 	class KillerHeuristicMoveRankerForTesting extends KillerHeuristicMoveRanker {
 		
 		private ArrayList<Integer> ranks = new ArrayList<Integer>();
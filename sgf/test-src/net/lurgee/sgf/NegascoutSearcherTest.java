@@ -142,4 +142,131 @@ public class NegascoutSearcherTest extends TestCase {
 		assertEquals(0, searchProgressListener.getNodeScores().length);
 		assertEquals(0, searchProgressListener.getLeafScores().length);
 	}
+
+	public void testShouldFindBestMoveWhenScoreIsWithinRootWindow() throws Exception {
+		Debug.output("testShouldFindBestMoveWhenScoreIsWithinRootWindow");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) gameSearcher.findMoveWithoutResetting(board, null, DEPTH, -5, 0, AbstractSearcher.NO_EVALUATION_THRESHOLD);
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		assertFalse(gameSearcher.isFailedLow());
+		assertFalse(gameSearcher.isFailedHigh());
+		assertEquals(0, searchProgressListener.getFailLowCount());
+		assertEquals(0, searchProgressListener.getFailHighCount());
+	}
+
+	public void testShouldFailLowWhenScoreIsBelowRootWindow() throws Exception {
+		Debug.output("testShouldFailLowWhenScoreIsBelowRootWindow");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		Move move = gameSearcher.findMoveWithoutResetting(board, null, DEPTH, 0, 5, AbstractSearcher.NO_EVALUATION_THRESHOLD);
+		assertNull(move);
+		assertTrue(gameSearcher.isFailedLow());
+		assertFalse(gameSearcher.isFailedHigh());
+		assertEquals(1, searchProgressListener.getFailLowCount());
+		assertEquals(0, searchProgressListener.getFailHighCount());
+	}
+
+	public void testShouldFailHighWhenScoreIsAboveRootWindow() throws Exception {
+		Debug.output("testShouldFailHighWhenScoreIsAboveRootWindow");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) gameSearcher.findMoveWithoutResetting(board, null, DEPTH, -10, -5, AbstractSearcher.NO_EVALUATION_THRESHOLD);
+		assertNotNull(move);
+		assertTrue(gameSearcher.getBestMoveScore() >= -5);
+		assertFalse(gameSearcher.isFailedLow());
+		assertTrue(gameSearcher.isFailedHigh());
+		assertEquals(0, searchProgressListener.getFailLowCount());
+		assertEquals(1, searchProgressListener.getFailHighCount());
+		// a full window is used once the search is done
+		gameSearcher.findMove(board, null, DEPTH);
+		assertFalse(gameSearcher.isFailedHigh());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+	}
+
+	public void testShouldSearchSameTreeWithForwardPruningPolicyThatDoesNotPrune() throws Exception {
+		Debug.output("testShouldSearchSameTreeWithForwardPruningPolicyThatDoesNotPrune");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		gameSearcher.setForwardPruningPolicy(new SimpleForwardPruningPolicy());
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		SearchStatistics searchStatistics = gameSearcher.getSearchStatistics();
+		assertEquals(0, searchStatistics.getReductionCount());
+		assertEquals(0, searchStatistics.getFutilityPruneCount());
+		assertEquals(0, searchStatistics.getNullMoveCount());
+	}
+
+	public void testShouldSearchLateMovesToReducedDepth() throws Exception {
+		Debug.output("testShouldSearchLateMovesToReducedDepth");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		SimpleForwardPruningPolicy forwardPruningPolicy = new SimpleForwardPruningPolicy();
+		forwardPruningPolicy.setLateMoveReductions(2, 1, 1);
+		gameSearcher.setForwardPruningPolicy(forwardPruningPolicy);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		// E is reduced to a leaf, and scores no more than alpha so is not searched again
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		int[] expectedLeafScores = {7, 6, 3, -1, 8};
+		assertTrue(Arrays.equals(expectedLeafScores, searchProgressListener.getLeafScores()));
+		assertEquals(1, gameSearcher.getSearchStatistics().getReductionCount());
+		assertEquals(0, gameSearcher.getSearchStatistics().getReSearchCount());
+	}
+
+	public void testShouldCutOffNodeWithNullMoveWithByesAllowed() throws Exception {
+		Debug.output("testShouldCutOffNodeWithNullMoveWithByesAllowed");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		SimpleForwardPruningPolicy forwardPruningPolicy = new SimpleForwardPruningPolicy();
+		forwardPruningPolicy.setNullMoveReduction(2, 1);
+		gameSearcher.setForwardPruningPolicy(forwardPruningPolicy);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, gameSearcher.getBestMoveScore());
+		// player 2 passes at C, and the evaluation of C for player 1 is enough to cut it off
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'C'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		assertEquals(1, gameSearcher.getSearchStatistics().getNullMoveCount());
+		assertEquals(1, gameSearcher.getSearchStatistics().getNullMoveCutoffCount());
+	}
+
+	public void testShouldNotTryNullMoveWithByesNotAllowed() throws Exception {
+		Debug.output("testShouldNotTryNullMoveWithByesNotAllowed");
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_NOT_ALLOWED);
+		SimpleForwardPruningPolicy forwardPruningPolicy = new SimpleForwardPruningPolicy();
+		forwardPruningPolicy.setNullMoveReduction(2, 1);
+		gameSearcher.setForwardPruningPolicy(forwardPruningPolicy);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		gameSearcher.findMove(board, null, DEPTH);
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		assertEquals(0, gameSearcher.getSearchStatistics().getNullMoveCount());
+	}
+
+	public void testShouldSearchOnlyFirstMoveWhenRestAreFutile() throws Exception {
+		Debug.output("testShouldSearchOnlyFirstMoveWhenRestAreFutile");
+		board.setState('B');
+		NegascoutSearcher gameSearcher = new NegascoutSearcher(gameContext, null, evaluator, BYE_ALLOWED);
+		SimpleForwardPruningPolicy forwardPruningPolicy = new SimpleForwardPruningPolicy();
+		forwardPruningPolicy.setFutilityMargins(0);
+		gameSearcher.setForwardPruningPolicy(forwardPruningPolicy);
+		gameSearcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (gameSearcher.findMove(board, null, DEPTH));
+		assertEquals('E', move.getPosition().getValue());
+		assertEquals(0, gameSearcher.getBestMoveScore());
+		// L is left out when E is first searched with a null window
+		char[] expectedBranches = {'D', 'H', 'I', 'J', 'E', 'K', 'K', 'L'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+		assertEquals(1, gameSearcher.getSearchStatistics().getFutilityPruneCount());
+		// the evaluation of E to decide that L is futile is counted along with the leaves
+		assertEquals(searchProgressListener.getLeafScores().length + 1, gameSearcher.getEvaluationCount());
+		assertEquals(gameSearcher.getEvaluationCount(), gameSearcher.getSearchStatistics().getLeafCount());
+	}
 }
@@ -60,13 +60,13 @@ public class ObjectPoolTest extends TestCase {
 			objects[i] = pool.checkOut();
 			assertEquals(i + 1, pool.countCheckedOutObjects());
 		}
-		assertEquals(MAX_OBJECTS, pool.checkedOutObjects.size());
+		assertEquals(MAX_OBJECTS, pool.countCheckedOutObjects());
 		for (int i = 0; i < MAX_OBJECTS; i++) {
 			assertTrue(pool.checkIn(objects[i]));
 			assertEquals(MAX_OBJECTS - i - 1, pool.countCheckedOutObjects());
 		}
 		assertEquals(0, pool.countCheckedOutObjects());
-		assertEquals(MAX_OBJECTS, pool.availableObjects.size());
+		assertEquals(MAX_OBJECTS, pool.countAvailableObjects());
 	}
 	
 	public void testShouldPassParametersToPoolableOnCheckoutIfProvided() throws Exception {
@@ -81,4 +81,105 @@ public class ObjectPoolTest extends TestCase {
 		assertTrue(pool.checkIn(fromPool));
 		assertFalse(pool.checkIn(notFromPool));
 	}
+	
+	public void testShouldCreateEmptyCopyOfPoolWithSameMaxObjects() throws Exception {
+		pool.checkOut();
+		ObjectPool copy = new ObjectPool(pool);
+		assertEquals(0, copy.countCheckedOutObjects());
+		for (int i = 0; i < MAX_OBJECTS; i++) {
+			assertTrue(copy.checkOut() instanceof TestPoolable);
+		}
+		try {
+			copy.checkOut();
+			fail("Expected exception not thrown");
+		} catch (ObjectPoolFullException e) {
+			// pass
+		}
+		assertEquals(1, pool.countCheckedOutObjects());
+	}
+	
+	public void testShouldCheckInObjectsByIdentityRatherThanEquality() throws Exception {
+		pool = new ObjectPool(EqualTestPoolable.class, MAX_OBJECTS, INITIAL_CAPACITY);
+		TestPoolable testPoolable1 = (TestPoolable) pool.checkOut();
+		TestPoolable testPoolable2 = (TestPoolable) pool.checkOut();
+		assertEquals(testPoolable1, testPoolable2);
+		assertTrue(pool.checkIn(testPoolable2));
+		assertFalse(pool.checkIn(testPoolable2));
+		assertFalse(pool.checkIn(new EqualTestPoolable()));
+		assertEquals(0, testPoolable1.getDoneCount());
+		assertEquals(1, testPoolable2.getDoneCount());
+		assertTrue(pool.checkIn(testPoolable1));
+		assertEquals(0, pool.countCheckedOutObjects());
+	}
+	
+	public void testShouldReportSizeAndHighWaterMark() throws Exception {
+		Poolable objects[] = new Poolable[3];
+		for (int i = 0; i < objects.length; i++) {
+			objects[i] = pool.checkOut();
+		}
+		for (int i = 0; i < objects.length; i++) {
+			pool.checkIn(objects[i]);
+		}
+		pool.checkOut();
+		assertEquals(3, pool.getSize());
+		assertEquals(3, pool.getHighWaterMark());
+		assertEquals(1, pool.countCheckedOutObjects());
+		assertEquals(2, pool.countAvailableObjects());
+	}
+	
+	public void testShouldCheckInObjectCheckedOutByAnotherThreadAndKeepItAvailableToThisThread() throws Exception {
+		final Poolable objects[] = new Poolable[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				objects[0] = pool.checkOut();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertEquals(1, pool.countCheckedOutObjects());
+		assertTrue(pool.checkIn(objects[0]));
+		assertFalse(pool.checkIn(objects[0]));
+		assertSame(objects[0], pool.checkOut());
+		assertEquals(1, pool.getSize());
+	}
+	
+	public void testShouldKeepAvailableObjectsSeparateForEachThreadUntilThreadEnds() throws Exception {
+		final Poolable objects[] = new Poolable[2];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				objects[0] = pool.checkOut();
+				pool.checkIn(objects[0]);
+			}
+		};
+		thread.start();
+		thread.join();
+		// the state for this thread is created after the other thread has ended, so takes over its available objects
+		assertSame(objects[0], pool.checkOut());
+		thread = new Thread() {
+			@Override
+			public void run() {
+				objects[1] = pool.checkOut();
+			}
+		};
+		thread.start();
+		thread.join();
+		assertNotSame(objects[0], objects[1]);
+		assertEquals(2, pool.getSize());
+	}
+	
+	public static class EqualTestPoolable extends TestPoolable {
+		
+		@Override
+		public boolean equals(Object obj) {
+			// like boards with the same state, all instances are equal
+			return obj instanceof EqualTestPoolable;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 0;
+		}
+	}
 }
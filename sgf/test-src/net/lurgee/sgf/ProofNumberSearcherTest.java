@@ -0,0 +1,125 @@
+/*
+ * @(#)ProofNumberSearcherTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link ProofNumberSearcher}. The games on the test board end at its leaves, where the player that the
+ * {@link TestEvaluator} favours wins.
+ * @author mpatric
+ */
+public class ProofNumberSearcherTest extends TestCase {
+
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final TestPlayer PLAYER2 = TestPlayer.getInstance(2);
+	private static final int DEPTH = 3;
+
+	private TestBoard board;
+	private GameContext gameContext;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {PLAYER1, PLAYER2};
+		ObjectPool testBoardPool = new ObjectPool(TestBoard.class);
+		TestMoveFactory testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('A');
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldProvePositionWon() throws Exception {
+		Debug.output("testShouldProvePositionWon");
+		ProofNumberSearcher searcher = new ProofNumberSearcher(gameContext, null, null);
+		board.setState('C');
+		board.setCurrentPlayer(PLAYER2);
+		assertEquals(ProofNumberSearcher.WON, searcher.prove(board));
+		assertEquals('F', ((TestMove) searcher.getProvenMove()).getPosition().getValue());
+		board.setState('E');
+		board.setCurrentPlayer(PLAYER1);
+		assertEquals(ProofNumberSearcher.WON, searcher.prove(board));
+		assertEquals('K', ((TestMove) searcher.getProvenMove()).getPosition().getValue());
+		assertEquals('E', board.getState());
+		assertEquals(PLAYER1, board.getCurrentPlayer());
+	}
+
+	public void testShouldProvePositionDrawn() throws Exception {
+		Debug.output("testShouldProvePositionDrawn");
+		ProofNumberSearcher searcher = new ProofNumberSearcher(gameContext, null, null);
+		board.setState('B');
+		// every game after D is lost, while the opponent can do no better than a draw after E
+		assertEquals(ProofNumberSearcher.DRAWN, searcher.prove(board));
+		assertEquals('E', ((TestMove) searcher.getProvenMove()).getPosition().getValue());
+	}
+
+	public void testShouldProvePositionLost() throws Exception {
+		Debug.output("testShouldProvePositionLost");
+		ProofNumberSearcher searcher = new ProofNumberSearcher(gameContext, null, null);
+		assertEquals(ProofNumberSearcher.LOST, searcher.prove(board));
+		assertNull(searcher.getProvenMove());
+		assertTrue(searcher.getNodeCount() > 0);
+	}
+
+	public void testShouldProveResultWhenPlayerHasToPass() throws Exception {
+		Debug.output("testShouldProveResultWhenPlayerHasToPass");
+		TestBoard.noMoveSituation = true;
+		ProofNumberSearcher searcher = new ProofNumberSearcher(gameContext, null, null);
+		board.setState('R');
+		board.setCurrentPlayer(PLAYER2);
+		// player 2 passes, and wins whether player 1 plays S or T
+		assertEquals(ProofNumberSearcher.WON, searcher.prove(board));
+		assertNull(searcher.getProvenMove());
+		board.setCurrentPlayer(PLAYER1);
+		assertEquals(ProofNumberSearcher.LOST, searcher.prove(board));
+	}
+
+	public void testShouldGiveUpWhenNodeLimitIsReached() throws Exception {
+		Debug.output("testShouldGiveUpWhenNodeLimitIsReached");
+		ProofNumberSearcher searcher = new ProofNumberSearcher(gameContext, null, null);
+		searcher.setNodeLimit(2);
+		assertEquals(ProofNumberSearcher.UNKNOWN, searcher.prove(board));
+		assertNull(searcher.getProvenMove());
+		assertEquals('A', board.getState());
+		try {
+			searcher.setNodeLimit(0);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	public void testShouldFindMoveWithFallbackSearcherUnlessPositionIsProven() throws Exception {
+		Debug.output("testShouldFindMoveWithFallbackSearcherUnlessPositionIsProven");
+		NegascoutSearcher negascoutSearcher = new NegascoutSearcher(gameContext, null, new TestEvaluator(), true);
+		ProofNumberSearcher searcher = new ProofNumberSearcher(gameContext, null, negascoutSearcher);
+		TestMove move = (TestMove) searcher.findMove(board, null, DEPTH);
+		assertEquals(ProofNumberSearcher.LOST, searcher.getResult());
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		board.setState('E');
+		move = (TestMove) searcher.findMove(board, null, DEPTH);
+		assertEquals(ProofNumberSearcher.WON, searcher.getResult());
+		assertEquals('K', move.getPosition().getValue());
+		assertEquals(ProofNumberSearcher.WIN_SCORE, searcher.getBestMoveScore());
+		searcher.setMinMovesMade(1);
+		move = (TestMove) searcher.findMove(board, null, DEPTH);
+		assertEquals(ProofNumberSearcher.UNKNOWN, searcher.getResult());
+		assertEquals(0, searcher.getNodeCount());
+		assertEquals('K', move.getPosition().getValue());
+	}
+}
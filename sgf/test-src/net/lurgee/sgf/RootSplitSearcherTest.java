@@ -0,0 +1,163 @@
+/*
+ * @(#)RootSplitSearcherTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link RootSplitSearcher}.
+ * @author mpatric
+ */
+public class RootSplitSearcherTest extends TestCase {
+
+	private static final boolean BYE_ALLOWED = true;
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final int TREE_DEPTH = 3;
+	private static final int THREAD_COUNT = 2;
+
+	private TestEvaluator evaluator = new TestEvaluator();
+	private TestBoard board;
+	private TestSearchProgressListener searchProgressListener;
+	private GameContext gameContext;
+	private RootSplitSearcher searcher;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {TestPlayer.getInstance(1), TestPlayer.getInstance(2)};
+		ObjectPool testBoardPool = new ObjectPool(TestBoard.class);
+		TestMoveFactory testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('A');
+		searchProgressListener = new TestSearchProgressListener();
+		searcher = new RootSplitSearcher(gameContext, null, evaluator, BYE_ALLOWED, THREAD_COUNT);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		searcher.shutdown();
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldFindBestMove() throws Exception {
+		Debug.output("testShouldFindBestMove");
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		Debug.output("BEST move = " + move.getPosition() + " score = " + searcher.getBestMoveScore() + " player = " + PLAYER1);
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+	}
+
+	public void testShouldFindBestMoveWithOneThread() throws Exception {
+		Debug.output("testShouldFindBestMoveWithOneThread");
+		searcher = new RootSplitSearcher(gameContext, null, evaluator, BYE_ALLOWED, 1);
+		searcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+	}
+
+	public void testShouldFindBestMoveWithABoardWithANoMoveSituationWithByesAllowed() throws Exception {
+		Debug.output("testShouldFindBestMoveWithABoardWithANoMoveSituationWithByesAllowed");
+		TestBoard.noMoveSituation = true;
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('R', move.getPosition().getValue());
+		assertEquals(-6, searcher.getBestMoveScore());
+	}
+
+	public void testShouldFindSameBestMoveSearchingInPlace() throws Exception {
+		Debug.output("testShouldFindSameBestMoveSearchingInPlace");
+		searcher.setSearchInPlace(true);
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertEquals('A', board.getState());
+	}
+
+	public void testShouldReportSearchProgressForAllThreads() throws Exception {
+		Debug.output("testShouldReportSearchProgressForAllThreads");
+		searcher.addSearchProgressListener(searchProgressListener);
+		searcher.findMove(board, null, TREE_DEPTH);
+		assertEquals(1, searchProgressListener.getLastIteration());
+		assertEquals(TREE_DEPTH, searchProgressListener.getLastIterationEndDepth());
+		char[] branches = searchProgressListener.getBranches();
+		Arrays.sort(branches);
+		assertEquals('B', branches[0]);
+		assertEquals('C', branches[1]);
+		assertTrue(searchProgressListener.getLeafScores().length > 0);
+		assertEquals(searchProgressListener.getLeafScores().length, searcher.getEvaluationCount());
+	}
+
+	public void testShouldCollectSearchStatisticsFromAllThreads() throws Exception {
+		Debug.output("testShouldCollectSearchStatisticsFromAllThreads");
+		searcher.addSearchProgressListener(searchProgressListener);
+		searcher.findMove(board, null, TREE_DEPTH);
+		SearchStatistics searchStatistics = searcher.getSearchStatistics();
+		assertEquals(searcher.getEvaluationCount(), searchStatistics.getLeafCount());
+		assertEquals(searchProgressListener.getBranches().length + 1, searchStatistics.getNodeCount());
+		assertEquals(1, searchStatistics.getNodeCount(0));
+	}
+
+	public void testShouldRankRootMovesOnCallingThreadInMoveOrder() throws Exception {
+		Debug.output("testShouldRankRootMovesOnCallingThreadInMoveOrder");
+		final List<Character> rankedMoves = new ArrayList<Character>();
+		final List<Thread> rankingThreads = new ArrayList<Thread>();
+		TestMoveRanker moveRanker = new TestMoveRanker() {
+			@Override
+			public synchronized void onNodeEvaluation(Move move, AbstractBoard board, int score, Player player, int depth) {
+				super.onNodeEvaluation(move, board, score, player, depth);
+				if (depth == 1) {
+					rankedMoves.add(((TestMove) move).getPosition().getValue());
+					rankingThreads.add(Thread.currentThread());
+				}
+			}
+		};
+		searcher.setOrderOfMovesIsImportant(false);
+		searcher.findMove(board, moveRanker, TREE_DEPTH);
+		assertEquals(Arrays.asList('C', 'B'), rankedMoves);
+		for (Thread thread : rankingThreads) {
+			assertSame(Thread.currentThread(), thread);
+		}
+	}
+
+	public void testShouldWorkWithIterativeSearcher() throws Exception {
+		Debug.output("testShouldWorkWithIterativeSearcher");
+		IterativeSearcher iterativeSearcher = new IterativeSearcher(searcher, null);
+		KillerHeuristicMoveRanker moveRanker = new KillerHeuristicMoveRanker(new TestMoveRanker(), 2);
+		TestMove move = (TestMove) (iterativeSearcher.findMove(board, moveRanker, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, iterativeSearcher.getBestMoveScore());
+	}
+
+	public void testShouldEndSearchIfThresholdReached() throws Exception {
+		Debug.output("testShouldEndSearchIfThresholdReached");
+		TestBoard.infiniteGameTree = true;
+		searcher.addSearchProgressListener(searchProgressListener);
+		try {
+			searcher.findMove(board, null, 14, 20);
+			fail("Expected exception not thrown");
+		} catch (SearchThresholdReachedException e) {
+			// pass
+			assertEquals(1, searchProgressListener.getLastIteration());
+			assertEquals(0, searchProgressListener.getLastCompleteIteration());
+			// the threads reserve evaluations from a shared count, so together they do no more than the threshold
+			assertTrue(searcher.getEvaluationCount() <= 20);
+			assertTrue(searcher.getEvaluationCount() > 20 - THREAD_COUNT);
+		}
+	}
+}
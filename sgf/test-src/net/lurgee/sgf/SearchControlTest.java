@@ -0,0 +1,88 @@
+/*
+ * @(#)SearchControlTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link SearchControl}.
+ * @author mpatric
+ */
+public class SearchControlTest extends TestCase {
+
+	public void testShouldBeCancelledWhenParentIsCancelled() throws Exception {
+		Debug.output("testShouldBeCancelledWhenParentIsCancelled");
+		SearchControl parent = new SearchControl();
+		SearchControl child = new SearchControl();
+		child.setParent(parent);
+		parent.cancel();
+		assertTrue(child.isCancelled());
+		child.reset();
+		// only the child's own flag is cleared, so the search stays cancelled
+		assertTrue(child.isCancelled());
+		parent.reset();
+		assertFalse(child.isCancelled());
+		child.cancel();
+		assertFalse(parent.isCancelled());
+	}
+
+	public void testShouldUseEarliestDeadlineOfAncestors() throws Exception {
+		Debug.output("testShouldUseEarliestDeadlineOfAncestors");
+		SearchControl grandparent = new SearchControl();
+		SearchControl parent = new SearchControl();
+		SearchControl child = new SearchControl();
+		parent.setParent(grandparent);
+		child.setParent(parent);
+		assertEquals(SearchControl.NO_DEADLINE, child.getDeadline());
+		assertFalse(child.isDeadlineReached());
+		grandparent.setDeadline(2000);
+		child.setDeadline(3000);
+		assertEquals(2000, child.getDeadline());
+		assertEquals(3000, child.getOwnDeadline());
+		parent.setDeadline(1000);
+		assertEquals(1000, child.getDeadline());
+		assertTrue(child.isDeadlineReached());
+	}
+
+	public void testShouldNotAllowControlToBeItsOwnAncestor() throws Exception {
+		Debug.output("testShouldNotAllowControlToBeItsOwnAncestor");
+		SearchControl parent = new SearchControl();
+		SearchControl child = new SearchControl();
+		child.setParent(parent);
+		try {
+			parent.setParent(child);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	public void testShouldNotReserveMoreEvaluationsThanThreshold() throws Exception {
+		Debug.output("testShouldNotReserveMoreEvaluationsThanThreshold");
+		SearchControl control = new SearchControl();
+		control.setEvaluationCount(10);
+		int reserved = 0;
+		int reservation;
+		int reservations = 0;
+		while ((reservation = control.reserveEvaluations(1000)) > 0) {
+			assertTrue(reservation <= 64);
+			reserved += reservation;
+			reservations++;
+		}
+		assertEquals(990, reserved);
+		assertEquals(1000, control.getEvaluationCount());
+		// reservations get smaller as the threshold gets closer
+		assertTrue(reservations > 990 / 64 + 1);
+		control.returnEvaluations(5);
+		control.addEvaluations(2);
+		assertEquals(997, control.getEvaluationCount());
+		assertEquals(3, control.reserveEvaluations(1000) + control.reserveEvaluations(1000) + control.reserveEvaluations(1000));
+		assertEquals(0, control.reserveEvaluations(1000));
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * @(#)SearchStatisticsTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link SearchStatistics}.
+ * @author mpatric
+ */
+public class SearchStatisticsTest extends TestCase {
+
+	public void testShouldCountNodesLeavesAndCutoffsByPly() throws Exception {
+		Debug.output("testShouldCountNodesLeavesAndCutoffsByPly");
+		SearchStatistics searchStatistics = new SearchStatistics();
+		searchStatistics.countNode(0);
+		searchStatistics.countNode(1);
+		searchStatistics.countLeaf();
+		searchStatistics.countNode(1);
+		searchStatistics.countLeaf();
+		searchStatistics.countCutoff(0);
+		assertEquals(3, searchStatistics.getNodeCount());
+		assertEquals(2, searchStatistics.getLeafCount());
+		assertEquals(1, searchStatistics.getCutoffCount());
+		assertEquals(2, searchStatistics.getPlyCount());
+		assertEquals(1, searchStatistics.getNodeCount(0));
+		assertEquals(2, searchStatistics.getNodeCount(1));
+		assertEquals(0, searchStatistics.getNodeCount(2));
+		assertEquals(1, searchStatistics.getCutoffCount(0));
+		assertEquals(0, searchStatistics.getCutoffCount(1));
+	}
+
+	public void testShouldCountAtPliesBeyondInitialSize() throws Exception {
+		Debug.output("testShouldCountAtPliesBeyondInitialSize");
+		SearchStatistics searchStatistics = new SearchStatistics();
+		for (int ply = 0; ply < 40; ply++) {
+			searchStatistics.countNode(ply);
+			searchStatistics.countCutoff(ply);
+		}
+		assertEquals(40, searchStatistics.getPlyCount());
+		assertEquals(1, searchStatistics.getNodeCount(39));
+		assertEquals(1, searchStatistics.getCutoffCount(39));
+		assertEquals(40, searchStatistics.getNodeCount());
+	}
+
+	public void testShouldResetCounts() throws Exception {
+		Debug.output("testShouldResetCounts");
+		SearchStatistics searchStatistics = new SearchStatistics();
+		searchStatistics.countNode(0);
+		searchStatistics.countNode(3);
+		searchStatistics.countLeaf();
+		searchStatistics.countCutoff(3);
+		searchStatistics.reset();
+		assertEquals(0, searchStatistics.getNodeCount());
+		assertEquals(0, searchStatistics.getLeafCount());
+		assertEquals(0, searchStatistics.getCutoffCount());
+		assertEquals(0, searchStatistics.getPlyCount());
+		searchStatistics.countNode(1);
+		assertEquals(0, searchStatistics.getNodeCount(0));
+		assertEquals(1, searchStatistics.getNodeCount(1));
+		assertEquals(0, searchStatistics.getCutoffCount(1));
+		assertEquals(0, searchStatistics.getNodeCount(3));
+	}
+
+	public void testShouldAddCounts() throws Exception {
+		Debug.output("testShouldAddCounts");
+		SearchStatistics searchStatistics = new SearchStatistics();
+		searchStatistics.countNode(0);
+		SearchStatistics otherSearchStatistics = new SearchStatistics();
+		otherSearchStatistics.countNode(0);
+		otherSearchStatistics.countNode(20);
+		otherSearchStatistics.countLeaf();
+		otherSearchStatistics.countCutoff(20);
+		searchStatistics.add(otherSearchStatistics);
+		assertEquals(3, searchStatistics.getNodeCount());
+		assertEquals(1, searchStatistics.getLeafCount());
+		assertEquals(1, searchStatistics.getCutoffCount());
+		assertEquals(21, searchStatistics.getPlyCount());
+		assertEquals(2, searchStatistics.getNodeCount(0));
+		assertEquals(1, searchStatistics.getNodeCount(20));
+		assertEquals(1, searchStatistics.getCutoffCount(20));
+	}
+}
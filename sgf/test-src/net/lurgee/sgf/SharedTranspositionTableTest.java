@@ -0,0 +1,132 @@
+/*
+ * @(#)SharedTranspositionTableTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link SharedTranspositionTable}.
+ * @author mpatric
+ */
+public class SharedTranspositionTableTest extends TestCase {
+
+	private static final int TABLE_SIZE = 16;
+	private static final int SEARCH_DEPTH = 5;
+	
+	private SharedTranspositionTable sharedTranspositionTable;
+	private TranspositionTable transpositionTable;
+	
+	@Override
+	protected void setUp() throws Exception {
+		sharedTranspositionTable = new SharedTranspositionTable(TABLE_SIZE);
+		transpositionTable = sharedTranspositionTable.newView();
+	}
+	
+	public void testShouldRoundSizeUpToPowerOfTwo() throws Exception {
+		Debug.output("testShouldRoundSizeUpToPowerOfTwo");
+		assertEquals(16, new SharedTranspositionTable(9).getSize());
+		assertEquals(16, transpositionTable.getSize());
+	}
+	
+	public void testShouldFindStoredEntryAndCountHitsAndMisses() throws Exception {
+		Debug.output("testShouldFindStoredEntryAndCountHitsAndMisses");
+		TestMove move = new TestMove('B');
+		assertEquals(-1, transpositionTable.find(35));
+		transpositionTable.store(35, 7, TranspositionTable.LOWER_BOUND, 3, SEARCH_DEPTH, move);
+		int slot = transpositionTable.find(35);
+		assertTrue(slot >= 0);
+		assertEquals(7, transpositionTable.getScore(slot));
+		assertEquals(TranspositionTable.LOWER_BOUND, transpositionTable.getType(slot));
+		assertEquals(3, transpositionTable.getDepth(slot));
+		assertEquals(move, transpositionTable.getMove(slot));
+		assertEquals(-1, transpositionTable.find(35 + TABLE_SIZE));
+		assertEquals(1, transpositionTable.getHits());
+		assertEquals(2, transpositionTable.getMisses());
+		assertEquals(1, transpositionTable.getStores());
+		assertEquals(1, sharedTranspositionTable.countEntries());
+	}
+	
+	public void testShouldStoreNegativeScores() throws Exception {
+		Debug.output("testShouldStoreNegativeScores");
+		transpositionTable.store(35, -100000, TranspositionTable.UPPER_BOUND, 1, SEARCH_DEPTH, null);
+		int slot = transpositionTable.find(35);
+		assertEquals(-100000, transpositionTable.getScore(slot));
+		assertEquals(TranspositionTable.UPPER_BOUND, transpositionTable.getType(slot));
+	}
+	
+	public void testShouldShareEntriesBetweenViews() throws Exception {
+		Debug.output("testShouldShareEntriesBetweenViews");
+		TranspositionTable otherTranspositionTable = sharedTranspositionTable.newView();
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		int slot = otherTranspositionTable.find(35);
+		assertTrue(slot >= 0);
+		assertEquals(7, otherTranspositionTable.getScore(slot));
+		assertTrue(otherTranspositionTable.isScoreUsable(slot, 3, SEARCH_DEPTH));
+		assertEquals(1, otherTranspositionTable.getHits());
+		assertEquals(0, transpositionTable.getHits());
+	}
+	
+	public void testShouldKeepDeeperEntryWhenPositionsShareASlot() throws Exception {
+		Debug.output("testShouldKeepDeeperEntryWhenPositionsShareASlot");
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 2, SEARCH_DEPTH, null);
+		assertTrue(transpositionTable.find(35) >= 0);
+		assertEquals(-1, transpositionTable.find(35 + TABLE_SIZE));
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		assertEquals(-1, transpositionTable.find(35));
+		assertTrue(transpositionTable.find(35 + TABLE_SIZE) >= 0);
+	}
+	
+	public void testShouldOnlyUseMovesFromEntriesStoredInEarlierSearches() throws Exception {
+		Debug.output("testShouldOnlyUseMovesFromEntriesStoredInEarlierSearches");
+		TestMove move = new TestMove('C');
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 5, SEARCH_DEPTH, move);
+		transpositionTable.newSearch();
+		assertTrue(transpositionTable.isScoreUsable(transpositionTable.find(35), 1, SEARCH_DEPTH));
+		sharedTranspositionTable.newSearch();
+		int slot = transpositionTable.find(35);
+		assertFalse(transpositionTable.isScoreUsable(slot, 1, SEARCH_DEPTH));
+		assertEquals(move, transpositionTable.getMove(slot));
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 1, SEARCH_DEPTH, null);
+		assertTrue(transpositionTable.find(35 + TABLE_SIZE) >= 0);
+	}
+	
+	public void testShouldKeepMoveWhenStoringSamePositionWithoutMove() throws Exception {
+		Debug.output("testShouldKeepMoveWhenStoringSamePositionWithoutMove");
+		TestMove move = new TestMove('D');
+		transpositionTable.store(35, 7, TranspositionTable.LOWER_BOUND, 2, SEARCH_DEPTH, move);
+		transpositionTable.store(35, 4, TranspositionTable.UPPER_BOUND, 3, SEARCH_DEPTH, null);
+		int slot = transpositionTable.find(35);
+		assertEquals(4, transpositionTable.getScore(slot));
+		assertEquals(move, transpositionTable.getMove(slot));
+	}
+	
+	public void testShouldOnlyUseScoresFromSearchesToTheSameDepth() throws Exception {
+		Debug.output("testShouldOnlyUseScoresFromSearchesToTheSameDepth");
+		TestMove move = new TestMove('D');
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, move);
+		int slot = transpositionTable.find(35);
+		assertTrue(transpositionTable.isScoreUsable(slot, 3, SEARCH_DEPTH));
+		assertFalse(transpositionTable.isScoreUsable(slot, 3, SEARCH_DEPTH + 1));
+		assertEquals(move, transpositionTable.getMove(slot));
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 1, SEARCH_DEPTH + 1, null);
+		assertEquals(-1, transpositionTable.find(35));
+		assertTrue(transpositionTable.find(35 + TABLE_SIZE) >= 0);
+	}
+	
+	public void testShouldClearAllEntries() throws Exception {
+		Debug.output("testShouldClearAllEntries");
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		transpositionTable.store(36, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		assertEquals(2, sharedTranspositionTable.countEntries());
+		sharedTranspositionTable.clear();
+		assertEquals(0, sharedTranspositionTable.countEntries());
+		assertEquals(-1, transpositionTable.find(35));
+	}
+}
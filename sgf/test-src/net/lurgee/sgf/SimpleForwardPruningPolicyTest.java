@@ -0,0 +1,78 @@
+/*
+ * @(#)SimpleForwardPruningPolicyTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link SimpleForwardPruningPolicy}.
+ * @author mpatric
+ */
+public class SimpleForwardPruningPolicyTest extends TestCase {
+
+	private SimpleForwardPruningPolicy forwardPruningPolicy;
+
+	@Override
+	protected void setUp() throws Exception {
+		forwardPruningPolicy = new SimpleForwardPruningPolicy();
+	}
+
+	public void testShouldNotPruneUntilConfigured() throws Exception {
+		Debug.output("testShouldNotPruneUntilConfigured");
+		for (int d = 1; d < 10; d++) {
+			assertEquals(0, forwardPruningPolicy.getReduction(null, null, 5, d));
+			assertEquals(ForwardPruningPolicy.NO_FUTILITY_PRUNING, forwardPruningPolicy.getFutilityMargin(null, d));
+			assertEquals(0, forwardPruningPolicy.getNullMoveReduction(null, d));
+		}
+	}
+
+	public void testShouldReduceLateMovesAtNodesSearchedDeeplyEnough() throws Exception {
+		Debug.output("testShouldReduceLateMovesAtNodesSearchedDeeplyEnough");
+		forwardPruningPolicy.setLateMoveReductions(3, 2, 1);
+		assertEquals(0, forwardPruningPolicy.getReduction(null, null, 1, 3));
+		assertEquals(1, forwardPruningPolicy.getReduction(null, null, 2, 3));
+		assertEquals(0, forwardPruningPolicy.getReduction(null, null, 2, 2));
+		assertEquals(1, forwardPruningPolicy.getReduction(null, null, 9, 8));
+	}
+
+	public void testShouldUseFutilityMarginForDepth() throws Exception {
+		Debug.output("testShouldUseFutilityMarginForDepth");
+		forwardPruningPolicy.setFutilityMargins(10, 25);
+		assertEquals(10, forwardPruningPolicy.getFutilityMargin(null, 1));
+		assertEquals(25, forwardPruningPolicy.getFutilityMargin(null, 2));
+		assertEquals(ForwardPruningPolicy.NO_FUTILITY_PRUNING, forwardPruningPolicy.getFutilityMargin(null, 3));
+	}
+
+	public void testShouldReduceNullMovesAtNodesSearchedDeeplyEnough() throws Exception {
+		Debug.output("testShouldReduceNullMovesAtNodesSearchedDeeplyEnough");
+		forwardPruningPolicy.setNullMoveReduction(3, 2);
+		assertEquals(0, forwardPruningPolicy.getNullMoveReduction(null, 2));
+		assertEquals(2, forwardPruningPolicy.getNullMoveReduction(null, 3));
+	}
+
+	public void testShouldNotAllowFirstMoveToBeReduced() throws Exception {
+		Debug.output("testShouldNotAllowFirstMoveToBeReduced");
+		try {
+			forwardPruningPolicy.setLateMoveReductions(3, 0, 1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	public void testShouldNotAllowNegativeFutilityMargins() throws Exception {
+		Debug.output("testShouldNotAllowNegativeFutilityMargins");
+		try {
+			forwardPruningPolicy.setFutilityMargins(10, -1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+}
@@ -29,12 +29,15 @@ import java.util.List;
  * 
  * @author mpatric
  */
-public class TestBoard extends AbstractBoard {
+public class TestBoard extends AbstractUndoableBoard implements StagedMoveGenerationBoard, GameResultBoard {
 
 	private static final char START_POSITION_VALUE = 'A';
 	
 	public static boolean noMoveSituation = false;
 	public static boolean infiniteGameTree = false;
+	public static boolean stagedMoveGeneration = false;
+	public static String noisyMoves = "";
+	public static int validMovesGeneratedCount = 0;
 	
 	private char state = START_POSITION_VALUE;
 	private boolean makeMoveCalled = false;
@@ -78,7 +81,7 @@ public class TestBoard extends AbstractBoard {
 	}
 
 	public boolean canMove() {
-		return getValidMoves(null, 1).size() > 0;
+		return generateValidMoves(null, 1).size() > 0;
 	}
 
 	public int makeMove(Move move, List<Position> changes, boolean searching) {
@@ -90,6 +93,11 @@ public class TestBoard extends AbstractBoard {
 
 	@Override
 	public List<Move> getValidMoves(MoveRanker moveRanker, int depth) {
+		validMovesGeneratedCount++;
+		return generateValidMoves(moveRanker, depth);
+	}
+	
+	private List<Move> generateValidMoves(MoveRanker moveRanker, int depth) {
 		MoveList moves = gameContext.createMoveList(4);
 		switch (state) {
 			case 'A':
@@ -169,9 +177,53 @@ public class TestBoard extends AbstractBoard {
 	public int countMovesMade() {
 		return movesPlayed;
 	}
+
+	@Override
+	public long getPositionHash() {
+		return mixPositionHash(((TestPlayer) getCurrentPlayer()).getNumber(), state);
+	}
+	
+	@Override
+	public UndoRecord createUndoRecord() {
+		return new TestUndoRecord();
+	}
+	
+	@Override
+	protected void saveState(Move move, UndoRecord undoRecord) {
+		TestUndoRecord testUndoRecord = (TestUndoRecord) undoRecord;
+		testUndoRecord.state = state;
+		testUndoRecord.movesPlayed = movesPlayed;
+	}
+	
+	@Override
+	protected void restoreState(UndoRecord undoRecord) {
+		TestUndoRecord testUndoRecord = (TestUndoRecord) undoRecord;
+		state = testUndoRecord.state;
+		movesPlayed = testUndoRecord.movesPlayed;
+	}
+	
+	public boolean isStagedMoveGenerationSupported() {
+		return stagedMoveGeneration;
+	}
 	
 	public boolean isValidMove(Move move) {
-		return true;
+		return generateValidMoves(null, 1).contains(move);
+	}
+	
+	@Override
+	public boolean isNoisyMove(Move move) {
+		return noisyMoves.indexOf(((TestMove) move).getPosition().getValue()) >= 0;
+	}
+	
+	public Player getWinner() {
+		int score = new TestEvaluator().score(null, this, 0, 0);
+		TestPlayer player = (TestPlayer) getCurrentPlayer();
+		if (score > 0) {
+			return player;
+		} else if (score < 0) {
+			return TestPlayer.getInstance(3 - player.getNumber());
+		}
+		return null;
 	}
 	
 	@Override
@@ -184,4 +236,9 @@ public class TestBoard extends AbstractBoard {
 	public String toString() {
 		return "Board " + state;
 	}
+	
+	private static class TestUndoRecord extends UndoRecord {
+		private char state;
+		private int movesPlayed;
+	}
 }
@@ -25,7 +25,20 @@ package net.lurgee.sgf;
  * 
  * @author mpatric
  */
-public class TestEvaluator implements Evaluator {
+public class TestEvaluator implements BatchEvaluator {
+
+	private int batchCount = 0;
+
+	public int getBatchCount() {
+		return batchCount;
+	}
+
+	public void scoreBatch(AbstractBoard startBoard, AbstractBoard[] boards, int count, int currentDepth, int searchDepth, int[] scores) {
+		batchCount++;
+		for (int i = 0; i < count; i++) {
+			scores[i] = score(startBoard, boards[i], currentDepth, searchDepth);
+		}
+	}
 
 	public int score(AbstractBoard startBoard, AbstractBoard board, int currentDepth, int searchDepth) {
 		Player player = board.getCurrentPlayer();
@@ -24,6 +24,10 @@ public class TestMove implements Move {
 		return position;
 	}
 	
+	public int getId() {
+		return position.getValue();
+	}
+	
 	@Override
 	public int hashCode() {
 		final int prime = 31;
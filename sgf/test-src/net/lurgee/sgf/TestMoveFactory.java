@@ -25,4 +25,12 @@ public class TestMoveFactory implements MoveFactory {
 			throw new IllegalArgumentException("Cannot convert string to a TestMove");
 		}
 	}
+
+	public Move createMoveFromId(int id) {
+		return new TestMove((char) id);
+	}
+
+	public int getMoveIdCount() {
+		return Byte.MAX_VALUE + 1;
+	}
 }
@@ -31,7 +31,7 @@ public class TestMoveRanker implements MoveRanker {
 		this.backwards = backwards;
 	}
 
-	public int getRank(Move move, AbstractBoard board, int depth) {
+	public synchronized int getRank(Move move, AbstractBoard board, int depth) {
 		int multiplier;
 		if (backwards) {
 			multiplier = 1;
@@ -83,7 +83,7 @@ public class TestMoveRanker implements MoveRanker {
 		return ArrayUtils.characterArrayListToArray(moves);
 	}
 	
-	public void onNodeEvaluation(Move move, AbstractBoard board, int score, Player player, int depth) {
+	public synchronized void onNodeEvaluation(Move move, AbstractBoard board, int score, Player player, int depth) {
 		nodes++;
 	}
 
@@ -26,6 +26,10 @@ public class TestSearchProgressListener implements SearchProgressListener {
 	private int lastIterationEndDepth = 0;	
 	private int lastCompleteIteration = 0;
 	private int lastCompleteIterationEndDepth = 0;
+	private long lastAggregateNodeCount = 0;
+	private int failLowCount = 0;
+	private int failHighCount = 0;
+	private List<Move> lastPrincipalVariation = null;
 	
 	public char[] getBranches() {
 		return ArrayUtils.characterArrayListToArray(branches);
@@ -63,20 +67,37 @@ public class TestSearchProgressListener implements SearchProgressListener {
 		return lastCompleteIterationEndDepth;
 	}
 	
+	public long getLastAggregateNodeCount() {
+		return lastAggregateNodeCount;
+	}
+	
+	public int getFailLowCount() {
+		return failLowCount;
+	}
+	
+	public int getFailHighCount() {
+		return failHighCount;
+	}
+	
+	public List<Move> getLastPrincipalVariation() {
+		return lastPrincipalVariation;
+	}
+	
 	public void onIterationStart(int iteration) {
 		iterations.add(iteration);
 		Debug.output(0, "ITERATION " + iteration + " START");
 	}
 	
-	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached) {
+	public void onIterationEnd(int iteration, Move move, int score, int depth, boolean thresholdReached, List<Move> principalVariation) {
 		lastIteration = iteration;
 		lastIterationEndDepth = depth;
+		lastPrincipalVariation = principalVariation;
 		if (thresholdReached) {
 			Debug.output(0, "ITERATION " + iteration + " THRESHOLD REACHED");
 		} else {
 			lastCompleteIteration = iteration;
 			lastCompleteIterationEndDepth = depth;
-			Debug.output(0, "ITERATION " + iteration + " END move = " + move + " score = " + score);
+			Debug.output(0, "ITERATION " + iteration + " END move = " + move + " score = " + score + " pv = " + principalVariation);
 		}
 	}
 
@@ -95,4 +116,19 @@ public class TestSearchProgressListener implements SearchProgressListener {
 		leafDepths.add(depth);
 		Debug.output(depth + 2, "LEAF score = " + score + " player = " + player + " depth = " + depth);
 	}
+
+	public void onAggregateNodeCount(int iteration, long nodeCount) {
+		lastAggregateNodeCount = nodeCount;
+		Debug.output(0, "ITERATION " + iteration + " NODES " + nodeCount);
+	}
+
+	public void onFailLow(int iteration, int alpha, int beta) {
+		failLowCount++;
+		Debug.output(0, "ITERATION " + iteration + " FAIL LOW alpha = " + alpha + " beta = " + beta);
+	}
+
+	public void onFailHigh(int iteration, int alpha, int beta) {
+		failHighCount++;
+		Debug.output(0, "ITERATION " + iteration + " FAIL HIGH alpha = " + alpha + " beta = " + beta);
+	}
 }
@@ -0,0 +1,121 @@
+/*
+ * @(#)TranspositionTableTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link TranspositionTable}.
+ * @author mpatric
+ */
+public class TranspositionTableTest extends TestCase {
+
+	private static final int TABLE_SIZE = 16;
+	private static final int SEARCH_DEPTH = 5;
+	
+	private TranspositionTable transpositionTable;
+	
+	@Override
+	protected void setUp() throws Exception {
+		transpositionTable = new TranspositionTable(TABLE_SIZE);
+	}
+	
+	public void testShouldRoundSizeUpToPowerOfTwo() throws Exception {
+		Debug.output("testShouldRoundSizeUpToPowerOfTwo");
+		assertEquals(16, new TranspositionTable(9).getSize());
+		assertEquals(16, new TranspositionTable(16).getSize());
+		assertEquals(1, new TranspositionTable(1).getSize());
+	}
+	
+	public void testShouldFindStoredEntryAndCountHitsAndMisses() throws Exception {
+		Debug.output("testShouldFindStoredEntryAndCountHitsAndMisses");
+		TestMove move = new TestMove('B');
+		assertEquals(-1, transpositionTable.find(35));
+		transpositionTable.store(35, 7, TranspositionTable.LOWER_BOUND, 3, SEARCH_DEPTH, move);
+		int slot = transpositionTable.find(35);
+		assertTrue(slot >= 0);
+		assertEquals(7, transpositionTable.getScore(slot));
+		assertEquals(TranspositionTable.LOWER_BOUND, transpositionTable.getType(slot));
+		assertEquals(3, transpositionTable.getDepth(slot));
+		assertEquals(move, transpositionTable.getMove(slot));
+		assertEquals(-1, transpositionTable.find(35 + TABLE_SIZE));
+		assertEquals(1, transpositionTable.getHits());
+		assertEquals(2, transpositionTable.getMisses());
+		assertEquals(1, transpositionTable.getStores());
+		assertEquals(1, transpositionTable.countEntries());
+	}
+	
+	public void testShouldOnlyUseScoresSearchedToSufficientDepth() throws Exception {
+		Debug.output("testShouldOnlyUseScoresSearchedToSufficientDepth");
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		int slot = transpositionTable.find(35);
+		assertTrue(transpositionTable.isScoreUsable(slot, 2, SEARCH_DEPTH));
+		assertTrue(transpositionTable.isScoreUsable(slot, 3, SEARCH_DEPTH));
+		assertFalse(transpositionTable.isScoreUsable(slot, 4, SEARCH_DEPTH));
+	}
+	
+	public void testShouldKeepDeeperEntryWhenPositionsShareASlot() throws Exception {
+		Debug.output("testShouldKeepDeeperEntryWhenPositionsShareASlot");
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 2, SEARCH_DEPTH, null);
+		assertTrue(transpositionTable.find(35) >= 0);
+		assertEquals(-1, transpositionTable.find(35 + TABLE_SIZE));
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		assertEquals(-1, transpositionTable.find(35));
+		assertTrue(transpositionTable.find(35 + TABLE_SIZE) >= 0);
+	}
+	
+	public void testShouldOnlyUseMovesFromEntriesStoredInEarlierSearches() throws Exception {
+		Debug.output("testShouldOnlyUseMovesFromEntriesStoredInEarlierSearches");
+		TestMove move = new TestMove('C');
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 5, SEARCH_DEPTH, move);
+		transpositionTable.newSearch();
+		int slot = transpositionTable.find(35);
+		assertFalse(transpositionTable.isScoreUsable(slot, 1, SEARCH_DEPTH));
+		assertEquals(move, transpositionTable.getMove(slot));
+		transpositionTable.store(35, 2, TranspositionTable.UPPER_BOUND, 1, SEARCH_DEPTH, null);
+		slot = transpositionTable.find(35);
+		assertTrue(transpositionTable.isScoreUsable(slot, 1, SEARCH_DEPTH));
+		assertEquals(move, transpositionTable.getMove(slot));
+	}
+	
+	public void testShouldReplaceDeeperEntryFromEarlierSearch() throws Exception {
+		Debug.output("testShouldReplaceDeeperEntryFromEarlierSearch");
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 5, SEARCH_DEPTH, null);
+		transpositionTable.newSearch();
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 1, SEARCH_DEPTH, null);
+		assertEquals(-1, transpositionTable.find(35));
+		assertTrue(transpositionTable.find(35 + TABLE_SIZE) >= 0);
+	}
+	
+	public void testShouldOnlyUseScoresFromSearchesToTheSameDepth() throws Exception {
+		Debug.output("testShouldOnlyUseScoresFromSearchesToTheSameDepth");
+		TestMove move = new TestMove('D');
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, move);
+		int slot = transpositionTable.find(35);
+		assertTrue(transpositionTable.isScoreUsable(slot, 3, SEARCH_DEPTH));
+		assertFalse(transpositionTable.isScoreUsable(slot, 3, SEARCH_DEPTH + 1));
+		assertEquals(move, transpositionTable.getMove(slot));
+		transpositionTable.store(35 + TABLE_SIZE, 8, TranspositionTable.EXACT, 1, SEARCH_DEPTH + 1, null);
+		assertEquals(-1, transpositionTable.find(35));
+		assertTrue(transpositionTable.find(35 + TABLE_SIZE) >= 0);
+	}
+	
+	public void testShouldRemoveAllEntriesWhenCleared() throws Exception {
+		Debug.output("testShouldRemoveAllEntriesWhenCleared");
+		transpositionTable.store(35, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		transpositionTable.store(36, 7, TranspositionTable.EXACT, 3, SEARCH_DEPTH, null);
+		transpositionTable.find(35);
+		transpositionTable.clear();
+		assertEquals(0, transpositionTable.countEntries());
+		assertEquals(0, transpositionTable.getHits());
+		assertEquals(0, transpositionTable.getStores());
+		assertEquals(-1, transpositionTable.find(35));
+	}
+}
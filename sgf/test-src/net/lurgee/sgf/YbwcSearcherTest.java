@@ -0,0 +1,203 @@
+/*
+ * @(#)YbwcSearcherTest.java		2026/10/18
+ *
+ * Part of the strategy game framework.
+ * Copyright (c) Michael Patricios, lurgee.net.
+ *
+ */
+
+package net.lurgee.sgf;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Unit tests for {@link YbwcSearcher}.
+ * @author mpatric
+ */
+public class YbwcSearcherTest extends TestCase {
+
+	private static final boolean BYE_ALLOWED = true;
+	private static final TestPlayer PLAYER1 = TestPlayer.getInstance(1);
+	private static final int TREE_DEPTH = 3;
+	private static final int THREAD_COUNT = 2;
+
+	private TestEvaluator evaluator = new TestEvaluator();
+	private TestBoard board;
+	private TestSearchProgressListener searchProgressListener;
+	private GameContext gameContext;
+	private YbwcSearcher searcher;
+
+	@Override
+	protected void setUp() throws Exception {
+		Player[] players = new Player[] {TestPlayer.getInstance(1), TestPlayer.getInstance(2)};
+		ObjectPool testBoardPool = new ObjectPool(TestBoard.class);
+		TestMoveFactory testMoveFactory = new TestMoveFactory();
+		gameContext = new GameContext(players, testBoardPool, testMoveFactory, false);
+		TestBoard.infiniteGameTree = false;
+		TestBoard.noMoveSituation = false;
+		board = (TestBoard) gameContext.checkOutBoard();
+		board.initialise();
+		board.setCurrentPlayer(PLAYER1);
+		board.setState('A');
+		searchProgressListener = new TestSearchProgressListener();
+		searcher = new YbwcSearcher(gameContext, null, evaluator, BYE_ALLOWED, THREAD_COUNT);
+		searcher.setMinSplitDepth(2);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		searcher.shutdown();
+		gameContext.checkInBoard(board);
+	}
+
+	public void testShouldFindBestMove() throws Exception {
+		Debug.output("testShouldFindBestMove");
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		Debug.output("BEST move = " + move.getPosition().getValue() + " score = " + searcher.getBestMoveScore() + " player = " + PLAYER1);
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertTrue(searcher.getSplitCount() > 0);
+	}
+
+	public void testShouldFindBestMoveWithOneThread() throws Exception {
+		Debug.output("testShouldFindBestMoveWithOneThread");
+		searcher = new YbwcSearcher(gameContext, null, evaluator, BYE_ALLOWED, 1);
+		searcher.addSearchProgressListener(searchProgressListener);
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertEquals(0, searcher.getSplitCount());
+		char[] expectedBranches = {'B', 'D', 'H', 'I', 'J', 'E', 'K', 'C', 'F', 'M'};
+		assertTrue(Arrays.equals(expectedBranches, searchProgressListener.getBranches()));
+	}
+
+	public void testShouldNotSplitNodesBelowMinSplitDepth() throws Exception {
+		Debug.output("testShouldNotSplitNodesBelowMinSplitDepth");
+		searcher.setMinSplitDepth(TREE_DEPTH + 1);
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertEquals(0, searcher.getSplitCount());
+	}
+
+	public void testShouldNotAllowMinSplitDepthLessThanTwo() throws Exception {
+		Debug.output("testShouldNotAllowMinSplitDepthLessThanTwo");
+		try {
+			searcher.setMinSplitDepth(1);
+			fail("Expected exception not thrown");
+		} catch (IllegalArgumentException e) {
+			// pass
+		}
+	}
+
+	public void testShouldFindBestMoveWithABoardWithANoMoveSituationWithByesAllowed() throws Exception {
+		Debug.output("testShouldFindBestMoveWithABoardWithANoMoveSituationWithByesAllowed");
+		TestBoard.noMoveSituation = true;
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('R', move.getPosition().getValue());
+		assertEquals(-6, searcher.getBestMoveScore());
+	}
+
+	public void testShouldFindSameBestMoveSearchingInPlace() throws Exception {
+		Debug.output("testShouldFindSameBestMoveSearchingInPlace");
+		searcher.setSearchInPlace(true);
+		searcher.setMinSplitDepth(TREE_DEPTH);
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, searcher.getBestMoveScore());
+		assertEquals('A', board.getState());
+	}
+
+	public void testShouldReportSearchProgressForAllThreads() throws Exception {
+		Debug.output("testShouldReportSearchProgressForAllThreads");
+		searcher.addSearchProgressListener(searchProgressListener);
+		searcher.findMove(board, null, TREE_DEPTH);
+		assertEquals(1, searchProgressListener.getLastIteration());
+		assertEquals(TREE_DEPTH, searchProgressListener.getLastIterationEndDepth());
+		char[] branches = searchProgressListener.getBranches();
+		Arrays.sort(branches);
+		assertEquals('B', branches[0]);
+		assertEquals('C', branches[1]);
+		assertTrue(searchProgressListener.getLeafScores().length > 0);
+		assertEquals(searchProgressListener.getLeafScores().length, searcher.getEvaluationCount());
+	}
+
+	public void testShouldCountEvaluationsForAllThreadsWhetherOrNotProgressIsReported() throws Exception {
+		Debug.output("testShouldCountEvaluationsForAllThreadsWhetherOrNotProgressIsReported");
+		searcher.findMove(board, null, TREE_DEPTH);
+		assertTrue(searcher.getEvaluationCount() > 0);
+		assertEquals(searcher.getSearchStatistics().getLeafCount(), searcher.getEvaluationCount());
+		searcher.addSearchProgressListener(searchProgressListener);
+		searcher.findMove(board, null, TREE_DEPTH);
+		int leafCount = searchProgressListener.getLeafScores().length;
+		assertEquals(leafCount, searcher.getEvaluationCount());
+		searcher.removeSearchProgressListener(searchProgressListener);
+		searcher.findMove(board, null, TREE_DEPTH);
+		assertEquals(leafCount, searchProgressListener.getLeafScores().length);
+		assertEquals(searcher.getSearchStatistics().getLeafCount(), searcher.getEvaluationCount());
+	}
+
+	public void testShouldCollectSearchStatisticsFromAllThreads() throws Exception {
+		Debug.output("testShouldCollectSearchStatisticsFromAllThreads");
+		searcher.addSearchProgressListener(searchProgressListener);
+		searcher.findMove(board, null, TREE_DEPTH);
+		SearchStatistics searchStatistics = searcher.getSearchStatistics();
+		assertEquals(searcher.getEvaluationCount(), searchStatistics.getLeafCount());
+		// moves at split points that fail high are searched again, so there may be more nodes than branches
+		assertTrue(searchStatistics.getNodeCount() >= searchProgressListener.getBranches().length + 1);
+		assertEquals(1, searchStatistics.getNodeCount(0));
+		assertTrue(searchStatistics.getCutoffCount() > 0);
+	}
+
+	public void testShouldWorkWithIterativeSearcher() throws Exception {
+		Debug.output("testShouldWorkWithIterativeSearcher");
+		IterativeSearcher iterativeSearcher = new IterativeSearcher(searcher, null);
+		KillerHeuristicMoveRanker moveRanker = new KillerHeuristicMoveRanker(new TestMoveRanker(), 2);
+		TestMove move = (TestMove) (iterativeSearcher.findMove(board, moveRanker, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+		assertEquals(-3, iterativeSearcher.getBestMoveScore());
+	}
+
+	public void testShouldEndSearchIfThresholdReached() throws Exception {
+		Debug.output("testShouldEndSearchIfThresholdReached");
+		TestBoard.infiniteGameTree = true;
+		searcher.addSearchProgressListener(searchProgressListener);
+		try {
+			searcher.findMove(board, null, 14, 20);
+			fail("Expected exception not thrown");
+		} catch (SearchThresholdReachedException e) {
+			// pass
+			assertEquals(1, searchProgressListener.getLastIteration());
+			assertEquals(0, searchProgressListener.getLastCompleteIteration());
+			// the threads reserve evaluations from a shared count, so together they do no more than the threshold
+			assertTrue(searcher.getEvaluationCount() <= 20);
+			assertTrue(searcher.getEvaluationCount() > 20 - THREAD_COUNT);
+		}
+	}
+
+	public void testShouldEndSearchIfAborted() throws Exception {
+		Debug.output("testShouldEndSearchIfAborted");
+		TestBoard.infiniteGameTree = true;
+		searcher.addSearchProgressListener(new TestSearchProgressListener() {
+			@Override
+			public void onLeafEvaluation(int score, Player player, int depth) {
+				super.onLeafEvaluation(score, player, depth);
+				if (getLeafScores().length == 20) {
+					searcher.abortSearch();
+				}
+			}
+		});
+		try {
+			searcher.findMove(board, null, 14);
+			fail("Expected exception not thrown");
+		} catch (AbortException e) {
+			// pass
+			assertTrue(searcher.isAborted());
+		}
+		TestBoard.infiniteGameTree = false;
+		TestMove move = (TestMove) (searcher.findMove(board, null, TREE_DEPTH));
+		assertEquals('B', move.getPosition().getValue());
+	}
+}